@@ -0,0 +1,87 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.analysis;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+
+/**
+ * Analysis preferences which don't depend on the plugin preferences (used when the analysis is run outside of
+ * eclipse). Starts with the same defaults used in the IDE and severities may be changed later on.
+ */
+public class BatchAnalysisPreferences extends AbstractAnalysisPreferences {
+
+    private final Map<Integer, Integer> severityTypeMap = new HashMap<Integer, Integer>();
+
+    public BatchAnalysisPreferences() {
+        for (int i = 0; i < AnalysisPreferences.completeSeverityMap.length; i++) {
+            Object[] s = AnalysisPreferences.completeSeverityMap[i];
+            severityTypeMap.put((Integer) s[0], (Integer) s[2]);
+        }
+        //Same as in AnalysisPreferences: force it to be disabled for now.
+        severityTypeMap.put(IAnalysisPreferences.TYPE_ARGUMENTS_MISATCH, IMarker.SEVERITY_INFO);
+    }
+
+    public void setSeverityForType(int type, int severity) {
+        severityTypeMap.put(type, severity);
+    }
+
+    public int getSeverityForType(int type) {
+        Integer sev = severityTypeMap.get(type);
+        if (sev == null) {
+            throw new RuntimeException("Unable to get severity for: " + type);
+        }
+        return sev;
+    }
+
+    public boolean makeCodeAnalysis() {
+        return true;
+    }
+
+    public Set<String> getNamesIgnoredByUnusedVariable() {
+        return getSetOfNames(AnalysisPreferenceInitializer.DEFAULT_NAMES_TO_IGNORE_UNUSED_VARIABLE);
+    }
+
+    public Set<String> getTokensAlwaysInGlobals() {
+        return getSetOfNames(AnalysisPreferenceInitializer.DEFAULT_NAMES_TO_CONSIDER_GLOBALS);
+    }
+
+    public Set<String> getModuleNamePatternsToBeIgnored() {
+        HashSet<String> ret = new HashSet<String>();
+        for (String string : getSetOfNames(AnalysisPreferenceInitializer.DEFAULT_NAMES_TO_IGNORE_UNUSED_IMPORT)) {
+            //we have to make it a regular expression as java requires, so * is actually .*
+            ret.add(string.replaceAll("\\*", ".*"));
+        }
+        return ret;
+    }
+
+    private Set<String> getSetOfNames(String string) {
+        HashSet<String> names = new HashSet<String>();
+        String[] strings = string.split(",");
+        for (int i = 0; i < strings.length; i++) {
+            names.add(strings[i].trim());
+        }
+        return names;
+    }
+
+    public int getWhenAnalyze() {
+        return AnalysisPreferenceInitializer.DEFAULT_WHEN_ANALYZE;
+    }
+
+    public void clearCaches() {
+        //no caches
+    }
+}
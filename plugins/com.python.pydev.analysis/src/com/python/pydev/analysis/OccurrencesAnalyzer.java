@@ -11,6 +11,7 @@ package com.python.pydev.analysis;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -19,9 +20,11 @@ import org.eclipse.jface.text.IDocument;
 import org.python.pydev.builder.pep8.Pep8Visitor;
 import org.python.pydev.core.IIndentPrefs;
 import org.python.pydev.core.IPythonNature;
+import org.python.pydev.core.concurrency.ConcurrentStages;
 import org.python.pydev.core.log.Log;
 import org.python.pydev.editor.codecompletion.revisited.modules.SourceModule;
 import org.python.pydev.parser.jython.SimpleNode;
+import org.python.pydev.shared_core.callbacks.ICallback2;
 
 import com.python.pydev.analysis.messages.IMessage;
 import com.python.pydev.analysis.tabnanny.TabNanny;
@@ -34,9 +37,112 @@ import com.python.pydev.analysis.visitors.OccurrencesVisitor;
  */
 public class OccurrencesAnalyzer {
 
+    /**
+     * The stages of the analysis (see: analyzeDocument).
+     */
+    public static final int STAGE_VISITOR = 0;
+    public static final int STAGE_TABNANNY = 1;
+    public static final int STAGE_PEP8 = 2;
+
+    private static final int TOTAL_STAGES = 3;
+
+    /**
+     * @return the stage which generates messages of the given type (IAnalysisPreferences.TYPE_XXX).
+     */
+    public static int getStage(int messageType) {
+        switch (messageType) {
+            case IAnalysisPreferences.TYPE_INDENTATION_PROBLEM:
+                return STAGE_TABNANNY;
+            case IAnalysisPreferences.TYPE_PEP8:
+                return STAGE_PEP8;
+            default:
+                return STAGE_VISITOR;
+        }
+    }
+
     public IMessage[] analyzeDocument(IPythonNature nature, SourceModule module, IAnalysisPreferences prefs,
             IDocument document, IProgressMonitor monitor, IIndentPrefs indentPrefs) {
+        return analyzeDocument(nature, module, prefs, document, monitor, indentPrefs, null);
+    }
+
+    /**
+     * The analysis is done in independent stages which run concurrently: the occurrences visitor (which works on
+     * the AST), the tab nanny and pep8 (which only work on the document).
+     * 
+     * @param onPartialResults if not null, it's called (in the calling thread) with the messages of the stages
+     * finished so far and the stages finished (indexed by STAGE_XXX) whenever a stage finishes and others are still
+     * running (so that the messages of fast stages may be shown before the slow ones are done).
+     * 
+     * @return all the messages found.
+     */
+    public IMessage[] analyzeDocument(final IPythonNature nature, final SourceModule module,
+            final IAnalysisPreferences prefs, final IDocument document, final IProgressMonitor monitor,
+            final IIndentPrefs indentPrefs, final ICallback2<Object, IMessage[], boolean[]> onPartialResults) {
+
+        ConcurrentStages<List<IMessage>> stages = new ConcurrentStages<List<IMessage>>();
+
+        //Note: the stages must be added in the order of STAGE_XXX.
+        stages.addStage(new Callable<List<IMessage>>() {
+
+            public List<IMessage> call() throws Exception {
+                return visitOccurrences(nature, module, prefs, document, monitor);
+            }
+        });
+
+        stages.addStage(new Callable<List<IMessage>>() {
+
+            public List<IMessage> call() throws Exception {
+                if (monitor.isCanceled()) {
+                    return new ArrayList<IMessage>();
+                }
+                try {
+                    return TabNanny.analyzeDoc(document, prefs, module.getName(), indentPrefs, monitor);
+                } catch (Exception e) {
+                    Log.log(e); //just to be safe... (could happen if the document changes during the process).
+                }
+                return new ArrayList<IMessage>();
+            }
+        });
+
+        stages.addStage(new Callable<List<IMessage>>() {
+
+            public List<IMessage> call() throws Exception {
+                if (monitor.isCanceled()) {
+                    return new ArrayList<IMessage>();
+                }
+                return new Pep8Visitor().getMessages(module, document, monitor, prefs);
+            }
+        });
 
+        final List<IMessage> partial = new ArrayList<IMessage>();
+        final boolean[] finished = new boolean[TOTAL_STAGES];
+        final int[] finishedStages = new int[] { 0 };
+        List<List<IMessage>> results = stages.run(new ICallback2<Object, Integer, List<IMessage>>() {
+
+            public Object call(Integer stage, List<IMessage> messages) {
+                finished[stage] = true;
+                finishedStages[0]++;
+                if (onPartialResults != null && finishedStages[0] < TOTAL_STAGES && !monitor.isCanceled()) {
+                    partial.addAll(messages);
+                    onPartialResults.call(partial.toArray(new IMessage[partial.size()]), finished.clone());
+                }
+                return null;
+            }
+        });
+
+        //The final result is always in the order of the stages (regardless of the order in which they finished).
+        List<IMessage> messages = new ArrayList<IMessage>();
+        if (!monitor.isCanceled()) {
+            for (List<IMessage> list : results) {
+                messages.addAll(list);
+            }
+        }
+
+        return messages.toArray(new IMessage[messages.size()]);
+    }
+
+    private List<IMessage> visitOccurrences(IPythonNature nature, SourceModule module, IAnalysisPreferences prefs,
+            IDocument document, IProgressMonitor monitor) {
         OccurrencesVisitor visitor = new OccurrencesVisitor(nature, module.getName(), module, prefs, document, monitor);
         try {
             SimpleNode ast = module.getAst();
@@ -55,21 +161,10 @@ public class OccurrencesAnalyzer {
             Log.log(IStatus.ERROR, ("Error while visiting " + module.getName() + " (" + module.getFile() + ")"), e);
         }
 
-        List<IMessage> messages = new ArrayList<IMessage>();
-        if (!monitor.isCanceled()) {
-            messages = visitor.getMessages();
-            try {
-                messages.addAll(TabNanny.analyzeDoc(document, prefs, module.getName(), indentPrefs, monitor));
-            } catch (Exception e) {
-                Log.log(e); //just to be safe... (could happen if the document changes during the process).
-            }
-        }
-
-        if (!monitor.isCanceled()) {
-            messages.addAll(new Pep8Visitor().getMessages(module, document, monitor, prefs));
+        if (monitor.isCanceled()) {
+            return new ArrayList<IMessage>();
         }
-
-        return messages.toArray(new IMessage[messages.size()]);
+        return visitor.getMessages();
     }
 
 }
@@ -14,7 +14,6 @@ import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
 import java.util.SortedMap;
 
@@ -45,6 +44,7 @@ import org.eclipse.ui.WorkbenchException;
 import org.eclipse.ui.XMLMemento;
 import org.eclipse.ui.actions.WorkingSetFilterActionGroup;
 import org.eclipse.ui.dialogs.FilteredItemsSelectionDialog;
+import org.eclipse.ui.dialogs.SearchPattern;
 import org.eclipse.ui.statushandlers.StatusManager;
 import org.python.pydev.core.ICodeCompletionASTManager;
 import org.python.pydev.core.IInterpreterInfo;
@@ -55,6 +55,7 @@ import org.python.pydev.core.log.Log;
 import org.python.pydev.plugin.PydevPlugin;
 import org.python.pydev.plugin.nature.PythonNature;
 import org.python.pydev.shared_core.callbacks.CallbackWithListeners;
+import org.python.pydev.shared_core.callbacks.ICallback;
 import org.python.pydev.shared_core.callbacks.ICallbackWithListeners;
 import org.python.pydev.shared_core.structure.Tuple;
 import org.python.pydev.shared_ui.utils.IViewWithControls;
@@ -78,6 +79,11 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
 
     private static final String WORKINGS_SET_SETTINGS = "WorkingSet"; //$NON-NLS-1$
 
+    /**
+     * The maximum number of tokens gotten from each additional info for a given pattern.
+     */
+    private static final int MAX_RESULTS_PER_INFO = 5000;
+
     private WorkingSetFilterActionGroup workingSetFilterActionGroup;
 
     private CustomWorkingSetFilter workingSetFilter = new CustomWorkingSetFilter();
@@ -231,7 +237,8 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
                         setSubtitle(null);
                     }
 
-                    scheduleRefresh();
+                    //The search must be done again (only the tokens in the working set are gotten in the search).
+                    applyFilter();
                 }
             }
         });
@@ -374,8 +381,8 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
     }
 
     /**
-     * This is the place where we put all the info in the content provider. Note that here we must add
-     * ALL the info -- later, we'll filter it based on the active working set.
+     * This is the place where we put the info in the content provider. Note that the info is only searched
+     * in the active working set (the filter is created again when the working set changes).
      */
     @Override
     protected void fillContentProvider(AbstractContentProvider contentProvider, ItemsFilter itemsFilter,
@@ -385,7 +392,8 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
                 progressMonitor.beginTask("Searching...", this.additionalInfo.size());
             }
 
-            for (AbstractAdditionalTokensInfo additionalInfo : this.additionalInfo) {
+            boolean truncated = false;
+            for (final AbstractAdditionalTokensInfo additionalInfo : this.additionalInfo) {
                 if (progressMonitor != null) {
                     if (progressMonitor.isCanceled()) {
                         return;
@@ -393,8 +401,25 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
                         progressMonitor.worked(1);
                     }
                 }
-                Collection<IInfo> allTokens = new HashSet<IInfo>(additionalInfo.getAllTokens()); //no duplicates
-                for (IInfo iInfo : allTokens) {
+                //Only get the candidates that may match (and at most MAX_RESULTS_PER_INFO of those). As the
+                //results are limited, the working set is already checked here (otherwise the limit could be
+                //reached with tokens which are later filtered out by the working set).
+                final InfoFilter infoFilter = (InfoFilter) itemsFilter;
+                Tuple<List<IInfo>, Boolean> found = additionalInfo.getNameSearchIndex().search(
+                        infoFilter.getPattern(), MAX_RESULTS_PER_INFO, new ICallback<Boolean, IInfo>() {
+
+                            public Boolean call(IInfo arg) {
+                                return arg.getName() != null && MatchHelper.matchItem(infoFilter.getMatcher(), arg)
+                                        && workingSetFilter.select(null, null,
+                                                new AdditionalInfoAndIInfo(additionalInfo, arg));
+                            }
+                        });
+                if (found.o2) {
+                    //As we didn't get all the matches, narrowing the pattern must search again.
+                    infoFilter.truncated = true;
+                    truncated = true;
+                }
+                for (IInfo iInfo : found.o1) {
                     contentProvider.add(new AdditionalInfoAndIInfo(additionalInfo, iInfo), itemsFilter);
                 }
 
@@ -432,6 +457,9 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
                     }
                 }
             }
+            if (progressMonitor == null || !progressMonitor.isCanceled()) {
+                showTruncatedStatus(truncated);
+            }
         }
 
         if (progressMonitor != null) {
@@ -440,6 +468,39 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
 
     }
 
+    /**
+     * Whether the status is currently showing that not all the matches are shown (only accessed in the UI thread).
+     */
+    private boolean showingTruncatedStatus;
+
+    /**
+     * Shows to the user whether the last search had more matches than the ones shown.
+     */
+    private void showTruncatedStatus(final boolean truncated) {
+        Shell shell = getShell();
+        if (shell == null || shell.isDisposed()) {
+            return;
+        }
+        shell.getDisplay().asyncExec(new Runnable() {
+
+            public void run() {
+                Shell shell = getShell();
+                if (shell == null || shell.isDisposed() || truncated == showingTruncatedStatus) {
+                    return;
+                }
+                showingTruncatedStatus = truncated;
+                if (truncated) {
+                    updateStatus(new Status(IStatus.WARNING, AnalysisPlugin.getPluginID(), IStatus.WARNING,
+                            "Too many matches: only the first " + MAX_RESULTS_PER_INFO
+                                    + " matches of each project/interpreter are shown (use a more specific pattern).",
+                            null));
+                } else {
+                    updateStatus(new Status(IStatus.OK, AnalysisPlugin.getPluginID(), IStatus.OK, "", null));
+                }
+            }
+        });
+    }
+
     /**
      * Viewer filter which filters resources due to current working set
      */
@@ -451,6 +512,10 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
             resourceWorkingSetFilter.setWorkingSet(workingSet);
         }
 
+        public IWorkingSet getWorkingSet() {
+            return resourceWorkingSetFilter.getWorkingSet();
+        }
+
         @Override
         public boolean select(Viewer viewer, Object parentElement, Object element) {
             if (element instanceof AdditionalInfoAndIInfo) {
@@ -471,8 +536,19 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
 
         private String initialPattern;
 
+        /**
+         * Set when not all the matches for this filter were added to the content provider.
+         */
+        private volatile boolean truncated;
+
+        /**
+         * The working set active when the filter was created (the search only gets the tokens in it).
+         */
+        private final IWorkingSet workingSet;
+
         public InfoFilter() {
             super();
+            this.workingSet = workingSetFilter.getWorkingSet();
             //We have to get the actual text from the control, because the 
             Text pattern = (Text) getPatternControl();
             String stringPattern = ""; //$NON-NLS-1$
@@ -503,7 +579,7 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
          */
         @Override
         public boolean isSubFilter(ItemsFilter filter) {
-            if (!(filter instanceof InfoFilter)) {
+            if (!(filter instanceof InfoFilter) || truncated || ((InfoFilter) filter).workingSet != workingSet) {
                 return false;
             }
 
@@ -515,7 +591,7 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
          */
         @Override
         public boolean equalsFilter(ItemsFilter filter) {
-            if (!(filter instanceof InfoFilter)) {
+            if (!(filter instanceof InfoFilter) || ((InfoFilter) filter).workingSet != workingSet) {
                 return false;
             }
             return MatchHelper.equalsFilter(this.initialPattern, ((InfoFilter) filter).initialPattern);
@@ -533,6 +609,13 @@ public class GlobalsTwoPanelElementSelector2 extends FilteredItemsSelectionDialo
             return MatchHelper.matchItem(patternMatcher, info.info);
         }
 
+        /**
+         * @return the matcher used for this filter.
+         */
+        public SearchPattern getMatcher() {
+            return patternMatcher;
+        }
+
     }
 
     /**
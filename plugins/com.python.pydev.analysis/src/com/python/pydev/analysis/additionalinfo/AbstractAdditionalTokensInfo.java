@@ -47,6 +47,9 @@ import org.python.pydev.parser.jython.ast.NameTok;
 import org.python.pydev.parser.visitors.NodeUtils;
 import org.python.pydev.parser.visitors.scope.ASTEntry;
 import org.python.pydev.parser.visitors.scope.DefinitionsASTIteratorVisitor;
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.metrics.LatencyTimer;
+import org.python.pydev.shared_core.metrics.Metrics;
 import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.string.StringUtils;
 import org.python.pydev.shared_core.structure.FastStack;
@@ -94,6 +97,9 @@ public abstract class AbstractAdditionalTokensInfo {
      */
     private static final boolean DEBUG_ADDITIONAL_INFO = false;
 
+    private static final LatencyTimer addAstInfoTimer = Metrics.timer("index.add_ast_info");
+    private static final LatencyTimer queryTimer = Metrics.timer("index.query");
+
     /**
      * Defines that some operation should be done on top level tokens
      */
@@ -119,11 +125,17 @@ public abstract class AbstractAdditionalTokensInfo {
      */
     protected SortedMap<String, Set<IInfo>> innerInitialsToInfo = new PyPublicTreeMap<String, Set<IInfo>>();
 
+    /**
+     * Index used to search the names (lazily created and discarded whenever the info changes).
+     */
+    private volatile NameSearchIndex nameSearchIndex;
+
     /**
      * Should be used before re-creating the info, so that we have enough memory. 
      */
     public void clearAllInfo() {
         synchronized (lock) {
+            nameSearchIndex = null;
             if (topLevelInitialsToInfo != null) {
                 topLevelInitialsToInfo.clear();
             }
@@ -212,6 +224,7 @@ public abstract class AbstractAdditionalTokensInfo {
             }
             Set<IInfo> listForInitials = getAndCreateListForInitials(initials, initialsToInfo);
             listForInitials.add(info);
+            nameSearchIndex = null;
         }
     }
 
@@ -325,6 +338,7 @@ public abstract class AbstractAdditionalTokensInfo {
         if (node == null || key.name == null) {
             return createdInfos;
         }
+        long start = addAstInfoTimer.start();
         try {
             Tuple<DefinitionsASTIteratorVisitor, Iterator<ASTEntry>> tup = getInnerEntriesForAST(node);
             if (DebugSettings.DEBUG_ANALYSIS_REQUESTS) {
@@ -422,6 +436,7 @@ public abstract class AbstractAdditionalTokensInfo {
         } catch (Exception e) {
             Log.log(e);
         }
+        addAstInfoTimer.stop(start);
         return createdInfos;
     }
 
@@ -538,6 +553,7 @@ public abstract class AbstractAdditionalTokensInfo {
         synchronized (lock) {
             removeInfoFromMap(moduleName, topLevelInitialsToInfo);
             removeInfoFromMap(moduleName, innerInitialsToInfo);
+            nameSearchIndex = null;
         }
 
     }
@@ -595,6 +611,7 @@ public abstract class AbstractAdditionalTokensInfo {
 
     protected Collection<IInfo> getWithFilter(String qualifier, int getWhat, Filter filter, boolean useLowerCaseQual,
             Collection<IInfo> result) {
+        long start = queryTimer.start();
         synchronized (lock) {
             if (result == null) {
                 result = new ArrayList<IInfo>();
@@ -606,6 +623,7 @@ public abstract class AbstractAdditionalTokensInfo {
             if ((getWhat & INNER) != 0) {
                 getWithFilter(qualifier, innerInitialsToInfo, result, filter, useLowerCaseQual);
             }
+            queryTimer.stop(start);
             return result;
         }
     }
@@ -661,6 +679,24 @@ public abstract class AbstractAdditionalTokensInfo {
         }
     }
 
+    /**
+     * @return an index to search the names of all the tokens in this info (top level or inner). It's created on
+     * the first request and kept until the info changes.
+     */
+    public NameSearchIndex getNameSearchIndex() {
+        NameSearchIndex index = nameSearchIndex;
+        if (index == null) {
+            synchronized (lock) {
+                index = nameSearchIndex;
+                if (index == null) {
+                    index = new NameSearchIndex(getAllTokens());
+                    nameSearchIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
     /**
      * this can be used to save the file
      */
@@ -681,9 +717,15 @@ public abstract class AbstractAdditionalTokensInfo {
 
     }
 
+    /**
+     * Note: the contents are written to a temporary file which then replaces the previous one (so, if the process
+     * is killed while saving, the previous version is still available in the next startup, instead of a partially
+     * written file which would force the whole info to be recreated).
+     */
     protected void save(File persistingLocation) {
         try {
-            FileOutputStream stream = new FileOutputStream(persistingLocation);
+            File tempFile = new File(persistingLocation.getPath() + ".tmp");
+            FileOutputStream stream = new FileOutputStream(tempFile);
             OutputStreamWriter writer = new OutputStreamWriter(stream);
             try {
                 FastStringBuffer tempBuf = new FastStringBuffer();
@@ -701,6 +743,7 @@ public abstract class AbstractAdditionalTokensInfo {
                     stream.close();
                 }
             }
+            FileUtils.replaceFile(tempFile, persistingLocation);
         } catch (Exception e) {
             Log.log(e);
         }
@@ -760,6 +803,7 @@ public abstract class AbstractAdditionalTokensInfo {
 
             this.topLevelInitialsToInfo = o1;
             this.innerInitialsToInfo = o2;
+            this.nameSearchIndex = null;
             if (readFromFile.o3 != null) {
                 //may be null in new format (where that's checked during load time).
                 if (AbstractAdditionalTokensInfo.version != (Integer) readFromFile.o3) {
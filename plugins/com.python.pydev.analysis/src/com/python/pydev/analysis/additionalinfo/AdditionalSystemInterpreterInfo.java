@@ -12,6 +12,7 @@
 package com.python.pydev.analysis.additionalinfo;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -26,6 +27,7 @@ import org.python.pydev.core.ISystemModulesManager;
 import org.python.pydev.core.MisconfigurationException;
 import org.python.pydev.core.docutils.PyStringUtils;
 import org.python.pydev.core.log.Log;
+import org.python.pydev.editor.codecompletion.revisited.WorkspaceIndexSnapshot;
 import org.python.pydev.shared_core.structure.Tuple;
 import org.python.pydev.ui.interpreters.PythonInterpreterManager;
 import org.python.pydev.ui.pythonpathconf.InterpreterInfo;
@@ -90,22 +92,19 @@ public class AdditionalSystemInterpreterInfo extends AbstractAdditionalInfoWithB
 
     public AdditionalSystemInterpreterInfo(IInterpreterManager manager, String interpreter)
             throws MisconfigurationException {
+        this(manager, interpreter, getDefaultPersistingFolder(manager, interpreter));
+    }
+
+    /**
+     * @param file the folder where the info should be persisted (i.e.: to create an index snapshot outside of the
+     * plugin state location).
+     */
+    public AdditionalSystemInterpreterInfo(IInterpreterManager manager, String interpreter, File file)
+            throws MisconfigurationException {
         super(false); //don't call init just right now...
         this.manager = manager;
         this.additionalInfoInterpreter = interpreter;
 
-        File base;
-        try {
-            IPath stateLocation = AnalysisPlugin.getDefault().getStateLocation();
-            base = stateLocation.toFile();
-        } catch (Exception e) {
-            //it may fail in tests... (save it in default folder in this cases)
-            Log.logInfo("Error getting persisting folder", e);
-            base = new File(".");
-        }
-        File file = new File(base, manager.getManagerRelatedName() + "_"
-                + PyStringUtils.getExeAsFileSystemValidPath(this.additionalInfoInterpreter));
-
         try {
             if (!file.exists()) {
                 file.mkdirs();
@@ -119,6 +118,28 @@ public class AdditionalSystemInterpreterInfo extends AbstractAdditionalInfoWithB
         init();
     }
 
+    private static File getDefaultPersistingFolder(IInterpreterManager manager, String interpreter) {
+        File base;
+        try {
+            IPath stateLocation = AnalysisPlugin.getDefault().getStateLocation();
+            base = stateLocation.toFile();
+        } catch (Exception e) {
+            //it may fail in tests... (save it in default folder in this cases)
+            Log.logInfo("Error getting persisting folder", e);
+            base = new File(".");
+        }
+        return new File(base, manager.getManagerRelatedName() + "_"
+                + PyStringUtils.getExeAsFileSystemValidPath(interpreter));
+    }
+
+    /**
+     * Marks the currently saved index as being in sync with the keys of the entry with the given id in the
+     * workspace index snapshot (so, it doesn't need to be checked again while the related files don't change).
+     */
+    public void setInSyncInSnapshot(String snapshotId) {
+        WorkspaceIndexSnapshot.getCurrent().setIndexFiles(snapshotId, Arrays.asList(persistingLocation));
+    }
+
     public static AbstractAdditionalDependencyInfo getAdditionalSystemInfo(IInterpreterManager manager,
             String interpreter) throws MisconfigurationException {
         return getAdditionalSystemInfo(manager, interpreter, false);
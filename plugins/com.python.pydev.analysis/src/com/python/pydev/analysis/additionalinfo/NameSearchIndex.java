@@ -0,0 +1,425 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.analysis.additionalinfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.python.pydev.shared_core.callbacks.ICallback;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+import org.python.pydev.shared_core.structure.Tuple;
+
+/**
+ * Searchable index over the names of a set of IInfo (used in the globals browser).
+ *
+ * The infos are kept sorted by their lowercase name and also by their CamelCase humps (i.e.: TestCase is
+ * indexed as 'tc'), so, prefix and CamelCase queries are just a binary search. Wildcard queries are narrowed
+ * through n-gram postings (which are only created in the first query that actually needs them).
+ *
+ * Note that the index only provides candidates: the actual matching is still done by the verifier passed
+ * in the query (so, the semantics of the pattern matching are the same ones from MatchHelper).
+ *
+ * An instance is immutable after created (aside from the lazily created n-grams), so, it may be shared
+ * among threads.
+ */
+public final class NameSearchIndex {
+
+    /**
+     * The size of the n-grams used to narrow the wildcard queries.
+     */
+    public static final int NGRAM_LEN = 3;
+
+    /**
+     * The infos sorted by their lowercase name.
+     */
+    private final IInfo[] infos;
+
+    /**
+     * Parallel to infos (lowercase names).
+     */
+    private final String[] lowerNames;
+
+    /**
+     * The CamelCase humps (sorted).
+     */
+    private final String[] sortedHumps;
+
+    /**
+     * Parallel to sortedHumps: the index in infos for the given humps.
+     */
+    private final int[] humpsToInfo;
+
+    /**
+     * n-gram -> indexes in infos (ascending). Lazily created.
+     */
+    private volatile Map<String, int[]> ngrams;
+
+    private final Object ngramsLock = new Object();
+
+    private static final class Entry {
+        private final String key;
+        private final int index;
+        private final IInfo info;
+
+        private Entry(String key, int index, IInfo info) {
+            this.key = key;
+            this.index = index;
+            this.info = info;
+        }
+    }
+
+    private static final Comparator<Entry> ENTRY_COMPARATOR = new Comparator<Entry>() {
+
+        public int compare(Entry o1, Entry o2) {
+            int r = o1.key.compareTo(o2.key);
+            if (r != 0) {
+                return r;
+            }
+            if (o1.info != null && o2.info != null) {
+                r = o1.info.getName().compareTo(o2.info.getName());
+                if (r != 0) {
+                    return r;
+                }
+                String m1 = o1.info.getDeclaringModuleName();
+                String m2 = o2.info.getDeclaringModuleName();
+                if (m1 != null && m2 != null) {
+                    return m1.compareTo(m2);
+                }
+            }
+            return o1.index < o2.index ? -1 : (o1.index == o2.index ? 0 : 1);
+        }
+    };
+
+    /**
+     * @param allInfo the infos to be indexed (duplicates and infos without a name are removed).
+     */
+    public NameSearchIndex(Collection<IInfo> allInfo) {
+        HashSet<IInfo> noDuplicates = new HashSet<IInfo>(allInfo);
+        ArrayList<Entry> named = new ArrayList<Entry>(noDuplicates.size());
+        for (IInfo info : noDuplicates) {
+            String name = info.getName();
+            if (name == null) {
+                continue; //can't be matched by name
+            }
+            named.add(new Entry(name.toLowerCase(), named.size(), info));
+        }
+        noDuplicates = null;
+        int size = named.size();
+        int i;
+
+        Entry[] entries = named.toArray(new Entry[size]);
+        named = null;
+        Arrays.sort(entries, ENTRY_COMPARATOR);
+
+        infos = new IInfo[size];
+        lowerNames = new String[size];
+        Entry[] humps = new Entry[size];
+        for (i = 0; i < size; i++) {
+            Entry entry = entries[i];
+            infos[i] = entry.info;
+            lowerNames[i] = entry.key;
+            humps[i] = new Entry(getHumps(entry.info.getName()), i, null);
+        }
+        entries = null;
+        Arrays.sort(humps, ENTRY_COMPARATOR);
+
+        sortedHumps = new String[size];
+        humpsToInfo = new int[size];
+        for (i = 0; i < size; i++) {
+            sortedHumps[i] = humps[i].key;
+            humpsToInfo[i] = humps[i].index;
+        }
+    }
+
+    /**
+     * @return the number of (unique) infos available.
+     */
+    public int size() {
+        return infos.length;
+    }
+
+    /**
+     * @return the CamelCase humps of a name in lowercase: the first char and each uppercase char after it
+     * (i.e.: TestCase = tc, getFileName = gfn).
+     */
+    public static String getHumps(String name) {
+        int len = name.length();
+        if (len == 0) {
+            return name;
+        }
+        FastStringBuffer buf = new FastStringBuffer(8);
+        buf.append(Character.toLowerCase(name.charAt(0)));
+        for (int i = 1; i < len; i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                buf.append(Character.toLowerCase(c));
+            }
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Searches the infos which match the given pattern.
+     *
+     * @param pattern the pattern typed by the user (if dotted, only the last part is used to get the candidates,
+     * the remainder is up to the verifier).
+     * @param maxResults the maximum number of results to be returned (the results are gotten in the order of the
+     * names, so, those are the top-k results in the dialog).
+     * @param verifier returns whether a given candidate actually matches the pattern.
+     *
+     * @return a tuple with the matches and a boolean indicating whether the search stopped before checking all the
+     * candidates (i.e.: there may be more matches than the ones returned).
+     */
+    public Tuple<List<IInfo>, Boolean> search(String pattern, int maxResults, ICallback<Boolean, IInfo> verifier) {
+        List<IInfo> ret = new ArrayList<IInfo>();
+        int[] candidates = getCandidates(pattern);
+        int len = candidates == null ? infos.length : candidates.length;
+
+        for (int i = 0; i < len; i++) {
+            if (ret.size() >= maxResults) {
+                return new Tuple<List<IInfo>, Boolean>(ret, true);
+            }
+            IInfo info = infos[candidates == null ? i : candidates[i]];
+            if (verifier.call(info)) {
+                ret.add(info);
+            }
+        }
+        return new Tuple<List<IInfo>, Boolean>(ret, false);
+    }
+
+    /**
+     * @return the indexes of the infos (ascending) which may match the given pattern or null if all the infos
+     * must be considered.
+     */
+    /*default*/int[] getCandidates(String pattern) {
+        String namePart = getNamePart(pattern);
+        if (namePart.length() == 0) {
+            return null;
+        }
+
+        if (namePart.indexOf('*') != -1 || namePart.indexOf('?') != -1) {
+            char c = namePart.charAt(0);
+            if (c != '*' && c != '?') {
+                int end = 0;
+                for (; end < namePart.length(); end++) {
+                    c = namePart.charAt(end);
+                    if (c == '*' || c == '?') {
+                        break;
+                    }
+                }
+                return getPrefixRange(namePart.substring(0, end).toLowerCase());
+            }
+
+            String longest = "";
+            for (String fragment : namePart.split("[\\*\\?]")) {
+                if (fragment.length() > longest.length()) {
+                    longest = fragment;
+                }
+            }
+            if (longest.length() < NGRAM_LEN) {
+                return null;
+            }
+            return getNgramCandidates(longest.toLowerCase());
+        }
+
+        int[] prefixRange = getPrefixRange(namePart.toLowerCase());
+
+        boolean hasHumps = false;
+        for (int i = 1; i < namePart.length(); i++) {
+            if (Character.isUpperCase(namePart.charAt(i))) {
+                hasHumps = true;
+                break;
+            }
+        }
+        if (!hasHumps) {
+            return prefixRange;
+        }
+        return union(prefixRange, getHumpsCandidates(getHumps(namePart)));
+    }
+
+    /**
+     * @return the part of the pattern that should be matched against the name (removing the scopes and
+     * the chars that mean an exact match).
+     */
+    private static String getNamePart(String pattern) {
+        int i = pattern.lastIndexOf('.');
+        if (i != -1) {
+            pattern = pattern.substring(i + 1);
+        }
+        int end = pattern.length();
+        while (end > 0) {
+            char c = pattern.charAt(end - 1);
+            if (c == ' ' || c == '<') {
+                end--;
+            } else {
+                break;
+            }
+        }
+        return pattern.substring(0, end).trim();
+    }
+
+    private int[] getPrefixRange(String lowerPrefix) {
+        int start = lowerBound(lowerNames, lowerPrefix);
+        int end = start;
+        while (end < lowerNames.length && lowerNames[end].startsWith(lowerPrefix)) {
+            end++;
+        }
+        int[] ret = new int[end - start];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = start + i;
+        }
+        return ret;
+    }
+
+    private int[] getHumpsCandidates(String humps) {
+        int start = lowerBound(sortedHumps, humps);
+        int end = start;
+        while (end < sortedHumps.length && sortedHumps[end].startsWith(humps)) {
+            end++;
+        }
+        int[] ret = new int[end - start];
+        System.arraycopy(humpsToInfo, start, ret, 0, ret.length);
+        Arrays.sort(ret);
+        return ret;
+    }
+
+    private int[] getNgramCandidates(String lowerFragment) {
+        Map<String, int[]> map = getNgrams();
+        int[] ret = null;
+        for (int i = 0; i + NGRAM_LEN <= lowerFragment.length(); i++) {
+            int[] postings = map.get(lowerFragment.substring(i, i + NGRAM_LEN));
+            if (postings == null) {
+                return new int[0];
+            }
+            ret = ret == null ? postings : intersect(ret, postings);
+            if (ret.length == 0) {
+                break;
+            }
+        }
+        return ret;
+    }
+
+    private Map<String, int[]> getNgrams() {
+        Map<String, int[]> map = ngrams;
+        if (map == null) {
+            synchronized (ngramsLock) {
+                map = ngrams;
+                if (map == null) {
+                    map = createNgrams();
+                    ngrams = map;
+                }
+            }
+        }
+        return map;
+    }
+
+    private Map<String, int[]> createNgrams() {
+        Map<String, IntList> lists = new HashMap<String, IntList>();
+        for (int i = 0; i < lowerNames.length; i++) {
+            String name = lowerNames[i];
+            for (int j = 0; j + NGRAM_LEN <= name.length(); j++) {
+                String ngram = name.substring(j, j + NGRAM_LEN);
+                IntList list = lists.get(ngram);
+                if (list == null) {
+                    list = new IntList();
+                    lists.put(ngram, list);
+                }
+                list.addIfNotLast(i);
+            }
+        }
+        Map<String, int[]> ret = new HashMap<String, int[]>(lists.size());
+        for (Map.Entry<String, IntList> entry : lists.entrySet()) {
+            ret.put(entry.getKey(), entry.getValue().toArray());
+        }
+        return ret;
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] ret = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                ret[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(ret, k);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] ret = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                ret[k++] = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                ret[k++] = b[j++];
+            } else {
+                ret[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(ret, k);
+    }
+
+    /**
+     * Growable int array (to avoid boxing while creating the postings).
+     */
+    private static final class IntList {
+        private int[] data = new int[4];
+        private int size;
+
+        private void addIfNotLast(int i) {
+            if (size > 0 && data[size - 1] == i) {
+                return;
+            }
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = i;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
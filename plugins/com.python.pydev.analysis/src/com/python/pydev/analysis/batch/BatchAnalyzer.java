@@ -0,0 +1,359 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.analysis.batch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jface.preference.PreferenceStore;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.python.pydev.core.IIndentPrefs;
+import org.python.pydev.core.IInterpreterInfo;
+import org.python.pydev.core.IPythonNature;
+import org.python.pydev.core.ISystemModulesManager;
+import org.python.pydev.core.MisconfigurationException;
+import org.python.pydev.core.ModulesKey;
+import org.python.pydev.core.log.Log;
+import org.python.pydev.editor.autoedit.TestIndentPrefs;
+import org.python.pydev.editor.codecompletion.revisited.PythonPathHelper;
+import org.python.pydev.editor.codecompletion.revisited.modules.AbstractModule;
+import org.python.pydev.editor.codecompletion.revisited.modules.SourceModule;
+import org.python.pydev.parser.PyParser;
+import org.python.pydev.plugin.PydevPlugin;
+import org.python.pydev.plugin.nature.SystemPythonNature;
+import org.python.pydev.plugin.preferences.AbstractPydevPrefs;
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.model.ErrorDescription;
+import org.python.pydev.ui.interpreters.PythonInterpreterManager;
+import org.python.pydev.ui.pythonpathconf.InterpreterInfo;
+
+import com.python.pydev.analysis.BatchAnalysisPreferences;
+import com.python.pydev.analysis.IAnalysisPreferences;
+import com.python.pydev.analysis.OccurrencesAnalyzer;
+import com.python.pydev.analysis.additionalinfo.AbstractAdditionalTokensInfo;
+import com.python.pydev.analysis.additionalinfo.AdditionalSystemInterpreterInfo;
+import com.python.pydev.analysis.builder.AnalysisRunner;
+import com.python.pydev.analysis.messages.IMessage;
+
+/**
+ * Runs the code analysis and creates the index (the same done by the builder in the IDE) without the need for an
+ * eclipse workspace or UI (i.e.: for pre-commit checks or to create index snapshots in build machines).
+ *
+ * The interpreter pythonpath and the source roots are used as the pythonpath of a system interpreter (so, there's
+ * no project involved and the modules in the source roots are resolved as any other module in the pythonpath).
+ *
+ * Usage:
+ *
+ * BatchAnalyzer --interpreter /usr/bin/python --version 2.7 --pythonpath /usr/lib/python2.7|/usr/lib/python2.7/lib-dynload
+ *     [--json report.json] [--junit report.xml] [--index index_folder] [--state state_folder]
+ *     [--tab-width 4] [--use-tabs] source_root1 source_root2 ...
+ *
+ * (or through the com.python.pydev.analysis.batch application with the same arguments).
+ *
+ * The process exits with 1 if some error was found (and 0 otherwise).
+ */
+public final class BatchAnalyzer {
+
+    private final String interpreter;
+    private final String version;
+    private final List<String> interpreterPythonpath;
+    private final List<String> sourceRoots;
+
+    private final IAnalysisPreferences prefs = new BatchAnalysisPreferences();
+    private final AnalysisRunner runner = new AnalysisRunner();
+
+    private PythonInterpreterManager manager;
+    private SystemPythonNature nature;
+
+    /**
+     * Used by the tab nanny and pep8 (defaults to the same defaults of the editor preferences).
+     */
+    private IIndentPrefs indentPrefs = new TestIndentPrefs(AbstractPydevPrefs.DEFAULT_SUBSTITUTE_TABS,
+            AbstractPydevPrefs.DEFAULT_TAB_WIDTH);
+
+    /**
+     * @param interpreter the python executable (used to get the builtins of the compiled modules).
+     * @param version the python version (i.e.: 2.7, 3.3) used to determine the grammar.
+     */
+    public BatchAnalyzer(String interpreter, String version, List<String> interpreterPythonpath,
+            List<String> sourceRoots) {
+        this.interpreter = interpreter;
+        this.version = version;
+        this.interpreterPythonpath = new ArrayList<String>();
+        for (String path : interpreterPythonpath) {
+            this.interpreterPythonpath.add(FileUtils.getFileAbsolutePath(new File(path)));
+        }
+        this.sourceRoots = new ArrayList<String>();
+        for (String path : sourceRoots) {
+            this.sourceRoots.add(FileUtils.getFileAbsolutePath(new File(path)));
+        }
+    }
+
+    public void setIndentPrefs(IIndentPrefs indentPrefs) {
+        this.indentPrefs = indentPrefs;
+    }
+
+    /**
+     * Creates the interpreter (with the interpreter pythonpath and the source roots) and restores its modules.
+     *
+     * @param stateLocation the folder where the modules manager is persisted (used instead of the plugin state
+     * location).
+     */
+    public void restoreInterpreter(File stateLocation, IProgressMonitor monitor) throws MisconfigurationException {
+        stateLocation.mkdirs();
+        PydevPlugin.setStateLocation(stateLocation);
+
+        List<String> pythonpath = new ArrayList<String>(interpreterPythonpath);
+        pythonpath.addAll(sourceRoots);
+
+        manager = new PythonInterpreterManager(new PreferenceStore());
+        manager.setInfos(new IInterpreterInfo[] { new InterpreterInfo(version, interpreter, pythonpath) }, null,
+                monitor);
+        PydevPlugin.setPythonInterpreterManager(manager);
+
+        InterpreterInfo info = (InterpreterInfo) manager.getInterpreterInfo(interpreter, monitor);
+        info.restoreCompiledLibs(monitor);
+        nature = new SystemPythonNature(manager, info);
+    }
+
+    /**
+     * Analyzes all the python files in the source roots (with the interpreter created in restoreInterpreter).
+     */
+    public BatchReport analyze(IProgressMonitor monitor) {
+        return analyze(nature, monitor);
+    }
+
+    /**
+     * Analyzes all the python files in the source roots resolving the modules with the given nature.
+     */
+    public BatchReport analyze(IPythonNature nature, IProgressMonitor monitor) {
+        BatchReport report = new BatchReport();
+        List<File> files = new ArrayList<File>();
+        for (String root : sourceRoots) {
+            collectSourceFiles(new File(root), files);
+        }
+        for (File file : files) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            monitor.setTaskName("Analyzing: " + file);
+            try {
+                analyze(nature, file, report, monitor);
+            } catch (Exception e) {
+                Log.log("Error analyzing: " + file, e);
+            }
+        }
+        return report;
+    }
+
+    private void analyze(IPythonNature nature, File file, BatchReport report, IProgressMonitor monitor)
+            throws Exception {
+        String path = FileUtils.getFileAbsolutePath(file);
+        String moduleName = nature.resolveModule(file);
+        if (moduleName == null) {
+            moduleName = AbstractModule.MODULE_NAME_WHEN_FILE_IS_UNDEFINED;
+        }
+        report.addFile(path, moduleName);
+
+        IDocument doc = new Document(FileUtils.getPyFileContents(file));
+        if (!runner.canDoAnalysis(doc)) {
+            return;
+        }
+        SourceModule module = AbstractModule.createModuleFromDoc(moduleName, file, doc, nature, false);
+        if (module.parseError != null) {
+            ErrorDescription desc = PyParser.createErrorDesc(module.parseError, doc);
+            int col = desc.errorStart - doc.getLineOffset(desc.errorLine);
+            report.add(new BatchReport.Entry(path, desc.errorLine + 1, col + 1, IMarker.SEVERITY_ERROR,
+                    "SyntaxError", desc.message));
+            return; //as in the IDE, the analysis is only done on a successful parse.
+        }
+
+        IMessage[] messages = new OccurrencesAnalyzer().analyzeDocument(nature, module, prefs, doc, monitor,
+                indentPrefs);
+        for (IMessage message : messages) {
+            String type = prefs.getRequiredMessageToIgnore(message.getType());
+            if (type == null) {
+                type = String.valueOf(message.getType());
+            } else if (type.startsWith("@")) {
+                type = type.substring(1);
+            }
+            report.add(new BatchReport.Entry(path, message.getStartLine(doc), message.getStartCol(doc), message
+                    .getSeverity(), type, message.getMessage()));
+        }
+    }
+
+    private static void collectSourceFiles(File dir, List<File> files) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        Arrays.sort(children);
+        for (File child : children) {
+            if (child.getName().startsWith(".")) {
+                continue;
+            }
+            if (child.isDirectory()) {
+                collectSourceFiles(child, files);
+
+            } else if (PythonPathHelper.isValidSourceFile(child.getName())) {
+                files.add(child);
+            }
+        }
+    }
+
+    /**
+     * Creates the index (in the same format used for the interpreter info in the IDE): the modules in the
+     * interpreter pythonpath are saved in indexFolder/system and the modules in the source roots in
+     * indexFolder/sources.
+     */
+    public void createIndex(File indexFolder, IProgressMonitor monitor) throws MisconfigurationException {
+        AdditionalSystemInterpreterInfo systemInfo = new AdditionalSystemInterpreterInfo(manager, interpreter,
+                new File(indexFolder, "system"));
+        AdditionalSystemInterpreterInfo sourcesInfo = new AdditionalSystemInterpreterInfo(manager, interpreter,
+                new File(indexFolder, "sources"));
+
+        ISystemModulesManager modulesManager = nature.info.getModulesManager();
+        for (ModulesKey key : modulesManager.getOnlyDirectModules()) {
+            if (monitor.isCanceled()) {
+                return;
+            }
+            if (!PythonPathHelper.canAddAstInfoFor(key)) {
+                continue;
+            }
+            AbstractAdditionalTokensInfo info = isInSourceRoots(key.file) ? sourcesInfo : systemInfo;
+            try {
+                info.addAstInfo(key, false);
+            } catch (Throwable e) {
+                Log.log("Problem indexing: " + key.file, e);
+            }
+        }
+        systemInfo.save();
+        sourcesInfo.save();
+    }
+
+    private boolean isInSourceRoots(File file) {
+        String path = FileUtils.getFileAbsolutePath(file);
+        for (String root : sourceRoots) {
+            if (path.startsWith(root + File.separator)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs the batch analysis with the given command line arguments.
+     *
+     * @return the exit code (0: no errors found, 1: errors found, 2: unable to do the analysis).
+     */
+    public static int run(String[] args) {
+        String interpreter = "python";
+        String version = "2.7";
+        List<String> pythonpath = new ArrayList<String>();
+        List<String> roots = new ArrayList<String>();
+        File json = null;
+        File junit = null;
+        File index = null;
+        File state = null;
+        int tabWidth = AbstractPydevPrefs.DEFAULT_TAB_WIDTH;
+        boolean useSpaces = AbstractPydevPrefs.DEFAULT_SUBSTITUTE_TABS;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--use-tabs")) {
+                useSpaces = false;
+                continue;
+            }
+            if (arg.startsWith("--") && i + 1 >= args.length) {
+                return usage("Expected value for: " + arg);
+            }
+            if (arg.equals("--interpreter")) {
+                interpreter = args[++i];
+            } else if (arg.equals("--version")) {
+                version = args[++i];
+            } else if (arg.equals("--pythonpath")) {
+                PythonPathHelper.parsePythonPathFromStr(args[++i].replace(File.pathSeparatorChar, '|'), pythonpath);
+            } else if (arg.equals("--json")) {
+                json = new File(args[++i]);
+            } else if (arg.equals("--junit")) {
+                junit = new File(args[++i]);
+            } else if (arg.equals("--index")) {
+                index = new File(args[++i]);
+            } else if (arg.equals("--state")) {
+                state = new File(args[++i]);
+            } else if (arg.equals("--tab-width")) {
+                try {
+                    tabWidth = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    return usage("Expected number for --tab-width. Found: " + args[i]);
+                }
+            } else if (arg.startsWith("--")) {
+                return usage("Unexpected: " + arg);
+            } else {
+                roots.add(arg);
+            }
+        }
+        if (roots.size() == 0) {
+            return usage("No source roots specified.");
+        }
+        if (state == null) {
+            state = new File(System.getProperty("java.io.tmpdir"), "pydev_batch_state");
+        }
+
+        IProgressMonitor monitor = new NullProgressMonitor();
+        BatchAnalyzer analyzer = new BatchAnalyzer(interpreter, version, pythonpath, roots);
+        analyzer.setIndentPrefs(new TestIndentPrefs(useSpaces, tabWidth));
+        try {
+            analyzer.restoreInterpreter(state, monitor);
+            BatchReport report = analyzer.analyze(monitor);
+            if (json != null) {
+                FileUtils.writeStrToFile(report.toJson(), json);
+            }
+            if (junit != null) {
+                FileUtils.writeStrToFile(report.toJUnitXml(), junit);
+            }
+            if (index != null) {
+                analyzer.createIndex(index, monitor);
+            }
+            for (BatchReport.Entry entry : report.getEntries()) {
+                if (entry.severity >= IMarker.SEVERITY_WARNING) {
+                    System.out.println(entry.file + ":" + entry.line + ":" + entry.col + ": "
+                            + BatchReport.getSeverityStr(entry.severity) + ": " + entry.message);
+                }
+            }
+            System.out.println("Analyzed " + report.getFilesCount() + " files: "
+                    + report.getCount(IMarker.SEVERITY_ERROR) + " errors, "
+                    + report.getCount(IMarker.SEVERITY_WARNING) + " warnings.");
+            return report.getCount(IMarker.SEVERITY_ERROR) > 0 ? 1 : 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return 2;
+        }
+    }
+
+    private static int usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: BatchAnalyzer --interpreter <python executable> --version <python version> "
+                + "--pythonpath <path1|path2> [--json <file>] [--junit <file>] [--index <folder>] "
+                + "[--state <folder>] [--tab-width <n>] [--use-tabs] <source root> [<source root> ...]");
+        return 2;
+    }
+}
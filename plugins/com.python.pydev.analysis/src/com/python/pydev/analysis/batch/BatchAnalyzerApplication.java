@@ -0,0 +1,38 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.analysis.batch;
+
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+/**
+ * Runs the BatchAnalyzer as an eclipse application (so that it can be run headless with the plugins properly
+ * started), i.e.:
+ *
+ * eclipse -nosplash -application com.python.pydev.analysis.batch --interpreter /usr/bin/python ... source_root
+ *
+ * @see BatchAnalyzer
+ */
+public class BatchAnalyzerApplication implements IApplication {
+
+    public Object start(IApplicationContext context) throws Exception {
+        String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+        if (args == null) {
+            args = new String[0];
+        }
+        return BatchAnalyzer.run(args);
+    }
+
+    public void stop() {
+        //The analysis is not interrupted (the application finishes when it's done).
+    }
+}
@@ -0,0 +1,271 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.analysis.batch;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IMarker;
+import org.python.pydev.core.docutils.StringEscapeUtils;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+
+/**
+ * The messages found by the batch analysis (which may be written as JSON or JUnit XML).
+ */
+public final class BatchReport {
+
+    public static final class Entry {
+
+        public final String file;
+        public final int line;
+        public final int col;
+        public final int severity;
+        public final String type;
+        public final String message;
+
+        /**
+         * @param line 1-based
+         * @param col 1-based
+         * @param severity one of the IMarker.SEVERITY_* constants.
+         * @param type the name of the message type (i.e.: UnusedImport, SyntaxError).
+         */
+        public Entry(String file, int line, int col, int severity, String type, String message) {
+            this.file = file;
+            this.line = line;
+            this.col = col;
+            this.severity = severity;
+            this.type = type;
+            this.message = message;
+        }
+    }
+
+    /**
+     * file -> module name (in the order they were analyzed)
+     */
+    private final Map<String, String> files = new LinkedHashMap<String, String>();
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    public synchronized void addFile(String file, String moduleName) {
+        files.put(file, moduleName);
+    }
+
+    public synchronized void add(Entry entry) {
+        entries.add(entry);
+    }
+
+    public synchronized List<Entry> getEntries() {
+        return new ArrayList<Entry>(entries);
+    }
+
+    public synchronized int getFilesCount() {
+        return files.size();
+    }
+
+    public synchronized int getCount(int severity) {
+        int count = 0;
+        for (Entry entry : entries) {
+            if (entry.severity == severity) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static String getSeverityStr(int severity) {
+        switch (severity) {
+            case IMarker.SEVERITY_ERROR:
+                return "error";
+            case IMarker.SEVERITY_WARNING:
+                return "warning";
+            default:
+                return "info";
+        }
+    }
+
+    /**
+     * {"files": 2, "messages": [{"file": "...", "line": 1, "column": 1, "severity": "error", "type": "...",
+     * "message": "..."}]}
+     */
+    public synchronized String toJson() {
+        FastStringBuffer buf = new FastStringBuffer(entries.size() * 120 + 40);
+        buf.append("{\"files\": ").append(files.size()).append(", \"messages\": [");
+        boolean first = true;
+        for (Entry entry : entries) {
+            if (!first) {
+                buf.append(',');
+            }
+            first = false;
+            buf.append("\n  {\"file\": ");
+            appendJsonStr(buf, entry.file);
+            buf.append(", \"line\": ").append(entry.line);
+            buf.append(", \"column\": ").append(entry.col);
+            buf.append(", \"severity\": ");
+            appendJsonStr(buf, getSeverityStr(entry.severity));
+            buf.append(", \"type\": ");
+            appendJsonStr(buf, entry.type);
+            buf.append(", \"message\": ");
+            appendJsonStr(buf, entry.message);
+            buf.append('}');
+        }
+        if (!first) {
+            buf.append('\n');
+        }
+        buf.append("]}\n");
+        return buf.toString();
+    }
+
+    private static void appendJsonStr(FastStringBuffer buf, String s) {
+        buf.append('"');
+        if (s != null) {
+            int len = s.length();
+            for (int i = 0; i < len; i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '"':
+                        buf.append("\\\"");
+                        break;
+                    case '\\':
+                        buf.append("\\\\");
+                        break;
+                    case '\n':
+                        buf.append("\\n");
+                        break;
+                    case '\r':
+                        buf.append("\\r");
+                        break;
+                    case '\t':
+                        buf.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            String hex = Integer.toHexString(c);
+                            buf.append("\\u");
+                            for (int j = hex.length(); j < 4; j++) {
+                                buf.append('0');
+                            }
+                            buf.append(hex);
+                        } else {
+                            buf.append(c);
+                        }
+                }
+            }
+        }
+        buf.append('"');
+    }
+
+    /**
+     * Each analyzed file is a testcase and a testcase with messages with severity warning or error has a single
+     * failure with all those messages (info messages are not reported).
+     */
+    public synchronized String toJUnitXml() {
+        Map<String, List<Entry>> fileToEntries = new LinkedHashMap<String, List<Entry>>();
+        for (String file : files.keySet()) {
+            fileToEntries.put(file, new ArrayList<Entry>());
+        }
+        for (Entry entry : entries) {
+            if (entry.severity < IMarker.SEVERITY_WARNING) {
+                continue;
+            }
+            List<Entry> list = fileToEntries.get(entry.file);
+            if (list == null) {
+                list = new ArrayList<Entry>();
+                fileToEntries.put(entry.file, list);
+            }
+            list.add(entry);
+        }
+        int failures = 0;
+        for (List<Entry> list : fileToEntries.values()) {
+            if (list.size() > 0) {
+                failures++;
+            }
+        }
+
+        FastStringBuffer buf = new FastStringBuffer(entries.size() * 200 + files.size() * 80 + 200);
+        FastStringBuffer message = new FastStringBuffer();
+        FastStringBuffer details = new FastStringBuffer();
+        buf.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        buf.append("<testsuite name=\"pydev.analysis\" tests=\"").append(fileToEntries.size())
+                .append("\" failures=\"").append(failures).append("\" errors=\"0\">\n");
+        for (Map.Entry<String, List<Entry>> fileEntry : fileToEntries.entrySet()) {
+            String file = fileEntry.getKey();
+            String moduleName = files.get(file);
+            buf.append("  <testcase classname=\"").append(escapeAttr(moduleName != null ? moduleName : file))
+                    .append("\" name=\"").append(escapeAttr(file)).append('"');
+            List<Entry> list = fileEntry.getValue();
+            if (list.size() == 0) {
+                buf.append("/>\n");
+                continue;
+            }
+            int severity = IMarker.SEVERITY_WARNING;
+            message.clear();
+            details.clear();
+            for (Entry entry : list) {
+                severity = Math.max(severity, entry.severity);
+                if (message.length() > 0) {
+                    message.append('\n');
+                }
+                message.append(entry.line).append(':').append(entry.col).append(": ").append(entry.message);
+                details.append(entry.file).append(':').append(entry.line).append(':').append(entry.col)
+                        .append(": ").append(getSeverityStr(entry.severity)).append(": ").append(entry.type)
+                        .append(": ").append(entry.message).append('\n');
+            }
+            buf.append(">\n");
+            buf.append("    <failure type=\"").append(getSeverityStr(severity)).append("\" message=\"")
+                    .append(escapeAttr(message.toString())).append("\">");
+            buf.append(escape(details.toString()));
+            buf.append("</failure>\n");
+            buf.append("  </testcase>\n");
+        }
+        buf.append("</testsuite>\n");
+        return buf.toString();
+    }
+
+    private static String escape(String s) {
+        if (s == null) {
+            return "";
+        }
+        return StringEscapeUtils.escapeXml(s);
+    }
+
+    /**
+     * Escapes the string to be used as an attribute value (where new lines and tabs must be escaped too, otherwise
+     * they're normalized to spaces by the xml parser).
+     */
+    private static String escapeAttr(String s) {
+        String escaped = escape(s);
+        if (escaped.indexOf('\n') == -1 && escaped.indexOf('\r') == -1 && escaped.indexOf('\t') == -1) {
+            return escaped;
+        }
+        FastStringBuffer buf = new FastStringBuffer(escaped.length() + 20);
+        int len = escaped.length();
+        for (int i = 0; i < len; i++) {
+            char c = escaped.charAt(i);
+            switch (c) {
+                case '\n':
+                    buf.append("&#10;");
+                    break;
+                case '\r':
+                    buf.append("&#13;");
+                    break;
+                case '\t':
+                    buf.append("&#9;");
+                    break;
+                default:
+                    buf.append(c);
+            }
+        }
+        return buf.toString();
+    }
+}
@@ -12,6 +12,7 @@ package com.python.pydev.analysis.builder;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jface.text.IDocument;
@@ -25,6 +26,7 @@ import org.python.pydev.editor.autoedit.DefaultIndentPrefs;
 import org.python.pydev.editor.codecompletion.revisited.modules.SourceModule;
 import org.python.pydev.logging.DebugSettings;
 import org.python.pydev.shared_core.callbacks.ICallback;
+import org.python.pydev.shared_core.callbacks.ICallback2;
 
 import com.python.pydev.analysis.AnalysisPreferences;
 import com.python.pydev.analysis.IAnalysisPreferences;
@@ -231,8 +233,34 @@ public class AnalysisBuilderRunnable extends AbstractAnalysisBuilderRunnable {
             //ok, let's do it
             OccurrencesAnalyzer analyzer = new OccurrencesAnalyzer();
             checkStop();
+            ICallback2<Object, IMessage[], boolean[]> onPartialResults = null;
+            if (analysisCause == ANALYSIS_CAUSE_PARSER && shouldSetMarkers(r)) {
+                //The user is editing the module: show the results of the checkers that finish first right away
+                //(keeping the current markers of the checkers that didn't finish yet).
+                final AnalysisRunner partialRunner = runner;
+                onPartialResults = new ICallback2<Object, IMessage[], boolean[]>() {
+
+                    public Object call(IMessage[] partialMessages, final boolean[] finishedStages) {
+                        if (!internalCancelMonitor.isCanceled()) {
+                            partialRunner.setMarkers(r, document, partialMessages, internalCancelMonitor,
+                                    new ICallback<Boolean, IMarker>() {
+
+                                        public Boolean call(IMarker marker) {
+                                            Object type = marker.getAttribute(AnalysisRunner.PYDEV_ANALYSIS_TYPE,
+                                                    null);
+                                            if (!(type instanceof Integer)) {
+                                                return false;
+                                            }
+                                            return !finishedStages[OccurrencesAnalyzer.getStage((Integer) type)];
+                                        }
+                                    });
+                        }
+                        return null;
+                    }
+                };
+            }
             IMessage[] messages = analyzer.analyzeDocument(nature, module, analysisPreferences, document,
-                    this.internalCancelMonitor, DefaultIndentPrefs.get());
+                    this.internalCancelMonitor, DefaultIndentPrefs.get(), onPartialResults);
 
             checkStop();
             if (DebugSettings.DEBUG_ANALYSIS_REQUESTS) {
@@ -247,11 +275,7 @@ public class AnalysisBuilderRunnable extends AbstractAnalysisBuilderRunnable {
 
             //don't stop after setting to add / remove the markers
             if (r != null) {
-                boolean analyzeOnlyActiveEditor = PyDevBuilderPrefPage.getAnalyzeOnlyActiveEditor();
-                if (forceAnalysis
-                        || !analyzeOnlyActiveEditor
-                        || (analyzeOnlyActiveEditor && (!PyDevBuilderPrefPage.getRemoveErrorsWhenEditorIsClosed() || PyEdit
-                                .isEditorOpenForResource(r)))) {
+                if (shouldSetMarkers(r)) {
                     runner.setMarkers(r, document, messages, this.internalCancelMonitor);
                 } else {
                     if (DebugSettings.DEBUG_ANALYSIS_REQUESTS) {
@@ -291,6 +315,17 @@ public class AnalysisBuilderRunnable extends AbstractAnalysisBuilderRunnable {
         }
     }
 
+    /**
+     * @return whether the markers for the analysis should be set in the given resource.
+     */
+    private boolean shouldSetMarkers(IResource r) {
+        boolean analyzeOnlyActiveEditor = PyDevBuilderPrefPage.getAnalyzeOnlyActiveEditor();
+        return forceAnalysis
+                || !analyzeOnlyActiveEditor
+                || (analyzeOnlyActiveEditor && (!PyDevBuilderPrefPage.getRemoveErrorsWhenEditorIsClosed() || PyEdit
+                        .isEditorOpenForResource(r)));
+    }
+
     /**
      * @return false if there's no modification among the current version of the file and the last version analyzed.
      */
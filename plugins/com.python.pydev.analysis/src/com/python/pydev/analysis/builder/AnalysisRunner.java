@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -20,6 +21,7 @@ import org.eclipse.jface.text.IDocument;
 import org.python.pydev.core.IMiscConstants;
 import org.python.pydev.core.docutils.PySelection;
 import org.python.pydev.core.log.Log;
+import org.python.pydev.shared_core.callbacks.ICallback;
 import org.python.pydev.shared_ui.utils.PyMarkerUtils;
 import org.python.pydev.shared_ui.utils.PyMarkerUtils.MarkerInfo;
 
@@ -103,6 +105,15 @@ public class AnalysisRunner {
      * should be removed.
      */
     public void setMarkers(IResource resource, IDocument document, IMessage[] messages, IProgressMonitor monitor) {
+        setMarkers(resource, document, messages, monitor, null);
+    }
+
+    /**
+     * Same as setMarkers, but the existing analysis markers for which keepExisting returns true are kept (i.e.: used
+     * to set the messages of some stages of the analysis without removing the markers of the other stages).
+     */
+    public void setMarkers(IResource resource, IDocument document, IMessage[] messages, IProgressMonitor monitor,
+            ICallback<Boolean, IMarker> keepExisting) {
         if (resource == null) {
             return;
         }
@@ -147,7 +158,8 @@ public class AnalysisRunner {
                 return;
             }
 
-            PyMarkerUtils.replaceMarkers(lst, resource, AnalysisRunner.PYDEV_ANALYSIS_PROBLEM_MARKER, true, monitor);
+            PyMarkerUtils.replaceMarkers(lst, resource, AnalysisRunner.PYDEV_ANALYSIS_PROBLEM_MARKER, true, monitor,
+                    keepExisting);
             //timer.printDiff("Time to put markers: "+lst.size());
         } catch (Exception e) {
             Log.log("Error when setting markers on: " + resource, e);
@@ -7,8 +7,10 @@
 package com.python.pydev.analysis.scopeanalysis;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.runtime.CoreException;
 import org.python.pydev.core.ILocalScope;
@@ -182,6 +184,51 @@ public class ScopeAnalysis {
             final boolean onlyFirstAttribPart) {
         List<ASTEntry> ret = new ArrayList<ASTEntry>();
 
+        Iterator<ASTEntry> iterator = getNamesIterator(simpleNode, onlyFirstAttribPart);
+        while (iterator.hasNext()) {
+            ASTEntry entry = iterator.next();
+            //SimpleNode nameNode = entry.getNameNode();
+            //if(!occurencesFor.isParamRename){
+            //    if(nameNode instanceof NameTok){
+            //        NameTok name = (NameTok) nameNode;
+            //        if(name.ctx == NameTok.KeywordName){
+            //            continue;
+            //        }
+            //   }
+            //}
+            if (occurencesFor.equals(entry.getName())) {
+                ret.add(entry);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Same as getLocalOccurrences(String, SimpleNode) but gets the occurrences of all the names at once.
+     *
+     * @return a map with the name and the entries with its occurrences.
+     */
+    public static Map<String, List<ASTEntry>> getLocalOccurrences(SimpleNode simpleNode) {
+        Map<String, List<ASTEntry>> ret = new HashMap<String, List<ASTEntry>>();
+
+        Iterator<ASTEntry> iterator = getNamesIterator(simpleNode, true);
+        while (iterator.hasNext()) {
+            ASTEntry entry = iterator.next();
+            String name = entry.getName();
+            List<ASTEntry> list = ret.get(name);
+            if (list == null) {
+                list = new ArrayList<ASTEntry>();
+                ret.put(name, list);
+            }
+            list.add(entry);
+        }
+        return ret;
+    }
+
+    /**
+     * @return an iterator with the entries for the names below the given node.
+     */
+    private static Iterator<ASTEntry> getNamesIterator(SimpleNode simpleNode, final boolean onlyFirstAttribPart) {
         SequencialASTIteratorVisitor visitor = new SequencialASTIteratorVisitor() {
 
             @Override
@@ -253,24 +300,7 @@ public class ScopeAnalysis {
                 throw new RuntimeException(e);
             }
         }
-
-        Iterator<ASTEntry> iterator = visitor.getNamesIterator();
-        while (iterator.hasNext()) {
-            ASTEntry entry = iterator.next();
-            //SimpleNode nameNode = entry.getNameNode();
-            //if(!occurencesFor.isParamRename){
-            //    if(nameNode instanceof NameTok){
-            //        NameTok name = (NameTok) nameNode;
-            //        if(name.ctx == NameTok.KeywordName){
-            //            continue;
-            //        }
-            //   }
-            //}
-            if (occurencesFor.equals(entry.getName())) {
-                ret.add(entry);
-            }
-        }
-        return ret;
+        return visitor.getNamesIterator();
     }
 
     /**
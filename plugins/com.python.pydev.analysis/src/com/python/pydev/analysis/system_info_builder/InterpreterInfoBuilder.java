@@ -24,6 +24,7 @@ import org.python.pydev.editor.codecompletion.revisited.ModulesManager;
 import org.python.pydev.editor.codecompletion.revisited.PyPublicTreeMap;
 import org.python.pydev.editor.codecompletion.revisited.PythonPathHelper;
 import org.python.pydev.editor.codecompletion.revisited.SystemModulesManager;
+import org.python.pydev.editor.codecompletion.revisited.WorkspaceIndexSnapshot;
 import org.python.pydev.logging.DebugSettings;
 import org.python.pydev.shared_core.string.StringUtils;
 import org.python.pydev.shared_core.structure.Tuple;
@@ -50,6 +51,19 @@ public class InterpreterInfoBuilder implements IInterpreterInfoBuilder {
             return ret;
         }
 
+        SystemModulesManager modulesManager = (SystemModulesManager) info.getModulesManager();
+        WorkspaceIndexSnapshot.Entry snapshotEntry = WorkspaceIndexSnapshot.getCurrent().getEntry(
+                modulesManager.getSnapshotId());
+        boolean indexInSync = snapshotEntry != null && snapshotEntry.isIndexUpToDate();
+        if (indexInSync && modulesManager.getUpToDateSnapshotEntry() == snapshotEntry
+                && snapshotEntry.keys.size() == modulesManager.getSize(false)) {
+            //Nothing changed in the pythonpath since the keys and the index were last synchronized: no need to scan.
+            if (DebugSettings.DEBUG_INTERPRETER_AUTO_UPDATE) {
+                Log.toLogFile(this, "Workspace index snapshot up to date (skipped scan).");
+            }
+            return BuilderResult.OK;
+        }
+
         PythonPathHelper pythonPathHelper = new PythonPathHelper();
         pythonPathHelper.setPythonPath(info.libs);
         ModulesFoundStructure modulesFound = pythonPathHelper.getModulesFoundStructure(monitor);
@@ -58,7 +72,6 @@ public class InterpreterInfoBuilder implements IInterpreterInfoBuilder {
             return ret;
         }
 
-        SystemModulesManager modulesManager = (SystemModulesManager) info.getModulesManager();
         PyPublicTreeMap<ModulesKey, ModulesKey> keysFound = ModulesManager.buildKeysFromModulesFound(monitor,
                 modulesFound);
 
@@ -73,7 +86,8 @@ public class InterpreterInfoBuilder implements IInterpreterInfoBuilder {
             return ret;
         }
         Tuple<List<ModulesKey>, List<ModulesKey>> diffModules = modulesManager.diffModules(keysFound);
-        if (diffModules.o1.size() > 0 || diffModules.o2.size() > 0) {
+        boolean changed = diffModules.o1.size() > 0 || diffModules.o2.size() > 0;
+        if (changed) {
             if (DebugSettings.DEBUG_INTERPRETER_AUTO_UPDATE) {
                 Log.toLogFile(this, StringUtils.format(
                         "Diff modules. Added: %s Removed: %s", diffModules.o1,
@@ -82,13 +96,23 @@ public class InterpreterInfoBuilder implements IInterpreterInfoBuilder {
 
             //Update the modules manager itself (just pass all the keys as that should be fast)
             modulesManager.updateKeysAndSave(keysFound);
+        } else {
+            //The keys are the same: just update the stamps in the snapshot so that the next check doesn't need to scan.
+            modulesManager.updateSnapshotEntry();
+        }
 
-            //Now, the additional info can be slower, so, let's work only on the deltas...
+        if (changed || !indexInSync) {
+            //Now, the additional info can be slower, so, let's work only on the deltas (note: also done when the
+            //keys didn't change but the index may not be in sync with them -- i.e.: crash before saving it).
             IInterpreterManager manager = info.getModulesManager().getInterpreterManager();
             try {
                 AbstractAdditionalDependencyInfo additionalSystemInfo = AdditionalSystemInterpreterInfo
                         .getAdditionalSystemInfo(manager, info.getExecutableOrJar());
                 additionalSystemInfo.updateKeysIfNeededAndSave(keysFound);
+                if (additionalSystemInfo instanceof AdditionalSystemInterpreterInfo) {
+                    ((AdditionalSystemInterpreterInfo) additionalSystemInfo).setInSyncInSnapshot(modulesManager
+                            .getSnapshotId());
+                }
             } catch (Exception e) {
                 Log.log(e);
             }
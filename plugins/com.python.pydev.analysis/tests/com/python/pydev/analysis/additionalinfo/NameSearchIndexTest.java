@@ -0,0 +1,185 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.analysis.additionalinfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ui.dialogs.SearchPattern;
+import org.python.pydev.shared_core.callbacks.ICallback;
+import org.python.pydev.shared_core.structure.Tuple;
+import org.python.pydev.shared_core.utils.Timer;
+
+import com.python.pydev.analysis.actions.MatchHelper;
+
+public class NameSearchIndexTest extends TestCase {
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: compare the index against matching all the tokens (as was previously done in the
+            //globals browser).
+            List<IInfo> infos = createInfos(1000000);
+            Timer timer = new Timer();
+            NameSearchIndex index = new NameSearchIndex(infos);
+            timer.printDiff("Creating index");
+
+            String[] patterns = new String[] { "Cl", "Class1", "CN", "c*ss2", "*ame99", "mod1.Cl" };
+            for (String pattern : patterns) {
+                ICallback<Boolean, IInfo> verifier = createVerifier(pattern);
+                timer = new Timer();
+                for (int i = 0; i < 10; i++) {
+                    int found = 0;
+                    for (IInfo info : infos) {
+                        if (verifier.call(info)) {
+                            found++;
+                        }
+                    }
+                }
+                timer.printDiff("Match all tokens (10x): " + pattern);
+
+                timer = new Timer();
+                for (int i = 0; i < 10; i++) {
+                    index.search(pattern, 5000, verifier);
+                }
+                timer.printDiff("Search index (10x): " + pattern);
+            }
+
+            junit.textui.TestRunner.run(NameSearchIndexTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static List<IInfo> createInfos(int size) {
+        List<IInfo> infos = new ArrayList<IInfo>(size);
+        for (int i = 0; i < size; i++) {
+            String module = "mod" + (i % 100);
+            if (i % 3 == 0) {
+                infos.add(new ClassInfo("Class" + i, module, null));
+            } else if (i % 3 == 1) {
+                infos.add(new FuncInfo("ClassName" + i, module, null));
+            } else {
+                infos.add(new AttrInfo("attr_name" + i, module, "Class" + i));
+            }
+        }
+        return infos;
+    }
+
+    private static ICallback<Boolean, IInfo> createVerifier(String pattern) {
+        final SearchPattern patternMatcher = new SearchPattern();
+        patternMatcher.setPattern(pattern);
+        return new ICallback<Boolean, IInfo>() {
+
+            public Boolean call(IInfo arg) {
+                return MatchHelper.matchItem(patternMatcher, arg);
+            }
+        };
+    }
+
+    private List<String> search(NameSearchIndex index, String pattern, int maxResults) {
+        Tuple<List<IInfo>, Boolean> found = index.search(pattern, maxResults, createVerifier(pattern));
+        List<String> ret = new ArrayList<String>();
+        for (IInfo info : found.o1) {
+            ret.add(info.getName());
+        }
+        return ret;
+    }
+
+    private NameSearchIndex createIndex() {
+        List<IInfo> infos = new ArrayList<IInfo>();
+        infos.add(new ClassInfo("TestCase", "unittest", null));
+        infos.add(new ClassInfo("TestCase", "unittest", null)); //duplicate
+        infos.add(new ClassInfo("TextCalendar", "calendar", null));
+        infos.add(new FuncInfo("testcase_helper", "foo.bar", null));
+        infos.add(new FuncInfo("getFileName", "foo.bar", null));
+        infos.add(new FuncInfo("assertEqual", "unittest", "TestCase"));
+        infos.add(new AttrInfo("other", "foo.bar", null));
+        return new NameSearchIndex(infos);
+    }
+
+    public void testHumps() throws Exception {
+        assertEquals("tc", NameSearchIndex.getHumps("TestCase"));
+        assertEquals("gfn", NameSearchIndex.getHumps("getFileName"));
+        assertEquals("a", NameSearchIndex.getHumps("a"));
+        assertEquals("", NameSearchIndex.getHumps(""));
+    }
+
+    public void testSearch() throws Exception {
+        NameSearchIndex index = createIndex();
+        assertEquals(6, index.size());
+
+        List<String> found = search(index, "tes", 100);
+        assertEquals(2, found.size());
+        assertTrue(found.contains("TestCase"));
+        assertTrue(found.contains("testcase_helper"));
+
+        found = search(index, "TC", 100);
+        assertTrue(found.contains("TestCase"));
+        assertTrue(found.contains("TextCalendar"));
+        assertFalse(found.contains("testcase_helper"));
+
+        found = search(index, "getf", 100);
+        assertEquals(1, found.size());
+        assertEquals("getFileName", found.get(0));
+
+        found = search(index, "*Equ*", 100);
+        assertEquals(1, found.size());
+        assertEquals("assertEqual", found.get(0));
+
+        found = search(index, "*ile*", 100);
+        assertEquals(1, found.size());
+        assertEquals("getFileName", found.get(0));
+
+        found = search(index, "unittest.Te", 100);
+        assertEquals(1, found.size());
+        assertEquals("TestCase", found.get(0));
+
+        found = search(index, "foo.", 100);
+        assertEquals(3, found.size());
+
+        found = search(index, "xyz", 100);
+        assertEquals(0, found.size());
+    }
+
+    public void testInfoWithoutName() throws Exception {
+        List<IInfo> infos = new ArrayList<IInfo>();
+        infos.add(new ClassInfo("TestCase", "unittest", null));
+        infos.add(new ClassInfo(null, "unittest", null));
+        NameSearchIndex index = new NameSearchIndex(infos);
+        assertEquals(1, index.size());
+
+        List<String> found = search(index, "unittest.", 100);
+        assertEquals(1, found.size());
+        assertEquals("TestCase", found.get(0));
+    }
+
+    public void testTopK() throws Exception {
+        NameSearchIndex index = createIndex();
+        Tuple<List<IInfo>, Boolean> found = index.search("t", 1, createVerifier("t"));
+        assertEquals(1, found.o1.size());
+        assertTrue(found.o2);
+
+        found = index.search("t", 10, createVerifier("t"));
+        assertEquals(3, found.o1.size());
+        assertFalse(found.o2);
+    }
+
+    public void testCandidatesAreNarrowed() throws Exception {
+        NameSearchIndex index = createIndex();
+        assertEquals(2, index.getCandidates("tes").length);
+        assertEquals(0, index.getCandidates("*xyz*").length);
+        assertNull(index.getCandidates("foo."));
+        assertNull(index.getCandidates("*a*"));
+    }
+}
@@ -0,0 +1,111 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.analysis.batch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.python.pydev.editor.autoedit.TestIndentPrefs;
+import org.python.pydev.shared_core.io.FileUtils;
+
+import com.python.pydev.analysis.AnalysisTestsBase;
+
+/**
+ * Analyzes a source root (with the nature of the analysis tests) through the BatchAnalyzer.
+ */
+public class BatchAnalyzerTest extends AnalysisTestsBase {
+
+    private File root;
+
+    @Override
+    public void setUp() throws Exception {
+        //The source root must exist before the setUp (as it's the project pythonpath).
+        root = FileUtils.getTempFileAt(new File(System.getProperty("java.io.tmpdir")), "batch_analyzer_test");
+        File pack = new File(root, "pack");
+        pack.mkdirs();
+        FileUtils.writeStrToFile("", new File(pack, "__init__.py"));
+        FileUtils.writeStrToFile("import os\nprint(undefined_var)\n", new File(pack, "mod.py"));
+        FileUtils.writeStrToFile("import sys\nprint(sys.path)\n", new File(root, "ok.py"));
+        FileUtils.writeStrToFile("def method(:\n    pass\n", new File(root, "syntax.py"));
+        //Same number of lines indented with tabs and spaces: the indent prefs decide which one is reported.
+        FileUtils.writeStrToFile("def method():\n\treturn 1\n\n\ndef method2():\n    return 2\n", new File(root,
+                "tabs.py"));
+        super.setUp();
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        super.tearDown();
+        FileUtils.deleteDirectoryTree(root);
+    }
+
+    @Override
+    public String getProjectPythonpath() {
+        return FileUtils.getFileAbsolutePath(root);
+    }
+
+    private BatchReport analyze(BatchAnalyzer batchAnalyzer) {
+        BatchReport report = batchAnalyzer.analyze(nature, new NullProgressMonitor());
+        assertEquals(5, report.getFilesCount());
+        return report;
+    }
+
+    private BatchAnalyzer createBatchAnalyzer() {
+        return new BatchAnalyzer("python", "2.7", new ArrayList<String>(), Arrays.asList(getProjectPythonpath()));
+    }
+
+    private List<String> getEntries(BatchReport report, int severity) {
+        List<String> ret = new ArrayList<String>();
+        for (BatchReport.Entry entry : report.getEntries()) {
+            if (entry.severity == severity) {
+                String relative = entry.file.substring(getProjectPythonpath().length() + 1).replace('\\', '/');
+                ret.add(relative + ":" + entry.line + ":" + entry.type + ":" + entry.message);
+            }
+        }
+        return ret;
+    }
+
+    public void testAnalyze() throws Exception {
+        BatchReport report = analyze(createBatchAnalyzer());
+
+        List<String> errors = getEntries(report, IMarker.SEVERITY_ERROR);
+        assertEquals(errors.toString(), 2, errors.size());
+        assertEquals("pack/mod.py:2:UndefinedVariable:Undefined variable: undefined_var", errors.get(0));
+        assertTrue(errors.get(1), errors.get(1).startsWith("syntax.py:1:SyntaxError:"));
+
+        List<String> warnings = getEntries(report, IMarker.SEVERITY_WARNING);
+        assertEquals(warnings.toString(), 2, warnings.size());
+        assertEquals("pack/mod.py:1:UnusedImport:Unused import: os", warnings.get(0));
+        //the default is using spaces
+        assertEquals("tabs.py:2:IndentOk:Mixed Indentation: Tab found", warnings.get(1));
+
+        //The files in the source root are resolved as modules.
+        String junitXml = report.toJUnitXml();
+        assertTrue(junitXml, junitXml.indexOf("<testcase classname=\"pack.mod\"") != -1);
+        assertTrue(junitXml, junitXml.indexOf("<testcase classname=\"ok\"") != -1);
+    }
+
+    public void testAnalyzeWithTabs() throws Exception {
+        BatchAnalyzer batchAnalyzer = createBatchAnalyzer();
+        batchAnalyzer.setIndentPrefs(new TestIndentPrefs(false, 4));
+        BatchReport report = analyze(batchAnalyzer);
+
+        List<String> warnings = getEntries(report, IMarker.SEVERITY_WARNING);
+        assertEquals(warnings.toString(), 2, warnings.size());
+        assertEquals("pack/mod.py:1:UnusedImport:Unused import: os", warnings.get(0));
+        assertEquals("tabs.py:6:IndentOk:Mixed Indentation: Spaces found", warnings.get(1));
+    }
+}
@@ -0,0 +1,69 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.analysis.batch;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IMarker;
+
+public class BatchReportTest extends TestCase {
+
+    private BatchReport createReport() {
+        BatchReport report = new BatchReport();
+        report.addFile("/src/pack/mod.py", "pack.mod");
+        report.addFile("/src/ok.py", "ok");
+        report.add(new BatchReport.Entry("/src/pack/mod.py", 1, 8, IMarker.SEVERITY_WARNING, "UnusedImport",
+                "Unused import: os"));
+        report.add(new BatchReport.Entry("/src/pack/mod.py", 3, 1, IMarker.SEVERITY_ERROR, "UndefinedVariable",
+                "Undefined variable: \"a<b\"\n"));
+        report.add(new BatchReport.Entry("/src/ok.py", 2, 5, IMarker.SEVERITY_INFO, "UnusedVariable",
+                "Unused parameter: x"));
+        return report;
+    }
+
+    public void testCounts() throws Exception {
+        BatchReport report = createReport();
+        assertEquals(2, report.getFilesCount());
+        assertEquals(1, report.getCount(IMarker.SEVERITY_ERROR));
+        assertEquals(1, report.getCount(IMarker.SEVERITY_WARNING));
+        assertEquals(1, report.getCount(IMarker.SEVERITY_INFO));
+    }
+
+    public void testJson() throws Exception {
+        assertEquals(""
+                + "{\"files\": 2, \"messages\": [\n"
+                + "  {\"file\": \"/src/pack/mod.py\", \"line\": 1, \"column\": 8, \"severity\": \"warning\", "
+                + "\"type\": \"UnusedImport\", \"message\": \"Unused import: os\"},\n"
+                + "  {\"file\": \"/src/pack/mod.py\", \"line\": 3, \"column\": 1, \"severity\": \"error\", "
+                + "\"type\": \"UndefinedVariable\", \"message\": \"Undefined variable: \\\"a<b\\\"\\n\"},\n"
+                + "  {\"file\": \"/src/ok.py\", \"line\": 2, \"column\": 5, \"severity\": \"info\", "
+                + "\"type\": \"UnusedVariable\", \"message\": \"Unused parameter: x\"}\n"
+                + "]}\n", createReport().toJson());
+
+        assertEquals("{\"files\": 0, \"messages\": []}\n", new BatchReport().toJson());
+    }
+
+    public void testJUnitXml() throws Exception {
+        assertEquals(""
+                + "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<testsuite name=\"pydev.analysis\" tests=\"2\" failures=\"1\" errors=\"0\">\n"
+                + "  <testcase classname=\"pack.mod\" name=\"/src/pack/mod.py\">\n"
+                + "    <failure type=\"error\" message=\"1:8: Unused import: os&#10;"
+                + "3:1: Undefined variable: &quot;a&lt;b&quot;&#10;\">"
+                + "/src/pack/mod.py:1:8: warning: UnusedImport: Unused import: os\n"
+                + "/src/pack/mod.py:3:1: error: UndefinedVariable: Undefined variable: &quot;a&lt;b&quot;\n\n"
+                + "</failure>\n"
+                + "  </testcase>\n"
+                + "  <testcase classname=\"ok\" name=\"/src/ok.py\"/>\n" //info messages are not failures
+                + "</testsuite>\n", createReport().toJUnitXml());
+    }
+}
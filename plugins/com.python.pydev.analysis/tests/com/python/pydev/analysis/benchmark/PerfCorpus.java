@@ -0,0 +1,168 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.analysis.benchmark;
+
+import java.io.File;
+import java.util.Random;
+
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+
+/**
+ * Generates the synthetic corpus used in the benchmarks: perf_mod0.py ... perf_modN.py, where each module imports the
+ * previous one and has a class hierarchy, properties, comprehensions, nested functions, try/except, etc.
+ *
+ * The generation is deterministic (a fixed seed is used), so, the same corpus is always generated and the results
+ * may be compared against a baseline.
+ */
+public class PerfCorpus {
+
+    public static final int MODULES = 8;
+
+    private static final long SEED = 38;
+
+    private static final String[] WORDS = new String[] { "node", "item", "value", "cache", "parser", "token",
+            "buffer", "entry", "module", "scope", "request", "handler", "result", "index", "stream", "reader", "writer",
+            "state", "config", "context" };
+
+    private final Random random = new Random(SEED);
+
+    /**
+     * Writes the modules of the corpus to the given directory (which is created if needed).
+     */
+    public static void generate(File dir, int modules) {
+        dir.mkdirs();
+        PerfCorpus corpus = new PerfCorpus();
+        for (int i = 0; i < modules; i++) {
+            FileUtils.writeStrToFile(corpus.createModule(i), new File(dir, "perf_mod" + i + ".py"));
+        }
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private String ident() {
+        return word() + "_" + word();
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    private String createModule(int i) {
+        FastStringBuffer buf = new FastStringBuffer(40 * 1024);
+        buf.append("# -*- coding: utf-8 -*-\n");
+        buf.append("\"\"\"Synthetic module ").append(i).append(" of the benchmark corpus.\"\"\"\n");
+        buf.append("import os\n");
+        buf.append("import sys\n");
+        buf.append("from collections import namedtuple\n");
+        if (i > 0) {
+            buf.append("from perf_mod").append(i - 1).append(" import BaseHandler").append(i - 1)
+                    .append(", helper_").append(i - 1).append('\n');
+        }
+        buf.append('\n');
+        buf.append("CONSTANT_").append(i).append(" = ").append(i * 10).append('\n');
+        buf.append("NAMES_").append(i).append(" = [");
+        for (int j = 0; j < 6; j++) {
+            if (j > 0) {
+                buf.append(", ");
+            }
+            buf.append('\'').append(word()).append('\'');
+        }
+        buf.append("]\n");
+        buf.append("Point").append(i).append(" = namedtuple(\"Point").append(i).append("\", \"x y\")\n");
+        buf.append("\n\n");
+        buf.append("def helper_").append(i).append("(a, b=None, *args, **kwargs):\n");
+        buf.append("    \"\"\"Returns a combination of the arguments.\"\"\"\n");
+        buf.append("    if b is None:\n");
+        buf.append("        b = [x * 2 for x in range(a) if x % 3]\n");
+        buf.append("    return a, b, args, kwargs\n");
+        buf.append("\n\n");
+        buf.append("class BaseHandler").append(i).append('(')
+                .append(i > 0 ? "BaseHandler" + (i - 1) : "object").append("):\n");
+        buf.append('\n');
+        buf.append("    level = ").append(i).append('\n');
+        buf.append('\n');
+        buf.append("    def __init__(self, name, parent=None):\n");
+        buf.append("        self.name = name\n");
+        buf.append("        self.parent = parent\n");
+        buf.append("        self._children = {}\n");
+        buf.append('\n');
+        buf.append("    def handle(self, request):\n");
+        buf.append("        raise NotImplementedError()\n");
+        buf.append("\n\n");
+
+        for (int c = 0; c < 12; c++) {
+            String className = capitalize(word()) + capitalize(word()) + i + "_" + c;
+            buf.append("class ").append(className).append("(BaseHandler").append(i).append("):\n");
+            buf.append("    \"\"\"Handler ").append(c).append(" of module ").append(i).append(".\"\"\"\n");
+            buf.append('\n');
+            buf.append("    KIND = '").append(word()).append("'\n");
+            buf.append('\n');
+            buf.append("    def __init__(self, name, parent=None, **options):\n");
+            buf.append("        BaseHandler").append(i).append(".__init__(self, name, parent)\n");
+            for (int a = 0; a < 4; a++) {
+                buf.append("        self.").append(ident()).append(" = options.get('").append(word())
+                        .append("', ").append(a).append(")\n");
+            }
+            buf.append('\n');
+            for (int m = 0; m < 6; m++) {
+                String methodName = ident() + "_" + m;
+                switch (m % 3) {
+                    case 0:
+                        buf.append("    @property\n");
+                        buf.append("    def ").append(methodName).append("(self):\n");
+                        buf.append("        return self._children.get('").append(methodName).append("')\n");
+                        break;
+                    case 1:
+                        buf.append("    def ").append(methodName).append("(self, ").append(word()).append(", ")
+                                .append(word()).append("_arg=").append(m).append("):\n");
+                        buf.append("        total = 0\n");
+                        buf.append("        for key, value in sorted(self._children.items()):\n");
+                        buf.append("            if isinstance(value, (int, float)):\n");
+                        buf.append("                total += value\n");
+                        buf.append("            elif value is not None and key.startswith(\"").append(word())
+                                .append("\"):\n");
+                        buf.append("                total += len(str(value))\n");
+                        buf.append("        return total\n");
+                        break;
+                    default:
+                        buf.append("    def ").append(methodName).append("(self, *args):\n");
+                        buf.append("        def inner(x):\n");
+                        buf.append("            return x + CONSTANT_").append(i).append('\n');
+                        buf.append("        try:\n");
+                        buf.append("            result = [inner(arg) for arg in args]\n");
+                        buf.append("        except (TypeError, ValueError) as e:\n");
+                        buf.append("            result = str(e)\n");
+                        buf.append("        finally:\n");
+                        buf.append("            self.last_").append(m).append(" = len(args)\n");
+                        buf.append("        return result\n");
+                }
+                buf.append('\n');
+            }
+            buf.append("    def handle(self, request):\n");
+            buf.append("        data = {\"name\": self.name, \"kind\": self.KIND, \"request\": request}\n");
+            buf.append("        return helper_").append(i).append("(len(data), data.keys())\n");
+            buf.append("\n\n");
+        }
+        buf.append("def main(argv=None):\n");
+        buf.append("    argv = argv if argv is not None else sys.argv[1:]\n");
+        buf.append("    path = os.path.join(os.path.dirname(__file__), \"data\")\n");
+        buf.append("    handler = BaseHandler").append(i).append("(\"main\")\n");
+        buf.append("    return handler, path, argv\n");
+        buf.append("\n\n");
+        buf.append("if __name__ == '__main__':\n");
+        buf.append("    main()\n");
+        return buf.toString();
+    }
+}
@@ -0,0 +1,248 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.analysis.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jface.text.Document;
+import org.python.pydev.core.ICodeCompletionASTManager;
+import org.python.pydev.core.IGrammarVersionProvider;
+import org.python.pydev.core.IModule;
+import org.python.pydev.core.IModulesManager;
+import org.python.pydev.core.ModulesKey;
+import org.python.pydev.editor.codecompletion.revisited.CompletionCache;
+import org.python.pydev.editor.codecompletion.revisited.CompletionStateFactory;
+import org.python.pydev.parser.PyParser;
+import org.python.pydev.parser.jython.FastCharStream;
+import org.python.pydev.parser.jython.SimpleNode;
+import org.python.pydev.shared_core.benchmark.Benchmark;
+import org.python.pydev.shared_core.benchmark.BenchmarkRunner;
+import org.python.pydev.shared_core.io.FileUtils;
+
+import com.python.pydev.analysis.AnalysisTestsBase;
+import com.python.pydev.analysis.additionalinfo.AbstractAdditionalDependencyInfo;
+import com.python.pydev.analysis.additionalinfo.AbstractAdditionalTokensInfo;
+
+/**
+ * Benchmarks for the parser, index and code-completion hot paths, using the synthetic corpus generated by
+ * {@link PerfCorpus} at startup (which is also the project pythonpath).
+ *
+ * Run the main with:
+ *
+ * --save file: to save the results as a baseline.
+ * --baseline file [--tolerance 0.1]: to compare the results against a baseline saved before (exits with 1 if some
+ * benchmark regressed).
+ *
+ * @see BenchmarkRunner#runFromArgs(String[], List)
+ */
+public class PyDevBenchmarks extends AnalysisTestsBase {
+
+    /**
+     * Each module in the corpus is added to the index with this number of different names.
+     */
+    private static final int INDEX_COPIES = 25;
+
+    private static final String[] PREFIXES = new String[] { "Base", "helper", "main", "Result", "node_", "C", "x" };
+
+    public static void main(String[] args) {
+        try {
+            PyDevBenchmarks test = new PyDevBenchmarks();
+            test.setUp();
+            boolean ok;
+            try {
+                ok = BenchmarkRunner.runFromArgs(args, test.createBenchmarks());
+            } finally {
+                test.tearDown();
+            }
+            System.exit(ok ? 0 : 1);
+        } catch (Throwable e) {
+            e.printStackTrace();
+            System.exit(2);
+        }
+    }
+
+    private static File corpusDir;
+
+    /**
+     * @return the directory with the corpus (generated in the temp dir the first time it's requested in the
+     * process -- the generation is deterministic, so, a corpus from a previous run is just overwritten).
+     */
+    public static synchronized File getCorpusDir() {
+        if (corpusDir == null) {
+            File dir = new File(System.getProperty("java.io.tmpdir"), "pydev_perf_corpus");
+            PerfCorpus.generate(dir, PerfCorpus.MODULES);
+            corpusDir = dir;
+        }
+        return corpusDir;
+    }
+
+    @Override
+    public String getProjectPythonpath() {
+        return FileUtils.getFileAbsolutePath(getCorpusDir());
+    }
+
+    private List<File> getCorpusFiles() {
+        List<File> ret = new ArrayList<File>();
+        File[] files = getCorpusDir().listFiles();
+        assertNotNull("Corpus not found at: " + getCorpusDir(), files);
+        for (File f : files) {
+            if (f.getName().endsWith(".py")) {
+                ret.add(f);
+            }
+        }
+        assertTrue(ret.size() > 0);
+        return ret;
+    }
+
+    public List<Benchmark> createBenchmarks() throws Exception {
+        final List<File> files = getCorpusFiles();
+        final List<String> contents = new ArrayList<String>();
+        for (File f : files) {
+            contents.add(FileUtils.getFileContents(f));
+        }
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+        benchmarks.add(new Benchmark("FastCharStream.readChar") {
+
+            @Override
+            public Object run() throws Exception {
+                FastCharStream last = null;
+                for (String s : contents) {
+                    last = new FastCharStream(s.toCharArray());
+                    try {
+                        while (true) {
+                            last.readChar();
+                        }
+                    } catch (IOException e) {
+                        //finished reading it
+                    }
+                }
+                return last;
+            }
+        });
+
+        benchmarks.add(new Benchmark("PyParser.reparseDocument") {
+
+            @Override
+            public Object run() throws Exception {
+                Object last = null;
+                for (String s : contents) {
+                    last = PyParser.reparseDocumentInternal(new Document(s), true,
+                            IGrammarVersionProvider.GRAMMAR_PYTHON_VERSION_2_7);
+                }
+                return last;
+            }
+        });
+
+        final AbstractAdditionalDependencyInfo info = createIndex(files, contents);
+        benchmarks.add(new Benchmark("AbstractAdditionalTokensInfo.getTokensStartingWith") {
+
+            @Override
+            public Object run() throws Exception {
+                Object last = null;
+                for (String prefix : PREFIXES) {
+                    last = info.getTokensStartingWith(prefix, AbstractAdditionalTokensInfo.TOP_LEVEL
+                            | AbstractAdditionalTokensInfo.INNER);
+                }
+                return last;
+            }
+        });
+
+        final ICodeCompletionASTManager astManager = nature.getAstManager();
+        final IModulesManager modulesManager = astManager.getModulesManager();
+        benchmarks.add(new Benchmark("ModulesManager.getAllModuleNames") {
+
+            @Override
+            public Object run() throws Exception {
+                modulesManager.getAllModuleNames(true, "");
+                return modulesManager.getAllModuleNames(true, "perf");
+            }
+        });
+
+        final IModule module = astManager.getModule("perf_mod7", nature, true);
+        assertNotNull(module);
+        benchmarks.add(new Benchmark("AbstractASTManager.getCompletionsForModule") {
+
+            @Override
+            public Object run() throws Exception {
+                return astManager.getCompletionsForModule(module,
+                        CompletionStateFactory.getEmptyCompletionState(nature, new CompletionCache()), true, true);
+            }
+        });
+
+        benchmarks.add(new Benchmark("AbstractASTManager.getCompletionsForModule (class hierarchy)") {
+
+            @Override
+            public Object run() throws Exception {
+                return astManager.getCompletionsForModule(module,
+                        CompletionStateFactory.getEmptyCompletionState("BaseHandler7", nature, new CompletionCache()),
+                        true, true);
+            }
+        });
+        return benchmarks;
+    }
+
+    private AbstractAdditionalDependencyInfo createIndex(List<File> files, List<String> contents) throws Exception {
+        final File corpusDir = getCorpusDir();
+        AbstractAdditionalDependencyInfo info = new AbstractAdditionalDependencyInfo() {
+
+            @Override
+            protected File getPersistingLocation() {
+                return null;
+            }
+
+            @Override
+            protected File getPersistingFolder() {
+                return null;
+            }
+
+            @Override
+            protected Set<String> getPythonPathFolders() {
+                Set<String> ret = new HashSet<String>();
+                ret.add(corpusDir.getAbsolutePath());
+                return ret;
+            }
+
+            @Override
+            protected String getUIRepresentation() {
+                return "Benchmark index for: " + corpusDir;
+            }
+        };
+        for (int i = 0; i < files.size(); i++) {
+            File f = files.get(i);
+            SimpleNode ast = PyParser.reparseDocumentInternal(new Document(contents.get(i)), true,
+                    IGrammarVersionProvider.GRAMMAR_PYTHON_VERSION_2_7).o1;
+            assertNotNull(ast);
+            String modName = f.getName().substring(0, f.getName().length() - 3);
+            for (int j = 0; j < INDEX_COPIES; j++) {
+                info.addAstInfo(ast, new ModulesKey("pkg" + j + "." + modName, f), false);
+            }
+        }
+        return info;
+    }
+
+    /**
+     * Runs each benchmark once (just to check that they're still working).
+     */
+    public void testBenchmarks() throws Exception {
+        List<Benchmark> benchmarks = createBenchmarks();
+        assertEquals(6, benchmarks.size());
+        for (Benchmark benchmark : benchmarks) {
+            assertNotNull(benchmark.name, benchmark.run());
+        }
+    }
+}
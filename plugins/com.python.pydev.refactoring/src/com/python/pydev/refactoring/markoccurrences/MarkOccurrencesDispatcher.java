@@ -17,6 +17,10 @@ import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentListener;
 import org.python.pydev.editor.PyEdit;
+import org.python.pydev.parser.jython.SimpleNode;
+import org.python.pydev.shared_core.model.ErrorDescription;
+import org.python.pydev.shared_core.model.IModelListener;
+import org.python.pydev.shared_core.model.ISimpleNode;
 import org.python.pydev.shared_core.string.TextSelectionUtils;
 import org.python.pydev.shared_ui.editor.BaseEditor;
 import org.python.pydev.shared_ui.editor.IPyEditListener;
@@ -35,6 +39,21 @@ public class MarkOccurrencesDispatcher implements IPyEditListener, IDocumentList
     }
 
     public void onCreateActions(ListResourceBundle resources, BaseEditor baseEditor, IProgressMonitor monitor) {
+        if (!(baseEditor instanceof PyEdit)) {
+            return;
+        }
+        final PyEdit edit = (PyEdit) baseEditor;
+        //When a new ast is published, the occurrences of the locals are indexed right away (so that moving the
+        //caret afterwards doesn't need to go through the rename machinery for those).
+        edit.addModelListener(new IModelListener() {
+
+            public void modelChanged(ISimpleNode root) {
+                MarkOccurrencesJob.createOccurrencesIndex(edit, (SimpleNode) root);
+            }
+
+            public void errorChanged(ErrorDescription errorDesc) {
+            }
+        });
     }
 
     public void onDispose(BaseEditor baseEditor, IProgressMonitor monitor) {
@@ -12,7 +12,6 @@ package com.python.pydev.refactoring.markoccurrences;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -27,7 +26,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.action.IAction;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
-import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.ISynchronizable;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.source.Annotation;
@@ -43,10 +42,7 @@ import org.python.pydev.editor.actions.refactoring.PyRefactorAction;
 import org.python.pydev.editor.codefolding.PySourceViewer;
 import org.python.pydev.editor.refactoring.RefactoringRequest;
 import org.python.pydev.parser.jython.SimpleNode;
-import org.python.pydev.parser.jython.ast.Name;
-import org.python.pydev.parser.visitors.scope.ASTEntry;
 import org.python.pydev.shared_core.string.TextSelectionUtils;
-import org.python.pydev.shared_core.structure.Tuple3;
 
 import com.python.pydev.PydevPlugin;
 import com.python.pydev.refactoring.ui.MarkOccurrencesPreferencesPage;
@@ -63,6 +59,11 @@ import com.python.pydev.refactoring.wizards.rename.PyRenameEntryPoint;
 public class MarkOccurrencesJob extends Job {
 
     private static final boolean DEBUG = false;
+
+    /**
+     * Key in the editor cache for the OccurrencesIndex of the current document.
+     */
+    private static final String OCCURRENCES_INDEX_CACHE_KEY = "MarkOccurrencesJob OccurrencesIndex";
     private static MarkOccurrencesJob singleton;
 
     /**
@@ -123,8 +124,7 @@ public class MarkOccurrencesJob extends Job {
                     return Status.OK_STATUS;
                 }
 
-                Tuple3<RefactoringRequest, PyRenameEntryPoint, Boolean> ret = checkAnnotations(pyEdit,
-                        documentProvider, monitor);
+                OccurrencesIndex.Occurrences occurrences = checkAnnotations(pyEdit, documentProvider, monitor);
                 if (pyEdit.cache == null || monitor.isCanceled()) { //disposed (cannot add or remove annotations)
                     return Status.OK_STATUS;
                 }
@@ -137,8 +137,8 @@ public class MarkOccurrencesJob extends Job {
                     return Status.OK_STATUS;
                 }
 
-                if (ret.o3) {
-                    if (!addAnnotations(pyEdit, annotationModel, ret.o1, ret.o2)) {
+                if (occurrences != null) {
+                    if (!addAnnotations(pyEdit, annotationModel, occurrences)) {
                         //something went wrong, so, let's remove the occurrences
                         removeOccurenceAnnotations(annotationModel, pyEdit);
                     }
@@ -178,28 +178,29 @@ public class MarkOccurrencesJob extends Job {
     }
 
     /**
-     * @return a tuple with the refactoring request, the processor and a boolean indicating if all pre-conditions succedded.
+     * @return the occurrences found or null if the occurrences could not be computed (in which case the current
+     * annotations should be removed).
      * @throws MisconfigurationException 
      */
-    private Tuple3<RefactoringRequest, PyRenameEntryPoint, Boolean> checkAnnotations(PyEdit pyEdit,
+    private OccurrencesIndex.Occurrences checkAnnotations(PyEdit pyEdit,
             IDocumentProvider documentProvider, IProgressMonitor monitor) throws BadLocationException,
             OperationCanceledException, CoreException, MisconfigurationException {
         if (!MarkOccurrencesPreferencesPage.useMarkOccurrences()) {
-            return new Tuple3<RefactoringRequest, PyRenameEntryPoint, Boolean>(null, null, false);
+            return null;
         }
 
         //now, let's see if the editor still has a document (so that we still can add stuff to it)
         IEditorInput editorInput = pyEdit.getEditorInput();
         if (editorInput == null) {
-            return new Tuple3<RefactoringRequest, PyRenameEntryPoint, Boolean>(null, null, false);
+            return null;
         }
 
         if (documentProvider.getDocument(editorInput) == null) {
-            return new Tuple3<RefactoringRequest, PyRenameEntryPoint, Boolean>(null, null, false);
+            return null;
         }
 
         if (pyEdit.getSelectionProvider() == null) {
-            return new Tuple3<RefactoringRequest, PyRenameEntryPoint, Boolean>(null, null, false);
+            return null;
         }
 
         //ok, the editor is still there wit ha document... move on
@@ -209,28 +210,44 @@ public class MarkOccurrencesJob extends Job {
                 PySelection.fromTextSelection(this.ps));
 
         if (req == null || !req.nature.getRelatedInterpreterManager().isConfigured()) { //we check if it's configured because it may still be a stub...
-            return new Tuple3<RefactoringRequest, PyRenameEntryPoint, Boolean>(null, null, false);
+            return null;
+        }
+
+        //if this token was already analyzed for the current ast, there's no need to analyze it again
+        IDocument doc = req.getDoc();
+        int tokenOffset = req.ps.getCurrToken().o2;
+        OccurrencesIndex index = getOccurrencesIndex(pyEdit, doc);
+        if (index != null) {
+            OccurrencesIndex.Occurrences occurrences = index.get(req.initialName, tokenOffset);
+            if (occurrences != null) {
+                return occurrences;
+            }
         }
 
         PyRenameEntryPoint processor = new PyRenameEntryPoint(req);
         //to see if a new request was not created in the meantime (in which case this one will be cancelled)
         if (currRequestTime != lastRequestTime || monitor.isCanceled()) {
-            return new Tuple3<RefactoringRequest, PyRenameEntryPoint, Boolean>(null, null, false);
+            return null;
         }
 
         try {
             processor.checkInitialConditions(monitor);
             if (currRequestTime != lastRequestTime || monitor.isCanceled()) {
-                return new Tuple3<RefactoringRequest, PyRenameEntryPoint, Boolean>(null, null, false);
+                return null;
             }
 
             processor.checkFinalConditions(monitor, null);
             if (currRequestTime != lastRequestTime || monitor.isCanceled()) {
-                return new Tuple3<RefactoringRequest, PyRenameEntryPoint, Boolean>(null, null, false);
+                return null;
             }
 
             //ok, pre-conditions suceeded
-            return new Tuple3<RefactoringRequest, PyRenameEntryPoint, Boolean>(req, processor, true);
+            OccurrencesIndex.Occurrences occurrences = OccurrencesIndex.createOccurrences(req.initialName,
+                    processor.getOccurrences(), doc);
+            if (index != null) {
+                index.add(tokenOffset, occurrences, processor.getAllProcesses());
+            }
+            return occurrences;
         } catch (Throwable e) {
             throw new RuntimeException("Error in occurrences while analyzing modName:" + req.moduleName
                     + " initialName:" + req.initialName + " line (start at 0):" + req.ps.getCursorLine(), e);
@@ -238,46 +255,91 @@ public class MarkOccurrencesJob extends Job {
     }
 
     /**
-     * @return true if the annotations were removed and added without any problems and false otherwise
+     * Creates the index of occurrences for a new ast of the editor (with the local variables of all the functions
+     * already indexed). Called when a parse is published.
      */
-    private synchronized boolean addAnnotations(final PyEdit pyEdit, IAnnotationModel annotationModel,
-            final RefactoringRequest req, PyRenameEntryPoint processor) throws BadLocationException {
-        HashSet<ASTEntry> occurrences = processor.getOccurrences();
-        if (occurrences == null) {
-            if (DEBUG) {
-                System.out.println("Occurrences == null");
+    public static void createOccurrencesIndex(PyEdit pyEdit, SimpleNode ast) {
+        Map<String, Object> cache = pyEdit.cache;
+        if (cache == null || ast == null || !MarkOccurrencesPreferencesPage.useMarkOccurrences()) {
+            return;
+        }
+        IDocument doc = pyEdit.getDocument();
+        if (!(doc instanceof IDocumentExtension4)) {
+            return;
+        }
+        long astModificationTimeStamp = pyEdit.getAstModificationTimeStamp();
+        if (((IDocumentExtension4) doc).getModificationStamp() != astModificationTimeStamp) {
+            return; //the document already changed (a new parse should be published later on)
+        }
+
+        OccurrencesIndex index;
+        try {
+            index = OccurrencesIndex.create(ast, astModificationTimeStamp, doc);
+        } catch (BadLocationException e) {
+            return; //the document changed while the index was being created
+        }
+        if (((IDocumentExtension4) doc).getModificationStamp() != astModificationTimeStamp) {
+            return;
+        }
+        synchronized (cache) {
+            if (pyEdit.getAST() == ast) {
+                cache.put(OCCURRENCES_INDEX_CACHE_KEY, index);
+            }
+        }
+    }
+
+    /**
+     * @return the index of occurrences for the current ast of the editor (usually created when the ast is
+     * published, or an empty one if that didn't happen) or null if it's not available (i.e.: the document changed
+     * and wasn't parsed again yet).
+     */
+    private OccurrencesIndex getOccurrencesIndex(PyEdit pyEdit, IDocument doc) {
+        Map<String, Object> cache = pyEdit.cache;
+        if (cache == null || !(doc instanceof IDocumentExtension4)) {
+            return null;
+        }
+        Object ast = pyEdit.getAST();
+        if (ast == null) {
+            return null;
+        }
+        OccurrencesIndex index;
+        synchronized (cache) {
+            index = (OccurrencesIndex) cache.get(OCCURRENCES_INDEX_CACHE_KEY);
+            if (index == null || !index.isValidFor(ast)) {
+                index = new OccurrencesIndex(ast, pyEdit.getAstModificationTimeStamp());
+                cache.put(OCCURRENCES_INDEX_CACHE_KEY, index);
             }
-            return false;
         }
+        if (!index.isUsableFor(((IDocumentExtension4) doc).getModificationStamp())) {
+            return null;
+        }
+        return index;
+    }
 
+    /**
+     * @return true if the annotations were removed and added without any problems and false otherwise
+     */
+    private synchronized boolean addAnnotations(final PyEdit pyEdit, IAnnotationModel annotationModel,
+            OccurrencesIndex.Occurrences occurrences) throws BadLocationException {
         Map<String, Object> cache = pyEdit.cache;
         if (cache == null) {
             return false;
         }
 
-        IDocument doc = pyEdit.getDocument();
         ArrayList<Annotation> annotations = new ArrayList<Annotation>();
         Map<Annotation, Position> toAddAsMap = new HashMap<Annotation, Position>();
         boolean markOccurrencesInStrings = MarkOccurrencesPreferencesPage.useMarkOccurrencesInStrings();
 
         //get the annotations to add
-        for (ASTEntry entry : occurrences) {
-            if (!markOccurrencesInStrings) {
-                if (entry.node instanceof Name) {
-                    Name name = (Name) entry.node;
-                    if (name.ctx == Name.Artificial) {
-                        continue;
-                    }
-                }
+        int len = occurrences.initialName.length();
+        for (int i = 0; i < occurrences.size(); i++) {
+            if (!markOccurrencesInStrings && occurrences.isInStringOrComment(i)) {
+                continue;
             }
 
-            SimpleNode node = entry.getNameNode();
-            IRegion lineInformation = doc.getLineInformation(node.beginLine - 1);
-
             try {
                 Annotation annotation = new Annotation(PydevPlugin.OCCURRENCE_ANNOTATION_TYPE, false, "occurrence");
-                Position position = new Position(lineInformation.getOffset() + node.beginColumn - 1,
-                        req.initialName.length());
+                Position position = new Position(occurrences.getOffset(i), len);
                 toAddAsMap.put(annotation, position);
                 annotations.add(annotation);
 
@@ -0,0 +1,407 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.refactoring.markoccurrences;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.python.pydev.parser.jython.SimpleNode;
+import org.python.pydev.parser.jython.ast.ClassDef;
+import org.python.pydev.parser.jython.ast.DictComp;
+import org.python.pydev.parser.jython.ast.FunctionDef;
+import org.python.pydev.parser.jython.ast.GeneratorExp;
+import org.python.pydev.parser.jython.ast.Lambda;
+import org.python.pydev.parser.jython.ast.ListComp;
+import org.python.pydev.parser.jython.ast.Name;
+import org.python.pydev.parser.jython.ast.NameTok;
+import org.python.pydev.parser.jython.ast.SetComp;
+import org.python.pydev.parser.jython.ast.VisitorBase;
+import org.python.pydev.parser.jython.ast.decoratorsType;
+import org.python.pydev.parser.jython.ast.stmtType;
+import org.python.pydev.parser.visitors.scope.ASTEntry;
+
+import com.python.pydev.analysis.scopeanalysis.ScopeAnalysis;
+import com.python.pydev.refactoring.wizards.IRefactorRenameProcess;
+import com.python.pydev.refactoring.wizards.rename.PyRenameLocalProcess;
+
+/**
+ * Keeps the occurrences of the tokens of a parse of the document, so, moving the caret is just a lookup (instead of
+ * running the whole rename machinery again).
+ *
+ * When a parse is published, the local variables of all the functions are indexed at once (see: create): for each
+ * function, the names which would be renamed by a local rename are mapped to their occurrences (in the code,
+ * comments and strings of the function). Other tokens (i.e.: globals, attributes, parameters, imports, or names
+ * also used in nested scopes) are still found with the rename machinery, and those results are added as the caret
+ * visits them. The occurrences are keyed by the offset of the token (and its name).
+ *
+ * An index is kept while its ast is the current ast of the editor (i.e.: it's discarded only when a new parse
+ * is published -- see: isValidFor) and may only be used while the document is the one which was parsed (see:
+ * isUsableFor), as the offsets are offsets in that document.
+ */
+public final class OccurrencesIndex {
+
+    /**
+     * The occurrences found for some token.
+     */
+    public static final class Occurrences {
+
+        public final String initialName;
+        private final int[] offsets;
+        private final boolean[] inStringOrComment;
+
+        public Occurrences(String initialName, int[] offsets, boolean[] inStringOrComment) {
+            this.initialName = initialName;
+            this.offsets = offsets;
+            this.inStringOrComment = inStringOrComment;
+        }
+
+        public int size() {
+            return offsets.length;
+        }
+
+        /**
+         * @return the absolute offset of the i-th occurrence (its length is the length of the initialName).
+         */
+        public int getOffset(int i) {
+            return offsets[i];
+        }
+
+        /**
+         * @return whether the i-th occurrence was found in a string or comment.
+         */
+        public boolean isInStringOrComment(int i) {
+            return inStringOrComment[i];
+        }
+    }
+
+    private final Object ast;
+    private final long astDocumentStamp;
+    private final HashMap<Integer, Occurrences> offsetToOccurrences = new HashMap<Integer, Occurrences>();
+
+    /**
+     * @param ast the ast for which the occurrences are computed.
+     * @param astDocumentStamp the modification stamp of the document which was parsed to generate the ast.
+     */
+    public OccurrencesIndex(Object ast, long astDocumentStamp) {
+        this.ast = ast;
+        this.astDocumentStamp = astDocumentStamp;
+    }
+
+    /**
+     * @return a new index with the local variables of all the functions in the ast already indexed.
+     *
+     * @param ast the ast for which the occurrences are computed.
+     * @param astDocumentStamp the modification stamp of the document which was parsed to generate the ast.
+     * @param doc the document which was parsed to generate the ast (used to compute the offsets).
+     */
+    public static OccurrencesIndex create(SimpleNode ast, long astDocumentStamp, IDocument doc)
+            throws BadLocationException {
+        OccurrencesIndex index = new OccurrencesIndex(ast, astDocumentStamp);
+        for (FunctionDef functionDef : FunctionDefsCollector.collect(ast)) {
+            for (Occurrences occurrences : getLocalsOccurrences(functionDef, doc)) {
+                index.addCodeOccurrences(occurrences);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return the occurrences of the names which are renamed in the function when a local rename is done (i.e.:
+     * the same ones a PyRenameLocalProcess would find for them).
+     */
+    private static List<Occurrences> getLocalsOccurrences(FunctionDef functionDef, IDocument doc)
+            throws BadLocationException {
+        List<Occurrences> ret = new ArrayList<Occurrences>();
+        Set<String> locals = LocalsCollector.collect(functionDef);
+        if (locals.size() == 0) {
+            return ret;
+        }
+        Map<String, List<ASTEntry>> nameToEntries = ScopeAnalysis.getLocalOccurrences(functionDef);
+        for (String name : locals) {
+            List<ASTEntry> entries = nameToEntries.get(name);
+            if (entries == null || entries.size() == 0) {
+                continue;
+            }
+            entries = new ArrayList<ASTEntry>(entries);
+            //only add comments and strings if there's at least some other occurrence
+            entries.addAll(ScopeAnalysis.getCommentOccurrences(name, functionDef));
+            entries.addAll(ScopeAnalysis.getStringOccurrences(name, functionDef));
+            ret.add(createOccurrences(name, entries, doc));
+        }
+        return ret;
+    }
+
+    /**
+     * @return whether this index is still the index for the given ast (i.e.: no new parse was published).
+     */
+    public boolean isValidFor(Object ast) {
+        return this.ast == ast;
+    }
+
+    /**
+     * @return whether the occurrences in this index may be used for the document with the given stamp (i.e.: it's
+     * still the document which was parsed to generate the ast).
+     */
+    public boolean isUsableFor(long documentStamp) {
+        return this.astDocumentStamp == documentStamp;
+    }
+
+    /**
+     * @return the occurrences for the token with the given name at the given offset or null if that token
+     * still wasn't analyzed.
+     */
+    public synchronized Occurrences get(String name, int offset) {
+        Occurrences occurrences = offsetToOccurrences.get(offset);
+        if (occurrences != null && occurrences.initialName.equals(name)) {
+            return occurrences;
+        }
+        return null;
+    }
+
+    /**
+     * Adds the occurrences found for the token at the given offset.
+     *
+     * @param processes the processes used to find the occurrences: if all are local renames, all the (code)
+     * occurrences are indexed to have those same occurrences.
+     */
+    public synchronized void add(int offset, Occurrences occurrences, Collection<IRefactorRenameProcess> processes) {
+        offsetToOccurrences.put(offset, occurrences);
+        if (processes == null || processes.size() == 0) {
+            return;
+        }
+        for (IRefactorRenameProcess p : processes) {
+            //Subclasses may do some other analysis, so, check the exact class.
+            if (p.getClass() != PyRenameLocalProcess.class) {
+                return;
+            }
+        }
+        addCodeOccurrences(occurrences);
+    }
+
+    /**
+     * Indexes all the (code) occurrences to have the given occurrences.
+     */
+    private synchronized void addCodeOccurrences(Occurrences occurrences) {
+        for (int i = 0; i < occurrences.size(); i++) {
+            if (!occurrences.isInStringOrComment(i)) {
+                offsetToOccurrences.put(occurrences.getOffset(i), occurrences);
+            }
+        }
+    }
+
+    /**
+     * @return the number of tokens indexed.
+     */
+    public synchronized int size() {
+        return offsetToOccurrences.size();
+    }
+
+    /**
+     * Collects all the functions (and methods) in an ast (including the ones inside other functions).
+     */
+    private static final class FunctionDefsCollector extends VisitorBase {
+
+        private final List<FunctionDef> functionDefs = new ArrayList<FunctionDef>();
+
+        public static List<FunctionDef> collect(SimpleNode ast) {
+            FunctionDefsCollector visitor = new FunctionDefsCollector();
+            try {
+                ast.accept(visitor);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return visitor.functionDefs;
+        }
+
+        @Override
+        public Object visitFunctionDef(FunctionDef node) throws Exception {
+            functionDefs.add(node);
+            return super.visitFunctionDef(node);
+        }
+
+        @Override
+        protected Object unhandled_node(SimpleNode node) throws Exception {
+            return null;
+        }
+
+        @Override
+        public void traverse(SimpleNode node) throws Exception {
+            node.traverse(this);
+        }
+    }
+
+    /**
+     * Collects all the names (but the attributes) in some node.
+     */
+    private static class NamesCollector extends VisitorBase {
+
+        protected final Set<String> names;
+
+        public NamesCollector(Set<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        public Object visitName(Name node) throws Exception {
+            names.add(node.id);
+            return null;
+        }
+
+        @Override
+        public Object visitNameTok(NameTok node) throws Exception {
+            if (node.ctx != NameTok.Attrib) {
+                names.add(node.id);
+            }
+            return null;
+        }
+
+        @Override
+        protected Object unhandled_node(SimpleNode node) throws Exception {
+            return null;
+        }
+
+        @Override
+        public void traverse(SimpleNode node) throws Exception {
+            node.traverse(this);
+        }
+    }
+
+    /**
+     * Collects the local variables of a function which can be renamed with a local rename: names which are first
+     * assigned in the function itself. Names which are parameters, imports, classes/functions, declared as global,
+     * keywords or which are also used in some nested scope (or decorator) are not collected (as other processes
+     * may take part in their rename).
+     */
+    private static final class LocalsCollector extends NamesCollector {
+
+        private final Map<String, Name> firstOccurrence = new HashMap<String, Name>();
+
+        private LocalsCollector() {
+            super(new HashSet<String>()); //the names not collected
+        }
+
+        public static Set<String> collect(FunctionDef functionDef) {
+            LocalsCollector visitor = new LocalsCollector();
+            NamesCollector excluded = new NamesCollector(visitor.names);
+            try {
+                if (functionDef.decs != null) {
+                    for (decoratorsType dec : functionDef.decs) {
+                        if (dec != null) {
+                            dec.accept(excluded);
+                        }
+                    }
+                }
+                if (functionDef.args != null) {
+                    functionDef.args.accept(excluded);
+                }
+                if (functionDef.body != null) {
+                    for (stmtType stmt : functionDef.body) {
+                        if (stmt != null) {
+                            stmt.accept(visitor);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+
+            Set<String> ret = new HashSet<String>();
+            for (Map.Entry<String, Name> entry : visitor.firstOccurrence.entrySet()) {
+                if (entry.getValue().ctx == Name.Store && !visitor.names.contains(entry.getKey())) {
+                    ret.add(entry.getKey());
+                }
+            }
+            return ret;
+        }
+
+        @Override
+        public Object visitName(Name node) throws Exception {
+            if (node.ctx == Name.Artificial) {
+                return null;
+            }
+            if (node.ctx == Name.Param || node.ctx == Name.KwOnlyParam) {
+                names.add(node.id);
+                return null;
+            }
+            Name first = firstOccurrence.get(node.id);
+            if (first == null || node.beginLine < first.beginLine
+                    || (node.beginLine == first.beginLine && node.beginColumn < first.beginColumn)) {
+                firstOccurrence.put(node.id, node);
+            }
+            return null;
+        }
+
+        @Override
+        public Object visitFunctionDef(FunctionDef node) throws Exception {
+            return nestedScope(node);
+        }
+
+        @Override
+        public Object visitClassDef(ClassDef node) throws Exception {
+            return nestedScope(node);
+        }
+
+        @Override
+        public Object visitLambda(Lambda node) throws Exception {
+            return nestedScope(node);
+        }
+
+        @Override
+        public Object visitListComp(ListComp node) throws Exception {
+            return nestedScope(node);
+        }
+
+        @Override
+        public Object visitSetComp(SetComp node) throws Exception {
+            return nestedScope(node);
+        }
+
+        @Override
+        public Object visitDictComp(DictComp node) throws Exception {
+            return nestedScope(node);
+        }
+
+        @Override
+        public Object visitGeneratorExp(GeneratorExp node) throws Exception {
+            return nestedScope(node);
+        }
+
+        private Object nestedScope(SimpleNode node) throws Exception {
+            node.accept(new NamesCollector(names));
+            return null;
+        }
+    }
+
+    /**
+     * @return the occurrences (with absolute offsets in the document) for the given entries.
+     */
+    public static Occurrences createOccurrences(String initialName, Collection<ASTEntry> entries, IDocument doc)
+            throws BadLocationException {
+        List<ASTEntry> list = new ArrayList<ASTEntry>(entries);
+        int[] offsets = new int[list.size()];
+        boolean[] inStringOrComment = new boolean[list.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            ASTEntry entry = list.get(i);
+            SimpleNode node = entry.getNameNode();
+            offsets[i] = doc.getLineOffset(node.beginLine - 1) + node.beginColumn - 1;
+            inStringOrComment[i] = entry.node instanceof Name && ((Name) entry.node).ctx == Name.Artificial;
+        }
+        return new Occurrences(initialName, offsets, inStringOrComment);
+    }
+}
@@ -28,7 +28,7 @@ public class MarkOccurrencesPreferencesPage extends FieldEditorPreferencePage im
     public static final String USE_MARK_OCCURRENCES_IN_STRINGS = "USE_MARK_OCCURRENCES_IN_STRINGS";
     public static final boolean DEFAULT_USE_MARK_OCCURRENCES_IN_STRINGS = true;
 
-    private static PyPreferencesCache cache;
+    private static volatile PyPreferencesCache cache;
 
     public MarkOccurrencesPreferencesPage() {
         super(FLAT);
@@ -61,17 +61,25 @@ public class MarkOccurrencesPreferencesPage extends FieldEditorPreferencePage im
     public void init(IWorkbench workbench) {
     }
 
-    public static boolean useMarkOccurrences() {
-        if (cache == null) {
-            cache = new PyPreferencesCache(RefactoringPlugin.getDefault().getPreferenceStore());
+    private static PyPreferencesCache getCache() {
+        PyPreferencesCache c = cache;
+        if (c == null) {
+            synchronized (MarkOccurrencesPreferencesPage.class) {
+                c = cache;
+                if (c == null) {
+                    c = new PyPreferencesCache(RefactoringPlugin.getDefault().getPreferenceStore());
+                    cache = c;
+                }
+            }
         }
-        return cache.getBoolean(USE_MARK_OCCURRENCES);
+        return c;
+    }
+
+    public static boolean useMarkOccurrences() {
+        return getCache().getBoolean(USE_MARK_OCCURRENCES);
     }
 
     public static boolean useMarkOccurrencesInStrings() {
-        if (cache == null) {
-            cache = new PyPreferencesCache(RefactoringPlugin.getDefault().getPreferenceStore());
-        }
-        return cache.getBoolean(USE_MARK_OCCURRENCES_IN_STRINGS);
+        return getCache().getBoolean(USE_MARK_OCCURRENCES_IN_STRINGS);
     }
 }
@@ -12,6 +12,7 @@ package com.python.pydev.refactoring.wizards.rename;
 
 import java.util.List;
 
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
@@ -19,13 +20,16 @@ import org.python.pydev.core.IModule;
 import org.python.pydev.core.IProjectModulesManager;
 import org.python.pydev.core.IPythonNature;
 import org.python.pydev.core.ModulesKey;
+import org.python.pydev.core.concurrency.OrderedParallelRunner;
 import org.python.pydev.editor.codecompletion.revisited.modules.SourceModule;
 import org.python.pydev.editor.codecompletion.revisited.visitors.Definition;
 import org.python.pydev.editor.refactoring.RefactoringRequest;
 import org.python.pydev.parser.visitors.scope.ASTEntry;
 import org.python.pydev.plugin.nature.PythonNature;
+import org.python.pydev.shared_core.callbacks.ICallback;
 import org.python.pydev.shared_core.string.StringUtils;
 import org.python.pydev.shared_core.structure.Tuple;
+import org.python.pydev.shared_core.structure.Tuple3;
 
 import com.python.pydev.refactoring.actions.PyFindAllOccurrences;
 
@@ -167,6 +171,8 @@ public abstract class AbstractRenameWorkspaceRefactorProcess extends AbstractRen
             }
 
             int total = references.size();
+            boolean analyzeInParallel = (Boolean) request.getAdditionalInfo(
+                    RefactoringRequest.FIND_REFERENCES_IN_PARALLEL, true);
             try {
                 request.pushMonitor(new SubProgressMonitor(request.getMonitor(), 10));
                 request.getMonitor().beginTask("Analyzing references found", total);
@@ -182,31 +188,15 @@ public abstract class AbstractRenameWorkspaceRefactorProcess extends AbstractRen
                             continue;
                         }
                         try {
-                            for (ModulesKey key : file.o1) {
-                                IProjectModulesManager modulesManager = (IProjectModulesManager) nature.getAstManager()
-                                        .getModulesManager();
-
-                                request.checkCancelled();
-                                String modName = key.name;
-
-                                if (modName != null) {
-                                    if (!request.moduleName.equals(modName)) {
-                                        //we've already checked the module from the request...
-
-                                        request.checkCancelled();
-                                        IModule module = modulesManager
-                                                .getModuleInDirectManager(modName, nature, false);
-
-                                        if (module instanceof SourceModule) {
-
-                                            request.checkCancelled();
-                                            List<ASTEntry> entryOccurrences = getOccurrencesInOtherModule(status,
-                                                    request, request.initialName, (SourceModule) module, nature);
-
-                                            if (entryOccurrences.size() > 0) {
-                                                addOccurrences(entryOccurrences, key.file, modName);
-                                            }
-                                        }
+                            if (analyzeInParallel) {
+                                analyzeCandidatesInParallel(status, request, file.o1, nature);
+                            } else {
+                                for (ModulesKey key : file.o1) {
+                                    request.checkCancelled();
+                                    List<ASTEntry> entryOccurrences = getOccurrencesInCandidate(status, request, key,
+                                            nature);
+                                    if (entryOccurrences != null && entryOccurrences.size() > 0) {
+                                        addOccurrences(entryOccurrences, key.file, key.name);
                                     }
                                 }
                             }
@@ -228,6 +218,84 @@ public abstract class AbstractRenameWorkspaceRefactorProcess extends AbstractRen
 
     }
 
+    /**
+     * Loads the module for the given key and gets the occurrences in it.
+     * 
+     * Note that it may be called from multiple threads at once (when analyzing in parallel), so, it should
+     * not change the state of this process (the status passed is only used by the current thread).
+     * 
+     * @return the occurrences found or null if the key didn't map to a source module (or it was the module
+     * from the request, which is analyzed in the local scope).
+     */
+    protected List<ASTEntry> getOccurrencesInCandidate(RefactoringStatus status, RefactoringRequest request,
+            ModulesKey key, PythonNature nature) {
+        String modName = key.name;
+        if (modName == null || request.moduleName.equals(modName)) {
+            //we've already checked the module from the request...
+            return null;
+        }
+        IProjectModulesManager modulesManager = (IProjectModulesManager) nature.getAstManager().getModulesManager();
+
+        request.checkCancelled();
+        IModule module = modulesManager.getModuleInDirectManager(modName, nature, false);
+
+        if (module instanceof SourceModule) {
+            request.checkCancelled();
+            return getOccurrencesInOtherModule(status, request, request.initialName, (SourceModule) module, nature);
+        }
+        return null;
+    }
+
+    /**
+     * A monitor which only reports whether the monitor of the request was cancelled (the references in other modules
+     * may be searched from multiple threads at once and the monitor of the request may only be used to report work
+     * from the thread which started the search).
+     */
+    protected static final class CancelOnlyMonitor extends NullProgressMonitor {
+
+        private final RefactoringRequest request;
+
+        public CancelOnlyMonitor(RefactoringRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return super.isCanceled() || request.getMonitor().isCanceled();
+        }
+    }
+
+    /**
+     * Analyzes the candidates using multiple threads. At most a few modules are loaded and waiting to be
+     * merged at any time (so, memory is bounded) and the occurrences/status are merged in the same order
+     * of the keys (so, the result is the same one from analyzing them sequentially).
+     */
+    private void analyzeCandidatesInParallel(final RefactoringStatus status, final RefactoringRequest request,
+            List<ModulesKey> keys, final PythonNature nature) {
+        OrderedParallelRunner.run(keys,
+                new ICallback<Tuple3<ModulesKey, List<ASTEntry>, RefactoringStatus>, ModulesKey>() {
+
+                    public Tuple3<ModulesKey, List<ASTEntry>, RefactoringStatus> call(ModulesKey key) {
+                        request.checkCancelled();
+                        RefactoringStatus localStatus = new RefactoringStatus();
+                        List<ASTEntry> entryOccurrences = getOccurrencesInCandidate(localStatus, request, key,
+                                nature);
+                        return new Tuple3<ModulesKey, List<ASTEntry>, RefactoringStatus>(key, entryOccurrences,
+                                localStatus);
+                    }
+                }, new ICallback<Object, Tuple3<ModulesKey, List<ASTEntry>, RefactoringStatus>>() {
+
+                    public Object call(Tuple3<ModulesKey, List<ASTEntry>, RefactoringStatus> arg) {
+                        request.checkCancelled();
+                        status.merge(arg.o3);
+                        if (arg.o2 != null && arg.o2.size() > 0) {
+                            addOccurrences(arg.o2, arg.o1.file, arg.o1.name);
+                        }
+                        return null;
+                    }
+                });
+    }
+
     /**
      * This method is called for each module that may have some reference to the definition
      * we're looking for. 
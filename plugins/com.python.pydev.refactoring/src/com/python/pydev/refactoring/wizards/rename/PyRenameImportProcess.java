@@ -170,8 +170,9 @@ public class PyRenameImportProcess extends AbstractRenameWorkspaceRefactorProces
         try {
             checkProperRequest();
 
+            //May be called from multiple threads: only check the cancellation (don't report work).
             MatchImportsVisitor visitor = new MatchImportsVisitor(request.nature, request.initialName, module,
-                    request.getMonitor());
+                    new CancelOnlyMonitor(request));
 
             SimpleNode root = module.getAst();
             root.accept(visitor);
@@ -0,0 +1,234 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package com.python.pydev.refactoring.markoccurrences;
+
+import java.util.Arrays;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jface.text.Document;
+import org.python.pydev.core.docutils.PySelection;
+import org.python.pydev.editor.refactoring.RefactoringRequest;
+import org.python.pydev.parser.PyParser;
+import org.python.pydev.parser.jython.SimpleNode;
+import org.python.pydev.shared_core.parsing.BaseParser.ParseOutput;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+import org.python.pydev.shared_core.utils.Timer;
+
+import com.python.pydev.refactoring.refactorer.refactorings.renamelocal.RefactoringLocalTestBase;
+import com.python.pydev.refactoring.wizards.rename.PyRenameEntryPoint;
+
+public class OccurrencesIndexTest extends RefactoringLocalTestBase {
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: moving the caret through all the local variables of a big module.
+            OccurrencesIndexTest test = new OccurrencesIndexTest();
+            test.setUp();
+            FastStringBuffer buf = new FastStringBuffer();
+            int functions = 200;
+            for (int i = 0; i < functions; i++) {
+                buf.append("def method").append(i).append("(param):\n");
+                buf.append("    local_var = param + ").append(i).append("\n");
+                buf.append("    other = local_var * 2\n");
+                buf.append("    return local_var + other\n");
+                buf.append("\n");
+            }
+            Document doc = new Document(buf.toString());
+            String str = doc.get();
+
+            Timer timer = new Timer();
+            int found = 0;
+            for (int i = str.indexOf("local_var"); i != -1; i = str.indexOf("local_var", i + 1)) {
+                found += test.findOccurrences(doc, i + 1, null).size();
+            }
+            timer.printDiff("Without index (" + found + " occurrences)");
+
+            timer = new Timer();
+            OccurrencesIndex index = test.createIndex(doc);
+            found = 0;
+            for (int i = str.indexOf("local_var"); i != -1; i = str.indexOf("local_var", i + 1)) {
+                found += test.findOccurrences(doc, i + 1, index).size();
+            }
+            timer.printDiff("With index (" + found + " occurrences, " + index.size() + " tokens indexed)");
+
+            test.tearDown();
+            junit.textui.TestRunner.run(OccurrencesIndexTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Same thing that the MarkOccurrencesJob does when a parse is published.
+     */
+    private OccurrencesIndex createIndex(Document doc) throws Exception {
+        ParseOutput obj = PyParser.reparseDocument(new PyParser.ParserInfo(doc, nature));
+        return OccurrencesIndex.create((SimpleNode) obj.ast, 0, doc);
+    }
+
+    /**
+     * Same thing that the MarkOccurrencesJob does for some caret position.
+     */
+    private OccurrencesIndex.Occurrences findOccurrences(Document doc, int offset, OccurrencesIndex index)
+            throws Exception {
+        PySelection ps = new PySelection(doc, offset);
+        RefactoringRequest req = new RefactoringRequest(null, ps, nature);
+        req.moduleName = "foo";
+        req.inputName = "foo";
+        req.fillInitialNameAndOffset();
+        req.setAdditionalInfo(RefactoringRequest.FIND_DEFINITION_IN_ADDITIONAL_INFO, false);
+        req.setAdditionalInfo(RefactoringRequest.FIND_REFERENCES_ONLY_IN_LOCAL_SCOPE, true);
+
+        int tokenOffset = ps.getCurrToken().o2;
+        if (index != null) {
+            OccurrencesIndex.Occurrences occurrences = index.get(req.initialName, tokenOffset);
+            if (occurrences != null) {
+                return occurrences;
+            }
+        }
+
+        PyRenameEntryPoint processor = new PyRenameEntryPoint(req);
+        NullProgressMonitor monitor = new NullProgressMonitor();
+        processor.checkInitialConditions(monitor);
+        processor.checkFinalConditions(monitor, null);
+        OccurrencesIndex.Occurrences occurrences = OccurrencesIndex.createOccurrences(req.initialName,
+                processor.getOccurrences(), doc);
+        if (index != null) {
+            index.add(tokenOffset, occurrences, processor.getAllProcesses());
+        }
+        return occurrences;
+    }
+
+    private int[] getSortedOffsets(OccurrencesIndex.Occurrences occurrences) {
+        int[] offsets = new int[occurrences.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = occurrences.getOffset(i);
+        }
+        Arrays.sort(offsets);
+        return offsets;
+    }
+
+    public void testLocalOccurrencesIndexed() throws Exception {
+        String str = "" +
+                "def method():\n" +
+                "    aa = 2\n" +
+                "    #aa in comment\n" +
+                "    print aa\n" +
+                "    return aa\n" +
+                "";
+        Document doc = new Document(str);
+        OccurrencesIndex index = new OccurrencesIndex(null, 0);
+        OccurrencesIndex.Occurrences occurrences = findOccurrences(doc, str.indexOf("aa"), index);
+        assertEquals(4, occurrences.size());
+
+        //all the occurrences in the code (not the one in the comment) get the same result
+        assertEquals(3, index.size());
+        for (int i = str.indexOf("aa"); i != -1; i = str.indexOf("aa", i + 1)) {
+            if (i == str.indexOf("#aa") + 1) {
+                assertNull(index.get("aa", i));
+                continue;
+            }
+            OccurrencesIndex.Occurrences fromIndex = index.get("aa", i);
+            assertSame(occurrences, fromIndex);
+            assertTrue(Arrays.equals(getSortedOffsets(findOccurrences(doc, i, null)), getSortedOffsets(fromIndex)));
+        }
+        assertNull(index.get("bb", str.indexOf("aa")));
+    }
+
+    public void testLocalsIndexedWhenCreated() throws Exception {
+        String str = "" +
+                "class Foo:\n" +
+                "    def method(self, param):\n" +
+                "        aa = param\n" +
+                "        #aa in comment\n" +
+                "        for bb in aa:\n" +
+                "            print 'aa', bb\n" +
+                "        return aa\n" +
+                "";
+        Document doc = new Document(str);
+        OccurrencesIndex index = createIndex(doc);
+
+        //the locals are there before any token is requested (and match what the rename finds)
+        String[] names = new String[] { "aa", "bb" };
+        for (String name : names) {
+            for (int i = str.indexOf(name); i != -1; i = str.indexOf(name, i + 1)) {
+                OccurrencesIndex.Occurrences fromIndex = index.get(name, i);
+                if (str.charAt(i - 1) == '#' || str.charAt(i - 1) == '\'') {
+                    assertNull(fromIndex);
+                    continue;
+                }
+                assertNotNull("Expected " + name + " at " + i + " to be indexed.", fromIndex);
+                assertTrue(Arrays.equals(getSortedOffsets(findOccurrences(doc, i, null)),
+                        getSortedOffsets(fromIndex)));
+            }
+        }
+        assertEquals(5, index.size());
+        assertEquals(5, index.get("aa", str.indexOf("aa")).size()); //3 in the code, 1 in the comment, 1 in the string
+    }
+
+    public void testNonLocalsNotIndexedWhenCreated() throws Exception {
+        String str = "" +
+                "import os\n" +
+                "GLOBAL = 1\n" +
+                "def method(param):\n" +
+                "    global other\n" +
+                "    other = param + GLOBAL\n" +
+                "    xx = os\n" +
+                "    yy = 1\n" +
+                "    def inner():\n" +
+                "        return yy\n" +
+                "    return [zz for zz in xx]\n" +
+                "";
+        Document doc = new Document(str);
+        OccurrencesIndex index = createIndex(doc);
+
+        //parameters, imports, globals, names also used in other scopes and the function names aren't indexed
+        assertNull(index.get("param", str.lastIndexOf("param")));
+        assertNull(index.get("os", str.lastIndexOf("os")));
+        assertNull(index.get("GLOBAL", str.lastIndexOf("GLOBAL")));
+        assertNull(index.get("other", str.lastIndexOf("other")));
+        assertNull(index.get("yy", str.indexOf("yy")));
+        assertNull(index.get("zz", str.indexOf("zz")));
+        assertNull(index.get("inner", str.indexOf("inner")));
+
+        //xx is used in the list comprehension too
+        assertNull(index.get("xx", str.indexOf("xx")));
+        assertEquals(0, index.size());
+    }
+
+    public void testGlobalOnlyIndexesRequestedToken() throws Exception {
+        String str = "" +
+                "class Foo:\n" +
+                "    pass\n" +
+                "Foo()\n" +
+                "Foo()\n" +
+                "";
+        Document doc = new Document(str);
+        OccurrencesIndex index = new OccurrencesIndex(null, 0);
+        int offset = str.lastIndexOf("Foo");
+        OccurrencesIndex.Occurrences occurrences = findOccurrences(doc, offset, index);
+        assertEquals(3, occurrences.size());
+        assertEquals(1, index.size());
+        assertSame(occurrences, index.get("Foo", offset));
+        assertNull(index.get("Foo", str.indexOf("Foo")));
+    }
+
+    public void testIsValidFor() throws Exception {
+        Object ast = new Object();
+        OccurrencesIndex index = new OccurrencesIndex(ast, 10);
+        assertTrue(index.isValidFor(ast));
+        assertFalse(index.isValidFor(new Object()));
+
+        assertTrue(index.isUsableFor(10));
+        assertFalse(index.isUsableFor(11));
+    }
+}
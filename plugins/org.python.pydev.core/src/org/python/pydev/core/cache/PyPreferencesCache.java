@@ -6,16 +6,47 @@
  */
 package org.python.pydev.core.cache;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 
+/**
+ * Caches the values of a preference store so that they can be read from any thread without locking (nor querying
+ * the preference store again).
+ *
+ * The values are kept in an immutable snapshot which is replaced atomically (copy-on-write) when a value is first
+ * requested or when a preference changes (in which case only the changed key is removed from the snapshot).
+ */
 public class PyPreferencesCache implements IPropertyChangeListener {
 
-    private IPreferenceStore preferenceStore;
-    private HashMap<String, Object> cache = new HashMap<String, Object>();
+    private final IPreferenceStore preferenceStore;
+
+    private static final class Snapshot {
+
+        /**
+         * Never changed after the snapshot is created.
+         */
+        private final Map<String, Object> values;
+
+        /**
+         * Incremented when some preference changes (so that a value read from the preference store before the
+         * change isn't put in the cache after it).
+         */
+        private final int generation;
+
+        private Snapshot(Map<String, Object> values, int generation) {
+            this.values = values;
+            this.generation = generation;
+        }
+    }
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<Snapshot>(new Snapshot(
+            Collections.<String, Object> emptyMap(), 0));
 
     public PyPreferencesCache(IPreferenceStore preferenceStore) {
         this.preferenceStore = preferenceStore;
@@ -23,54 +54,99 @@ public class PyPreferencesCache implements IPropertyChangeListener {
     }
 
     public boolean getBoolean(String key) {
-        Boolean b = (Boolean) cache.get(key);
-        if (b == null) {
-            b = this.preferenceStore.getBoolean(key);
-            cache.put(key, b);
+        Snapshot current = snapshot.get();
+        Object b = current.values.get(key);
+        if (b instanceof Boolean) {
+            return (Boolean) b;
         }
-        return b;
+        boolean ret = this.preferenceStore.getBoolean(key);
+        put(current.generation, key, ret);
+        return ret;
     }
 
     /**
      * This is for a 'special case', when the value must be higher than 0
-     *  
+     *
      * @param key this is the key we're interested in
      * @param defaultIfZeroOrLess the value to be returned if the actual value found is 0 or less
      */
     public int getInt(String key, int defaultIfZeroOrLess) {
-        Integer b = (Integer) cache.get(key);
-
-        if (b == null || b <= 0) {
-            b = this.preferenceStore.getInt(key);
-
-            if (b <= 0) {
-                b = defaultIfZeroOrLess;
-            }
-            cache.put(key, b);
+        Snapshot current = snapshot.get();
+        Object b = current.values.get(key);
+        if (b instanceof Integer && (Integer) b > 0) {
+            return (Integer) b;
         }
-
-        return b;
+        int ret = this.preferenceStore.getInt(key);
+        if (ret <= 0) {
+            ret = defaultIfZeroOrLess;
+        }
+        put(current.generation, key, ret);
+        return ret;
     }
 
     public int getInt(String key) {
-        Integer b = (Integer) cache.get(key);
-        if (b == null) {
-            b = this.preferenceStore.getInt(key);
-            cache.put(key, b);
+        Snapshot current = snapshot.get();
+        Object b = current.values.get(key);
+        if (b instanceof Integer) {
+            return (Integer) b;
         }
-        return b;
+        int ret = this.preferenceStore.getInt(key);
+        put(current.generation, key, ret);
+        return ret;
     }
 
+    public String getString(String key) {
+        Snapshot current = snapshot.get();
+        Object b = current.values.get(key);
+        if (b instanceof String) {
+            return (String) b;
+        }
+        String ret = this.preferenceStore.getString(key);
+        put(current.generation, key, ret);
+        return ret;
+    }
+
+    /**
+     * The value in the event may not be of the type requested later on (i.e.: a String for a boolean preference),
+     * so, the key is just removed and the typed value is gotten from the preference store when requested again.
+     */
     public void propertyChange(PropertyChangeEvent event) {
-        final Object newValue = event.getNewValue();
-        cache.put(event.getProperty(), newValue); //simply override the cache (do not care about whether it is null, Boolean, etc).
+        clear(event.getProperty());
     }
 
     /**
      * Can be used to force clearing some value from the cache.
      */
     public void clear(String key) {
-        cache.put(key, null);
+        while (true) {
+            Snapshot current = snapshot.get();
+            Map<String, Object> values = current.values;
+            if (values.containsKey(key)) {
+                values = new HashMap<String, Object>(values);
+                values.remove(key);
+            }
+            if (snapshot.compareAndSet(current, new Snapshot(values, current.generation + 1))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Puts a value read from the preference store in the cache (unless some preference changed since the snapshot
+     * with the given generation was gotten).
+     */
+    private void put(int generation, String key, Object value) {
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (current.generation != generation) {
+                return;
+            }
+            Map<String, Object> values = new HashMap<String, Object>(current.values);
+            values.put(key, value);
+            if (snapshot.compareAndSet(current, new Snapshot(values, generation))) {
+                return;
+            }
+        }
     }
 
 }
@@ -10,9 +10,12 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.util.AbstractMap;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
+import org.python.pydev.shared_core.cache.CacheManager;
+
 /**
  * A hash map with soft values (i.e.: values that are collected only when the vm gets out of space).
  * 
@@ -105,6 +108,18 @@ public final class SoftHashMap<Key, Val> extends AbstractMap<Key, Val> {
         return map.size();
     }
 
+    /**
+     * Removes the given fraction of the entries (as it's a hash map, there's no order on which ones are removed).
+     */
+    public void evict(double fraction) {
+        int toEvict = CacheManager.getEntriesToEvict(map.size(), fraction);
+        Iterator<Key> it = map.keySet().iterator();
+        for (int i = 0; i < toEvict && it.hasNext(); i++) {
+            it.next();
+            it.remove();
+        }
+    }
+
     public void clear() {
         map.clear();
         //No need to poll the entries of the current queue, just create a new one and let the old be garbage-collected.
@@ -8,23 +8,74 @@ package org.python.pydev.core.cache;
 
 import java.io.Serializable;
 
+import org.python.pydev.shared_core.cache.CacheManager;
 import org.python.pydev.shared_core.cache.CacheMapWrapper;
+import org.python.pydev.shared_core.cache.IManagedCache;
 
 /**
- * @author fabioz
+ * Registered in the CacheManager (so, its methods are synchronized as entries may be evicted from another thread).
  *
+ * @author fabioz
  */
-public final class SoftHashMapCache<Key, Val> extends CacheMapWrapper<Key, Val> implements Serializable {
+public final class SoftHashMapCache<Key, Val> extends CacheMapWrapper<Key, Val> implements Serializable,
+        IManagedCache {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Rough estimate on the memory used by each entry.
+     */
+    private static final int ESTIMATED_BYTES_PER_ENTRY = 1024;
+
     public SoftHashMapCache() {
         super(new SoftHashMap<Key, Val>());
+        CacheManager.register(this);
     }
 
     @SuppressWarnings("rawtypes")
     @Override
-    public void removeStaleEntries() {
+    public synchronized void removeStaleEntries() {
         ((SoftHashMap) cache).removeStaleEntries();
     }
+
+    @Override
+    public synchronized Val getObj(Key key) {
+        return super.getObj(key);
+    }
+
+    @Override
+    public synchronized void add(Key key, Val val) {
+        super.add(key, val);
+    }
+
+    @Override
+    public synchronized void remove(Key key) {
+        super.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear();
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public synchronized void evict(double fraction) {
+        ((SoftHashMap) cache).evict(fraction);
+    }
+
+    @Override
+    public String getCacheName() {
+        return "Soft hash map cache";
+    }
+
+    @Override
+    public synchronized int getEntriesCount() {
+        return size();
+    }
+
+    @Override
+    public long getSizeEstimate() {
+        return getEntriesCount() * (long) ESTIMATED_BYTES_PER_ENTRY;
+    }
 }
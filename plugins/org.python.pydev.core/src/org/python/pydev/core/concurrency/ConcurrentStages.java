@@ -0,0 +1,168 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.core.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.python.pydev.shared_core.callbacks.ICallback2;
+
+/**
+ * Runs stages which are independent of each other concurrently (i.e.: checkers which work on the same input),
+ * notifying the calling thread as each stage finishes, so that a client may use the results of fast stages
+ * before the slow ones are done.
+ * 
+ * All the stages are submitted to the shared executor while the calling thread waits for the results (so that
+ * the notifications are given as soon as each stage finishes). If the executor doesn't finish any stage for a
+ * while (i.e.: it's busy with other work or it's waiting on the calling thread), the calling thread runs a stage
+ * that wasn't started yet.
+ */
+public class ConcurrentStages<R> {
+
+    /**
+     * The time the calling thread waits for some stage to finish before running a stage not started by the executor.
+     */
+    private static final long HELP_AFTER_MILLIS = 50;
+
+    private final List<Callable<R>> stages = new ArrayList<Callable<R>>();
+
+    /**
+     * A task which is only run once (either by the executor or by the calling thread).
+     */
+    private static class StageTask<R> extends FutureTask<R> {
+
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private final int index;
+
+        private final LinkedBlockingQueue<Integer> finished;
+
+        private StageTask(Callable<R> callable, int index, LinkedBlockingQueue<Integer> finished) {
+            super(callable);
+            this.index = index;
+            this.finished = finished;
+        }
+
+        @Override
+        public void run() {
+            tryRun();
+        }
+
+        /**
+         * @return true if the stage was run in this call (and false if it was already started elsewhere).
+         */
+        private boolean tryRun() {
+            if (started.compareAndSet(false, true)) {
+                super.run();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        protected void done() {
+            finished.add(index);
+        }
+    }
+
+    /**
+     * Adds a stage to be run (the index of the stage is its position in the order they're added).
+     */
+    public void addStage(Callable<R> stage) {
+        stages.add(stage);
+    }
+
+    /**
+     * Runs all the stages.
+     * 
+     * @param onStageFinished called in the calling thread with the index of the stage and its result (in the
+     * order in which the stages finish). May be null.
+     * 
+     * @return the results of the stages (in the order the stages were added).
+     * 
+     * Note that if a stage throws an exception, the stages still pending are cancelled and the exception is
+     * re-thrown.
+     */
+    @SuppressWarnings("unchecked")
+    public List<R> run(ICallback2<Object, Integer, R> onStageFinished) {
+        int size = stages.size();
+        Object[] results = new Object[size];
+
+        if (size <= 1 || SharedExecutor.getNumberOfThreads() <= 1) {
+            for (int i = 0; i < size; i++) {
+                FutureTask<R> task = new FutureTask<R>(stages.get(i));
+                task.run();
+                results[i] = OrderedParallelRunner.getResult(task);
+                if (onStageFinished != null) {
+                    onStageFinished.call(i, (R) results[i]);
+                }
+            }
+            return (List<R>) toList(results);
+        }
+
+        LinkedBlockingQueue<Integer> finished = new LinkedBlockingQueue<Integer>();
+        List<StageTask<R>> tasks = new ArrayList<StageTask<R>>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new StageTask<R>(stages.get(i), i, finished));
+        }
+
+        ExecutorService executor = SharedExecutor.getExecutor();
+        for (StageTask<R> task : tasks) {
+            executor.execute(task);
+        }
+
+        try {
+            int remaining = size;
+            while (remaining > 0) {
+                Integer index = finished.poll(HELP_AFTER_MILLIS, TimeUnit.MILLISECONDS);
+                if (index == null) {
+                    //Nothing finished in a while: run some stage still not started by the executor.
+                    for (StageTask<R> task : tasks) {
+                        if (task.tryRun()) {
+                            break;
+                        }
+                    }
+                    continue;
+                }
+                remaining--;
+                R result = OrderedParallelRunner.getResult(tasks.get(index));
+                results[index] = result;
+                if (onStageFinished != null) {
+                    onStageFinished.call(index, result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            //Only actually does something on errors.
+            for (StageTask<R> task : tasks) {
+                task.cancel(true);
+            }
+        }
+        return (List<R>) toList(results);
+    }
+
+    private static List<Object> toList(Object[] results) {
+        List<Object> ret = new ArrayList<Object>(results.length);
+        for (Object object : results) {
+            ret.add(object);
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,247 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.core.concurrency;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.python.pydev.core.log.Log;
+import org.python.pydev.shared_core.callbacks.ICallback;
+
+/**
+ * Runs tasks which have explicit dependencies among them using multiple threads: each task is started as soon
+ * as all the tasks it depends on are finished (so, independent tasks run concurrently).
+ *
+ * Tasks are run in the shared executor (and in the calling thread, which runs tasks that are ready but still
+ * weren't started by the executor).
+ *
+ * A task which throws an exception is logged and considered finished (a dependency only defines the order in
+ * which tasks run, so, a task must handle the case where what it depends on couldn't be done).
+ */
+public class DependentTasks {
+
+    private static final class Node {
+
+        private final String id;
+        private final String name;
+        private final Runnable runnable;
+        private final String[] dependencies;
+        private final List<Node> dependents = new ArrayList<Node>();
+        private int pendingDependencies;
+        private NodeTask task;
+
+        private Node(String id, String name, Runnable runnable, String[] dependencies) {
+            this.id = id;
+            this.name = name;
+            this.runnable = runnable;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * A task which is only run once (either by the executor or by the calling thread).
+     */
+    private static final class NodeTask extends FutureTask<Object> {
+
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private final Node node;
+
+        private final LinkedBlockingQueue<Node> finished;
+
+        private NodeTask(final Node node, LinkedBlockingQueue<Node> finished) {
+            super(new Runnable() {
+
+                public void run() {
+                    try {
+                        node.runnable.run();
+                    } catch (Throwable e) {
+                        Log.log("Error running: " + node.name, e);
+                    }
+                }
+            }, null);
+            this.node = node;
+            this.finished = finished;
+        }
+
+        @Override
+        public void run() {
+            tryRun();
+        }
+
+        /**
+         * @return true if the task was run in this call (and false if it was already started elsewhere).
+         */
+        private boolean tryRun() {
+            if (started.compareAndSet(false, true)) {
+                super.run();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        protected void done() {
+            finished.add(node);
+        }
+    }
+
+    private final Map<String, Node> nodes = new LinkedHashMap<String, Node>();
+
+    /**
+     * @param id the id of the task (used to declare dependencies).
+     * @param name the name of the task (shown in the progress monitor).
+     * @param dependencies the ids of the tasks which must be finished before this task starts.
+     */
+    public void addTask(String id, String name, Runnable runnable, String... dependencies) {
+        if (nodes.containsKey(id)) {
+            throw new IllegalArgumentException("Task already added: " + id);
+        }
+        nodes.put(id, new Node(id, name, runnable, dependencies));
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Runs all the tasks (returns when all are finished or the monitor is cancelled, in which case tasks which
+     * still weren't started are not run).
+     *
+     * @param monitor worked(1) is called for each finished task (beginTask is not called).
+     * @param onTaskFinished called (in the calling thread) with the id of each task as it finishes. May be null.
+     *
+     * @throws IllegalArgumentException if a dependency isn't available or there's a cycle in the dependencies.
+     */
+    public void run(IProgressMonitor monitor, ICallback<Object, String> onTaskFinished) {
+        List<Node> ready = new ArrayList<Node>();
+        for (Node node : nodes.values()) {
+            node.dependents.clear();
+            node.pendingDependencies = node.dependencies.length;
+        }
+        for (Node node : nodes.values()) {
+            for (String dependency : node.dependencies) {
+                Node dependencyNode = nodes.get(dependency);
+                if (dependencyNode == null) {
+                    throw new IllegalArgumentException("Task: " + node.id + " depends on unavailable task: "
+                            + dependency);
+                }
+                dependencyNode.dependents.add(node);
+            }
+            if (node.pendingDependencies == 0) {
+                ready.add(node);
+            }
+        }
+        checkNoCycles(ready);
+
+        final LinkedBlockingQueue<Node> finished = new LinkedBlockingQueue<Node>();
+        List<Node> started = new ArrayList<Node>();
+        boolean parallel = SharedExecutor.getNumberOfThreads() > 1;
+        ExecutorService executor = parallel ? SharedExecutor.getExecutor() : null;
+
+        int running = 0;
+        try {
+            while (true) {
+                if (!monitor.isCanceled()) {
+                    for (Node node : ready) {
+                        node.task = new NodeTask(node, finished);
+                        started.add(node);
+                        running++;
+                        if (parallel) {
+                            executor.execute(node.task);
+                        } else {
+                            node.task.run();
+                        }
+                    }
+                }
+                ready.clear();
+                if (running == 0) {
+                    break;
+                }
+
+                Node node = finished.poll();
+                if (node == null) {
+                    //Help with some task which the executor still didn't start (the ones already running elsewhere
+                    //are skipped).
+                    for (Node s : started) {
+                        if (s.task.tryRun()) {
+                            break;
+                        }
+                    }
+                    node = finished.poll(50, TimeUnit.MILLISECONDS);
+                    if (node == null) {
+                        continue;
+                    }
+                }
+                running--;
+                started.remove(node);
+                monitor.worked(1);
+                if (onTaskFinished != null) {
+                    onTaskFinished.call(node.id);
+                }
+                for (Node dependent : node.dependents) {
+                    dependent.pendingDependencies--;
+                    if (dependent.pendingDependencies == 0) {
+                        ready.add(dependent);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Checks that all the tasks are reachable from the tasks without dependencies (otherwise there's a cycle).
+     */
+    private void checkNoCycles(List<Node> ready) {
+        Map<Node, Integer> pending = new LinkedHashMap<Node, Integer>();
+        for (Node node : nodes.values()) {
+            pending.put(node, node.dependencies.length);
+        }
+        List<Node> current = new ArrayList<Node>(ready);
+        Set<Node> visited = new HashSet<Node>(current);
+        while (current.size() > 0) {
+            List<Node> next = new ArrayList<Node>();
+            for (Node node : current) {
+                for (Node dependent : node.dependents) {
+                    int p = pending.get(dependent) - 1;
+                    pending.put(dependent, p);
+                    if (p == 0 && visited.add(dependent)) {
+                        next.add(dependent);
+                    }
+                }
+            }
+            current = next;
+        }
+        if (visited.size() != nodes.size()) {
+            List<String> inCycle = new ArrayList<String>();
+            for (Node node : nodes.values()) {
+                if (!visited.contains(node)) {
+                    inCycle.add(node.id);
+                }
+            }
+            throw new IllegalArgumentException("Cycle in the dependencies of tasks: " + inCycle);
+        }
+    }
+}
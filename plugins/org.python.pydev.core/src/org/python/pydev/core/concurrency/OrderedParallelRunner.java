@@ -0,0 +1,115 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.core.concurrency;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.python.pydev.shared_core.callbacks.ICallback;
+
+/**
+ * Helper to compute something for each item of a list using multiple threads while still consuming the results
+ * in the same order of the items (in the thread that called it), so, the final result is deterministic.
+ *
+ * Only a bounded number of items may be in-flight at any time (being computed or computed and waiting to
+ * be consumed), so, the memory used is bounded even if each computation holds a lot of memory (i.e.: a
+ * parsed module).
+ *
+ * If some computation throws an exception, the computations still pending are cancelled and the exception
+ * is re-thrown in the calling thread (so, an OperationCanceledException thrown from a computation works
+ * as expected).
+ */
+public class OrderedParallelRunner {
+
+    /**
+     * Same as run(items, compute, consume, maxInFlight) using 2 * the number of threads as the maximum number
+     * of items in-flight.
+     */
+    public static <T, R> void run(List<T> items, ICallback<R, T> compute, ICallback<Object, R> consume) {
+        run(items, compute, consume, 2 * SharedExecutor.getNumberOfThreads());
+    }
+
+    /**
+     * @param items the items to be computed.
+     * @param compute called (in some thread of the pool) to compute the result for each item.
+     * @param consume called (in the calling thread) with the result of each computation, in the same order of
+     * the items.
+     * @param maxInFlight the maximum number of items which may be computed without being consumed.
+     */
+    public static <T, R> void run(List<T> items, final ICallback<R, T> compute, ICallback<Object, R> consume,
+            int maxInFlight) {
+        int size = items.size();
+        if (size <= 1 || maxInFlight <= 1 || SharedExecutor.getNumberOfThreads() <= 1) {
+            //No point in going parallel.
+            for (T item : items) {
+                consume.call(compute.call(item));
+            }
+            return;
+        }
+
+        ExecutorService pool = SharedExecutor.getExecutor();
+        ArrayDeque<FutureTask<R>> inFlight = new ArrayDeque<FutureTask<R>>(maxInFlight);
+        int next = 0;
+        try {
+            while (next < size || !inFlight.isEmpty()) {
+                while (next < size && inFlight.size() < maxInFlight) {
+                    final T item = items.get(next);
+                    next++;
+                    FutureTask<R> task = new FutureTask<R>(new Callable<R>() {
+
+                        public R call() throws Exception {
+                            return compute.call(item);
+                        }
+                    });
+                    inFlight.add(task);
+                    pool.execute(task);
+                }
+                FutureTask<R> head = inFlight.removeFirst();
+                //If it still wasn't started, run it in this thread (so, we don't depend on a free thread in the
+                //pool -- this thread could even be one of the threads of the pool).
+                head.run();
+                consume.call(getResult(head));
+            }
+        } finally {
+            //Only actually does something on errors (otherwise everything was already consumed).
+            for (FutureTask<R> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @return the result of the given future, re-throwing the exception thrown in the computation (if any).
+     */
+    /*default*/static <R> R getResult(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+}
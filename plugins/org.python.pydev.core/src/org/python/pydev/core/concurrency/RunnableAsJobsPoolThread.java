@@ -17,6 +17,9 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.python.pydev.core.CorePlugin;
 import org.python.pydev.core.MathUtils;
 import org.python.pydev.core.log.Log;
+import org.python.pydev.shared_core.metrics.Histogram;
+import org.python.pydev.shared_core.metrics.LatencyTimer;
+import org.python.pydev.shared_core.metrics.Metrics;
 import org.python.pydev.shared_core.structure.Tuple;
 
 /**
@@ -25,6 +28,10 @@ import org.python.pydev.shared_core.structure.Tuple;
  * The runnables will be run as eclipse jobs. 
  */
 public class RunnableAsJobsPoolThread extends Thread {
+
+    private static final Histogram queueDepthHistogram = Metrics.histogram("jobs_pool.queue_depth");
+    private static final LatencyTimer runTimer = Metrics.timer("jobs_pool.run");
+
     /**
      * 
      * We cannot have more than XX jobs scheduled at any time. 
@@ -137,7 +144,9 @@ public class RunnableAsJobsPoolThread extends Thread {
                                 ((IRunnableWithMonitor) r).setMonitor(monitor);
                             }
                             runnable[0] = null;//make sure it'll be available for garbage collection ASAP.
+                            long start = runTimer.start();
                             r.run();
+                            runTimer.stop(start);
                         } catch (RuntimeException e) {
                             if (CorePlugin.getDefault() != null) {
                                 //Only log if eclipse still didn't shutdown.
@@ -161,9 +170,12 @@ public class RunnableAsJobsPoolThread extends Thread {
     }
 
     public void scheduleToRun(final IRunnableWithMonitor runnable, final String name) {
+        int size;
         synchronized (lockRunnables) {
             runnables.add(new Tuple<Runnable, String>(runnable, name));
+            size = runnables.size();
         }
+        queueDepthHistogram.record(size);
         canRunSemaphore.release();
     }
 
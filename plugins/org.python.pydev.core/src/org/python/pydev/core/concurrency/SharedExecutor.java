@@ -0,0 +1,68 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.core.concurrency;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provides the executor shared by the helpers which do CPU-bound computations in parallel (it has one thread
+ * per processor and its threads are daemons which die when idle).
+ * 
+ * Note that clients which wait for tasks submitted to it must not rely on a free thread being available (a
+ * client may itself be running in one of its threads), so, they should be able to run pending tasks in the
+ * calling thread.
+ */
+public class SharedExecutor {
+
+    private static ExecutorService executor;
+
+    private static int numberOfThreads;
+
+    /**
+     * @return the number of threads in the shared executor.
+     */
+    public static synchronized int getNumberOfThreads() {
+        if (numberOfThreads == 0) {
+            numberOfThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        }
+        return numberOfThreads;
+    }
+
+    /**
+     * @return the executor (created on the first request).
+     */
+    public static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            final AtomicInteger threadNumber = new AtomicInteger(0);
+            int threads = getNumberOfThreads();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "PyDev SharedExecutor-" + threadNumber.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            //Don't keep threads alive when idle.
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        return executor;
+    }
+
+}
@@ -11,25 +11,18 @@
 
 package org.python.pydev.core.docutils;
 
-import java.util.ArrayList;
-import java.util.List;
-
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentExtension3;
 import org.eclipse.jface.text.IDocumentPartitioner;
-import org.eclipse.jface.text.rules.EndOfLineRule;
-import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.IPartitionTokenScanner;
 import org.eclipse.jface.text.rules.IToken;
-import org.eclipse.jface.text.rules.MultiLineRule;
-import org.eclipse.jface.text.rules.PatternRule;
-import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
-import org.eclipse.jface.text.rules.SingleLineRule;
 import org.eclipse.jface.text.rules.Token;
 import org.python.pydev.core.IPythonPartitions;
 import org.python.pydev.core.log.Log;
 
 /**
- * Rule-based partition scanner
+ * Partition scanner (written as a state machine).
  * 
  * Simple, fast parsing of the document into partitions.<p>
  * This is like a rough 1st pass at parsing. We only parse
@@ -38,75 +31,305 @@ import org.python.pydev.core.log.Log;
  * and colored there.<p>
  * 
  * "An IPartitionTokenScanner can also start in the middle of a partition,
- * if it knows the type of the partition."
+ * if it knows the type of the partition."<p>
+ * 
+ * The partitions found are the same ones the previous rule-based scanner found (''' and """ strings end at the
+ * end of the document if not closed, ' and " strings end at the end of the line unless it's escaped, `backquotes`
+ * and comments end at the end of the line), but:<p>
+ * - the contents between partitions are returned as a single token (and not one token for each char);<p>
+ * - the document is read in chunks (and not char by char);<p>
+ * - when the partitioner asks to resume in the middle of a string, the scan starts at the start of the line of the
+ * change and not at the start of the string (the state at the start of a line inside a string is given by the
+ * partition type, so, the partitions work as the cache of the start state of the lines). The partitioner stops
+ * asking for new tokens when the partitions found are the same ones it already had (i.e.: when the states converge
+ * again).
  */
-public class PyPartitionScanner extends RuleBasedPartitionScanner implements IPythonPartitions {
+public class PyPartitionScanner implements IPartitionTokenScanner, IPythonPartitions {
+
+    private static final IToken MULTILINE_STRING1 = new Token(IPythonPartitions.PY_MULTILINE_STRING1);
+    private static final IToken MULTILINE_STRING2 = new Token(IPythonPartitions.PY_MULTILINE_STRING2);
+    private static final IToken SINGLELINE_STRING1 = new Token(IPythonPartitions.PY_SINGLELINE_STRING1);
+    private static final IToken SINGLELINE_STRING2 = new Token(IPythonPartitions.PY_SINGLELINE_STRING2);
+    private static final IToken BACKQUOTES = new Token(IPythonPartitions.PY_BACKQUOTES);
+    private static final IToken COMMENT = new Token(IPythonPartitions.PY_COMMENT);
+    private static final IToken DEFAULT = new Token(null);
+
+    /**
+     * Number of chars gotten from the document at once.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    private IDocument document;
+    private int offset;
+    private int end;
+    private int tokenOffset;
+
+    /**
+     * Chars in the document from bufferStart to bufferStart + bufferLen.
+     */
+    private final char[] buffer = new char[CHUNK_SIZE];
+    private int bufferStart;
+    private int bufferLen;
+
+    /**
+     * When resuming in the middle of a string, the type of the partition and its start (reset when the first token
+     * is returned).
+     */
+    private String resumeContentType;
+    private int resumePartitionOffset = -1;
+
     public PyPartitionScanner() {
-        super();
-        List<IPredicateRule> rules = new ArrayList<IPredicateRule>();
-
-        addMultilineStringRule(rules);
-        addSinglelineStringRule(rules);
-        addReprRule(rules);
-        addCommentRule(rules);
-
-        setPredicateRules(rules.toArray(new IPredicateRule[0]));
-    }
-
-    private void addReprRule(List<IPredicateRule> rules) {
-        rules.add(new SingleLineRule("`", "`", new Token(IPythonPartitions.PY_BACKQUOTES)));
-    }
-
-    private void addSinglelineStringRule(List<IPredicateRule> rules) {
-        //        IToken singleLineString = new Token(PY_SINGLELINE_STRING);
-        //        rules.add(new SingleLineRule("\"", "\"", singleLineString, '\\'));
-        //        rules.add(new SingleLineRule("'", "'", singleLineString, '\\')); -- changed to the construct below because we need to continue on escape
-
-        IToken singleLineString1 = new Token(IPythonPartitions.PY_SINGLELINE_STRING1);
-        IToken singleLineString2 = new Token(IPythonPartitions.PY_SINGLELINE_STRING2);
-        // deal with "" and '' strings
-        boolean breaksOnEOL = true;
-        boolean breaksOnEOF = false;
-        boolean escapeContinuesLine = true;
-        rules.add(new PatternRule("'", "'", singleLineString1, '\\', breaksOnEOL, breaksOnEOF, escapeContinuesLine));
-        rules.add(new PatternRule("\"", "\"", singleLineString2, '\\', breaksOnEOL, breaksOnEOF, escapeContinuesLine));
-    }
-
-    private void addMultilineStringRule(List<IPredicateRule> rules) {
-        IToken multiLineString1 = new Token(IPythonPartitions.PY_MULTILINE_STRING1);
-        IToken multiLineString2 = new Token(IPythonPartitions.PY_MULTILINE_STRING2);
-        // deal with ''' and """ strings
-
-        boolean breaksOnEOF = true;
-        //If we don't add breaksOnEOF = true it won't properly recognize the rule while typing
-        //in the following case:
-        ///'''<new line>
-        //text
-        //''' <-- it's already lost at this point and the 'text' will not be in a multiline string partition.
-
-        rules.add(new MultiLineRule("'''", "'''", multiLineString1, '\\', breaksOnEOF));
-        rules.add(new MultiLineRule("\"\"\"", "\"\"\"", multiLineString2, '\\', breaksOnEOF));
-
-        //there is a bug in this construct: When parsing a simple document such as:
-        //
-        //"""ttt"""
-        //print 'a'
-        //
-        //if lines are feed after 'ttt', it ends up considering the whole document as a multiline string.
-        //the bug is reported at: http://sourceforge.net/tracker/index.php?func=detail&aid=1402165&group_id=85796&atid=577329
-        //
-        //some regards on the bug:
-        //- it does not happen if the multiline has ''' instead of """
-        //- also, if we first add the """ rule and after the ''' rule, the bug happens with ''' and not """
-        //- if the user later changes the first line of that multiline or a line above it, it ends up parsing correctly again
-        //- if we let just one of the constructs, no problem happens
-        //
-        //I also tried creating a new token for it, but it had problems too (not the same ones, but had other problems).
-    }
-
-    private void addCommentRule(List<IPredicateRule> rules) {
-        IToken comment = new Token(IPythonPartitions.PY_COMMENT);
-        rules.add(new EndOfLineRule("#", comment));
+    }
+
+    public void setRange(IDocument document, int offset, int length) {
+        this.document = document;
+        this.offset = offset;
+        this.end = offset + length;
+        this.tokenOffset = offset;
+        this.bufferLen = 0;
+        this.resumeContentType = null;
+        this.resumePartitionOffset = -1;
+    }
+
+    public void setPartialRange(IDocument document, int offset, int length, String contentType, int partitionOffset) {
+        int end = offset + length;
+        if (partitionOffset > offset) {
+            partitionOffset = -1;
+        }
+        int lineStart = getLineStart(document, offset);
+
+        if (contentType == null || IPythonPartitions.PY_DEFAULT.equals(contentType)) {
+            //Code: the start of the line is in the default state (so, there's no need to go back to the end of the
+            //previous partition, which may be much before).
+            int start = Math.max(partitionOffset, lineStart);
+            setRange(document, start, end - start);
+            return;
+        }
+
+        if (partitionOffset < 0) {
+            setRange(document, offset, length);
+            return;
+        }
+        setRange(document, partitionOffset, end - partitionOffset);
+        if (lineStart > partitionOffset && isStringType(contentType)) {
+            //The start of the string is in a previous line: resume at the start of the line of the change.
+            this.resumeContentType = contentType;
+            this.resumePartitionOffset = partitionOffset;
+            this.offset = lineStart;
+        }
+    }
+
+    private static boolean isStringType(String contentType) {
+        return IPythonPartitions.PY_MULTILINE_STRING1.equals(contentType)
+                || IPythonPartitions.PY_MULTILINE_STRING2.equals(contentType)
+                || IPythonPartitions.PY_SINGLELINE_STRING1.equals(contentType)
+                || IPythonPartitions.PY_SINGLELINE_STRING2.equals(contentType);
+    }
+
+    private static int getLineStart(IDocument document, int offset) {
+        try {
+            return document.getLineOffset(document.getLineOfOffset(offset));
+        } catch (BadLocationException e) {
+            return offset;
+        }
+    }
+
+    public int getTokenOffset() {
+        return tokenOffset;
+    }
+
+    public int getTokenLength() {
+        return Math.min(offset, end) - tokenOffset;
+    }
+
+    public IToken nextToken() {
+        if (resumeContentType != null) {
+            IToken token = resume();
+            if (token != null) {
+                return token;
+            }
+        }
+        tokenOffset = offset;
+        if (offset >= end) {
+            return Token.EOF;
+        }
+
+        char c = charAt(offset);
+        int found;
+        switch (c) {
+            case '\'':
+            case '"':
+                if (offset + 2 < end && charAt(offset + 1) == c && charAt(offset + 2) == c) {
+                    offset = endOfMultilineString(offset + 3, c);
+                    return c == '\'' ? MULTILINE_STRING1 : MULTILINE_STRING2;
+                }
+                found = endOfSinglelineString(offset + 1, c);
+                if (found != -1) {
+                    offset = found;
+                    return c == '\'' ? SINGLELINE_STRING1 : SINGLELINE_STRING2;
+                }
+                break;
+
+            case '`':
+                found = endOfBackquotes(offset + 1);
+                if (found != -1) {
+                    offset = found;
+                    return BACKQUOTES;
+                }
+                break;
+
+            case '#':
+                offset = endOfComment(offset + 1);
+                return COMMENT;
+        }
+
+        //Code (or a string which isn't closed): go on until a char which may start a partition.
+        offset++;
+        while (offset < end) {
+            c = charAt(offset);
+            if (c == '\'' || c == '"' || c == '`' || c == '#') {
+                break;
+            }
+            offset++;
+        }
+        return DEFAULT;
+    }
+
+    /**
+     * Continues a string which started in a previous line.
+     * 
+     * @return the token or null if the string isn't closed (in which case the scan restarts at the start of the
+     * partition).
+     */
+    private IToken resume() {
+        String contentType = resumeContentType;
+        tokenOffset = resumePartitionOffset;
+        resumeContentType = null;
+        resumePartitionOffset = -1;
+
+        if (IPythonPartitions.PY_MULTILINE_STRING1.equals(contentType)) {
+            offset = endOfMultilineString(offset, '\'');
+            return MULTILINE_STRING1;
+        }
+        if (IPythonPartitions.PY_MULTILINE_STRING2.equals(contentType)) {
+            offset = endOfMultilineString(offset, '"');
+            return MULTILINE_STRING2;
+        }
+        boolean single = IPythonPartitions.PY_SINGLELINE_STRING1.equals(contentType);
+        int found = endOfSinglelineString(offset, single ? '\'' : '"');
+        if (found != -1) {
+            offset = found;
+            return single ? SINGLELINE_STRING1 : SINGLELINE_STRING2;
+        }
+        offset = tokenOffset;
+        return null;
+    }
+
+    /**
+     * @return the end of a ''' or """ string (the escape char skips the next char and the string ends at the end of
+     * the document if it isn't closed).
+     */
+    private int endOfMultilineString(int i, char quote) {
+        while (i < end) {
+            char c = charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c != quote) {
+                i++;
+            } else if (i + 1 >= end || (charAt(i + 1) == quote && i + 2 >= end)) {
+                return end;
+            } else if (charAt(i + 1) == quote && charAt(i + 2) == quote) {
+                return i + 3;
+            } else {
+                i++;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * @return the end of a ' or " string (which ends at the end of the line unless the new line is escaped) or -1
+     * if the document ends before the string.
+     */
+    private int endOfSinglelineString(int i, char quote) {
+        while (i < end) {
+            char c = charAt(i);
+            if (c == '\\') {
+                i++;
+                if (i < end) {
+                    i = skipNewLineOrChar(i);
+                }
+            } else if (c == quote) {
+                return i + 1;
+            } else if (c == '\r' || c == '\n') {
+                return skipNewLineOrChar(i);
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the end of a `backquotes` partition (which ends at the end of the line) or -1 if the document ends
+     * before it.
+     */
+    private int endOfBackquotes(int i) {
+        while (i < end) {
+            char c = charAt(i);
+            if (c == '`') {
+                return i + 1;
+            } else if (c == '\r' || c == '\n') {
+                return skipNewLineOrChar(i);
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the end of a comment (the new line is part of the comment).
+     */
+    private int endOfComment(int i) {
+        while (i < end) {
+            char c = charAt(i);
+            if (c == '\r' || c == '\n') {
+                return skipNewLineOrChar(i);
+            }
+            i++;
+        }
+        return end;
+    }
+
+    /**
+     * @return the offset after the char at i (or after the \r\n at i).
+     */
+    private int skipNewLineOrChar(int i) {
+        if (charAt(i) == '\r' && i + 1 < end && charAt(i + 1) == '\n') {
+            return i + 2;
+        }
+        return i + 1;
+    }
+
+    /**
+     * @param i an offset in the document (must be < end).
+     */
+    private char charAt(int i) {
+        int pos = i - bufferStart;
+        if (pos < 0 || pos >= bufferLen) {
+            bufferStart = i;
+            bufferLen = Math.min(CHUNK_SIZE, end - i);
+            try {
+                document.get(i, bufferLen).getChars(0, bufferLen, buffer, 0);
+            } catch (BadLocationException e) {
+                //The range is no longer valid in the document: just finish the scan.
+                end = i;
+                bufferLen = 0;
+                return '\n';
+            }
+            pos = 0;
+        }
+        return buffer[pos];
     }
 
     /**
@@ -0,0 +1,90 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.core.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.preference.PreferenceStore;
+
+public class PyPreferencesCacheTest extends TestCase {
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(PyPreferencesCacheTest.class);
+    }
+
+    public void testTypedValues() throws Exception {
+        PreferenceStore store = new PreferenceStore();
+        store.setValue("bool", true);
+        store.setValue("int", 10);
+        store.setValue("str", "value");
+        PyPreferencesCache cache = new PyPreferencesCache(store);
+        assertTrue(cache.getBoolean("bool"));
+        assertEquals(10, cache.getInt("int"));
+        assertEquals("value", cache.getString("str"));
+        assertEquals(5, cache.getInt("unavailable", 5));
+
+        //putValue doesn't notify listeners: the cached values are still returned.
+        store.putValue("bool", "false");
+        store.putValue("int", "20");
+        store.putValue("str", "other");
+        assertTrue(cache.getBoolean("bool"));
+        assertEquals(10, cache.getInt("int"));
+        assertEquals("value", cache.getString("str"));
+
+        //Only the key changed is gotten again from the store.
+        store.setValue("int", 30);
+        assertTrue(cache.getBoolean("bool"));
+        assertEquals(30, cache.getInt("int"));
+        assertEquals("value", cache.getString("str"));
+
+        cache.clear("bool");
+        assertFalse(cache.getBoolean("bool"));
+    }
+
+    public void testConcurrentReadsAndChanges() throws Exception {
+        final PreferenceStore store = new PreferenceStore();
+        final PyPreferencesCache cache = new PyPreferencesCache(store);
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        final int changes = 2000;
+
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        while (cache.getInt("key") < changes) {
+                            assertFalse(cache.getBoolean("other"));
+                        }
+                    } catch (Throwable e) {
+                        synchronized (errors) {
+                            errors.add(e);
+                        }
+                    }
+                }
+            };
+            readers[i].start();
+        }
+        for (int i = 1; i <= changes; i++) {
+            store.setValue("key", i);
+        }
+        for (Thread thread : readers) {
+            thread.join(10000);
+            assertFalse(thread.isAlive());
+        }
+        assertEquals(errors.toString(), 0, errors.size());
+        assertEquals(changes, cache.getInt("key"));
+    }
+}
@@ -42,6 +42,17 @@ public class SoftHashMapTest extends TestCase {
         }
     }
 
+    public void testEvict() throws Exception {
+        SoftHashMap<Integer, String> softHashMap = new SoftHashMap<Integer, String>();
+        for (int i = 0; i < 10; i++) {
+            softHashMap.put(i, "value" + i);
+        }
+        softHashMap.evict(0.3);
+        assertEquals(7, softHashMap.size());
+        softHashMap.evict(1);
+        assertEquals(0, softHashMap.size());
+    }
+
     /**
      * Testing for checking assumptions done about the Queue:
      * 
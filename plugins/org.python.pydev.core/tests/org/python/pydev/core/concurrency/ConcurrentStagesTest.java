@@ -0,0 +1,145 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.core.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.python.pydev.shared_core.callbacks.ICallback2;
+
+public class ConcurrentStagesTest extends TestCase {
+
+    public void testResultsInStageOrder() throws Exception {
+        ConcurrentStages<String> stages = new ConcurrentStages<String>();
+        for (int i = 0; i < 5; i++) {
+            final int stage = i;
+            stages.addStage(new Callable<String>() {
+
+                public String call() throws Exception {
+                    Thread.sleep((5 - stage) * 5);
+                    return "stage" + stage;
+                }
+            });
+        }
+        final List<Integer> notified = new ArrayList<Integer>();
+        final Thread callingThread = Thread.currentThread();
+        List<String> results = stages.run(new ICallback2<Object, Integer, String>() {
+
+            public Object call(Integer stage, String result) {
+                assertSame(callingThread, Thread.currentThread());
+                assertEquals("stage" + stage, result);
+                notified.add(stage);
+                return null;
+            }
+        });
+        assertEquals(5, results.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("stage" + i, results.get(i));
+        }
+        assertEquals(5, notified.size());
+    }
+
+    public void testFastStageNotifiedBeforeSlowStageFinishes() throws Exception {
+        if (SharedExecutor.getNumberOfThreads() <= 1) {
+            return; //stages run sequentially in this case.
+        }
+        final CountDownLatch fastNotified = new CountDownLatch(1);
+        ConcurrentStages<String> stages = new ConcurrentStages<String>();
+        stages.addStage(new Callable<String>() {
+
+            public String call() throws Exception {
+                return "first";
+            }
+        });
+        stages.addStage(new Callable<String>() {
+
+            public String call() throws Exception {
+                //only finishes after the fast one was notified.
+                assertTrue(fastNotified.await(5, TimeUnit.SECONDS));
+                return "slow";
+            }
+        });
+        final List<String> notified = new ArrayList<String>();
+        stages.run(new ICallback2<Object, Integer, String>() {
+
+            public Object call(Integer stage, String result) {
+                notified.add(result);
+                fastNotified.countDown();
+                return null;
+            }
+        });
+        assertEquals("first", notified.get(0));
+        assertEquals("slow", notified.get(1));
+    }
+
+    public void testSlowFirstStageDoesNotDelayOtherStages() throws Exception {
+        if (SharedExecutor.getNumberOfThreads() <= 1) {
+            return; //stages run sequentially in this case.
+        }
+        final CountDownLatch fastNotified = new CountDownLatch(1);
+        ConcurrentStages<String> stages = new ConcurrentStages<String>();
+        stages.addStage(new Callable<String>() {
+
+            public String call() throws Exception {
+                //only finishes after the stage added later was notified.
+                assertTrue(fastNotified.await(5, TimeUnit.SECONDS));
+                return "slow";
+            }
+        });
+        stages.addStage(new Callable<String>() {
+
+            public String call() throws Exception {
+                return "fast";
+            }
+        });
+        final List<String> notified = new ArrayList<String>();
+        List<String> results = stages.run(new ICallback2<Object, Integer, String>() {
+
+            public Object call(Integer stage, String result) {
+                notified.add(result);
+                fastNotified.countDown();
+                return null;
+            }
+        });
+        assertEquals("fast", notified.get(0));
+        assertEquals("slow", notified.get(1));
+        assertEquals("slow", results.get(0));
+        assertEquals("fast", results.get(1));
+    }
+
+    public void testExceptionRethrown() throws Exception {
+        ConcurrentStages<String> stages = new ConcurrentStages<String>();
+        stages.addStage(new Callable<String>() {
+
+            public String call() throws Exception {
+                return "ok";
+            }
+        });
+        stages.addStage(new Callable<String>() {
+
+            public String call() throws Exception {
+                throw new IllegalStateException("error");
+            }
+        });
+        try {
+            stages.run(null);
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            assertEquals("error", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.core.concurrency;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.python.pydev.shared_core.callbacks.ICallback;
+
+public class DependentTasksTest extends TestCase {
+
+    private Runnable createTask(final List<String> ran, final String id) {
+        return new Runnable() {
+
+            public void run() {
+                ran.add(id);
+            }
+        };
+    }
+
+    public void testDependenciesOrder() throws Exception {
+        final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+        DependentTasks tasks = new DependentTasks();
+        //Added in a different order from the one they must run.
+        tasks.addTask("d", "Task d", createTask(ran, "d"), "b", "c");
+        tasks.addTask("b", "Task b", createTask(ran, "b"), "a");
+        tasks.addTask("c", "Task c", createTask(ran, "c"), "a");
+        tasks.addTask("a", "Task a", createTask(ran, "a"));
+        tasks.addTask("e", "Task e", createTask(ran, "e"));
+
+        final List<String> notified = new ArrayList<String>();
+        final Thread callingThread = Thread.currentThread();
+        tasks.run(new NullProgressMonitor(), new ICallback<Object, String>() {
+
+            public Object call(String id) {
+                assertSame(callingThread, Thread.currentThread());
+                notified.add(id);
+                return null;
+            }
+        });
+        assertEquals(5, ran.size());
+        assertEquals(5, notified.size());
+        assertTrue(notified.indexOf("a") < notified.indexOf("b"));
+        assertTrue(notified.indexOf("a") < notified.indexOf("c"));
+        assertTrue(notified.indexOf("b") < notified.indexOf("d"));
+        assertTrue(notified.indexOf("c") < notified.indexOf("d"));
+        assertTrue(ran.indexOf("b") < ran.indexOf("d"));
+    }
+
+    public void testIndependentTasksRunConcurrently() throws Exception {
+        if (SharedExecutor.getNumberOfThreads() <= 1) {
+            return; //tasks run sequentially in this case.
+        }
+        final CountDownLatch latch = new CountDownLatch(2);
+        final List<Boolean> results = Collections.synchronizedList(new ArrayList<Boolean>());
+        Runnable waitOther = new Runnable() {
+
+            public void run() {
+                latch.countDown();
+                try {
+                    //only finishes if the other one is running at the same time.
+                    results.add(latch.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        DependentTasks tasks = new DependentTasks();
+        tasks.addTask("a", "Task a", waitOther);
+        tasks.addTask("b", "Task b", waitOther);
+        tasks.run(new NullProgressMonitor(), null);
+        assertEquals(2, results.size());
+        assertTrue(results.get(0));
+        assertTrue(results.get(1));
+    }
+
+    public void testHelpsWithTasksNotStarted() throws Exception {
+        int threads = SharedExecutor.getNumberOfThreads();
+        if (threads <= 1) {
+            return; //tasks run sequentially in this case.
+        }
+        //Keep all the threads of the executor but one busy.
+        final CountDownLatch releaseExecutor = new CountDownLatch(1);
+        final CountDownLatch executorBusy = new CountDownLatch(threads - 1);
+        for (int i = 0; i < threads - 1; i++) {
+            SharedExecutor.getExecutor().execute(new Runnable() {
+
+                public void run() {
+                    executorBusy.countDown();
+                    try {
+                        releaseExecutor.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+        }
+        try {
+            assertTrue(executorBusy.await(5, TimeUnit.SECONDS));
+            final Thread callingThread = Thread.currentThread();
+            for (int i = 0; i < 10; i++) {
+                final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+                final CountDownLatch othersRan = new CountDownLatch(2);
+                final List<Boolean> results = Collections.synchronizedList(new ArrayList<Boolean>());
+                DependentTasks tasks = new DependentTasks();
+                //When taken by the free thread of the executor, only finishes after the others are run by the
+                //calling thread (which must skip it when helping).
+                tasks.addTask("a", "Task a", new Runnable() {
+
+                    public void run() {
+                        if (Thread.currentThread() == callingThread) {
+                            results.add(true);
+                            return;
+                        }
+                        try {
+                            results.add(othersRan.await(5, TimeUnit.SECONDS));
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+                for (final String id : new String[] { "b", "c" }) {
+                    tasks.addTask(id, "Task " + id, new Runnable() {
+
+                        public void run() {
+                            ran.add(id);
+                            othersRan.countDown();
+                        }
+                    });
+                }
+                tasks.run(new NullProgressMonitor(), null);
+                assertEquals(2, ran.size());
+                assertEquals(1, results.size());
+                assertTrue(results.get(0));
+            }
+        } finally {
+            releaseExecutor.countDown();
+        }
+    }
+
+    public void testErrorDoesNotStopDependents() throws Exception {
+        final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+        DependentTasks tasks = new DependentTasks();
+        tasks.addTask("a", "Task a", new Runnable() {
+
+            public void run() {
+                throw new RuntimeException("Expected error in test");
+            }
+        });
+        tasks.addTask("b", "Task b", createTask(ran, "b"), "a");
+        tasks.run(new NullProgressMonitor(), null);
+        assertEquals(1, ran.size());
+    }
+
+    public void testCancelled() throws Exception {
+        final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+        final NullProgressMonitor monitor = new NullProgressMonitor();
+        DependentTasks tasks = new DependentTasks();
+        tasks.addTask("a", "Task a", new Runnable() {
+
+            public void run() {
+                ran.add("a");
+                monitor.setCanceled(true);
+            }
+        });
+        tasks.addTask("b", "Task b", createTask(ran, "b"), "a");
+        tasks.run(monitor, null);
+        assertEquals(1, ran.size());
+    }
+
+    public void testInvalidDependencies() throws Exception {
+        DependentTasks tasks = new DependentTasks();
+        tasks.addTask("a", "Task a", createTask(new ArrayList<String>(), "a"), "unavailable");
+        try {
+            tasks.run(new NullProgressMonitor(), null);
+            fail("Expected exception");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+
+        tasks = new DependentTasks();
+        tasks.addTask("a", "Task a", createTask(new ArrayList<String>(), "a"));
+        tasks.addTask("b", "Task b", createTask(new ArrayList<String>(), "b"), "a", "c");
+        tasks.addTask("c", "Task c", createTask(new ArrayList<String>(), "c"), "b");
+        try {
+            tasks.run(new NullProgressMonitor(), null);
+            fail("Expected exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("[b, c]"));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.core.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.python.pydev.shared_core.callbacks.ICallback;
+
+public class OrderedParallelRunnerTest extends TestCase {
+
+    public void testResultsConsumedInOrder() throws Exception {
+        List<Integer> items = new ArrayList<Integer>();
+        for (int i = 0; i < 200; i++) {
+            items.add(i);
+        }
+        final List<Integer> consumed = new ArrayList<Integer>();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        OrderedParallelRunner.run(items, new ICallback<Integer, Integer>() {
+
+            public Integer call(Integer arg) {
+                int current = inFlight.incrementAndGet();
+                synchronized (maxInFlight) {
+                    maxInFlight.set(Math.max(maxInFlight.get(), current));
+                }
+                try {
+                    //Make the first ones slower so that the order would change if not handled.
+                    Thread.sleep(arg % 7 == 0 ? 5 : 0);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return arg * 2;
+            }
+        }, new ICallback<Object, Integer>() {
+
+            public Object call(Integer arg) {
+                inFlight.decrementAndGet();
+                consumed.add(arg);
+                return null;
+            }
+        }, 4);
+
+        assertEquals(200, consumed.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i * 2, consumed.get(i).intValue());
+        }
+        assertTrue("Max in flight: " + maxInFlight.get(), maxInFlight.get() <= 4);
+    }
+
+    public void testExceptionIsRethrown() throws Exception {
+        List<Integer> items = new ArrayList<Integer>();
+        for (int i = 0; i < 50; i++) {
+            items.add(i);
+        }
+        final List<Integer> consumed = new ArrayList<Integer>();
+        try {
+            OrderedParallelRunner.run(items, new ICallback<Integer, Integer>() {
+
+                public Integer call(Integer arg) {
+                    if (arg == 10) {
+                        throw new IllegalStateException("cancelled");
+                    }
+                    return arg;
+                }
+            }, new ICallback<Object, Integer>() {
+
+                public Object call(Integer arg) {
+                    consumed.add(arg);
+                    return null;
+                }
+            }, 8);
+            fail("Expected exception.");
+        } catch (IllegalStateException e) {
+            assertEquals("cancelled", e.getMessage());
+        }
+        assertEquals(10, consumed.size());
+    }
+}
@@ -39,7 +39,7 @@ import org.python.pydev.core.log.Log;
 import org.python.pydev.debug.ui.launching.PythonRunnerConfig;
 import org.python.pydev.runners.UniversalRunner;
 import org.python.pydev.runners.UniversalRunner.AbstractRunner;
-import org.python.pydev.shared_core.io.ThreadStreamReader;
+import org.python.pydev.shared_core.io.PumpedStreamReader;
 import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.string.StringUtils;
 import org.python.pydev.shared_core.structure.Tuple;
@@ -78,9 +78,11 @@ public abstract class ProcessWindow extends Dialog {
     private static final int STATE_RUNNING = 1;
     private volatile int state = STATE_NOT_RUNNING;
 
+    private static final int MAX_RETAINED_OUTPUT = 1024 * 1024;
+
     //only while running
-    private ThreadStreamReader err;
-    private ThreadStreamReader std;
+    private PumpedStreamReader err;
+    private PumpedStreamReader std;
     private OutputStream outputStream;
     private ProcessHandler processHandler;
     private Process process;
@@ -481,8 +483,9 @@ public abstract class ProcessWindow extends Dialog {
             process = run.o1;
             if (process != null) {
 
-                std = new ThreadStreamReader(process.getInputStream());
-                err = new ThreadStreamReader(process.getErrorStream());
+                //the contents are consumed by the ProcessHandler (if it's not fast enough, the process waits).
+                std = new PumpedStreamReader(process, process.getInputStream(), null, MAX_RETAINED_OUTPUT, true);
+                err = new PumpedStreamReader(process, process.getErrorStream(), null, MAX_RETAINED_OUTPUT, true);
 
                 std.start();
                 err.start();
@@ -27,7 +27,7 @@ import org.python.pydev.plugin.nature.PythonNature;
 import org.python.pydev.runners.UniversalRunner;
 import org.python.pydev.runners.UniversalRunner.AbstractRunner;
 import org.python.pydev.shared_core.io.FileUtils;
-import org.python.pydev.shared_core.io.ThreadStreamReader;
+import org.python.pydev.shared_core.io.PumpedStreamReader;
 import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.string.StringUtils;
 import org.python.pydev.shared_core.structure.Tuple;
@@ -151,9 +151,9 @@ public class PyCoverage {
                 monitor.setTaskName("Writing to shell...");
 
                 //No need to synchronize as we'll waitFor() the process before getting the contents.
-                ThreadStreamReader inputStream = new ThreadStreamReader(p.getInputStream(), false);
+                PumpedStreamReader inputStream = new PumpedStreamReader(p, p.getInputStream());
                 inputStream.start();
-                ThreadStreamReader errorStream = new ThreadStreamReader(p.getErrorStream(), false);
+                PumpedStreamReader errorStream = new PumpedStreamReader(p, p.getErrorStream());
                 errorStream.start();
 
                 monitor.worked(1);
@@ -198,6 +198,9 @@ public class PyCoverage {
                     }
                 }
 
+                //get what's still in the pipes after the process finishes.
+                inputStream.waitFinished(1000);
+                errorStream.waitFinished(1000);
                 String stdOut = inputStream.getAndClearContents();
                 String stdErr = errorStream.getAndClearContents().trim();
                 if (stdErr.length() > 0) {
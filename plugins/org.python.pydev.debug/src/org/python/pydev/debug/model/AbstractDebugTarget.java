@@ -107,6 +107,11 @@ public abstract class AbstractDebugTarget extends AbstractDebugTargetWithTransmi
 
     private PyRunToLineTarget runToLineTarget;
 
+    /**
+     * Whether the debugger answers CMD_GET_VARIABLE_PAGE (false if it's an older version which doesn't know it).
+     */
+    private volatile boolean variablePagingSupported = true;
+
     public AbstractDebugTarget() {
         modificationChecker = new ValueModificationChecker();
     }
@@ -115,6 +120,14 @@ public abstract class AbstractDebugTarget extends AbstractDebugTargetWithTransmi
         return modificationChecker;
     }
 
+    public boolean isVariablePagingSupported() {
+        return variablePagingSupported;
+    }
+
+    public void setVariablePagingSupported(boolean variablePagingSupported) {
+        this.variablePagingSupported = variablePagingSupported;
+    }
+
     public abstract boolean canTerminate();
 
     public abstract boolean isTerminated();
@@ -19,6 +19,7 @@ import org.python.pydev.core.log.Log;
 import org.python.pydev.debug.core.PydevDebugPlugin;
 import org.python.pydev.debug.model.remote.AbstractDebuggerCommand;
 import org.python.pydev.debug.model.remote.GetVariableCommand;
+import org.python.pydev.debug.model.remote.GetVariablePageCommand;
 import org.python.pydev.debug.model.remote.ICommandResponseListener;
 
 
@@ -27,9 +28,16 @@ import org.python.pydev.debug.model.remote.ICommandResponseListener;
  * 
  * It knows how to fetch its contents over the network.
  * 
+ * The contents are fetched in pages (so that expanding a huge container doesn't have to get all its contents):
+ * when there are more items, the last child is a PyVariableCollectionPage with the next page.
  */
 public class PyVariableCollection extends PyVariable implements ICommandResponseListener, IVariableLocator {
 
+    /**
+     * The number of children gotten at once.
+     */
+    public static final int PAGE_SIZE = 100;
+
     PyVariable[] variables = new PyVariable[0];
     IVariable[] waitVariables = null;
 
@@ -144,7 +152,11 @@ public class PyVariableCollection extends PyVariable implements ICommandResponse
     }
 
     public GetVariableCommand getVariableCommand(AbstractDebugTarget dbg) {
-        return new GetVariableCommand(dbg, getPyDBLocation());
+        if (!dbg.isVariablePagingSupported()) {
+            //older debugger: get all the contents at once
+            return new GetVariableCommand(dbg, getPyDBLocation());
+        }
+        return new GetVariablePageCommand(dbg, getPyDBLocation(), 0, PAGE_SIZE);
     }
 
     public boolean hasVariables() throws DebugException {
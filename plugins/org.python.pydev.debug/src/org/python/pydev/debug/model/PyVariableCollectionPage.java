@@ -0,0 +1,58 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.debug.model;
+
+import org.python.pydev.debug.model.remote.GetVariableCommand;
+import org.python.pydev.debug.model.remote.GetVariablePageCommand;
+
+/**
+ * The 'more...' node added as the last child of a container whose contents didn't fit in a single page: its children
+ * are the next page of the container (and if there are still more items, another 'more...' node).
+ */
+public class PyVariableCollectionPage extends PyVariableCollection {
+
+    public static final String NAME = "more...";
+
+    private final int offset;
+
+    /**
+     * @param locator the locator of the container (or of the previous page).
+     * @param offset the offset of the first item in this page.
+     * @param total the total number of items in the container.
+     */
+    public PyVariableCollectionPage(AbstractDebugTarget target, IVariableLocator locator, int offset, int total) {
+        super(target, NAME, "", "Show items from " + offset + " (total: " + total + ")", locator);
+        this.offset = offset;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * The items in the page are items in the container, so, its location is the same location of the container.
+     */
+    @Override
+    public String getPyDBLocation() {
+        return locator.getPyDBLocation();
+    }
+
+    @Override
+    public GetVariableCommand getVariableCommand(AbstractDebugTarget dbg) {
+        return new GetVariablePageCommand(dbg, getPyDBLocation(), offset, PAGE_SIZE);
+    }
+
+    @Override
+    public boolean supportsValueModification() {
+        return false;
+    }
+}
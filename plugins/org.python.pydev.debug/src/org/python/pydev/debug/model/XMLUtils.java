@@ -267,7 +267,7 @@ public class XMLUtils {
     }
 
     /**
-     * Processes CMD_GET_VARIABLE return
+     * Processes CMD_GET_VARIABLE (and CMD_GET_VARIABLE_PAGE) return
      *
      */
     static class XMLToVariableInfo extends DefaultHandler {
@@ -287,6 +287,16 @@ public class XMLUtils {
             // create a local variable, and add it to locals
             if (qName.equals("var")) {
                 vars.add(createVariable(target, locator, attributes));
+
+            } else if (qName.equals("more")) {
+                // <more offset="100" total="1000000"/> (when only a page of the contents was requested)
+                try {
+                    int offset = Integer.parseInt(attributes.getValue("offset"));
+                    int total = Integer.parseInt(attributes.getValue("total"));
+                    vars.add(new PyVariableCollectionPage(target, locator, offset, total));
+                } catch (NumberFormatException e) {
+                    Log.log(e);
+                }
             }
         }
     }
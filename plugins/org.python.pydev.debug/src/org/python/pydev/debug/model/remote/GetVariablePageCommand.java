@@ -0,0 +1,93 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.debug.model.remote;
+
+import org.python.pydev.debug.model.AbstractDebugTarget;
+
+/**
+ * Gets only a page (offset/limit) of the contents of a variable, so that huge containers don't have to be
+ * resolved entirely (neither in the debugger nor in the IDE).
+ *
+ * The response is the same xml of a GetVariableCommand, with a &lt;more offset="next offset" total="total items"/&gt;
+ * if there are more items after the page.
+ *
+ * If the debugger doesn't answer the page (i.e.: an older pydevd which doesn't know CMD_GET_VARIABLE_PAGE), the
+ * whole contents are requested with CMD_GET_VARIABLE (and its response is the response of this command).
+ */
+public class GetVariablePageCommand extends GetVariableCommand {
+
+    private final int offset;
+    private final int limit;
+
+    /**
+     * The listener set by the client (only notified after the fallback, if needed, completes).
+     */
+    private ICommandResponseListener pageListener;
+
+    public GetVariablePageCommand(AbstractDebugTarget debugger, String locator, int offset, int limit) {
+        super(debugger, locator);
+        this.offset = offset;
+        this.limit = limit;
+        super.setCompletionListener(new ICommandResponseListener() {
+
+            public void commandComplete(AbstractDebuggerCommand cmd) {
+                onPageComplete();
+            }
+        });
+    }
+
+    @Override
+    public void setCompletionListener(ICommandResponseListener listener) {
+        this.pageListener = listener;
+    }
+
+    @Override
+    public String getOutgoing() {
+        return makeCommand(getCommandId(), sequence, offset + "\t" + limit + "\t" + locator);
+    }
+
+    @Override
+    protected int getCommandId() {
+        return CMD_GET_VARIABLE_PAGE;
+    }
+
+    private void onPageComplete() {
+        if (!isError) {
+            notifyPageListener();
+            return;
+        }
+
+        //Error or unexpected response: try again getting all the contents.
+        final GetVariableCommand fallback = new GetVariableCommand(target, locator);
+        fallback.setCompletionListener(new ICommandResponseListener() {
+
+            public void commandComplete(AbstractDebuggerCommand cmd) {
+                if (!fallback.isError) {
+                    //The variable could be gotten, so, the page is what's not supported.
+                    target.setVariablePagingSupported(false);
+                }
+                responseCode = fallback.responseCode;
+                payload = fallback.payload;
+                isError = fallback.isError;
+                notifyPageListener();
+            }
+        });
+        target.postCommand(fallback);
+    }
+
+    private void notifyPageListener() {
+        if (pageListener != null) {
+            pageListener.commandComplete(this);
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.debug.pyunit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.python.pydev.core.log.Log;
+
+/**
+ * Keeps the captured output and error contents of the results of a test run.
+ *
+ * Small contents are kept in memory and contents bigger than SPILL_THRESHOLD are appended to a temporary file
+ * (one per test run), so, runs with many tests which print a lot don't keep all that output in memory (it's only
+ * read back when some result is actually selected in the view).
+ *
+ * The contents are stored from the UI thread, so, the spill file is written by a background thread (and the
+ * contents are kept in memory until they're actually written).
+ */
+final class PyUnitOutputStore {
+
+    /**
+     * Contents with more chars than this are written to disk.
+     */
+    public static int SPILL_THRESHOLD = 8 * 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Writes the spill files of all the stores (a single daemon thread which dies when idle).
+     */
+    private static final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "PyUnit output spill");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    static {
+        writer.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Holds some contents (either in memory or in the spill file).
+     */
+    public static interface IStoredContents {
+
+        String get();
+    }
+
+    private static final class InMemoryContents implements IStoredContents {
+
+        private final String contents;
+
+        private InMemoryContents(String contents) {
+            this.contents = contents;
+        }
+
+        public String get() {
+            return contents;
+        }
+    }
+
+    private final class SpilledContents implements IStoredContents, Runnable {
+
+        /**
+         * The contents while they're still not written (null afterwards).
+         */
+        private volatile String contents;
+
+        private long offset;
+        private int bytesLen;
+
+        private SpilledContents(String contents) {
+            this.contents = contents;
+        }
+
+        public String get() {
+            String c = contents;
+            if (c != null) {
+                return c;
+            }
+            return read(offset, bytesLen);
+        }
+
+        /**
+         * Writes the contents to the spill file (in the writer thread).
+         */
+        public void run() {
+            String c = contents;
+            byte[] bytes = c.getBytes(UTF_8);
+            long written = write(bytes);
+            if (written >= 0) {
+                offset = written;
+                bytesLen = bytes.length;
+                //Only release the contents after the offset is set (the volatile write publishes it).
+                contents = null;
+            }
+        }
+    }
+
+    private File spillFile;
+    private RandomAccessFile spillAccess;
+    private boolean disposed;
+
+    /**
+     * The last write requested (used to wait for the pending writes).
+     */
+    private Future<?> lastWrite;
+
+    /**
+     * @return a handle to get the contents later on (the passed contents may be spilled to disk). Note that no
+     * I/O is done in this method (the contents are written later on by a background thread).
+     */
+    public IStoredContents store(String contents) {
+        if (contents == null || contents.length() <= SPILL_THRESHOLD) {
+            return new InMemoryContents(contents);
+        }
+        SpilledContents spilled = new SpilledContents(contents);
+        synchronized (this) {
+            if (!disposed) {
+                lastWrite = writer.submit(spilled);
+            }
+        }
+        //If it's not written, it's just kept in memory.
+        return spilled;
+    }
+
+    /**
+     * Appends the bytes to the spill file (creating it if needed).
+     * 
+     * @return the offset where the bytes were written or -1 if they couldn't be written.
+     */
+    private synchronized long write(byte[] bytes) {
+        if (disposed) {
+            return -1;
+        }
+        try {
+            if (spillAccess == null) {
+                spillFile = File.createTempFile("pyunit_output", ".txt");
+                spillFile.deleteOnExit();
+                spillAccess = new RandomAccessFile(spillFile, "rw");
+            }
+            long offset = spillAccess.length();
+            spillAccess.seek(offset);
+            spillAccess.write(bytes);
+            return offset;
+        } catch (IOException e) {
+            Log.log(e);
+            return -1;
+        }
+    }
+
+    /**
+     * Waits until the writes requested so far are finished.
+     */
+    /*default*/void waitPendingWrites() {
+        Future<?> f;
+        synchronized (this) {
+            f = lastWrite;
+        }
+        if (f != null) {
+            try {
+                f.get();
+            } catch (Exception e) {
+                Log.log(e);
+            }
+        }
+    }
+
+    private synchronized String read(long offset, int bytesLen) {
+        if (disposed || spillAccess == null) {
+            return "";
+        }
+        try {
+            byte[] bytes = new byte[bytesLen];
+            spillAccess.seek(offset);
+            spillAccess.readFully(bytes);
+            return new String(bytes, UTF_8);
+        } catch (IOException e) {
+            Log.log(e);
+            return "";
+        }
+    }
+
+    /**
+     * @return whether some contents were written to disk.
+     */
+    public synchronized boolean hasSpilled() {
+        return spillAccess != null;
+    }
+
+    /**
+     * Removes the spill file (contents which were spilled are no longer available after this call).
+     */
+    public synchronized void dispose() {
+        disposed = true;
+        if (spillAccess != null) {
+            try {
+                spillAccess.close();
+            } catch (IOException e) {
+                Log.log(e);
+            }
+            spillAccess = null;
+        }
+        if (spillFile != null) {
+            if (!spillFile.delete()) {
+                spillFile.deleteOnExit();
+            }
+            spillFile = null;
+        }
+    }
+}
@@ -6,18 +6,16 @@
  */
 package org.python.pydev.debug.pyunit;
 
-import java.util.Arrays;
+import java.io.File;
+import java.util.Collections;
 import java.util.Comparator;
 
 import org.eclipse.swt.SWT;
-import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Tree;
 import org.eclipse.swt.widgets.TreeColumn;
-import org.eclipse.swt.widgets.TreeItem;
 import org.python.pydev.core.log.Log;
-import org.python.pydev.shared_ui.tooltips.presenter.ToolTipPresenterHandler;
 
 
 /**
@@ -33,16 +31,13 @@ final class PyUnitSortListener implements Listener {
 
     public void handleEvent(Event e) {
         Tree tree = view.getTree();
-        TreeItem[] items = tree.getItems();
         TreeColumn column = (TreeColumn) e.widget;
-        Comparator<TreeItem> comparator = null;
-        final int col;
+        Comparator<PyUnitTestResult> comparator;
         if (column == view.colIndex) {
-            col = -1;
-            comparator = new Comparator<TreeItem>() {
-                public int compare(TreeItem o1, TreeItem o2) {
-                    String txt0 = o1.getText(PyUnitView.COL_INDEX);
-                    String txt1 = o2.getText(PyUnitView.COL_INDEX);
+            comparator = new Comparator<PyUnitTestResult>() {
+                public int compare(PyUnitTestResult o1, PyUnitTestResult o2) {
+                    String txt0 = o1.index;
+                    String txt1 = o2.index;
                     try {
                         int number0 = Integer.parseInt(txt0.trim());
                         int number1 = Integer.parseInt(txt1.trim());
@@ -60,20 +55,31 @@ final class PyUnitSortListener implements Listener {
             };
 
         } else if (column == view.colResult) {
-            col = PyUnitView.COL_RESULT;
+            comparator = new Comparator<PyUnitTestResult>() {
+                public int compare(PyUnitTestResult o1, PyUnitTestResult o2) {
+                    return o1.status.compareTo(o2.status);
+                }
+            };
 
         } else if (column == view.colTest) {
-            col = PyUnitView.COL_TEST;
+            comparator = new Comparator<PyUnitTestResult>() {
+                public int compare(PyUnitTestResult o1, PyUnitTestResult o2) {
+                    return o1.test.compareTo(o2.test);
+                }
+            };
 
         } else if (column == view.colFile) {
-            col = PyUnitView.COL_FILENAME;
+            comparator = new Comparator<PyUnitTestResult>() {
+                public int compare(PyUnitTestResult o1, PyUnitTestResult o2) {
+                    return new File(o1.location).getName().compareTo(new File(o2.location).getName());
+                }
+            };
 
         } else if (column == view.colTime) {
-            col = -1;
-            comparator = new Comparator<TreeItem>() {
-                public int compare(TreeItem o1, TreeItem o2) {
-                    String txt0 = o1.getText(PyUnitView.COL_TIME);
-                    String txt1 = o2.getText(PyUnitView.COL_TIME);
+            comparator = new Comparator<PyUnitTestResult>() {
+                public int compare(PyUnitTestResult o1, PyUnitTestResult o2) {
+                    String txt0 = o1.time;
+                    String txt1 = o2.time;
                     try {
                         float float0 = Float.parseFloat(txt0.trim());
                         float float1 = Float.parseFloat(txt1.trim());
@@ -94,24 +100,16 @@ final class PyUnitSortListener implements Listener {
             return;
         }
 
-        if (comparator == null) {
-            comparator = new Comparator<TreeItem>() {
-                public int compare(TreeItem o1, TreeItem o2) {
-                    return o1.getText(col).compareTo(o2.getText(col));
-                }
-            };
-        }
-
         TreeColumn oldSortColumn = tree.getSortColumn();
         if (oldSortColumn == column) {
             //inverse the direction
             int sortDirection = tree.getSortDirection();
             if (sortDirection == SWT.DOWN) {
                 tree.setSortDirection(SWT.UP);
-                final Comparator<TreeItem> oldComparator = comparator;
-                comparator = new Comparator<TreeItem>() {
+                final Comparator<PyUnitTestResult> oldComparator = comparator;
+                comparator = new Comparator<PyUnitTestResult>() {
 
-                    public int compare(TreeItem o1, TreeItem o2) {
+                    public int compare(PyUnitTestResult o1, PyUnitTestResult o2) {
                         return -oldComparator.compare(o1, o2);
                     }
                 };
@@ -122,36 +120,15 @@ final class PyUnitSortListener implements Listener {
             //new column selected (sort direction always down)
             tree.setSortDirection(SWT.DOWN);
         }
-        Arrays.sort(items, comparator);
-        String[][] strings = new String[items.length][PyUnitView.NUMBER_OF_COLUMNS];
-        Object[][] results = new PyUnitTestResult[items.length][2];
-        for (int i = 0; i < items.length; i++) {
-            TreeItem it = items[i];
-            for (int j = 0; j < PyUnitView.NUMBER_OF_COLUMNS; j++) {
-                strings[i][j] = it.getText(j);
-            }
-            results[i][0] = it.getData(ToolTipPresenterHandler.TIP_DATA);
-            results[i][1] = it.getData(PyUnitView.PY_UNIT_TEST_RESULT);
-        }
 
+        //The tree is virtual: sort the results it shows and let the visible items be filled again.
+        Collections.sort(view.getShownResults(), comparator);
         tree.setRedraw(false);
         try {
-            Color errorColor = view.getErrorColor();
-            for (int i = 0; i < strings.length; i++) {
-                TreeItem item = tree.getItem(i);
-                item.setText(strings[i]);
-                item.setData(ToolTipPresenterHandler.TIP_DATA, results[i][0]);
-                PyUnitTestResult result = (PyUnitTestResult) results[i][1];
-                item.setData(PyUnitView.PY_UNIT_TEST_RESULT, result);
-                if (!result.isOk()) {
-                    item.setForeground(errorColor);
-                } else {
-                    item.setForeground(null);
-                }
-            }
+            view.refreshTreeItems();
         } finally {
             tree.setRedraw(true);
         }
         tree.setSortColumn(column);
     }
-}
\ No newline at end of file
+}
@@ -36,8 +36,8 @@ public class PyUnitTestResult {
     public final String status;
     public final String location;
     public final String test;
-    public final String capturedOutput;
-    public final String errorContents;
+    private final PyUnitOutputStore.IStoredContents capturedOutput;
+    private final PyUnitOutputStore.IStoredContents errorContents;
     public final String time;
     private WeakReference<PyUnitTestRun> testRun;
 
@@ -53,8 +53,10 @@ public class PyUnitTestResult {
         this.status = status;
         this.location = location;
         this.test = test;
-        this.capturedOutput = capturedOutput;
-        this.errorContents = errorContents;
+        //The outputs may be big, so, they're kept in the store of the run (which may spill those to disk).
+        PyUnitOutputStore outputStore = testRun.getOutputStore();
+        this.capturedOutput = outputStore.store(capturedOutput);
+        this.errorContents = outputStore.store(errorContents);
         this.time = time;
         this.index = testRun.getNextTestIndex();
     }
@@ -63,6 +65,20 @@ public class PyUnitTestResult {
         return this.testRun.get();
     }
 
+    /**
+     * @return the output captured while running the test (may be read from disk).
+     */
+    public String getCapturedOutput() {
+        return this.capturedOutput.get();
+    }
+
+    /**
+     * @return the error contents of the test (may be read from disk).
+     */
+    public String getErrorContents() {
+        return this.errorContents.get();
+    }
+
     public boolean isOk() {
         return STATUS_OK.equals(this.status);
     }
@@ -74,13 +90,15 @@ public class PyUnitTestResult {
     @Override
     public String toString() {
         int fixedContentsLen = 50;
+        String errorContents = getErrorContents();
+        String capturedOutput = getCapturedOutput();
         FastStringBuffer buf = new FastStringBuffer(this.test.length() + this.status.length() + this.time.length()
-                + this.location.length() + this.errorContents.length() + this.capturedOutput.length()
+                + this.location.length() + errorContents.length() + capturedOutput.length()
                 + fixedContentsLen);
 
         return buf.append(this.test).append(" Status: ").append(this.status).append(" Time: ").append(this.time)
-                .append("\n\n").append("File: ").append(this.location).append("\n\n").append(this.errorContents)
-                .append("\n\n").append(this.capturedOutput).append("\n\n").toString();
+                .append("\n\n").append("File: ").append(this.location).append("\n\n").append(errorContents)
+                .append("\n\n").append(capturedOutput).append("\n\n").toString();
     }
 
     public void open() {
@@ -31,6 +31,7 @@ public class PyUnitTestRun {
     private IPyUnitLaunch pyUnitLaunch;
     private int nextIndex = 0;
     private String totalTime; //null while not set.
+    private final PyUnitOutputStore outputStore = new PyUnitOutputStore();
 
     public PyUnitTestRun(IPyUnitLaunch server) {
         synchronized (lock) {
@@ -158,6 +159,21 @@ public class PyUnitTestRun {
         return Integer.toString(++nextIndex);
     }
 
+    /**
+     * @return the store where the (possibly big) outputs of the results of this run are kept.
+     */
+    /*default*/PyUnitOutputStore getOutputStore() {
+        return outputStore;
+    }
+
+    /**
+     * Releases the resources related to this run (i.e.: the outputs spilled to disk). Called when the run is
+     * removed from the view.
+     */
+    public void dispose() {
+        outputStore.dispose();
+    }
+
     public void setTotalTime(String totalTime) {
         this.totalTime = totalTime;
     }
@@ -42,6 +42,7 @@ import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Menu;
@@ -147,6 +148,12 @@ public class PyUnitView extends ViewPartWithOrientation implements IViewWithCont
     private static final List<PyUnitViewServerListener> serverListeners = new ArrayList<PyUnitViewServerListener>();
 
     private PyUnitTestRun currentRun;
+
+    /**
+     * The results of the current run which are shown in the tree (in the same order of the tree). The tree is
+     * virtual, so, tree items are only filled (from this list) when they become visible.
+     */
+    private final List<PyUnitTestResult> shownResults = new ArrayList<PyUnitTestResult>();
     private final PythonConsoleLineTracker lineTracker = new PythonConsoleLineTracker();
     private final ActivateLinkmouseListener activateLinkmouseListener = new ActivateLinkmouseListener();
 
@@ -295,7 +302,8 @@ public class PyUnitView extends ViewPartWithOrientation implements IViewWithCont
         layoutData.verticalAlignment = GridData.FILL;
         sash.setLayoutData(layoutData);
 
-        tree = new Tree(sash, SWT.FULL_SELECTION | SWT.MULTI);
+        tree = new Tree(sash, SWT.FULL_SELECTION | SWT.MULTI | SWT.VIRTUAL);
+        tree.addListener(SWT.SetData, new SetDataListener());
         tooltip.install(tree);
         tree.setHeaderVisible(true);
 
@@ -530,16 +538,17 @@ public class PyUnitView extends ViewPartWithOrientation implements IViewWithCont
         synchronized (lockServerListeners) {
 
             if (serverListeners.size() + 1 > MAX_RUNS_TO_KEEP) {
-                serverListeners.remove(0);
+                serverListeners.remove(0).getTestRun().dispose();
             }
             serverListeners.add(serverListener);
         }
     }
 
     /**
-     * Notifies that the test run has finished.
+     * Notifies that a batch of test results has been added (the tree and counters are updated only once for
+     * the whole batch). Also called to update the counters when tests are started or the run is finished.
      */
-    /*default */void notifyFinished(PyUnitTestRun testRun) {
+    /*default*/void notifyTests(PyUnitTestRun testRun, List<PyUnitTestResult> results) {
         if (this.disposed) {
             return;
         }
@@ -547,30 +556,8 @@ public class PyUnitView extends ViewPartWithOrientation implements IViewWithCont
         if (testRun != currentRun) {
             return;
         }
-        asyncUpdateCountersAndBar();
-    }
-
-    /**
-     * Notifies that a test result has been added.
-     */
-    /*default*/void notifyTest(PyUnitTestResult result) {
-        if (this.disposed) {
-            return;
-        }
-
-        notifyTest(result, true);
-    }
-
-    /*default*/void notifyTestStarted(PyUnitTestStarted result) {
-        if (this.disposed) {
-            return;
-        }
-
-        if (result.getTestRun() != currentRun) {
-            return;
-        }
-
-        asyncUpdateCountersAndBar();
+        addResults(results);
+        updateCountersAndBar();
     }
 
     /**
@@ -600,37 +587,73 @@ public class PyUnitView extends ViewPartWithOrientation implements IViewWithCont
     }
 
     /**
-     * Called after a test has been run (so that we properly update the tree).
+     * Called after tests have been run (so that we properly update the tree).
+     *
+     * Only the number of items in the tree is changed here (the items are filled by the SetDataListener
+     * when they become visible).
      */
-    private void notifyTest(PyUnitTestResult result, boolean updateBar) {
-        if (this.disposed) {
-            return;
+    private void addResults(List<PyUnitTestResult> results) {
+        int initialSize = shownResults.size();
+        for (PyUnitTestResult result : results) {
+            if (!showOnlyErrors || !result.isOk()) {
+                shownResults.add(result);
+            }
         }
-
-        if (result.getTestRun() != currentRun) {
+        int size = shownResults.size();
+        if (size == initialSize) {
             return;
         }
-        if (!showOnlyErrors || (showOnlyErrors && !result.status.equals("ok"))) {
-            TreeItem treeItem = new TreeItem(tree, 0);
-            File file = new File(result.location);
-            treeItem.setText(new String[] { result.index, result.status, result.test, file.getName(), result.time });
-            if (!result.isOk()) {
-                Color errorColor = getErrorColor();
-                treeItem.setForeground(errorColor);
-            }
+        tree.setItemCount(size);
 
-            treeItem.setData(ToolTipPresenterHandler.TIP_DATA, result);
-            treeItem.setData(PY_UNIT_TEST_RESULT, result);
+        int selectionCount = tree.getSelectionCount();
+        if (selectionCount == 0) {
+            tree.setSelection(tree.getItem(initialSize));
+            onSelectResult(shownResults.get(initialSize));
+        }
+    }
 
-            int selectionCount = tree.getSelectionCount();
-            if (selectionCount == 0) {
-                tree.setSelection(treeItem);
-                onSelectResult(result);
-            }
+    /**
+     * Fills the given tree item with the information of the given result.
+     */
+    private void fillTreeItem(TreeItem treeItem, PyUnitTestResult result) {
+        File file = new File(result.location);
+        treeItem.setText(new String[] { result.index, result.status, result.test, file.getName(), result.time });
+        if (!result.isOk()) {
+            Color errorColor = getErrorColor();
+            treeItem.setForeground(errorColor);
+        } else {
+            treeItem.setForeground(null);
         }
 
-        if (updateBar) {
-            updateCountersAndBar();
+        treeItem.setData(ToolTipPresenterHandler.TIP_DATA, result);
+        treeItem.setData(PY_UNIT_TEST_RESULT, result);
+    }
+
+    /**
+     * @return the same instance that's used internally with the results shown in the tree (only meant to be
+     * used in the UI thread).
+     */
+    /*default*/List<PyUnitTestResult> getShownResults() {
+        return shownResults;
+    }
+
+    /**
+     * Makes the tree items be filled again from the shown results (i.e.: after they're sorted).
+     */
+    /*default*/void refreshTreeItems() {
+        tree.clearAll(true);
+    }
+
+    /**
+     * Fills the items of the (virtual) tree when they become visible.
+     */
+    private final class SetDataListener implements Listener {
+
+        public void handleEvent(Event event) {
+            int index = event.index;
+            if (index >= 0 && index < shownResults.size()) {
+                fillTreeItem((TreeItem) event.item, shownResults.get(index));
+            }
         }
     }
 
@@ -773,19 +796,22 @@ public class PyUnitView extends ViewPartWithOrientation implements IViewWithCont
         tempOnSelectResult.clear();
 
         boolean addedErrors = false;
+        String errorContents = null;
         if (result != null) {
-            if (result.errorContents != null && result.errorContents.length() > 0) {
+            errorContents = result.getErrorContents();
+            if (errorContents != null && errorContents.length() > 0) {
                 addedErrors = true;
                 tempOnSelectResult.append(ERRORS_HEADER);
-                tempOnSelectResult.append(result.errorContents);
+                tempOnSelectResult.append(errorContents);
             }
 
-            if (result.capturedOutput != null && result.capturedOutput.length() > 0) {
+            String capturedOutput = result.getCapturedOutput();
+            if (capturedOutput != null && capturedOutput.length() > 0) {
                 if (tempOnSelectResult.length() > 0) {
                     tempOnSelectResult.append("\n");
                 }
                 tempOnSelectResult.append(CAPTURED_OUTPUT_HEADER);
-                tempOnSelectResult.append(result.capturedOutput);
+                tempOnSelectResult.append(capturedOutput);
             }
         }
         String string = tempOnSelectResult.toString();
@@ -802,7 +828,7 @@ public class PyUnitView extends ViewPartWithOrientation implements IViewWithCont
                 range.foreground = errorTextAttribute.getForeground();
             }
             range.start = ERRORS_HEADER.length();
-            range.length = result.errorContents.length();
+            range.length = errorContents.length();
             testOutputText.setStyleRange(range);
         }
 
@@ -910,12 +936,10 @@ public class PyUnitView extends ViewPartWithOrientation implements IViewWithCont
         tree.setRedraw(false);
         try {
             tree.removeAll();
+            shownResults.clear();
             testOutputText.setText(""); //Clear initial results (the first added will be selected)
             if (testRun != null) {
-                List<PyUnitTestResult> sharedResultsList = testRun.getSharedResultsList();
-                for (PyUnitTestResult result : sharedResultsList) {
-                    notifyTest(result, false);
-                }
+                addResults(testRun.getSharedResultsList());
             }
             updateCountersAndBar();
         } finally {
@@ -959,6 +983,7 @@ public class PyUnitView extends ViewPartWithOrientation implements IViewWithCont
                         removedCurrent = true;
                     }
                     it.remove();
+                    next.dispose();
                 }
             }
             if (removedCurrent) {
@@ -39,13 +39,24 @@ final class PyUnitViewServerListener implements IPyUnitServerListener {
                 arrayList = new ArrayList<ICallback0<Object>>(notifications);
                 notifications.clear();
             }
+            //The notifications only update the test run (results are collected so that the view is updated
+            //only once for all the notifications received until now -- which may be a lot in big test runs).
+            ArrayList<PyUnitTestResult> addedResults = new ArrayList<PyUnitTestResult>();
             for (ICallback0<Object> iCallback0 : arrayList) {
                 try {
-                    iCallback0.call();
+                    Object ret = iCallback0.call();
+                    if (ret instanceof PyUnitTestResult) {
+                        addedResults.add((PyUnitTestResult) ret);
+                    }
                 } catch (Exception e) {
                     Log.log(e);
                 }
             }
+            synchronized (lockView) {
+                if (view != null) {
+                    view.notifyTests(testRun, addedResults);
+                }
+            }
             return Status.OK_STATUS;
         }
     };
@@ -72,12 +83,7 @@ final class PyUnitViewServerListener implements IPyUnitServerListener {
                     PyUnitTestResult result = new PyUnitTestResult(testRun, status, location, test, capturedOutput,
                             errorContents, time);
                     testRun.addResult(result);
-                    synchronized (lockView) {
-                        if (view != null) {
-                            view.notifyTest(result);
-                        }
-                    }
-                    return null;
+                    return result; //the view is notified in batch
                 }
             });
         }
@@ -91,12 +97,7 @@ final class PyUnitViewServerListener implements IPyUnitServerListener {
                 public Object call() {
                     PyUnitTestStarted result = new PyUnitTestStarted(testRun, location, test);
                     testRun.addStartTest(result);
-                    synchronized (lockView) {
-                        if (view != null) {
-                            view.notifyTestStarted(result);
-                        }
-                    }
-                    return null;
+                    return null; //the view is notified in batch
                 }
             });
         }
@@ -114,12 +115,7 @@ final class PyUnitViewServerListener implements IPyUnitServerListener {
                         if (totalTime != null) {
                             testRun.setTotalTime(totalTime);
                         }
-                        synchronized (lockView) {
-                            if (view != null) {
-                                view.notifyFinished(testRun);
-                            }
-                        }
-                        return null;
+                        return null; //the view is notified in batch
                     }
                 });
             }
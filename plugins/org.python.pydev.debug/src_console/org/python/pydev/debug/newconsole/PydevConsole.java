@@ -34,6 +34,7 @@ import org.eclipse.ui.console.IOConsoleOutputStream;
 import org.eclipse.ui.console.IPatternMatchListener;
 import org.python.pydev.core.log.Log;
 import org.python.pydev.debug.core.PydevDebugPlugin;
+import org.python.pydev.debug.newconsole.actions.InterruptConsoleAction;
 import org.python.pydev.debug.newconsole.actions.LinkWithDebugSelectionAction;
 import org.python.pydev.debug.newconsole.prefs.ColorManager;
 import org.python.pydev.debug.newconsole.prefs.InteractiveConsolePrefs;
@@ -43,6 +44,7 @@ import org.python.pydev.editor.codecompletion.PyCodeCompletionPreferencesPage;
 import org.python.pydev.editor.codecompletion.PyContentAssistant;
 import org.python.pydev.editor.correctionassist.PyCorrectionAssistant;
 import org.python.pydev.plugin.PydevPlugin;
+import org.python.pydev.shared_interactive_console.console.IScriptConsoleCommunication;
 import org.python.pydev.shared_interactive_console.console.ScriptConsolePrompt;
 import org.python.pydev.shared_interactive_console.console.ui.DefaultScriptConsoleTextHover;
 import org.python.pydev.shared_interactive_console.console.ui.IConsoleStyleProvider;
@@ -298,6 +300,15 @@ public class PydevConsole extends ScriptConsole {
                     ScriptConsoleMessages.LinkWithDebugAction, ScriptConsoleMessages.LinkWithDebugToolTip);
             toolbarManager.appendToGroup(ScriptConsolePage.SCRIPT_GROUP, linkWithDebugSelectionAction);
         }
+        if (interpreter instanceof PydevConsoleInterpreter) {
+            IScriptConsoleCommunication communication = ((PydevConsoleInterpreter) interpreter)
+                    .getConsoleCommunication();
+            if (communication instanceof PydevConsoleCommunication
+                    && ((PydevConsoleCommunication) communication).isInterruptSupported()) {
+                toolbarManager.appendToGroup(ScriptConsolePage.SCRIPT_GROUP, new InterruptConsoleAction(
+                        (PydevConsoleCommunication) communication));
+            }
+        }
     }
 
     @Override
@@ -43,9 +43,10 @@ import org.python.pydev.editor.codecompletion.PyCodeCompletionImages;
 import org.python.pydev.editor.codecompletion.PyLinkedModeCompletionProposal;
 import org.python.pydev.editorinput.PyOpenEditor;
 import org.python.pydev.shared_core.callbacks.ICallback;
-import org.python.pydev.shared_core.io.ThreadStreamReader;
+import org.python.pydev.shared_core.io.PumpedStreamReader;
 import org.python.pydev.shared_core.process.ProcessUtils;
 import org.python.pydev.shared_core.structure.Tuple;
+import org.python.pydev.shared_interactive_console.console.ConsoleSocketClient;
 import org.python.pydev.shared_interactive_console.console.IScriptConsoleCommunication;
 import org.python.pydev.shared_interactive_console.console.IXmlRpcClient;
 import org.python.pydev.shared_interactive_console.console.InterpreterResponse;
@@ -69,15 +70,21 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
      */
     private IXmlRpcClient client;
 
+    /**
+     * Maximum number of chars kept from the stdout/stderr of the process while nobody consumes it (the oldest
+     * contents are discarded).
+     */
+    private static final int MAX_RETAINED_OUTPUT = 1024 * 1024;
+
     /**
      * Responsible for getting the stdout of the process.
      */
-    private final ThreadStreamReader stdOutReader;
+    private final PumpedStreamReader stdOutReader;
 
     /**
      * Responsible for getting the stderr of the process.
      */
-    private final ThreadStreamReader stdErrReader;
+    private final PumpedStreamReader stdErrReader;
 
     /**
      * This is the server responsible for giving input to a raw_input() requested
@@ -99,8 +106,17 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
      */
     public PydevConsoleCommunication(int port, Process process, int clientPort, String[] commandArray, String[] envp)
             throws Exception {
-        stdOutReader = new ThreadStreamReader(process.getInputStream());
-        stdErrReader = new ThreadStreamReader(process.getErrorStream());
+        this(port, process, clientPort, commandArray, envp, false);
+    }
+
+    /**
+     * @param socketTransport if true, the requests are sent through a persistent socket (the process must've
+     * been started with the --socket flag) instead of xml-rpc.
+     */
+    public PydevConsoleCommunication(int port, Process process, int clientPort, String[] commandArray,
+            String[] envp, boolean socketTransport) throws Exception {
+        stdOutReader = new PumpedStreamReader(process, process.getInputStream(), null, MAX_RETAINED_OUTPUT, false);
+        stdErrReader = new PumpedStreamReader(process, process.getErrorStream(), null, MAX_RETAINED_OUTPUT, false);
         stdOutReader.start();
         stdErrReader.start();
         this.commandArray = commandArray;
@@ -118,7 +134,12 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
 
         this.webServer.start();
 
-        IXmlRpcClient client = new ScriptXmlRpcClient(process, stdErrReader, stdOutReader);
+        IXmlRpcClient client;
+        if (socketTransport) {
+            client = new ConsoleSocketClient(process, stdErrReader, stdOutReader);
+        } else {
+            client = new ScriptXmlRpcClient(process, stdErrReader, stdOutReader);
+        }
         client.setPort(port);
 
         this.client = client;
@@ -133,11 +154,15 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
 
                 @Override
                 protected IStatus run(IProgressMonitor monitor) {
+                    IXmlRpcClient c = PydevConsoleCommunication.this.client;
                     try {
-                        PydevConsoleCommunication.this.client.execute("close", new Object[0]);
+                        c.execute("close", new Object[0]);
                     } catch (Exception e) {
                         //Ok, we can ignore this one on close.
                     }
+                    if (c instanceof ConsoleSocketClient) {
+                        ((ConsoleSocketClient) c).close();
+                    }
                     PydevConsoleCommunication.this.client = null;
                     return Status.OK_STATUS;
                 }
@@ -189,6 +214,11 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
      */
     private volatile boolean firstCommWorked = false;
 
+    /**
+     * The addExec request currently running (only available when using the socket transport).
+     */
+    private volatile ConsoleSocketClient.Request currentRequest;
+
     /**
      * When non-null, the Debug Target to notify when the underlying process is suspended or running.
      */
@@ -250,11 +280,11 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
         //in this function until execInterpreter gives us an input
         setNextResponse(new InterpreterResponse(stdOutContents, stderrContents, false, needInput));
 
-        //busy loop until we have an input
-        while (inputReceived == null) {
-            synchronized (lock) {
+        //wait until we have an input (execInterpreter notifies lock)
+        synchronized (lock) {
+            while (inputReceived == null) {
                 try {
-                    lock.wait(10);
+                    lock.wait(100);
                 } catch (InterruptedException e) {
                     Log.log(e);
                 }
@@ -272,8 +302,11 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
             final ICallback<Object, Tuple<String, String>> onContentsReceived) {
         setNextResponse(null);
         if (waitingForInput) {
-            inputReceived = command;
-            waitingForInput = false;
+            synchronized (lock) {
+                inputReceived = command;
+                waitingForInput = false;
+                lock.notifyAll();
+            }
             //the thread that we started in the last exec is still alive if we were waiting for an input.
         } else {
             //create a thread that'll keep locked until an answer is received from the server.
@@ -293,7 +326,23 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
                                 "PydevConsoleCommunication.client is null (cannot communicate with server).", false);
                     }
 
-                    Object[] execute = (Object[]) client.execute("addExec", new Object[] { command });
+                    Object[] execute;
+                    if (client instanceof ConsoleSocketClient) {
+                        //the output is pushed as it's written (no need to wait for the polling)
+                        ConsoleSocketClient.Request request = ((ConsoleSocketClient) client).executeAsync(
+                                "addExec", new Object[] { command }, onContentsReceived);
+                        currentRequest = request;
+                        try {
+                            execute = (Object[]) request.get();
+                        } catch (InterruptedException e) {
+                            request.cancel();
+                            throw new XmlRpcException("Interrupted while waiting for the command to finish.", e);
+                        } finally {
+                            currentRequest = null;
+                        }
+                    } else {
+                        execute = (Object[]) client.execute("addExec", new Object[] { command });
+                    }
 
                     Object object = execute[0];
                     boolean more;
@@ -352,22 +401,23 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
 
         }
 
-        int i = 500; //only get contents each 500 millis...
+        long nextPoll = System.currentTimeMillis() + 500; //only get contents each 500 millis...
 
-        //busy loop until we have a response
+        //wait until we have a response (setNextResponse notifies lock2)
         while (nextResponse == null) {
             synchronized (lock2) {
-                try {
-                    lock2.wait(20);
-                } catch (InterruptedException e) {
-                    //                    Log.log(e);
+                long timeout = nextPoll - System.currentTimeMillis();
+                if (nextResponse == null && timeout > 0) {
+                    try {
+                        lock2.wait(timeout);
+                    } catch (InterruptedException e) {
+                        //                    Log.log(e);
+                    }
                 }
             }
 
-            i -= 20;
-
-            if (i <= 0 && nextResponse == null) {
-                i = 250; //after the first, get it each 250 millis
+            if (System.currentTimeMillis() >= nextPoll && nextResponse == null) {
+                nextPoll = System.currentTimeMillis() + 250; //after the first, get it each 250 millis
                 String stderrContents = stdErrReader.getAndClearContents();
                 String stdOutContents = stdOutReader.getAndClearContents();
                 if (stdOutContents.length() > 0 || stderrContents.length() > 0) {
@@ -378,6 +428,27 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
         onResponseReceived.call(nextResponse);
     }
 
+    /**
+     * @return whether interrupting the command being executed is supported.
+     */
+    public boolean isInterruptSupported() {
+        return client instanceof ConsoleSocketClient;
+    }
+
+    /**
+     * Interrupts the command currently being executed (raises a KeyboardInterrupt in the console).
+     *
+     * @return true if there was a command to be interrupted.
+     */
+    public boolean interrupt() {
+        ConsoleSocketClient.Request request = currentRequest;
+        if (request == null) {
+            return false;
+        }
+        request.cancel();
+        return true;
+    }
+
     /**
      * @return completions from the client
      */
@@ -533,6 +604,11 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
     private void setNextResponse(InterpreterResponse nextResponse) {
         this.nextResponse = nextResponse;
         updateDebugTarget();
+        if (nextResponse != null) {
+            synchronized (lock2) {
+                lock2.notifyAll();
+            }
+        }
     }
 
     /**
@@ -599,6 +675,7 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
             // a while to get started.
 
             String result = null;
+            long sleep = 10; //start retrying fast (increasing the time up to 250 millis)
             for (int commAttempts = 0; commAttempts < maximumAttempts; commAttempts++) {
                 if (monitor.isCanceled()) {
                     throw new UserCanceledException("Canceled before hello was successful");
@@ -616,16 +693,17 @@ public class PydevConsoleCommunication implements IScriptConsoleCommunication, X
                     break;
                 }
 
-                if (result.startsWith("Console already exited with value")) {
+                if (result != null && result.startsWith("Console already exited with value")) {
                     // Failed, probably some error starting the process
                     break;
                 }
 
                 try {
-                    Thread.sleep(250);
+                    Thread.sleep(sleep);
                 } catch (InterruptedException e) {
                     // Retry now
                 }
+                sleep = Math.min(sleep * 2, 250);
                 monitor.worked(1);
             }
 
@@ -83,6 +83,9 @@ public final class PydevConsoleConstants {
     public static final String INTERACTIVE_CONSOLE_UMD_EXCLUDE_MODULE_LIST = "INTERACTIVE_CONSOLE_UMD_EXCLUDE_MODULE_LIST";
     public static final String DEFAULT_INTERACTIVE_CONSOLE_UMD_EXCLUDE_MODULE_LIST = "guidata,guiqwt";
 
+    public static final String INTERACTIVE_CONSOLE_SOCKET_TRANSPORT = "INTERACTIVE_CONSOLE_SOCKET_TRANSPORT";
+    public static final boolean DEFAULT_INTERACTIVE_CONSOLE_SOCKET_TRANSPORT = true;
+
     public static final int CONSOLE_TIMEOUT = 500;
 
 }
@@ -311,8 +311,10 @@ public class PydevConsoleFactory implements IConsoleFactory {
 
         PydevConsoleInterpreter consoleInterpreter = new PydevConsoleInterpreter();
         int port = Integer.parseInt(launch.getAttribute(PydevIProcessFactory.INTERACTIVE_LAUNCH_PORT));
+        boolean socketTransport = Boolean.parseBoolean(launch
+                .getAttribute(PydevIProcessFactory.INTERACTIVE_LAUNCH_SOCKET_TRANSPORT));
         consoleInterpreter.setConsoleCommunication(new PydevConsoleCommunication(port, process, clientPort,
-                info.cmdLine, info.env));
+                info.cmdLine, info.env, socketTransport));
         consoleInterpreter.setNaturesUsed(natures);
         consoleInterpreter.setInterpreterInfo(interpreterInfo);
         consoleInterpreter.setLaunch(launch);
@@ -72,6 +72,9 @@ public class PydevConsolePreferencesInitializer extends AbstractPreferenceInitia
 
         node.put(PydevConsoleConstants.INTERACTIVE_CONSOLE_UMD_EXCLUDE_MODULE_LIST,
                 PydevConsoleConstants.DEFAULT_INTERACTIVE_CONSOLE_UMD_EXCLUDE_MODULE_LIST);
+
+        node.putBoolean(PydevConsoleConstants.INTERACTIVE_CONSOLE_SOCKET_TRANSPORT,
+                PydevConsoleConstants.DEFAULT_INTERACTIVE_CONSOLE_SOCKET_TRANSPORT);
     }
 
 }
@@ -0,0 +1,38 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.debug.newconsole.actions;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.ui.ISharedImages;
+import org.eclipse.ui.PlatformUI;
+import org.python.pydev.debug.newconsole.PydevConsoleCommunication;
+
+/**
+ * Interrupts the command being executed in the console (a KeyboardInterrupt is raised in the console process).
+ */
+public class InterruptConsoleAction extends Action {
+
+    private final PydevConsoleCommunication communication;
+
+    public InterruptConsoleAction(PydevConsoleCommunication communication) {
+        this.communication = communication;
+        setText("Interrupt");
+        setToolTipText("Interrupt the command being executed (raises a KeyboardInterrupt)");
+        setImageDescriptor(PlatformUI.getWorkbench().getSharedImages()
+                .getImageDescriptor(ISharedImages.IMG_ELCL_STOP));
+    }
+
+    @Override
+    public void run() {
+        communication.interrupt();
+    }
+}
@@ -36,6 +36,7 @@ import org.python.pydev.core.IPythonNature;
 import org.python.pydev.debug.core.PydevDebugPlugin;
 import org.python.pydev.debug.model.PyStackFrame;
 import org.python.pydev.debug.newconsole.PydevConsoleConstants;
+import org.python.pydev.debug.newconsole.prefs.InteractiveConsolePrefs;
 import org.python.pydev.debug.newconsole.prefs.InteractiveConsoleUMDPrefs;
 import org.python.pydev.editor.PyEdit;
 import org.python.pydev.plugin.PydevPlugin;
@@ -97,6 +98,11 @@ public class PydevIProcessFactory {
 
     public static final String INTERACTIVE_LAUNCH_PORT = "INTERACTIVE_LAUNCH_PORT";
 
+    /**
+     * Launch attribute set to "true" when the console process was started with the socket transport.
+     */
+    public static final String INTERACTIVE_LAUNCH_SOCKET_TRANSPORT = "INTERACTIVE_LAUNCH_SOCKET_TRANSPORT";
+
     /**
      * Creates a launch (and its associated IProcess) for the xml-rpc server to be used in the interactive console.
      * 
@@ -209,19 +215,25 @@ public class PydevIProcessFactory {
 
         File scriptWithinPySrc = PydevPlugin.getScriptWithinPySrc("pydevconsole.py");
         String pythonpathEnv = SimpleRunner.makePythonPathEnvFromPaths(pythonpath);
+
+        //The internal jython process still uses xml-rpc
+        boolean socketTransport = InteractiveConsolePrefs.getUseSocketTransport()
+                && interpreterManager.getInterpreterType() != IInterpreterManager.INTERPRETER_TYPE_JYTHON_ECLIPSE;
+        launch.setAttribute(INTERACTIVE_LAUNCH_SOCKET_TRANSPORT, String.valueOf(socketTransport));
+        String[] args = socketTransport ? new String[] { String.valueOf(port), String.valueOf(clientPort),
+                "--socket" } : new String[] { String.valueOf(port), String.valueOf(clientPort) };
+
         String[] commandLine;
         switch (interpreterManager.getInterpreterType()) {
 
             case IInterpreterManager.INTERPRETER_TYPE_PYTHON:
                 commandLine = SimplePythonRunner.makeExecutableCommandStr(interpreter.getExecutableOrJar(),
-                        scriptWithinPySrc.getAbsolutePath(),
-                        new String[] { String.valueOf(port), String.valueOf(clientPort) });
+                        scriptWithinPySrc.getAbsolutePath(), args);
                 break;
 
             case IInterpreterManager.INTERPRETER_TYPE_IRONPYTHON:
                 commandLine = SimpleIronpythonRunner.makeExecutableCommandStr(interpreter.getExecutableOrJar(),
-                        scriptWithinPySrc.getAbsolutePath(),
-                        new String[] { String.valueOf(port), String.valueOf(clientPort) });
+                        scriptWithinPySrc.getAbsolutePath(), args);
                 break;
 
             case IInterpreterManager.INTERPRETER_TYPE_JYTHON:
@@ -229,8 +241,7 @@ public class PydevIProcessFactory {
                         .getString(PydevConsoleConstants.INTERACTIVE_CONSOLE_VM_ARGS);
 
                 commandLine = SimpleJythonRunner.makeExecutableCommandStrWithVMArgs(interpreter.getExecutableOrJar(),
-                        scriptWithinPySrc.getAbsolutePath(), pythonpathEnv, vmArgs, new String[] {
-                                String.valueOf(port), String.valueOf(clientPort) });
+                        scriptWithinPySrc.getAbsolutePath(), pythonpathEnv, vmArgs, args);
                 break;
 
             case IInterpreterManager.INTERPRETER_TYPE_JYTHON_ECLIPSE:
@@ -85,6 +85,10 @@ public class InteractiveConsolePrefs extends FieldEditorPreferencePage implement
         addField(new BooleanFieldEditor(PydevConsoleConstants.INTERACTIVE_CONSOLE_CONNECT_DEBUG_SESSION,
                 "Connect console to a Debug Session?", BooleanFieldEditor.SEPARATE_LABEL, p));
 
+        addField(new BooleanFieldEditor(PydevConsoleConstants.INTERACTIVE_CONSOLE_SOCKET_TRANSPORT,
+                "Use persistent socket to communicate\nwith the console (streams output\nand allows interrupting)?",
+                BooleanFieldEditor.SEPARATE_LABEL, p));
+
         addField(new ComboFieldEditor(PydevConsoleConstants.INTERACTIVE_CONSOLE_ENABLE_GUI_ON_STARTUP,
                 "Enable GUI event loop integration?",
                 PydevConsoleConstants.ENTRIES_VALUES_INTERACTIVE_CONSOLE_ENABLE_GUI_ON_STARTUP, p));
@@ -132,6 +136,14 @@ public class InteractiveConsolePrefs extends FieldEditorPreferencePage implement
                 PydevConsoleConstants.INTERACTIVE_CONSOLE_CONNECT_DEBUG_SESSION);
     }
 
+    public static boolean getUseSocketTransport() {
+        if (SharedCorePlugin.inTestMode()) {
+            return PydevConsoleConstants.DEFAULT_INTERACTIVE_CONSOLE_SOCKET_TRANSPORT;
+        }
+        PydevDebugPlugin plugin = PydevDebugPlugin.getDefault();
+        return plugin.getPreferenceStore().getBoolean(PydevConsoleConstants.INTERACTIVE_CONSOLE_SOCKET_TRANSPORT);
+    }
+
     public static boolean getSendCommandOnCreationFromEditor() {
         if (SharedCorePlugin.inTestMode()) {
             return PydevConsoleConstants.DEFAULT_INTERACTIVE_CONSOLE_SEND_INITIAL_COMMAND_WHEN_CREATED_FROM_EDITOR;
@@ -25,7 +25,7 @@ import org.apache.xmlrpc.webserver.WebServer;
 import org.python.pydev.core.TestDependent;
 import org.python.pydev.shared_core.SharedCorePlugin;
 import org.python.pydev.shared_core.io.FileUtils;
-import org.python.pydev.shared_core.io.ThreadStreamReader;
+import org.python.pydev.shared_core.io.PumpedStreamReader;
 import org.python.pydev.shared_core.net.SocketUtil;
 import org.python.pydev.shared_core.string.StringUtils;
 import org.python.pydev.shared_interactive_console.console.IXmlRpcClient;
@@ -42,9 +42,9 @@ public class XmlRpcTest extends TestCase {
 
     private int next = -1;
 
-    private ThreadStreamReader err;
+    private PumpedStreamReader err;
 
-    private ThreadStreamReader out;
+    private PumpedStreamReader out;
 
     private WebServer webServer;
 
@@ -80,8 +80,8 @@ public class XmlRpcTest extends TestCase {
         }
 
         Process process = Runtime.getRuntime().exec(cmdLine);
-        err = new ThreadStreamReader(process.getErrorStream());
-        out = new ThreadStreamReader(process.getInputStream());
+        err = new PumpedStreamReader(process, process.getErrorStream());
+        out = new PumpedStreamReader(process, process.getInputStream());
         err.start();
         out.start();
 
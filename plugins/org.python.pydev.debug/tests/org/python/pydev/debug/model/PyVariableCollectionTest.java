@@ -0,0 +1,272 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.debug.model;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.model.IProcess;
+import org.python.pydev.debug.model.remote.AbstractDebuggerCommand;
+import org.python.pydev.debug.model.remote.GetVariableCommand;
+import org.python.pydev.debug.model.remote.ICommandResponseListener;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+
+/**
+ * Checks that the contents of a huge container are gotten in pages (using a stub debuggee which serves a list with
+ * a million items) and that all the contents are gotten at once from an older debuggee (without paging).
+ */
+public class PyVariableCollectionTest extends TestCase {
+
+    private static final int HUGE_SIZE = 1000000;
+
+    private static final String FRAME_LOCATION = "thread1\tframe1\tFRAME";
+
+    /**
+     * Answers CMD_GET_VARIABLE_PAGE for the variable 'huge' (a list with size ints) as pydevd does (or, if it doesn't
+     * support paging, answers it with an error and CMD_GET_VARIABLE with all the items as an older pydevd does).
+     */
+    private static class StubDebuggee extends Thread {
+
+        private final Socket socket;
+        private final boolean supportsPaging;
+        private final int size;
+
+        /**
+         * The limits requested (to check that the whole container is never requested).
+         */
+        private final List<Integer> requestedLimits = Collections.synchronizedList(new ArrayList<Integer>());
+
+        /**
+         * The ids of the commands received.
+         */
+        private final List<Integer> requestedCommands = Collections.synchronizedList(new ArrayList<Integer>());
+
+        private StubDebuggee(int port, boolean supportsPaging, int size) throws Exception {
+            this.socket = new Socket("127.0.0.1", port);
+            this.supportsPaging = supportsPaging;
+            this.size = size;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "utf-8"));
+                Writer out = new OutputStreamWriter(socket.getOutputStream(), "utf-8");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    //cmd_id\tseq\toffset\tlimit\tthread_id\tframe_id\tscope\tattributes
+                    String[] parsed = line.split("\t", 5);
+                    int cmdId = Integer.parseInt(parsed[0]);
+                    requestedCommands.add(cmdId);
+
+                    int offset;
+                    int limit;
+                    if (cmdId == AbstractDebuggerCommand.CMD_GET_VARIABLE_PAGE && supportsPaging) {
+                        offset = Integer.parseInt(parsed[2]);
+                        limit = Integer.parseInt(parsed[3]);
+                        requestedLimits.add(limit);
+                        assertEquals(FRAME_LOCATION + "\thuge", parsed[4]);
+
+                    } else if (cmdId == AbstractDebuggerCommand.CMD_GET_VARIABLE && !supportsPaging) {
+                        //cmd_id\tseq\tthread_id\tframe_id\tscope\tattributes
+                        offset = 0;
+                        limit = size;
+                        assertEquals(FRAME_LOCATION + "\thuge", line.split("\t", 3)[2]);
+
+                    } else {
+                        write(out, AbstractDebuggerCommand.CMD_ERROR, parsed[1], "unexpected command " + cmdId);
+                        continue;
+                    }
+
+                    FastStringBuffer xml = new FastStringBuffer("<xml>", limit * 50);
+                    int end = Math.min(offset + limit, size);
+                    for (int i = offset; i < end; i++) {
+                        String name = String.format("%07d", i);
+                        xml.append("<var name=\"").append(name).append("\" type=\"int\" value=\"int%3A ").append(i)
+                                .append("\" />");
+                    }
+                    if (end < size) {
+                        xml.append("<more offset=\"").append(end).append("\" total=\"").append(size)
+                                .append("\" />");
+                    }
+                    xml.append("</xml>");
+
+                    write(out, cmdId, parsed[1], xml.toString());
+                }
+            } catch (Exception e) {
+                //finished (socket closed)
+            }
+        }
+
+        private void write(Writer out, int cmdId, String seq, String payload) throws Exception {
+            out.write(cmdId + "\t" + seq + "\t" + URLEncoder.encode(payload, "utf-8") + "\n");
+            out.flush();
+        }
+    }
+
+    private class DummyDebugTarget extends AbstractDebugTarget {
+
+        @Override
+        public void processCommand(String sCmdCode, String sSeqCode, String payload) {
+        }
+
+        public IProcess getProcess() {
+            return null;
+        }
+
+        public void launchRemoved(ILaunch launch) {
+        }
+
+        @Override
+        public boolean canTerminate() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+    }
+
+    private DummyDebugTarget debugTarget;
+    private StubDebuggee debuggee;
+    private PyVariableCollection huge;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        connect(true, HUGE_SIZE);
+    }
+
+    private void connect(boolean supportsPaging, int size) throws Exception {
+        ServerSocket serverSocket = new ServerSocket(0);
+        try {
+            serverSocket.setSoTimeout(5000);
+            debuggee = new StubDebuggee(serverSocket.getLocalPort(), supportsPaging, size);
+            Socket accepted = serverSocket.accept();
+            debuggee.start();
+
+            debugTarget = new DummyDebugTarget();
+            debugTarget.startTransmission(accepted);
+        } finally {
+            serverSocket.close();
+        }
+
+        IVariableLocator frameLocator = new IVariableLocator() {
+
+            public String getPyDBLocation() {
+                return FRAME_LOCATION;
+            }
+
+            public String getThreadId() {
+                return "thread1";
+            }
+        };
+        huge = new PyVariableCollection(debugTarget, "huge", "list", "list: len=" + size, frameLocator);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        debugTarget.terminate();
+        super.tearDown();
+    }
+
+    private PyVariable[] getChildren(PyVariableCollection collection) throws Exception {
+        final AbstractDebuggerCommand[] completed = new AbstractDebuggerCommand[1];
+        GetVariableCommand cmd = collection.getVariableCommand(debugTarget);
+        cmd.setCompletionListener(new ICommandResponseListener() {
+
+            public void commandComplete(AbstractDebuggerCommand cmd) {
+                synchronized (completed) {
+                    completed[0] = cmd;
+                    completed.notify();
+                }
+            }
+        });
+        debugTarget.postCommand(cmd);
+        synchronized (completed) {
+            if (completed[0] == null) {
+                completed.wait(5000);
+            }
+        }
+        assertNotNull("Timed out waiting for the variables.", completed[0]);
+        return PyVariableCollection.getCommandVariables(cmd, debugTarget, collection);
+    }
+
+    public void testPagedContents() throws Exception {
+        PyVariable[] children = getChildren(huge);
+        assertEquals(PyVariableCollection.PAGE_SIZE + 1, children.length);
+        assertEquals("0000000", children[0].getName());
+        assertEquals("int: 5", children[5].getValueString());
+        assertEquals(FRAME_LOCATION + "\thuge\t0000005", children[5].getPyDBLocation());
+
+        PyVariableCollectionPage more = (PyVariableCollectionPage) children[PyVariableCollection.PAGE_SIZE];
+        assertEquals(PyVariableCollectionPage.NAME, more.getName());
+        assertEquals(PyVariableCollection.PAGE_SIZE, more.getOffset());
+        assertFalse(more.supportsValueModification());
+
+        //The next page has the items after the first page (and they're still located in the container).
+        children = getChildren(more);
+        assertEquals(PyVariableCollection.PAGE_SIZE + 1, children.length);
+        assertEquals(String.format("%07d", PyVariableCollection.PAGE_SIZE), children[0].getName());
+        assertEquals(FRAME_LOCATION + "\thuge\t0000100", children[0].getPyDBLocation());
+        more = (PyVariableCollectionPage) children[PyVariableCollection.PAGE_SIZE];
+        assertEquals(PyVariableCollection.PAGE_SIZE * 2, more.getOffset());
+
+        //The last page has no 'more...' node.
+        children = getChildren(new PyVariableCollectionPage(debugTarget, huge, HUGE_SIZE - 50, HUGE_SIZE));
+        assertEquals(50, children.length);
+        assertEquals("0999999", children[49].getName());
+        for (PyVariable child : children) {
+            assertFalse(child instanceof PyVariableCollectionPage);
+        }
+
+        assertEquals(3, debuggee.requestedLimits.size());
+        for (Integer limit : debuggee.requestedLimits) {
+            assertEquals(PyVariableCollection.PAGE_SIZE, limit.intValue());
+        }
+    }
+
+    public void testOlderDebuggee() throws Exception {
+        debugTarget.terminate();
+        connect(false, 150);
+        assertTrue(debugTarget.isVariablePagingSupported());
+
+        //The page is not answered: all the items are gotten with CMD_GET_VARIABLE (no 'more...' node).
+        PyVariable[] children = getChildren(huge);
+        assertEquals(150, children.length);
+        assertEquals("0000149", children[149].getName());
+        assertEquals(FRAME_LOCATION + "\thuge\t0000005", children[5].getPyDBLocation());
+        assertFalse(debugTarget.isVariablePagingSupported());
+        assertEquals(Arrays.asList(AbstractDebuggerCommand.CMD_GET_VARIABLE_PAGE,
+                AbstractDebuggerCommand.CMD_GET_VARIABLE), debuggee.requestedCommands);
+
+        //Afterwards, the page is not even requested.
+        children = getChildren(huge);
+        assertEquals(150, children.length);
+        assertEquals(3, debuggee.requestedCommands.size());
+        assertEquals(AbstractDebuggerCommand.CMD_GET_VARIABLE, debuggee.requestedCommands.get(2).intValue());
+    }
+}
@@ -0,0 +1,243 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.debug.newconsole;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.python.pydev.shared_core.callbacks.ICallback;
+import org.python.pydev.shared_core.structure.Tuple;
+import org.python.pydev.shared_core.utils.Timer;
+import org.python.pydev.shared_interactive_console.console.ConsoleSocketClient;
+import org.python.pydev.shared_interactive_console.console.ConsoleWireFormat;
+
+public class ConsoleSocketClientTest extends TestCase {
+
+    /**
+     * Stub for the console process: answers the requests as pydev_console_socket.py does.
+     */
+    private static class StubConsole extends Thread {
+
+        private final ServerSocket serverSocket;
+        private volatile Socket socket;
+        private final Object writeLock = new Object();
+        private final List<Integer> waitingCancel = new ArrayList<Integer>();
+
+        public StubConsole() throws IOException {
+            serverSocket = new ServerSocket(0);
+            setDaemon(true);
+        }
+
+        public int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void send(OutputStream out, Object... message) throws IOException {
+            synchronized (writeLock) {
+                out.write(ConsoleWireFormat.encode(message));
+                out.flush();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                OutputStream out = socket.getOutputStream();
+                while (true) {
+                    Object[] message = (Object[]) ConsoleWireFormat.decode(in);
+                    Integer id = (Integer) message[0];
+                    String method = (String) message[1];
+                    if ("cancel".equals(method)) {
+                        Integer toCancel = (Integer) message[2];
+                        if (waitingCancel.remove(toCancel)) {
+                            send(out, toCancel, "err", "KeyboardInterrupt\n");
+                            send(out, toCancel, "result", new Object[] { false, false });
+                        }
+                        continue;
+                    }
+                    Object[] args = (Object[]) message[2];
+                    if ("hello".equals(method)) {
+                        send(out, id, "result", new Object[] { "Hello eclipse" });
+
+                    } else if ("addExec".equals(method)) {
+                        String line = (String) args[0];
+                        if (line.equals("block()")) {
+                            //only answered when cancelled
+                            waitingCancel.add(id);
+                            continue;
+                        }
+                        send(out, id, "out", line);
+                        send(out, id, "err", "err:" + line);
+                        send(out, id, "result", new Object[] { line.endsWith(":"), false });
+
+                    } else if ("exit".equals(method)) {
+                        socket.close();
+                        return;
+
+                    } else {
+                        send(out, id, "error", "Unknown method: " + method);
+                    }
+                }
+            } catch (IOException e) {
+                //finished
+            }
+        }
+
+        public void dispose() {
+            try {
+                serverSocket.close();
+                if (socket != null) {
+                    socket.close();
+                }
+            } catch (IOException e) {
+                //ignore
+            }
+        }
+    }
+
+    private StubConsole stub;
+    private ConsoleSocketClient client;
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: round-trips through the socket transport.
+            ConsoleSocketClientTest test = new ConsoleSocketClientTest();
+            test.setUp();
+            for (int i = 0; i < 1000; i++) {
+                test.client.execute("addExec", new Object[] { "warmup" });
+            }
+            Timer timer = new Timer();
+            for (int i = 0; i < 5000; i++) {
+                test.client.execute("addExec", new Object[] { "print(" + i + ")" });
+            }
+            timer.printDiff("5000 round-trips");
+            test.tearDown();
+
+            junit.textui.TestRunner.run(ConsoleSocketClientTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        stub = new StubConsole();
+        stub.start();
+        client = new ConsoleSocketClient(null, null, null);
+        client.setPort(stub.getPort());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        client.close();
+        stub.dispose();
+        super.tearDown();
+    }
+
+    public void testWireFormat() throws Exception {
+        Object[] obj = new Object[] { null, true, false, 10, -20, "", "a\nb:c;\u00e7",
+                new Object[] { "x", new Object[0] } };
+        Object decoded = ConsoleWireFormat.decode(new ByteArrayInputStream(ConsoleWireFormat.encode(obj)));
+        assertTrue(Arrays.deepEquals(obj, (Object[]) decoded));
+
+        assertTrue(Arrays.deepEquals(new Object[] { 1, "b" },
+                (Object[]) ConsoleWireFormat.decode(new ByteArrayInputStream(ConsoleWireFormat.encode(Arrays
+                        .asList(1, "b"))))));
+    }
+
+    public void testHelloAndExec() throws Exception {
+        Object[] hello = (Object[]) client.execute("hello", new Object[] { "Hello pydevconsole" });
+        assertEquals("Hello eclipse", hello[0]);
+
+        final List<String> contents = new ArrayList<String>();
+        ConsoleSocketClient.Request request = client.executeAsync("addExec", new Object[] { "class A:" },
+                new ICallback<Object, Tuple<String, String>>() {
+
+                    public Object call(Tuple<String, String> arg) {
+                        synchronized (contents) {
+                            contents.add(arg.o1 + "|" + arg.o2);
+                        }
+                        return null;
+                    }
+                });
+        Object[] result = (Object[]) request.get();
+        assertEquals(Boolean.TRUE, result[0]);
+        assertEquals(Boolean.FALSE, result[1]);
+        synchronized (contents) {
+            //the output must be received before the result
+            assertEquals(Arrays.asList("class A:|", "|err:class A:"), contents);
+        }
+
+        Object[] error = (Object[]) client.execute("unknown", null);
+        assertEquals("Unknown method: unknown", error[0]);
+        assertEquals(0, client.getPendingCount());
+    }
+
+    public void testCancel() throws Exception {
+        final List<String> contents = new ArrayList<String>();
+        ConsoleSocketClient.Request request = client.executeAsync("addExec", new Object[] { "block()" },
+                new ICallback<Object, Tuple<String, String>>() {
+
+                    public Object call(Tuple<String, String> arg) {
+                        synchronized (contents) {
+                            contents.add(arg.o2);
+                        }
+                        return null;
+                    }
+                });
+        //other requests still work
+        client.execute("addExec", new Object[] { "a = 10" });
+        assertFalse(request.isDone());
+
+        request.cancel();
+        Object[] result = (Object[]) request.get();
+        assertEquals(Boolean.FALSE, result[0]);
+        synchronized (contents) {
+            assertEquals(Arrays.asList("KeyboardInterrupt\n"), contents);
+        }
+    }
+
+    public void testConnectionClosed() throws Exception {
+        ConsoleSocketClient.Request request = client.executeAsync("addExec", new Object[] { "block()" }, null);
+        client.executeAsync("exit", null, null);
+        Object[] result = (Object[]) request.get();
+        assertTrue(result[0].toString(), result[0].toString().startsWith("Console already exited with value"));
+        assertEquals(0, client.getPendingCount());
+    }
+
+    public void testLatency() throws Exception {
+        client.execute("hello", new Object[] { "Hello pydevconsole" });
+        int roundTrips = 200;
+        long initial = System.currentTimeMillis();
+        for (int i = 0; i < roundTrips; i++) {
+            Object[] result = (Object[]) client.execute("addExec", new Object[] { "print(" + i + ")" });
+            assertEquals(Boolean.FALSE, result[0]);
+        }
+        long elapsed = System.currentTimeMillis() - initial;
+        //The xml-rpc client polled each 10 millis for the answer (the socket transport shouldn't wait at all).
+        assertTrue("Took: " + elapsed + " millis for " + roundTrips + " round-trips.", elapsed < roundTrips * 10);
+    }
+}
@@ -0,0 +1,91 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.debug.pyunit;
+
+import junit.framework.TestCase;
+
+import org.python.pydev.shared_core.string.FastStringBuffer;
+
+public class PyUnitOutputStoreTest extends TestCase {
+
+    private PyUnitOutputStore store;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        store = new PyUnitOutputStore();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        store.dispose();
+        super.tearDown();
+    }
+
+    private String createContents(int len, char c) {
+        FastStringBuffer buf = new FastStringBuffer(len);
+        for (int i = 0; i < len; i++) {
+            buf.append(i % 80 == 79 ? '\n' : c);
+        }
+        return buf.toString();
+    }
+
+    public void testSmallContentsKeptInMemory() throws Exception {
+        PyUnitOutputStore.IStoredContents stored = store.store("small");
+        assertEquals("small", stored.get());
+        assertNull(store.store(null).get());
+        assertFalse(store.hasSpilled());
+    }
+
+    public void testBigContentsSpilled() throws Exception {
+        String big1 = createContents(PyUnitOutputStore.SPILL_THRESHOLD + 1, 'a');
+        String big2 = createContents(PyUnitOutputStore.SPILL_THRESHOLD * 3, '\u00e7'); //non-ascii
+        PyUnitOutputStore.IStoredContents stored1 = store.store(big1);
+        PyUnitOutputStore.IStoredContents stored2 = store.store(big2);
+        //Still not written, but available.
+        assertEquals(big1, stored1.get());
+
+        store.waitPendingWrites();
+        assertTrue(store.hasSpilled());
+
+        assertEquals(big2, stored2.get());
+        assertEquals(big1, stored1.get());
+        assertEquals(big2, stored2.get());
+    }
+
+    public void testStoreDoesNoIO() throws Exception {
+        String big = createContents(PyUnitOutputStore.SPILL_THRESHOLD + 1, 'a');
+        PyUnitOutputStore.IStoredContents stored;
+        synchronized (store) {
+            //The writer thread can't write while the store is locked: nothing is written in the calling thread.
+            stored = store.store(big);
+            assertFalse(store.hasSpilled());
+        }
+        store.waitPendingWrites();
+        assertTrue(store.hasSpilled());
+        assertEquals(big, stored.get());
+    }
+
+    public void testDispose() throws Exception {
+        String big = createContents(PyUnitOutputStore.SPILL_THRESHOLD + 1, 'a');
+        PyUnitOutputStore.IStoredContents stored = store.store(big);
+        store.waitPendingWrites();
+        store.dispose();
+        assertEquals("", stored.get());
+
+        //After disposed, contents are kept in memory.
+        stored = store.store(big);
+        store.waitPendingWrites();
+        assertEquals(big, stored.get());
+        assertFalse(store.hasSpilled());
+    }
+}
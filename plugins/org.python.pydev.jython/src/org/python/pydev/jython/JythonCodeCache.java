@@ -0,0 +1,342 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.jython;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.python.compiler.Module;
+import org.python.core.BytecodeLoader;
+import org.python.core.CompilerFlags;
+import org.python.core.Py;
+import org.python.core.PyCode;
+import org.python.core.PySystemState;
+import org.python.core.parser;
+import org.python.parser.ast.modType;
+import org.python.pydev.core.log.Log;
+
+/**
+ * Cache for the code objects of the scripts executed in JythonPlugin.exec.
+ *
+ * The code objects are keyed by a hash of the contents of the script (and its path), so, the same script is
+ * only compiled once regardless of how many interpreters execute it, and different threads may get (and
+ * compile) scripts concurrently (the cache is lock-free).
+ *
+ * The generated bytecode is also saved in a directory (if given), so, a new session doesn't need to recompile
+ * scripts whose contents didn't change. The files saved are named with the hash of the script path and the hash
+ * of its contents: when a script changes, the file with its previous contents is removed, and the least recently
+ * used files are removed when the directory has more than MAX_DISK_FILES files or MAX_DISK_BYTES bytes.
+ */
+public final class JythonCodeCache {
+
+    /**
+     * Should be raised if the format of the files saved changes.
+     */
+    private static final int CACHE_VERSION = 2;
+
+    private static final String CACHE_EXTENSION = ".jyc";
+
+    public static final int MAX_DISK_FILES = 500;
+
+    public static final long MAX_DISK_BYTES = 32 * 1024 * 1024;
+
+    /**
+     * A compiled script.
+     */
+    public static final class CompiledCode {
+
+        /**
+         * The hash of the script contents (and path) used to generate the code.
+         */
+        public final String hash;
+
+        public final PyCode code;
+
+        private final AtomicBoolean used = new AtomicBoolean(false);
+
+        private CompiledCode(String hash, PyCode code) {
+            this.hash = hash;
+            this.code = code;
+        }
+
+        /**
+         * @return true only in the first call (i.e.: to report that a script was (re)loaded only once).
+         */
+        public boolean checkFirstUse() {
+            return used.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Used to avoid reading the file to get its hash when its timestamp and size didn't change.
+     */
+    private static final class FileStamp {
+
+        private final long lastModified;
+        private final long length;
+        private final String hash;
+
+        private FileStamp(long lastModified, long length, String hash) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.hash = hash;
+        }
+    }
+
+    private final ConcurrentHashMap<String, CompiledCode> hashToCode = new ConcurrentHashMap<String, CompiledCode>();
+    private final ConcurrentHashMap<File, FileStamp> fileToStamp = new ConcurrentHashMap<File, FileStamp>();
+
+    /**
+     * May be null (in which case the code is only cached in memory).
+     */
+    private final File cacheDir;
+
+    private final int maxDiskFiles;
+
+    private final long maxDiskBytes;
+
+    /**
+     * @param cacheDir the directory where the bytecode should be saved (if null, nothing is saved).
+     */
+    public JythonCodeCache(File cacheDir) {
+        this(cacheDir, MAX_DISK_FILES, MAX_DISK_BYTES);
+    }
+
+    /**
+     * @param maxDiskFiles/maxDiskBytes limits for the files saved in the cacheDir (the least recently used are
+     * removed when the limits are exceeded).
+     */
+    public JythonCodeCache(File cacheDir, int maxDiskFiles, long maxDiskBytes) {
+        this.cacheDir = cacheDir;
+        this.maxDiskFiles = maxDiskFiles;
+        this.maxDiskBytes = maxDiskBytes;
+    }
+
+    /**
+     * @return the code for the given python file (compiling it or loading it from disk if needed).
+     */
+    public CompiledCode get(File file) throws IOException {
+        long lastModified = file.lastModified();
+        long length = file.length();
+        FileStamp stamp = fileToStamp.get(file);
+        if (stamp != null && stamp.lastModified == lastModified && stamp.length == length) {
+            CompiledCode compiled = hashToCode.get(stamp.hash);
+            if (compiled != null) {
+                return compiled;
+            }
+        }
+
+        byte[] contents = Files.readAllBytes(file.toPath());
+        String path = file.getAbsolutePath();
+        String hash = getHash(path, contents);
+        fileToStamp.put(file, new FileStamp(lastModified, length, hash));
+        if (stamp != null && !stamp.hash.equals(hash)) {
+            //The previous contents are no longer needed.
+            hashToCode.remove(stamp.hash);
+        }
+
+        CompiledCode compiled = hashToCode.get(hash);
+        if (compiled == null) {
+            String diskName = getPathHash(path) + "_" + hash + CACHE_EXTENSION;
+            PyCode code = loadFromDisk(diskName, path);
+            if (code == null) {
+                code = compile(diskName, path, contents);
+            }
+            compiled = new CompiledCode(hash, code);
+            //If some other thread compiled the same contents at the same time, keep only one.
+            CompiledCode existing = hashToCode.putIfAbsent(hash, compiled);
+            if (existing != null) {
+                compiled = existing;
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Removes what's cached in memory (the files on disk are kept).
+     */
+    public void clear() {
+        hashToCode.clear();
+        fileToStamp.clear();
+    }
+
+    private static String getHash(String path, byte[] contents) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            //The Jython version is also in the hash as the bytecode generated depends on it.
+            md.update((CACHE_VERSION + "|" + PySystemState.version + "|" + path + "|").getBytes("UTF-8"));
+            md.update(contents);
+            return new BigInteger(1, md.digest()).toString(Character.MAX_RADIX);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return a hash of the path (the prefix of the files saved for a given script).
+     */
+    private static String getPathHash(String path) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            md.update(path.getBytes("UTF-8"));
+            return new BigInteger(1, md.digest()).toString(Character.MAX_RADIX);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private PyCode compile(String diskName, String path, byte[] contents) {
+        //Same as the builtin compile(contents, path, 'exec'), but we keep the bytecode to save it.
+        byte[] data = new byte[contents.length + 2];
+        System.arraycopy(contents, 0, data, 0, contents.length);
+        data[data.length - 2] = '\n';
+        data[data.length - 1] = '\n';
+
+        CompilerFlags cflags = new CompilerFlags();
+        modType node = parser.parse(data, "exec", path, cflags);
+        String name = Py.getName();
+        byte[] bytecode;
+        try {
+            ByteArrayOutputStream ostream = new ByteArrayOutputStream();
+            Module.compile(node, ostream, name, path, true, false, false, cflags);
+            bytecode = ostream.toByteArray();
+        } catch (Throwable t) {
+            throw parser.fixParseError(null, t, path);
+        }
+        PyCode code = BytecodeLoader.makeCode(name, bytecode, path);
+        saveToDisk(diskName, name, bytecode);
+        return code;
+    }
+
+    private PyCode loadFromDisk(String diskName, String path) {
+        if (cacheDir == null) {
+            return null;
+        }
+        File file = new File(cacheDir, diskName);
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != CACHE_VERSION) {
+                return null;
+            }
+            String name = in.readUTF();
+            byte[] bytecode = new byte[in.readInt()];
+            in.readFully(bytecode);
+            PyCode code = BytecodeLoader.makeCode(name, bytecode, path);
+            //The timestamp of the file is the last time it was used (to remove the least recently used).
+            file.setLastModified(System.currentTimeMillis());
+            return code;
+        } catch (Exception e) {
+            //Corrupt or from an incompatible version: just compile it again (and overwrite it).
+            Log.log(e);
+            return null;
+        }
+    }
+
+    private void saveToDisk(String diskName, String name, byte[] bytecode) {
+        if (cacheDir == null) {
+            return;
+        }
+        try {
+            if (!cacheDir.exists()) {
+                cacheDir.mkdirs();
+            }
+            //Write to a temporary file and rename it so that a partially written file is never read.
+            File tempFile = File.createTempFile("jyc", ".tmp", cacheDir);
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tempFile))) {
+                out.writeInt(CACHE_VERSION);
+                out.writeUTF(name);
+                out.writeInt(bytecode.length);
+                out.write(bytecode);
+            }
+            File file = new File(cacheDir, diskName);
+            if (!tempFile.renameTo(file)) {
+                tempFile.delete();
+            }
+        } catch (IOException e) {
+            Log.log(e);
+        }
+        removeOldFiles(diskName);
+    }
+
+    /**
+     * Removes the files saved for previous contents of the script just saved and the least recently used files
+     * if the limits were exceeded.
+     */
+    private synchronized void removeOldFiles(String savedName) {
+        String pathPrefix = savedName.substring(0, savedName.indexOf('_') + 1);
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> cached = new ArrayList<File>(files.length);
+        long totalBytes = 0;
+        for (File file : files) {
+            String fileName = file.getName();
+            if (!fileName.endsWith(CACHE_EXTENSION)) {
+                continue;
+            }
+            if (fileName.indexOf('_') == -1 || (fileName.startsWith(pathPrefix) && !fileName.equals(savedName))) {
+                //Superseded contents of the same script (or a file from an older version of the cache).
+                file.delete();
+                continue;
+            }
+            cached.add(file);
+            totalBytes += file.length();
+        }
+        if (cached.size() <= maxDiskFiles && totalBytes <= maxDiskBytes) {
+            return;
+        }
+
+        final Map<File, Long> lastModified = new HashMap<File, Long>();
+        for (File file : cached) {
+            lastModified.put(file, file.lastModified());
+        }
+        Collections.sort(cached, new Comparator<File>() {
+
+            public int compare(File o1, File o2) {
+                return lastModified.get(o1).compareTo(lastModified.get(o2));
+            }
+        });
+        int remaining = cached.size();
+        for (File file : cached) {
+            if (remaining <= maxDiskFiles && totalBytes <= maxDiskBytes) {
+                break;
+            }
+            if (file.getName().equals(savedName)) {
+                continue;
+            }
+            long len = file.length();
+            if (file.delete()) {
+                remaining--;
+                totalBytes -= len;
+            }
+        }
+    }
+}
@@ -36,7 +36,6 @@ import org.python.pydev.jython.ui.JyScriptingPreferencesPage;
 import org.python.pydev.shared_core.callbacks.ICallback0;
 import org.python.pydev.shared_core.io.FileUtils;
 import org.python.pydev.shared_core.string.StringUtils;
-import org.python.pydev.shared_core.structure.Tuple;
 import org.python.pydev.shared_ui.ConsoleColorCache;
 import org.python.pydev.shared_ui.bundle.BundleInfo;
 import org.python.pydev.shared_ui.bundle.IBundleInfo;
@@ -59,14 +58,17 @@ public class JythonPlugin extends AbstractUIPlugin {
     private static String LOAD_FILE_SCRIPT = "" +
             "print '--->  reloading', r'%s'\n" +
             "import sys                    \n" + //sys will always be on the namespace (so that we can set sys.path)
-            "f = open(r'%s')               \n" +
-            "try:                          \n" +
-            "    toExec = f.read()         \n" +
-            "finally:                      \n" +
-            "    f.close()                 \n" +
             "%s                            \n" + //space to put the needed folders on sys.path
             "";
 
+    /**
+     * Same as LOAD_FILE_SCRIPT (used when the code was already loaded by some other interpreter).
+     */
+    private static final String SETUP_SYS_SCRIPT = "" +
+            "import sys                    \n" +
+            "%s                            \n" +
+            "";
+
     public static synchronized void setDebugReload(boolean b) {
         if (b != DEBUG_RELOAD) {
             if (b == false) {
@@ -266,6 +268,7 @@ public class JythonPlugin extends AbstractUIPlugin {
      */
     @Override
     public void stop(BundleContext context) throws Exception {
+        interpreterPool.dispose();
         super.stop(context);
         plugin = null;
     }
@@ -401,10 +404,40 @@ public class JythonPlugin extends AbstractUIPlugin {
     }
 
     /**
-     * Holds a cache with the name of the created code to a tuple with the file timestamp and the Code Object
-     * that was generated with the contents of that timestamp.
+     * Holds the code objects for the scripts executed (shared by all the interpreters). Lazily created.
      */
-    private static Map<File, Tuple<Long, Object>> codeCache = new HashMap<File, Tuple<Long, Object>>();
+    private static volatile JythonCodeCache codeCache;
+
+    /**
+     * Lock used when changing the sys shared by the interpreters (which don't have their own PySystemState).
+     */
+    private static final Object sharedSysLock = new Object();
+
+    /**
+     * @return the cache with the code objects of the scripts (compiled code is saved in the plugin state
+     * location so that it's reused across sessions).
+     */
+    public static JythonCodeCache getCodeCache() {
+        JythonCodeCache cache = codeCache;
+        if (cache == null) {
+            synchronized (lock) {
+                cache = codeCache;
+                if (cache == null) {
+                    File cacheDir = null;
+                    if (plugin != null) {
+                        try {
+                            cacheDir = plugin.getStateLocation().append("code_cache").toFile();
+                        } catch (Exception e) {
+                            Log.log(e);
+                        }
+                    }
+                    cache = new JythonCodeCache(cacheDir);
+                    codeCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
 
     /**
      * @param pythonpathFolders folders that should be in the pythonpath when executing the script
@@ -421,48 +454,38 @@ public class JythonPlugin extends AbstractUIPlugin {
         }
         locals.put("__file__", fileToExec.toString());
         try {
-            String codeObjName;
-            synchronized (codeCache) { //hold on there... one at a time... please?
-                String fileName = fileToExec.getName();
-                if (!fileName.endsWith(".py")) {
-                    throw new RuntimeException("The script to be executed must be a python file. Name:" + fileName);
-                }
-                codeObjName = "code" + fileName.substring(0, fileName.indexOf('.'));
-                final String codeObjTimestampName = codeObjName + "Timestamp";
+            String fileName = fileToExec.getName();
+            if (!fileName.endsWith(".py")) {
+                throw new RuntimeException("The script to be executed must be a python file. Name:" + fileName);
+            }
+            String codeObjName = "code" + fileName.substring(0, fileName.indexOf('.'));
+            final String codeObjHashName = codeObjName + "Hash";
+
+            //Compiling doesn't need any global lock (the cache is shared by all the threads and only compiles
+            //a given content once).
+            JythonCodeCache.CompiledCode compiled = getCodeCache().get(fileToExec);
 
+            synchronized (interpreter) { //only one thread at a time setting the state of a given interpreter
                 for (Map.Entry<String, Object> entry : locals.entrySet()) {
                     interpreter.set(entry.getKey(), entry.getValue());
                 }
 
-                boolean regenerate = false;
+                boolean setupSys = false;
                 if (interpreter instanceof PythonInterpreterWrapperNotShared) {
-                    //Always regenerate if the state is not shared! (otherwise the pythonpath might be wrong as the sys is not the same)
-                    regenerate = true;
-                }
-
-                Tuple<Long, Object> timestamp = codeCache.get(fileToExec);
-                final long lastModified = fileToExec.lastModified();
-                if (timestamp == null || timestamp.o1 != lastModified) {
-                    //the file timestamp changed, so, we have to regenerate it
-                    regenerate = true;
+                    //Always setup if the state is not shared! (otherwise the pythonpath might be wrong as the sys is not the same)
+                    setupSys = true;
                 }
 
-                if (!regenerate) {
-                    //if the 'code' object does not exist or if it's timestamp is outdated, we have to re-set it. 
-                    PyObject obj = interpreter.get(codeObjName);
-                    PyObject pyTime = interpreter.get(codeObjTimestampName);
-                    if (obj == null || pyTime == null || !pyTime.__tojava__(Long.class).equals(timestamp.o1)) {
-                        if (DEBUG) {
-                            System.out.println("Resetting object: " + codeObjName);
-                        }
-                        interpreter.set(codeObjName, timestamp.o2);
-                        interpreter.set(codeObjTimestampName, timestamp.o1);
-                    }
+                //if the 'code' object does not exist or if it's outdated, we have to re-set it.
+                PyObject obj = interpreter.get(codeObjName);
+                PyObject pyHash = interpreter.get(codeObjHashName);
+                if (obj == null || pyHash == null || !compiled.hash.equals(pyHash.__tojava__(String.class))) {
+                    setupSys = true;
                 }
 
-                if (regenerate) {
+                if (setupSys) {
                     if (DEBUG) {
-                        System.out.println("Regenerating: " + codeObjName);
+                        System.out.println("Setting code object: " + codeObjName);
                     }
                     String path = FileUtils.getFileAbsolutePath(fileToExec);
 
@@ -502,18 +525,23 @@ public class JythonPlugin extends AbstractUIPlugin {
                         addToSysPath.append("\n");
                     }
 
-                    String toExec = StringUtils.format(LOAD_FILE_SCRIPT, path,
-                            path,
-                            addToSysPath.toString());
-                    interpreter.exec(toExec);
-                    String exec = StringUtils.format(
-                            "%s = compile(toExec, r'%s', 'exec')", codeObjName, path);
-                    interpreter.exec(exec);
-                    //set its timestamp
-                    interpreter.set(codeObjTimestampName, lastModified);
-
-                    Object codeObj = interpreter.get(codeObjName);
-                    codeCache.put(fileToExec, new Tuple<Long, Object>(lastModified, codeObj));
+                    String toExec;
+                    if (compiled.checkFirstUse()) {
+                        toExec = StringUtils.format(LOAD_FILE_SCRIPT, path, addToSysPath.toString());
+                    } else {
+                        toExec = StringUtils.format(SETUP_SYS_SCRIPT, addToSysPath.toString());
+                    }
+                    if (interpreter instanceof PythonInterpreterWrapperNotShared) {
+                        interpreter.exec(toExec);
+                    } else {
+                        //The sys is shared by the interpreters (i.e.: the ones in the pool), so, only one thread
+                        //at a time may change it.
+                        synchronized (sharedSysLock) {
+                            interpreter.exec(toExec);
+                        }
+                    }
+                    interpreter.set(codeObjName, compiled.code);
+                    interpreter.set(codeObjHashName, compiled.hash);
                 }
             }
 
@@ -588,8 +616,23 @@ public class JythonPlugin extends AbstractUIPlugin {
         }
     }
 
+    /**
+     * Keeps some interpreters (with output redirected and sharing the sys) created beforehand.
+     */
+    private static final PythonInterpreterPool interpreterPool = new PythonInterpreterPool(
+            new ICallback0<IPythonInterpreter>() {
+
+                public IPythonInterpreter call() {
+                    return newPythonInterpreter(true, true);
+                }
+            }, 2);
+
+    /**
+     * @return a new interpreter with the output redirected to the scripting console and sharing the sys
+     * (which was usually created beforehand in a background thread).
+     */
     public static IPythonInterpreter newPythonInterpreter() {
-        return newPythonInterpreter(true, true);
+        return interpreterPool.get();
     }
 
     /**
@@ -0,0 +1,110 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.jython;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.python.pydev.core.concurrency.SharedExecutor;
+import org.python.pydev.core.log.Log;
+import org.python.pydev.shared_core.callbacks.ICallback0;
+
+/**
+ * Keeps some interpreters created beforehand (in a background thread), so, clients which need a new interpreter
+ * (i.e.: each editor opened) don't have to wait for its creation.
+ *
+ * Note that interpreters are never given back to the pool: the scripts keep state in the namespace of the
+ * interpreter, so, each interpreter gotten is owned by the client that got it (which should clean it up).
+ */
+public final class PythonInterpreterPool {
+
+    private final ConcurrentLinkedQueue<IPythonInterpreter> available = new ConcurrentLinkedQueue<IPythonInterpreter>();
+    private final AtomicBoolean refilling = new AtomicBoolean(false);
+    private final ICallback0<IPythonInterpreter> factory;
+    private final int size;
+    private volatile boolean disposed = false;
+
+    /**
+     * @param factory used to create the interpreters.
+     * @param size the number of interpreters to keep created beforehand.
+     */
+    public PythonInterpreterPool(ICallback0<IPythonInterpreter> factory, int size) {
+        this.factory = factory;
+        this.size = size;
+    }
+
+    /**
+     * @return an interpreter created beforehand (or a new one if none is available). The pool is refilled
+     * in a background thread.
+     */
+    public IPythonInterpreter get() {
+        IPythonInterpreter interpreter = available.poll();
+        if (interpreter == null) {
+            interpreter = factory.call();
+        }
+        scheduleRefill();
+        return interpreter;
+    }
+
+    /**
+     * Starts creating the interpreters in a background thread (if still not done and the pool wasn't disposed).
+     */
+    public void scheduleRefill() {
+        if (disposed || available.size() >= size || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        SharedExecutor.getExecutor().execute(new Runnable() {
+
+            public void run() {
+                try {
+                    while (!disposed && available.size() < size) {
+                        available.add(factory.call());
+                        if (disposed) {
+                            //Disposed while it was being created (dispose() may have already cleaned up the others).
+                            cleanupAvailable();
+                        }
+                    }
+                } catch (Throwable e) {
+                    Log.log(e);
+                } finally {
+                    refilling.set(false);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the number of interpreters currently created beforehand.
+     */
+    public int getAvailable() {
+        return available.size();
+    }
+
+    /**
+     * Cleans up the interpreters still not gotten (and stops creating new ones).
+     */
+    public void dispose() {
+        disposed = true;
+        cleanupAvailable();
+    }
+
+    private void cleanupAvailable() {
+        IPythonInterpreter interpreter;
+        while ((interpreter = available.poll()) != null) {
+            try {
+                interpreter.cleanup();
+            } catch (Throwable e) {
+                Log.log(e);
+            }
+        }
+    }
+}
@@ -53,6 +53,9 @@ import org.python.pydev.parser.jython.ast.Module;
 import org.python.pydev.parser.jython.ast.stmtType;
 import org.python.pydev.shared_core.callbacks.ICallback;
 import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.metrics.Counter;
+import org.python.pydev.shared_core.metrics.LatencyTimer;
+import org.python.pydev.shared_core.metrics.Metrics;
 import org.python.pydev.shared_core.model.ErrorDescription;
 import org.python.pydev.shared_core.model.ISimpleNode;
 import org.python.pydev.shared_core.out_of_memory.OnExpectedOutOfMemory;
@@ -83,6 +86,9 @@ public class PyParser extends BaseParser implements IPyParser {
      */
     public static boolean DEBUG_SHOW_PARSE_ERRORS = false;
 
+    private static final LatencyTimer parseTimer = Metrics.timer("parser.parse");
+    private static final Counter parseErrorsCounter = Metrics.counter("parser.parse_errors");
+
     /**
      * Defines whether we should use the fast stream or not
      */
@@ -502,6 +508,7 @@ public class PyParser extends BaseParser implements IPyParser {
 
         Tuple<ISimpleNode, Throwable> returnVar = new Tuple<ISimpleNode, Throwable>(null, null);
         IGrammar grammar = null;
+        long parseStart = parseTimer.start();
         try {
             grammar = createGrammar(info.generateTree, info.grammarVersion, charArray);
             SimpleNode newRoot;
@@ -558,6 +565,10 @@ public class PyParser extends BaseParser implements IPyParser {
             }
 
         }
+        parseTimer.stop(parseStart);
+        if (returnVar.o2 != null) {
+            parseErrorsCounter.inc();
+        }
 
         if (DEBUG_SHOW_PARSE_ERRORS) {
             if (returnVar.o1 == null) {
@@ -614,7 +625,7 @@ public class PyParser extends BaseParser implements IPyParser {
     /**
      * Creates the error description for a given error in the parse.
      */
-    private static ErrorDescription createErrorDesc(Throwable error, IDocument doc) throws BadLocationException {
+    public static ErrorDescription createErrorDesc(Throwable error, IDocument doc) throws BadLocationException {
         int errorStart = -1;
         int errorEnd = -1;
         int errorLine = -1;
@@ -7,7 +7,10 @@
 package org.python.pydev.parser.fastparser;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.python.pydev.core.ObjectsPool;
 import org.python.pydev.core.ObjectsPool.ObjectsPoolMap;
@@ -25,14 +28,10 @@ import org.python.pydev.parser.jython.ast.NameTok;
 import org.python.pydev.parser.jython.ast.exprType;
 import org.python.pydev.parser.jython.ast.stmtType;
 import org.python.pydev.shared_core.callbacks.ICallback;
-import org.python.pydev.shared_core.string.FastStringBuffer;
-import org.python.pydev.shared_core.string.StringUtils;
 import org.python.pydev.shared_core.structure.FastStack;
 import org.python.pydev.shared_core.structure.Tuple;
 
 /**
- * @note: Unfinished
- *
  * This class should be able to gather the definitions found in a module in a very fast way.
  *
  * The target is having a performance around 5x faster than doing a regular parse, focusing on getting
@@ -41,6 +40,14 @@ import org.python.pydev.shared_core.structure.Tuple;
  * classes, functions, class attributes, instance attributes -- basically the tokens that provide a
  * definition that can be 'globally' accessed.
  *
+ * The structure created should have the same definitions that the DefinitionsASTIteratorVisitor gets from the
+ * full ast (which is what's indexed): scopes are closed based on the indentation of each logical line (so,
+ * decorators, definitions inside if/try blocks, multi-line signatures and line continuations are properly
+ * handled), assigns are split at each top-level '=' and tuple targets are unpacked.
+ *
+ * Note: assigns to attributes are only kept for 'self' inside a method (other attributes are not really
+ * definitions of the module).
+ *
  * @author Fabio
  */
 public final class FastDefinitionsParser {
@@ -75,9 +82,14 @@ public final class FastDefinitionsParser {
     private int row = 0;
 
     /**
-     * The column where the 1st char was found
+     * The index where the current statement started (i.e.: after the indentation of a logical line or after a ';').
      */
-    private int firstCharCol = 1;
+    private int statementStart = 0;
+
+    /**
+     * The row of the statementStart.
+     */
+    private int statementRow = 1;
 
     /**
      * Holds things added to the 'global' module
@@ -85,21 +97,17 @@ public final class FastDefinitionsParser {
     private final ArrayList<stmtType> body = new ArrayList<stmtType>(16);
 
     /**
-     * Holds a stack of classes so that we create a new one in each new scope to be filled and when the scope is ended,
-     * it should have its body filled with the stackBody contents related to each
+     * Holds a stack with the classes and functions for the current scope (classes are added to their parent when
+     * the scope ends and functions are added to their parent as soon as they're found).
      */
     private final FastStack<SimpleNode> stack = new FastStack<SimpleNode>(20);
 
     /**
-     * For each item in the stack, there's a stackBody that has the contents to be added later to that class.
+     * For each item in the stack, there's a stackBody that has the contents to be added later to that class
+     * (null for functions).
      */
     private final FastStack<List<stmtType>> stackBody = new FastStack<List<stmtType>>(20);
 
-    /**
-     * Buffer with the contents of a line.
-     */
-    private final FastStringBuffer lineBuffer = new FastStringBuffer();
-
     /**
      * Should we debug?
      */
@@ -128,7 +136,7 @@ public final class FastDefinitionsParser {
         ParsingUtils parsingUtils = ParsingUtils.create(cs, false, length);
 
         if (currIndex < length) {
-            handleNewLine(parsingUtils);
+            handleNewLine();
         }
         //in the 1st attempt to handle the 1st line, if it had nothing we could actually go backward 1 char
         if (currIndex < 0) {
@@ -158,15 +166,7 @@ public final class FastDefinitionsParser {
                         System.out.println("comment");
                     }
                     //go to the end of the comment
-                    while (currIndex < length) {
-                        c = cs[currIndex];
-                        if (c == '\r' || c == '\n') {
-                            currIndex--;
-                            break;
-                        }
-                        currIndex++;
-                    }
-
+                    currIndex = skipComment(currIndex);
                     break;
 
                 case '{':
@@ -180,6 +180,18 @@ public final class FastDefinitionsParser {
                     updateCountRow(initialIndex, currIndex);
                     break;
 
+                case '\\':
+                    //line continuation: the next line is still part of the current logical line
+                    initialIndex = currIndex;
+                    currIndex = skipLineContinuation(currIndex);
+                    updateCountRow(initialIndex, currIndex);
+                    break;
+
+                case ';':
+                    statementStart = currIndex + 1;
+                    statementRow = row;
+                    break;
+
                 case '\r':
                     if (currIndex < length - 1 && cs[currIndex + 1] == '\n') {
                         currIndex++;
@@ -187,98 +199,52 @@ public final class FastDefinitionsParser {
                     /*FALLTHROUGH**/
                 case '\n':
                     currIndex++;
-                    handleNewLine(parsingUtils);
-                    if (currIndex < length) {
-                        c = cs[currIndex];
-                    }
-
+                    handleNewLine();
                     break;
 
                 case '=':
-                    if (currIndex < length - 1 && cs[currIndex + 1] != '=') {
-                        //should not be ==
-                        //other cases such as !=, +=, -= are already treated because they don't constitute valid
-                        //chars for an identifier.
-
+                    if (isAssignEquals(currIndex)) {
                         if (DEBUG) {
-                            System.out.println("Found possible attribute:" + lineBuffer + " col:" + firstCharCol);
+                            System.out.println("Found possible attribute at row:" + row);
                         }
-
-                        //if we've an '=', let's get the whole line contents to analyze...
-                        //Note: should have stopped just before the new line (so, as we'll do currIndex++ in the
+                        //Note: should stop just before the new line (so, as we'll do currIndex++ in the
                         //next loop, that's ok).
                         initialIndex = currIndex;
-                        currIndex = parsingUtils.getFullFlattenedLine(currIndex, lineBuffer);
+                        currIndex = handleAssign(parsingUtils, currIndex);
 
                         //keep the row count correct
                         updateCountRow(initialIndex, currIndex);
-
-                        String equalsLine = lineBuffer.toString().trim();
-                        lineBuffer.clear();
-
-                        final List<String> splitted = StringUtils.split(equalsLine, '=');
-                        final int splittedLen = splitted.size();
-                        ArrayList<exprType> targets = new ArrayList<exprType>(2);
-
-                        for (int j = 0; j < splittedLen - 1 || (splittedLen == 1 && j == 0); j++) { //we don't want to get the last one.
-                            String lineContents = splitted.get(j).trim();
-                            if (lineContents.length() == 0) {
-                                continue;
-                            }
-                            boolean add = true;
-                            for (int i = 0; i < lineContents.length(); i++) {
-                                char lineC = lineContents.charAt(i);
-                                //can only be made of valid java chars (no spaces or similar things)
-                                if (lineC != '.' && !Character.isJavaIdentifierPart(lineC)) {
-                                    add = false;
-                                    break;
-                                }
-                            }
-                            if (add) {
-                                //only add if it was something valid
-                                if (lineContents.indexOf('.') != -1) {
-                                    List<String> dotSplit = StringUtils.dotSplit(lineContents);
-                                    if (dotSplit.size() == 2 && dotSplit.get(0).equals("self")) {
-                                        Attribute attribute = new Attribute(new Name("self", Name.Load, false),
-                                                new NameTok(dotSplit.get(1), NameTok.Attrib), Attribute.Load);
-                                        targets.add(attribute);
-                                    }
-
-                                } else {
-                                    Name name = new Name(lineContents, Name.Store, false);
-                                    targets.add(name);
-                                }
-                            }
-                        }
-
-                        if (targets.size() > 0) {
-                            Assign assign = new Assign(targets.toArray(new exprType[targets.size()]), null);
-                            assign.beginColumn = this.firstCharCol;
-                            assign.beginLine = this.row;
-                            addToPertinentScope(assign);
-                        }
                     }
-                    //No default
+                    break;
+
+                //No default
             }
-            lineBuffer.append(c);
         }
 
         endScopesInStack();
     }
 
     public void updateCountRow(int initialIndex, int currIndex) {
+        row += countNewLines(initialIndex, currIndex);
+    }
+
+    /**
+     * @return the number of new lines found from initialIndex to finalIndex (inclusive).
+     */
+    private int countNewLines(int initialIndex, int finalIndex) {
         char c;
         int len = length;
-        for (int k = initialIndex; k < len && k <= currIndex; k++) {
+        int newLines = 0;
+        for (int k = initialIndex; k < len && k <= finalIndex; k++) {
             c = cs[k];
             switch (c) {
                 case '\n':
-                    row += 1;
+                    newLines += 1;
                     break;
 
                 case '\r':
-                    row += 1;
-                    if (k < len - 1 && k <= currIndex - 1) {
+                    newLines += 1;
+                    if (k < len - 1 && k <= finalIndex - 1) {
                         if (cs[k + 1] == '\n') {
                             k++; //skip the \n after the \r
                         }
@@ -286,14 +252,77 @@ public final class FastDefinitionsParser {
                     break;
             }
         }
+        return newLines;
     }
 
     /**
-     * Called when a new line is found. Tries to make the match of function and class definitions.
-     * @throws SyntaxErrorException
+     * @return the index just before the new line which ends the comment starting at the given index.
+     */
+    private int skipComment(int i) {
+        while (i < length) {
+            char c = cs[i];
+            if (c == '\r' || c == '\n') {
+                return i - 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @param i the index of a '\'
+     * @return the last index of the new line after it (or the same index if it's not followed by a new line).
+     */
+    private int skipLineContinuation(int i) {
+        if (i + 1 < length) {
+            char c = cs[i + 1];
+            if (c == '\r') {
+                i++;
+                if (i + 1 < length && cs[i + 1] == '\n') {
+                    i++;
+                }
+            } else if (c == '\n') {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * @return whether the '=' at the given index is an assignment (and not ==, !=, <=, >=, +=, etc).
+     */
+    private boolean isAssignEquals(int i) {
+        if (i + 1 < length && cs[i + 1] == '=') {
+            return false;
+        }
+        if (i > 0) {
+            switch (cs[i - 1]) {
+                case '=':
+                case '!':
+                case '<':
+                case '>':
+                case '+':
+                case '-':
+                case '*':
+                case '/':
+                case '%':
+                case '&':
+                case '|':
+                case '^':
+                case '@':
+                case ':':
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Called when a new line is found. Closes the scopes which ended in this line (based on its indentation)
+     * and tries to make the match of function and class definitions.
      */
-    private void handleNewLine(ParsingUtils parsingUtils) throws SyntaxErrorException {
-        if (currIndex >= length - 1) {
+    private void handleNewLine() {
+        if (currIndex >= length) {
             return;
         }
 
@@ -303,15 +332,27 @@ public final class FastDefinitionsParser {
             System.out.println("Handling new line:" + row);
         }
 
-        lineBuffer.clear();
         char c = cs[currIndex];
 
-        while (currIndex < length - 1 && Character.isWhitespace(c) && c != '\r' && c != '\n') {
+        while (currIndex < length - 1 && (c == ' ' || c == '\t' || c == '\f')) {
             currIndex++;
             col++;
             c = cs[currIndex];
         }
 
+        if (c == '\r' || c == '\n' || c == '#' || c == ' ' || c == '\t' || c == '\f') {
+            //empty line or comment: it doesn't change the current scope.
+            currIndex--;
+            return;
+        }
+
+        //ok, we have a new logical line at this point: close the scopes with an indentation >= than the current.
+        while (stack.size() > 0 && stack.peek().beginColumn >= col) {
+            endScope();
+        }
+        statementStart = currIndex;
+        statementRow = row;
+
         if (c == 'c' && matchClass()) {
             int startClassCol = col;
             currIndex += 6;
@@ -320,7 +361,7 @@ public final class FastDefinitionsParser {
             if (this.length <= currIndex) {
                 return;
             }
-            startClass(getNextIdentifier(c), row, startClassCol);
+            startClass(getNextIdentifier(), row, startClassCol);
 
         } else if (c == 'd' && matchFunction()) {
             int startMethodCol = col;
@@ -330,123 +371,243 @@ public final class FastDefinitionsParser {
             if (this.length <= currIndex) {
                 return;
             }
-            startMethod(getNextIdentifier(c), row, startMethodCol);
+            startMethod(getNextIdentifier(), row, startMethodCol);
+
+        } else if (c == 'a') {
+            int defIndex = matchAsyncFunction();
+            if (defIndex != -1) {
+                int startMethodCol = col;
+                col += defIndex + 4 - currIndex;
+                currIndex = defIndex + 4;
+
+                if (this.length <= currIndex) {
+                    return;
+                }
+                startMethod(getNextIdentifier(), row, startMethodCol);
+            }
         }
-        firstCharCol = col;
-        if (currIndex < length) {
+        //the main loop will go on from the current char (i.e.: parameters, ':', etc.)
+        currIndex--;
+    }
 
-            //starting some call, dict, list, tuple... those don't count on getting some actual definition
-            int initialIndex = currIndex;
+    /**
+     * Get the next identifier available.
+     * @return the identifier found
+     */
+    private String getNextIdentifier() {
+        char c;
+        while (currIndex < length && ((c = this.cs[currIndex]) == ' ' || c == '\t')) {
+            currIndex++;
+        }
 
-            int tempIndex = skipWhitespaces(currIndex);
+        int currClassNameCol = currIndex;
+        while (currIndex < length && Character.isJavaIdentifierPart(this.cs[currIndex])) {
+            currIndex++;
+        }
+        return ObjectsPool.internLocal(interned, new String(this.cs, currClassNameCol, currIndex - currClassNameCol));
+    }
 
-            if (tempIndex >= length) {
-                return;
-            }
-            c = cs[tempIndex];
+    private final ObjectsPoolMap interned = new ObjectsPoolMap();
 
-            boolean updateIndex = false;
+    /**
+     * Handles an assign statement (at this point, the '=' at the given index is known to be at the top-level of the
+     * statement started at statementStart).
+     *
+     * Something as a = b = c, d = 10 is handled as an assign with the targets a, b, c and d.
+     *
+     * @return the index just before the end of the statement (i.e.: before the new line, ';' or comment).
+     */
+    private int handleAssign(ParsingUtils parsingUtils, int equalsIndex) throws SyntaxErrorException {
+        List<Integer> equals = new ArrayList<Integer>(2);
+        equals.add(equalsIndex);
+
+        //find where the statement ends and the other '=' (if we find a lambda, the '=' are default args).
+        boolean collectEquals = true;
+        int i = equalsIndex + 1;
+        LOOP: for (; i < length; i++) {
+            char c = cs[i];
             switch (c) {
-                case '(':
-                    tempIndex = parsingUtils.eatPar(tempIndex, null, c);
-
-                    if (tempIndex < length) {
-                        tempIndex = skipWhitespaces(tempIndex);
+                case '\'':
+                case '"':
+                    i = parsingUtils.getLiteralEnd(i, c);
+                    break;
 
-                        c = cs[tempIndex];
-                        if (c == ')') {
-                            tempIndex++;
-                        }
-                    }
+                case '{':
+                case '[':
+                case '(':
+                    i = parsingUtils.eatPar(i, null, c);
+                    break;
 
-                    if (tempIndex < length) {
-                        tempIndex = skipWhitespaces(tempIndex);
+                case '\\':
+                    i = skipLineContinuation(i);
+                    break;
 
-                        c = cs[tempIndex];
-                        if (c == ':') {
-                            tempIndex++;
+                case '#':
+                case ';':
+                case '\r':
+                case '\n':
+                    break LOOP;
 
-                            if (tempIndex < length) {
-                                c = cs[tempIndex];
-                                if (c != '\r' && c != '\n') {
-                                    updateIndex = true;
-                                }
-                            }
-                        }
+                case '=':
+                    if (collectEquals && isAssignEquals(i)) {
+                        equals.add(i);
                     }
+                    break;
 
-                    if (updateIndex) {
-                        tempIndex = skipWhitespaces(tempIndex);
-                        currIndex = tempIndex;
-                        //keep the row count correct
-                        updateCountRow(initialIndex, currIndex);
-
-                        //now, update the first char col to be the char after the ':' in "def m2(self):", in a line as
-                        //def m2(self): self.a = 10 (all in a single line)
-                        int i = tempIndex;
-                        while (i > 0 && i < length) {
-                            c = cs[i];
-                            if (c == '\r' || c == '\n') {
-                                break;
-                            }
-                            i--;
-                        }
-                        firstCharCol = tempIndex - i;
-                    } else {
-                        currIndex--;
+                case 'l':
+                    if (collectEquals && matchLambda(i)) {
+                        collectEquals = false;
                     }
+                    break;
+            }
+        }
+
+        //the 1st target may be after the header of a compound statement (i.e.: def m(self): self.a = 10) and may
+        //have an annotation (i.e.: a: int = 10)
+        int targetsStart = statementStart;
+        int annotationStart = -1;
+        TARGETS_LOOP: for (int j = statementStart; j < equalsIndex; j++) {
+            char c = cs[j];
+            switch (c) {
+                case '\'':
+                case '"':
+                    j = parsingUtils.getLiteralEnd(j, c);
+                    break;
 
+                case '{':
+                case '[':
+                case '(':
+                    j = parsingUtils.eatPar(j, null, c);
                     break;
 
-                default:
-                    currIndex--;
+                case ':':
+                    if (!isCompoundStatementHeader(targetsStart, j)) {
+                        annotationStart = j;
+                        break TARGETS_LOOP;
+                    }
+                    targetsStart = j + 1;
                     break;
+            }
+        }
+        targetsStart = skipSpaces(targetsStart, equalsIndex);
+
+        ArrayList<exprType> targets = new ArrayList<exprType>(2);
+        if (annotationStart != -1) {
+            //an annotated assignment has a single target (the value is not a target even if there are other '=').
+            addTargets(parsingUtils, targetsStart, annotationStart, targets);
+        } else {
+            int segmentStart = targetsStart;
+            for (int segmentEnd : equals) {
+                addTargets(parsingUtils, segmentStart, segmentEnd, targets);
+                segmentStart = segmentEnd + 1;
+            }
+        }
 
+        if (targets.size() > 0) {
+            Assign assign = new Assign(targets.toArray(new exprType[targets.size()]), null);
+            int lineStart = targetsStart - 1;
+            while (lineStart >= 0 && cs[lineStart] != '\r' && cs[lineStart] != '\n') {
+                lineStart--;
             }
+            assign.beginColumn = targetsStart - lineStart;
+            assign.beginLine = statementRow + countNewLines(statementStart, targetsStart - 1);
+            addAssign(assign);
         }
+        return i - 1;
     }
 
     /**
-     * Note that it'll only skip whitespaces (not newlines)
+     * Adds the targets found from start to end (the contents before an '=').
      */
-    private int skipWhitespaces(int tempIndex) {
-        char c;
-        while (tempIndex < length) {
-            c = cs[tempIndex];
-            if (c == ' ' || c == '\t') {
-                tempIndex++;
-            } else {
-                break;
+    private void addTargets(ParsingUtils parsingUtils, int start, int end, List<exprType> targets)
+            throws SyntaxErrorException {
+        int elementStart = start;
+        for (int i = start; i <= end; i++) {
+            char c = i < end ? cs[i] : ',';
+            switch (c) {
+                case '\'':
+                case '"':
+                    i = parsingUtils.getLiteralEnd(i, c);
+                    break;
+
+                case '{':
+                case '[':
+                case '(':
+                    i = parsingUtils.eatPar(i, null, c);
+                    break;
+
+                case ',':
+                    addTarget(parsingUtils, elementStart, i, targets);
+                    elementStart = i + 1;
+                    break;
             }
         }
-        return tempIndex;
     }
 
     /**
-     * Get the next identifier available.
-     * @param c the current char
-     * @return the identifier found
+     * Adds a single target (a name, self.attribute or a tuple with those). Anything else (such as a subscript,
+     * a list or a starred target) isn't a definition.
      */
-    private String getNextIdentifier(char c) {
-        c = this.cs[currIndex];
+    private void addTarget(ParsingUtils parsingUtils, int start, int end, List<exprType> targets)
+            throws SyntaxErrorException {
+        start = skipSpaces(start, end);
+        while (end > start && isSpace(cs[end - 1])) {
+            end--;
+        }
+        if (start >= end) {
+            return;
+        }
 
-        while (currIndex < length && Character.isWhitespace(c)) {
-            currIndex++;
-            c = this.cs[currIndex];
+        if (cs[start] == '(') {
+            if (parsingUtils.eatPar(start, null, '(') == end - 1) {
+                addTargets(parsingUtils, start + 1, end - 1, targets);
+            }
+            return;
         }
 
-        int currClassNameCol = currIndex;
-        while (Character.isJavaIdentifierPart(c)) {
-            currIndex++;
-            if (currIndex >= length) {
-                break;
+        int dotIndex = -1;
+        if (!Character.isJavaIdentifierStart(cs[start])) {
+            return;
+        }
+        for (int i = start + 1; i < end; i++) {
+            char c = cs[i];
+            if (c == '.') {
+                if (dotIndex != -1 || i == end - 1 || !Character.isJavaIdentifierStart(cs[i + 1])) {
+                    return;
+                }
+                dotIndex = i;
+
+            } else if (!Character.isJavaIdentifierPart(c)) {
+                return;
             }
-            c = this.cs[currIndex];
         }
-        return ObjectsPool.internLocal(interned, new String(this.cs, currClassNameCol, currIndex - currClassNameCol));
+
+        if (dotIndex == -1) {
+            targets.add(new Name(ObjectsPool.internLocal(interned, new String(cs, start, end - start)), Name.Store,
+                    false));
+
+        } else if (dotIndex - start == 4 && cs[start] == 's' && cs[start + 1] == 'e' && cs[start + 2] == 'l'
+                && cs[start + 3] == 'f') {
+            Attribute attribute = new Attribute(new Name("self", Name.Load, false), new NameTok(
+                    ObjectsPool.internLocal(interned, new String(cs, dotIndex + 1, end - dotIndex - 1)),
+                    NameTok.Attrib), Attribute.Load);
+            targets.add(attribute);
+        }
     }
 
-    private final ObjectsPoolMap interned = new ObjectsPoolMap();
+    /**
+     * Whitespaces and line continuations are all treated as spaces inside a statement.
+     */
+    private boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\f' || c == '\\' || c == '\r' || c == '\n';
+    }
+
+    private int skipSpaces(int i, int end) {
+        while (i < end && isSpace(cs[i])) {
+            i++;
+        }
+        return i;
+    }
 
     /**
      * Start a new method scope with the given row and column.
@@ -454,18 +615,14 @@ public final class FastDefinitionsParser {
      * @param startMethodCol the column where the scope should start
      */
     private void startMethod(String name, int startMethodRow, int startMethodCol) {
-        if (startMethodCol == 1) {
-            endScopesInStack();
-        }
         NameTok nameTok = new NameTok(name, NameTok.ClassName);
         FunctionDef functionDef = new FunctionDef(nameTok, null, null, null, null);
         functionDef.beginLine = startMethodRow;
         functionDef.beginColumn = startMethodCol;
 
         addToPertinentScope(functionDef);
-        if (stack.size() == 0) {
-            stack.push(functionDef);
-        }
+        stack.push(functionDef);
+        stackBody.push(null);
     }
 
     /**
@@ -474,9 +631,6 @@ public final class FastDefinitionsParser {
      * @param startClassCol the column where the scope should start
      */
     private void startClass(String name, int startClassRow, int startClassCol) {
-        if (startClassCol == 1) {
-            endScopesInStack();
-        }
         NameTok nameTok = new NameTok(name, NameTok.ClassName);
         ClassDef classDef = new ClassDef(nameTok, null, null, null, null, null, null);
 
@@ -494,82 +648,64 @@ public final class FastDefinitionsParser {
     }
 
     /**
-     * Finish the current scope in the stack.
-     *
-     * May close many scopes in a single call depending on where the class should be added to.
+     * Finish the current scope in the stack (if it's a class, it's added to its parent scope).
      */
     private void endScope() {
         SimpleNode pop = stack.pop();
+        List<stmtType> body = stackBody.pop();
         if (!(pop instanceof ClassDef)) {
             return;
         }
         ClassDef def = (ClassDef) pop;
-        List<stmtType> body = stackBody.pop();
         def.body = body.toArray(new stmtType[body.size()]);
         addToPertinentScope(def);
     }
 
     /**
-     * This is the definition to be added to a given scope.
-     *
-     * It'll find a correct scope based on the column it has to be added to.
+     * This is the definition to be added to the current scope (global or class scope: definitions inside
+     * functions are not added).
      *
      * @param newStmt the definition to be added
      */
     private void addToPertinentScope(stmtType newStmt) {
-        //see where it should be added (global or class scope)
-        while (stack.size() > 0) {
-            SimpleNode parent = stack.peek();
-            if (parent.beginColumn < newStmt.beginColumn) {
-                if (parent instanceof FunctionDef) {
-                    return;
-                }
-                List<stmtType> peek = stackBody.peek();
-
-                if (newStmt instanceof FunctionDef) {
-                    int size = peek.size();
-                    if (size > 0) {
-                        stmtType existing = peek.get(size - 1);
-                        if (existing.beginColumn < newStmt.beginColumn) {
-                            //we don't want to add a method inside a method at this point.
-                            //all the items added should have the same column.
-                            return;
-                        }
-                    }
-                } else if (newStmt instanceof Assign) {
-                    Assign assign = (Assign) newStmt;
-                    exprType target = assign.targets[0];
-
-                    //an assign could be in a method or in a class depending on where we're right now...
-                    int size = peek.size();
-                    if (size > 0) {
-                        stmtType existing = peek.get(size - 1);
-                        if (existing.beginColumn < assign.beginColumn) {
-                            //add the assign to the correct place
-                            if (existing instanceof FunctionDef) {
-                                FunctionDef functionDef = (FunctionDef) existing;
-
-                                if (target instanceof Attribute) {
-                                    addAssignToFunctionDef(assign, functionDef);
-                                }
-                                return;
-                            }
-                        }
-                    }
+        if (stack.size() == 0) {
+            this.body.add(newStmt);
 
-                    //if it still hasn't returned and it's a name, add it to the global scope.
-                    if (target instanceof Name) {
+        } else if (stack.peek() instanceof ClassDef) {
+            stackBody.peek().add(newStmt);
+        }
+    }
 
-                    }
-                }
-                peek.add(newStmt);
-                return;
-            } else {
-                endScope();
+    /**
+     * Adds an assign to the current scope: names in the global or class scope and attributes of self in a method.
+     */
+    private void addAssign(Assign assign) {
+        boolean inMethod = stack.size() > 0 && stack.peek() instanceof FunctionDef;
+        if (inMethod && (stack.size() < 2 || !(stack.peek(1) instanceof ClassDef))) {
+            return; //local scope: don't get it
+        }
+
+        exprType[] targets = assign.targets;
+        int valid = 0;
+        for (exprType target : targets) {
+            if (inMethod == (target instanceof Attribute)) {
+                targets[valid++] = target;
             }
         }
-        //if it still hasn't returned, add it to the global
-        this.body.add(newStmt);
+        if (valid == 0) {
+            return;
+        }
+        if (valid != targets.length) {
+            exprType[] newTargets = new exprType[valid];
+            System.arraycopy(targets, 0, newTargets, 0, valid);
+            assign.targets = newTargets;
+        }
+
+        if (inMethod) {
+            addAssignToFunctionDef(assign, (FunctionDef) stack.peek());
+        } else {
+            addToPertinentScope(assign);
+        }
     }
 
     /**
@@ -623,6 +759,59 @@ public final class FastDefinitionsParser {
                 .isWhitespace(this.cs[currIndex + 3]));
     }
 
+    /**
+     * @return the index of the 'def' if we have a match for 'async def' in the current index (or -1 otherwise).
+     */
+    private int matchAsyncFunction() {
+        if (currIndex + 5 >= this.length) {
+            return -1;
+        }
+        char afterAsync = this.cs[currIndex + 5];
+        if (!(this.cs[currIndex + 1] == 's' && this.cs[currIndex + 2] == 'y' && this.cs[currIndex + 3] == 'n'
+                && this.cs[currIndex + 4] == 'c' && (afterAsync == ' ' || afterAsync == '\t'))) {
+            return -1;
+        }
+        int i = skipSpaces(currIndex + 5, this.length);
+        if (i + 3 >= this.length) {
+            return -1;
+        }
+        if (this.cs[i] == 'd' && this.cs[i + 1] == 'e' && this.cs[i + 2] == 'f'
+                && Character.isWhitespace(this.cs[i + 3])) {
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if the contents from start to end start with the keyword of a compound statement (i.e.: the ':'
+     * at the end is the end of the header of the statement and not the ':' of an annotation).
+     */
+    private boolean isCompoundStatementHeader(int start, int end) {
+        start = skipSpaces(start, end);
+        int i = start;
+        while (i < end && Character.isJavaIdentifierPart(this.cs[i])) {
+            i++;
+        }
+        if (i == start) {
+            return false;
+        }
+        return COMPOUND_STATEMENT_KEYWORDS.contains(new String(this.cs, start, i - start));
+    }
+
+    private static final Set<String> COMPOUND_STATEMENT_KEYWORDS = new HashSet<String>(Arrays.asList("if", "elif",
+            "else", "while", "for", "with", "try", "except", "finally", "def", "class", "async"));
+
+    /**
+     * @return true if we have a match for 'lambda' (as a whole word) in the given index.
+     */
+    private boolean matchLambda(int i) {
+        if (i + 6 >= this.length || (i > 0 && Character.isJavaIdentifierPart(this.cs[i - 1]))) {
+            return false;
+        }
+        return (this.cs[i + 1] == 'a' && this.cs[i + 2] == 'm' && this.cs[i + 3] == 'b' && this.cs[i + 4] == 'd'
+                && this.cs[i + 5] == 'a' && !Character.isJavaIdentifierPart(this.cs[i + 6]));
+    }
+
     /**
      * Callbacks called just before returning a parsed object. Used for tests
      */
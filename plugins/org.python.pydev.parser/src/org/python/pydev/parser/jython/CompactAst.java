@@ -0,0 +1,455 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.parser.jython;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compact (array-backed) representation of an AST: all the nodes are written in pre-order to a single byte array
+ * (with variable-length ints) and the strings/numbers/classes referenced are kept only once in a constants array.
+ *
+ * It's meant to be kept instead of the SimpleNode tree for modules which were removed from the modules cache (a new
+ * tree with the same contents -- including line/columns, comments and special strings -- can be inflated when the
+ * module is requested again, which is faster than reading and parsing the file).
+ *
+ * The contents must not be persisted: the layout of each node depends on the order of the fields as given by
+ * reflection in the current VM.
+ */
+public final class CompactAst {
+
+    private static final int NULL = 0;
+    private static final int NEW_NODE = 1;
+    private static final int NODE_REF = 2;
+    private static final int SPECIAL_STR = 3;
+
+    private static final int KIND_INT = 0;
+    private static final int KIND_BOOLEAN = 1;
+    private static final int KIND_CONSTANT = 2;
+    private static final int KIND_INT_ARRAY = 3;
+    private static final int KIND_NODE = 4;
+    private static final int KIND_NODE_ARRAY = 5;
+
+    /**
+     * Information on how to create/write/read the fields of a given node class.
+     */
+    private static final class NodeInfo {
+
+        private final Constructor<?> constructor;
+        private final Object[] defaultArgs;
+        private final Field[] fields;
+        private final int[] kinds;
+
+        private NodeInfo(Constructor<?> constructor, Object[] defaultArgs, Field[] fields, int[] kinds) {
+            this.constructor = constructor;
+            this.defaultArgs = defaultArgs;
+            this.fields = fields;
+            this.kinds = kinds;
+        }
+    }
+
+    /**
+     * Marker for classes which can't be compacted.
+     */
+    private static final NodeInfo UNSUPPORTED = new NodeInfo(null, null, null, null);
+
+    private static final Map<Class<?>, NodeInfo> nodeInfos = new ConcurrentHashMap<Class<?>, NodeInfo>();
+
+    private final byte[] data;
+    private final Object[] constants;
+    private final int nodesCount;
+
+    private CompactAst(byte[] data, Object[] constants, int nodesCount) {
+        this.data = data;
+        this.constants = constants;
+        this.nodesCount = nodesCount;
+    }
+
+    /**
+     * @return the compact representation of the given tree or null if it has something which can't be represented
+     * (in which case the tree itself should be kept).
+     */
+    public static CompactAst create(SimpleNode root) {
+        if (root == null) {
+            return null;
+        }
+        Writer writer = new Writer();
+        try {
+            writer.writeNode(root);
+        } catch (UnsupportedOperationException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+        return new CompactAst(Arrays.copyOf(writer.buf, writer.len), writer.constantsList.toArray(),
+                writer.nodeIds.size());
+    }
+
+    /**
+     * @return a new tree with the same contents of the tree used to create this compact representation.
+     */
+    public SimpleNode inflate() {
+        try {
+            return (SimpleNode) new Reader(data, constants, nodesCount).readNode();
+        } catch (Exception e) {
+            //Shouldn't happen as we only read what we wrote.
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the number of nodes in the tree.
+     */
+    public int getNodesCount() {
+        return nodesCount;
+    }
+
+    /**
+     * @return the size of the data array (in bytes).
+     */
+    public int getDataSize() {
+        return data.length;
+    }
+
+    /**
+     * @return the number of constants (strings, numbers and classes) referenced.
+     */
+    public int getConstantsCount() {
+        return constants.length;
+    }
+
+    private static NodeInfo getNodeInfo(Class<?> c) {
+        NodeInfo info = nodeInfos.get(c);
+        if (info == null) {
+            info = createNodeInfo(c);
+            nodeInfos.put(c, info);
+        }
+        return info;
+    }
+
+    private static NodeInfo createNodeInfo(Class<?> c) {
+        if (!Modifier.isPublic(c.getModifiers()) || Modifier.isAbstract(c.getModifiers())) {
+            return UNSUPPORTED;
+        }
+        Constructor<?>[] constructors = c.getConstructors();
+        if (constructors.length == 0) {
+            return UNSUPPORTED;
+        }
+        //Any public constructor will do (the fields are all set afterwards).
+        Constructor<?> constructor = constructors[0];
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Object[] defaultArgs = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i] == int.class) {
+                defaultArgs[i] = 0;
+            } else if (parameterTypes[i] == boolean.class) {
+                defaultArgs[i] = false;
+            } else if (parameterTypes[i].isPrimitive()) {
+                return UNSUPPORTED;
+            }
+        }
+
+        List<Field> fields = new ArrayList<Field>();
+        List<Integer> kinds = new ArrayList<Integer>();
+        for (Class<?> k = c; k != SimpleNode.class; k = k.getSuperclass()) {
+            for (Field field : k.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers)) {
+                    continue;
+                }
+                if (!Modifier.isPublic(modifiers) || Modifier.isFinal(modifiers)) {
+                    return UNSUPPORTED;
+                }
+                Class<?> type = field.getType();
+                int kind;
+                if (type == int.class) {
+                    kind = KIND_INT;
+                } else if (type == boolean.class) {
+                    kind = KIND_BOOLEAN;
+                } else if (type == String.class || type == Object.class) {
+                    kind = KIND_CONSTANT;
+                } else if (type == int[].class) {
+                    kind = KIND_INT_ARRAY;
+                } else if (SimpleNode.class.isAssignableFrom(type)) {
+                    kind = KIND_NODE;
+                } else if (type.isArray() && SimpleNode.class.isAssignableFrom(type.getComponentType())) {
+                    kind = KIND_NODE_ARRAY;
+                } else {
+                    return UNSUPPORTED;
+                }
+                fields.add(field);
+                kinds.add(kind);
+            }
+        }
+        int[] kindsArray = new int[kinds.size()];
+        for (int i = 0; i < kindsArray.length; i++) {
+            kindsArray[i] = kinds.get(i);
+        }
+        return new NodeInfo(constructor, defaultArgs, fields.toArray(new Field[fields.size()]), kindsArray);
+    }
+
+    /**
+     * Writes the nodes to a byte array.
+     */
+    private static final class Writer {
+
+        private byte[] buf = new byte[1024];
+        private int len;
+        private final IdentityHashMap<SimpleNode, Integer> nodeIds = new IdentityHashMap<SimpleNode, Integer>();
+        private final Map<Object, Integer> constants = new HashMap<Object, Integer>();
+        private final List<Object> constantsList = new ArrayList<Object>();
+
+        private void writeInt(int i) {
+            if (len + 5 > buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            //zig-zag so that small negative numbers (i.e.: -1) are also small.
+            int v = (i << 1) ^ (i >> 31);
+            while ((v & ~0x7F) != 0) {
+                buf[len++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[len++] = (byte) v;
+        }
+
+        private void writeConstant(Object o) {
+            if (o == null) {
+                writeInt(-1);
+                return;
+            }
+            if (!(o instanceof String || o instanceof Number || o instanceof Class)) {
+                throw new UnsupportedOperationException();
+            }
+            //Note: a Class is only equal to itself and numbers are only equal to numbers of the same class.
+            Integer i = constants.get(o);
+            if (i == null) {
+                i = constantsList.size();
+                constants.put(o, i);
+                constantsList.add(o);
+            }
+            writeInt(i);
+        }
+
+        private void writeNode(SimpleNode node) throws IllegalAccessException {
+            if (node == null) {
+                writeInt(NULL);
+                return;
+            }
+            Integer id = nodeIds.get(node);
+            if (id != null) {
+                writeInt(NODE_REF);
+                writeInt(id);
+                return;
+            }
+            Class<? extends SimpleNode> c = node.getClass();
+            NodeInfo info = getNodeInfo(c);
+            if (info == UNSUPPORTED) {
+                throw new UnsupportedOperationException();
+            }
+            nodeIds.put(node, nodeIds.size());
+            writeInt(NEW_NODE);
+            writeConstant(c);
+            writeInt(node.beginLine);
+            writeInt(node.beginColumn);
+
+            Field[] fields = info.fields;
+            int[] kinds = info.kinds;
+            for (int i = 0; i < fields.length; i++) {
+                Field field = fields[i];
+                switch (kinds[i]) {
+                    case KIND_INT:
+                        writeInt(field.getInt(node));
+                        break;
+                    case KIND_BOOLEAN:
+                        writeInt(field.getBoolean(node) ? 1 : 0);
+                        break;
+                    case KIND_CONSTANT:
+                        writeConstant(field.get(node));
+                        break;
+                    case KIND_INT_ARRAY:
+                        int[] ints = (int[]) field.get(node);
+                        if (ints == null) {
+                            writeInt(-1);
+                        } else {
+                            writeInt(ints.length);
+                            for (int j : ints) {
+                                writeInt(j);
+                            }
+                        }
+                        break;
+                    case KIND_NODE:
+                        writeNode((SimpleNode) field.get(node));
+                        break;
+                    case KIND_NODE_ARRAY:
+                        SimpleNode[] nodes = (SimpleNode[]) field.get(node);
+                        if (nodes == null) {
+                            writeInt(-1);
+                        } else {
+                            writeInt(nodes.length);
+                            for (SimpleNode n : nodes) {
+                                writeNode(n);
+                            }
+                        }
+                        break;
+                }
+            }
+            writeSpecials(node.specialsBefore);
+            writeSpecials(node.specialsAfter);
+            writeNode(node.parent);
+        }
+
+        private void writeSpecials(List<Object> specials) throws IllegalAccessException {
+            if (specials == null) {
+                writeInt(-1);
+                return;
+            }
+            writeInt(specials.size());
+            for (Object o : specials) {
+                if (o instanceof SpecialStr) {
+                    SpecialStr specialStr = (SpecialStr) o;
+                    writeInt(SPECIAL_STR);
+                    writeConstant(specialStr.str);
+                    writeInt(specialStr.beginLine);
+                    writeInt(specialStr.beginCol);
+                } else if (o instanceof SimpleNode) {
+                    writeNode((SimpleNode) o);
+                } else {
+                    throw new UnsupportedOperationException();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the nodes from the byte array.
+     */
+    private static final class Reader {
+
+        private final byte[] data;
+        private final Object[] constants;
+        private final SimpleNode[] nodes;
+        private int pos;
+        private int nodesLen;
+
+        private Reader(byte[] data, Object[] constants, int nodesCount) {
+            this.data = data;
+            this.constants = constants;
+            this.nodes = new SimpleNode[nodesCount];
+        }
+
+        private int readInt() {
+            int v = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                v |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        private Object readConstant() {
+            int i = readInt();
+            return i == -1 ? null : constants[i];
+        }
+
+        private Object readNode() throws Exception {
+            int tag = readInt();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case NODE_REF:
+                    return nodes[readInt()];
+                case SPECIAL_STR:
+                    String str = (String) readConstant();
+                    int beginLine = readInt();
+                    return new SpecialStr(str, beginLine, readInt());
+            }
+            Class<?> c = (Class<?>) readConstant();
+            NodeInfo info = getNodeInfo(c);
+            SimpleNode node = (SimpleNode) info.constructor.newInstance(info.defaultArgs);
+            nodes[nodesLen++] = node;
+            node.beginLine = readInt();
+            node.beginColumn = readInt();
+
+            Field[] fields = info.fields;
+            int[] kinds = info.kinds;
+            for (int i = 0; i < fields.length; i++) {
+                Field field = fields[i];
+                switch (kinds[i]) {
+                    case KIND_INT:
+                        field.setInt(node, readInt());
+                        break;
+                    case KIND_BOOLEAN:
+                        field.setBoolean(node, readInt() != 0);
+                        break;
+                    case KIND_CONSTANT:
+                        field.set(node, readConstant());
+                        break;
+                    case KIND_INT_ARRAY:
+                        int len = readInt();
+                        if (len == -1) {
+                            field.set(node, null);
+                        } else {
+                            int[] ints = new int[len];
+                            for (int j = 0; j < len; j++) {
+                                ints[j] = readInt();
+                            }
+                            field.set(node, ints);
+                        }
+                        break;
+                    case KIND_NODE:
+                        field.set(node, readNode());
+                        break;
+                    case KIND_NODE_ARRAY:
+                        len = readInt();
+                        if (len == -1) {
+                            field.set(node, null);
+                        } else {
+                            Object array = Array.newInstance(field.getType().getComponentType(), len);
+                            for (int j = 0; j < len; j++) {
+                                Array.set(array, j, readNode());
+                            }
+                            field.set(node, array);
+                        }
+                        break;
+                }
+            }
+            int size = readInt();
+            if (size != -1) {
+                List<Object> specials = node.getSpecialsBefore();
+                for (int i = 0; i < size; i++) {
+                    specials.add(readNode());
+                }
+            }
+            size = readInt();
+            if (size != -1) {
+                List<Object> specials = node.getSpecialsAfter();
+                for (int i = 0; i < size; i++) {
+                    specials.add(readNode());
+                }
+            }
+            node.parent = (SimpleNode) readNode();
+            return node;
+        }
+    }
+}
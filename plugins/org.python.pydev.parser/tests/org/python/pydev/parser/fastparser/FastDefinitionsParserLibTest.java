@@ -0,0 +1,229 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.parser.fastparser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.text.Document;
+import org.python.pydev.core.FullRepIterable;
+import org.python.pydev.core.IGrammarVersionProvider;
+import org.python.pydev.core.TestDependent;
+import org.python.pydev.parser.IGrammar;
+import org.python.pydev.parser.PyParser;
+import org.python.pydev.parser.jython.SimpleNode;
+import org.python.pydev.parser.jython.ast.Attribute;
+import org.python.pydev.parser.jython.ast.ClassDef;
+import org.python.pydev.parser.jython.ast.FunctionDef;
+import org.python.pydev.parser.jython.ast.Import;
+import org.python.pydev.parser.jython.ast.ImportFrom;
+import org.python.pydev.parser.visitors.NodeUtils;
+import org.python.pydev.parser.visitors.scope.ASTEntry;
+import org.python.pydev.parser.visitors.scope.DefinitionsASTIteratorVisitor;
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+import org.python.pydev.shared_core.string.StringUtils;
+import org.python.pydev.shared_core.structure.Tuple;
+import org.python.pydev.shared_core.utils.Timer;
+
+/**
+ * Checks that the definitions gotten from the FastDefinitionsParser are the same ones gotten from the full parser
+ * (i.e.: the ones that end up in the index) for all the modules in the standard library.
+ */
+public class FastDefinitionsParserLibTest extends TestCase {
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: only load the files / fast parse / syntax parse (no tree) / full parse.
+            List<char[]> contents = new ArrayList<char[]>();
+            for (File f : getPyFiles(new File(TestDependent.PYTHON_LIB))) {
+                contents.add(FileUtils.getFileContents(f).toCharArray());
+            }
+            System.out.println("Files: " + contents.size());
+
+            for (int i = 0; i < 3; i++) {
+                Timer timer = new Timer();
+                for (char[] cs : contents) {
+                    FastDefinitionsParser.parse(cs, "");
+                }
+                timer.printDiff("Fast parse");
+
+                timer = new Timer();
+                for (char[] cs : contents) {
+                    try {
+                        PyParser.reparseDocumentInternal(new Document(new String(cs)), false,
+                                IGrammarVersionProvider.GRAMMAR_PYTHON_VERSION_2_7);
+                    } catch (Throwable e) {
+                        //ignore
+                    }
+                }
+                timer.printDiff("Syntax parse");
+
+                timer = new Timer();
+                for (char[] cs : contents) {
+                    try {
+                        PyParser.reparseDocumentInternal(new Document(new String(cs)), true,
+                                IGrammarVersionProvider.GRAMMAR_PYTHON_VERSION_2_7);
+                    } catch (Throwable e) {
+                        //ignore
+                    }
+                }
+                timer.printDiff("Full parse");
+            }
+
+            junit.textui.TestRunner.run(FastDefinitionsParserLibTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void testOnCompleteLib() throws Exception {
+        checkDefinitionsInDir(new File(TestDependent.PYTHON_LIB), IGrammarVersionProvider.GRAMMAR_PYTHON_VERSION_2_7);
+    }
+
+    public void testOnCompleteLib30() throws Exception {
+        if (TestDependent.PYTHON_30_LIB == null) {
+            return;
+        }
+        checkDefinitionsInDir(new File(TestDependent.PYTHON_30_LIB),
+                IGrammarVersionProvider.GRAMMAR_PYTHON_VERSION_3_0);
+    }
+
+    private static List<File> getPyFiles(File dir) {
+        assertTrue("Dir does not exist: " + dir, dir.exists());
+        List<File> ret = new ArrayList<File>();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                if (f.isDirectory()) {
+                    ret.addAll(getPyFiles(f));
+                } else if (f.getName().endsWith(".py")) {
+                    ret.add(f);
+                }
+            }
+        }
+        return ret;
+    }
+
+    private void checkDefinitionsInDir(File dir, int grammarVersion) throws Exception {
+        FastStringBuffer errors = new FastStringBuffer();
+        int checked = 0;
+        int failed = 0;
+        for (File f : getPyFiles(dir)) {
+            String contents = FileUtils.getFileContents(f);
+            SimpleNode full;
+            try {
+                Tuple<SimpleNode, IGrammar> tup = PyParser.reparseDocumentInternal(new Document(contents), true,
+                        grammarVersion);
+                if (tup.o2.getErrorOnParsing() != null) {
+                    continue; //not valid for the grammar
+                }
+                full = tup.o1;
+            } catch (Throwable e) {
+                continue; //not valid for the grammar
+            }
+            checked++;
+            Set<String> expected = getDefinitions(full);
+            Set<String> found = getDefinitions(FastDefinitionsParser.parse(contents, f.getName()));
+            if (!expected.equals(found)) {
+                failed++;
+                Set<String> missing = new TreeSet<String>(expected);
+                missing.removeAll(found);
+                Set<String> extra = new TreeSet<String>(found);
+                extra.removeAll(expected);
+                errors.append(f.toString()).append("\n  missing: ").appendObject(missing).append("\n  extra: ")
+                        .appendObject(extra).append("\n");
+            }
+        }
+        assertTrue(checked > 0);
+        if (failed > 0) {
+            fail(StringUtils.format("Differences in %s of %s files:\n%s", failed, checked, errors));
+        }
+    }
+
+    /**
+     * @return the definitions (as they're added to the index) and the line of each class and function.
+     * @see com.python.pydev.analysis.additionalinfo.AbstractAdditionalTokensInfo#addAstInfo(SimpleNode, org.python.pydev.core.ModulesKey, boolean)
+     */
+    public static Set<String> getDefinitions(SimpleNode node) throws Exception {
+        Set<String> ret = new TreeSet<String>();
+        DefinitionsASTIteratorVisitor visitor = new DefinitionsASTIteratorVisitor();
+        node.accept(visitor);
+        for (Iterator<ASTEntry> it = visitor.getOutline(); it.hasNext();) {
+            ASTEntry entry = it.next();
+            SimpleNode n = entry.node;
+            if (n instanceof Import || n instanceof ImportFrom) {
+                continue; //not gotten by the fast parser
+            }
+            boolean isDef = n instanceof ClassDef || n instanceof FunctionDef;
+            String rep;
+            if (isDef) {
+                rep = NodeUtils.getRepresentationString(n) + " (line: " + n.beginLine + ")";
+            } else {
+                rep = NodeUtils.getFullRepresentationString(n);
+            }
+
+            if (n instanceof Attribute && !isAttributeInMethod(entry)) {
+                continue; //i.e.: sys.stdout = xxx (the fast parser only gets self.xxx in methods)
+            }
+
+            if (entry.parent == null) {
+                ret.add(isDef ? rep : FullRepIterable.getFirstPart(rep));
+                continue;
+            }
+            //Same as AbstractAdditionalTokensInfo.getPathToRoot: only classes (and a method for instance
+            //attributes) are accepted in the path.
+            List<String> path = new ArrayList<String>();
+            boolean lastIsMethod = false;
+            boolean valid = true;
+            for (ASTEntry p = entry.parent; p != null; p = p.parent) {
+                if (p.node instanceof FunctionDef) {
+                    if (isDef || lastIsMethod || path.size() != 0) {
+                        valid = false;
+                        break;
+                    }
+                    lastIsMethod = true;
+                } else if (!(p.node instanceof ClassDef)) {
+                    valid = false;
+                    break;
+                }
+                path.add(0, NodeUtils.getRepresentationString(p.node));
+            }
+            if (!valid) {
+                continue;
+            }
+            String pathStr = StringUtils.join(".", path);
+            if (isDef) {
+                ret.add(pathStr + "." + rep);
+            } else if (lastIsMethod) {
+                List<String> parts = StringUtils.dotSplit(rep);
+                if (parts.size() >= 2 && parts.get(0).equals("self")) {
+                    ret.add(pathStr + "." + parts.get(1));
+                }
+            } else {
+                ret.add(pathStr + "." + FullRepIterable.getFirstPart(rep));
+            }
+        }
+        return ret;
+    }
+
+    private static boolean isAttributeInMethod(ASTEntry entry) {
+        return entry.parent != null && entry.parent.node instanceof FunctionDef && entry.parent.parent != null
+                && entry.parent.parent.node instanceof ClassDef;
+    }
+}
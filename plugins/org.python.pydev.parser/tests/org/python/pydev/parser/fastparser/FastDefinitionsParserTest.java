@@ -1453,4 +1453,184 @@ public class FastDefinitionsParserTest extends TestCase {
         assertEquals(0, m.body.length);
     }
 
+    public void testDecoratorsAndScopesInBlocks() {
+        Module m = (Module) FastDefinitionsParser.parse("" +
+                "@decorator(a=10)\n" +
+                "def method():\n" +
+                "    pass\n" +
+                "if sys.platform == 'win32':\n" +
+                "    class Win(object):\n" +
+                "        @property\n" +
+                "        def m1(self):\n" +
+                "            def inner():\n" +
+                "                self.not_there = 10\n" +
+                "            self.there = 10\n" +
+                "        if True:\n" +
+                "            ATTR = 10\n" +
+                "else:\n" +
+                "    def other():\n" +
+                "        class Local:\n" +
+                "            pass\n" +
+                "try:\n" +
+                "    import foo\n" +
+                "except ImportError:\n" +
+                "    foo = None\n" +
+                "");
+        assertEquals(4, m.body.length);
+        FunctionDef d = (FunctionDef) m.body[0];
+        assertEquals("method", NodeUtils.getRepresentationString(d));
+        assertEquals(2, d.beginLine);
+
+        ClassDef classDef = (ClassDef) m.body[1];
+        assertEquals("Win", NodeUtils.getRepresentationString(classDef));
+        assertEquals(5, classDef.beginColumn);
+        assertEquals(2, classDef.body.length);
+        d = (FunctionDef) classDef.body[0];
+        assertEquals("m1", NodeUtils.getRepresentationString(d));
+        assertEquals(7, d.beginLine);
+        assertEquals(1, d.specialsAfter.get(0));
+        assertEquals("self.there", NodeUtils.getFullRepresentationString(((Assign) d.body[0]).targets[0]));
+        checkTargets((Assign) classDef.body[1], "ATTR");
+
+        d = (FunctionDef) m.body[2];
+        assertEquals("other", NodeUtils.getRepresentationString(d));
+        assertNull(d.body);
+
+        checkTargets((Assign) m.body[3], "foo");
+    }
+
+    public void testAssignTargets() {
+        Module m = (Module) FastDefinitionsParser.parse("" +
+                "a, (b, c) = d[0], e = f = 1, 2\n" +
+                "x[0], y.z, *w = [g, h] = 1, 2, 3\n" +
+                "i == j\n" +
+                "k += 1\n" +
+                "l = lambda m=1, n=2: m\n" +
+                "o = \\\n" +
+                "    p = 10; q = 20\n" +
+                "r = (\n" +
+                "    s = 1)\n" +
+                "class Foo: t = 1\n" +
+                "");
+        assertEquals(6, m.body.length);
+        checkTargets((Assign) m.body[0], "a", "b", "c", "e", "f");
+        checkTargets((Assign) m.body[1], "l");
+        checkTargets((Assign) m.body[2], "o", "p");
+        checkTargets((Assign) m.body[3], "q");
+        checkTargets((Assign) m.body[4], "r");
+        ClassDef classDef = (ClassDef) m.body[5];
+        checkTargets((Assign) classDef.body[0], "t");
+    }
+
+    public void testInstanceAttributeTargets() {
+        Module m = (Module) FastDefinitionsParser.parse("" +
+                "class Foo:\n" +
+                "    def __init__(self):\n" +
+                "        self.a, (self.b, c) = self.d = other.e = 1, (2, 3)\n" +
+                "");
+        ClassDef classDef = (ClassDef) m.body[0];
+        FunctionDef d = (FunctionDef) classDef.body[0];
+        Assign assign = (Assign) d.body[0];
+        checkTargets(assign, "self.a", "self.b", "self.d");
+        assertEquals(9, assign.beginColumn);
+        assertEquals(3, assign.beginLine);
+    }
+
+    public void testStringsAndMultiLineSignatures() {
+        Module m = (Module) FastDefinitionsParser.parse("" +
+                "a = r'\\\\'; b = br\"=\" + u'''\n" +
+                "class NotThere: c = 1\n" +
+                "'''\n" +
+                "def method(a=\"(\",\n" +
+                "           b=')'):\n" +
+                "    pass\n" +
+                "class Bar(\n" +
+                "        object):\n" +
+                "    d = \"\"\"\n" +
+                "e = 1\"\"\"\n" +
+                "f = 1\n" +
+                "");
+        assertEquals(5, m.body.length);
+        checkTargets((Assign) m.body[0], "a");
+        checkTargets((Assign) m.body[1], "b");
+        FunctionDef d = (FunctionDef) m.body[2];
+        assertEquals("method", NodeUtils.getRepresentationString(d));
+        assertEquals(4, d.beginLine);
+        ClassDef classDef = (ClassDef) m.body[3];
+        assertEquals(7, classDef.beginLine);
+        checkTargets((Assign) classDef.body[0], "d");
+        Assign assign = (Assign) m.body[4];
+        checkTargets(assign, "f");
+        assertEquals(11, assign.beginLine);
+    }
+
+    public void testAnnotatedAssignments() {
+        Module m = (Module) FastDefinitionsParser.parse("" +
+                "a: int = 10\n" +
+                "b : Dict[str, int] = {'c': 1}\n" +
+                "d: Callable[[int], int] = lambda e=1: e\n" +
+                "if True: f: int = 1\n" +
+                "class Foo:\n" +
+                "    h: str = 'h'\n" +
+                "    def __init__(self):\n" +
+                "        self.i: int = 0\n" +
+                "        j: int = 0\n" +
+                "k = {'l': 1}\n" +
+                "");
+        assertEquals(6, m.body.length);
+        Assign assign = (Assign) m.body[0];
+        checkTargets(assign, "a");
+        assertEquals(1, assign.beginColumn);
+        checkTargets((Assign) m.body[1], "b");
+        checkTargets((Assign) m.body[2], "d");
+        checkTargets((Assign) m.body[3], "f");
+        ClassDef classDef = (ClassDef) m.body[4];
+        checkTargets((Assign) classDef.body[0], "h");
+        FunctionDef d = (FunctionDef) classDef.body[1];
+        assertNull(d.body[1]); //the local is not there
+        checkTargets((Assign) d.body[0], "self.i");
+        checkTargets((Assign) m.body[5], "k");
+    }
+
+    public void testAsyncDefs() {
+        Module m = (Module) FastDefinitionsParser.parse("" +
+                "async def method(a):\n" +
+                "    local_var = 10\n" +
+                "class Foo:\n" +
+                "    async  def m1(self):\n" +
+                "        self.attr = 1\n" +
+                "        other = 2\n" +
+                "    b = 1\n" +
+                "asyncio = 1\n" +
+                "async_var = 2\n" +
+                "async = 3\n" +
+                "");
+        assertEquals(5, m.body.length);
+        FunctionDef d = (FunctionDef) m.body[0];
+        assertEquals("method", NodeUtils.getRepresentationString(d));
+        assertEquals(1, d.beginLine);
+        assertEquals(1, d.beginColumn);
+        assertNull(d.body);
+
+        ClassDef classDef = (ClassDef) m.body[1];
+        assertEquals(2, classDef.body.length);
+        d = (FunctionDef) classDef.body[0];
+        assertEquals("m1", NodeUtils.getRepresentationString(d));
+        assertEquals(5, d.beginColumn);
+        assertNull(d.body[1]); //the local is not there
+        checkTargets((Assign) d.body[0], "self.attr");
+        checkTargets((Assign) classDef.body[1], "b");
+
+        checkTargets((Assign) m.body[2], "asyncio");
+        checkTargets((Assign) m.body[3], "async_var");
+        checkTargets((Assign) m.body[4], "async");
+    }
+
+    private void checkTargets(Assign assign, String... expected) {
+        assertEquals(expected.length, assign.targets.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], NodeUtils.getFullRepresentationString(assign.targets[i]));
+        }
+    }
+
 }
@@ -0,0 +1,207 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.parser.jython;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.python.pydev.core.IGrammarVersionProvider;
+import org.python.pydev.core.TestDependent;
+import org.python.pydev.parser.PyParserTestBase;
+import org.python.pydev.parser.jython.ast.ClassDef;
+import org.python.pydev.parser.jython.ast.Expr;
+import org.python.pydev.parser.jython.ast.FunctionDef;
+import org.python.pydev.parser.jython.ast.Module;
+import org.python.pydev.parser.jython.ast.Name;
+import org.python.pydev.parser.jython.ast.commentType;
+import org.python.pydev.parser.prettyprinter.AbstractPrettyPrinterTestBase;
+import org.python.pydev.parser.prettyprinterv2.PrettyPrinterPrefsV2;
+import org.python.pydev.parser.visitors.scope.ASTEntry;
+import org.python.pydev.parser.visitors.scope.SequencialASTIteratorVisitor;
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.string.StringUtils;
+import org.python.pydev.shared_core.utils.Timer;
+
+public class CompactAstTest extends PyParserTestBase {
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: heap retained by the ASTs of the whole standard library (and time to compact/inflate).
+            //Only the compact form is kept for a module removed from the modules cache (the full tree is not
+            //retained along with it), so, this is what's retained in each case.
+            CompactAstTest test = new CompactAstTest();
+            test.setUp();
+            List<SimpleNode> asts = new ArrayList<SimpleNode>();
+            test.parseAll(new File(TestDependent.PYTHON_LIB), asts);
+            test.tearDown();
+            System.out.println("Parsed modules: " + asts.size());
+
+            long initialMemory = getUsedMemory();
+            List<SimpleNode> full = new ArrayList<SimpleNode>(asts);
+            asts = null;
+            long fullMemory = getUsedMemory() - initialMemory;
+
+            Timer timer = new Timer();
+            List<CompactAst> compact = new ArrayList<CompactAst>(full.size());
+            int nodes = 0;
+            for (SimpleNode ast : full) {
+                CompactAst c = CompactAst.create(ast);
+                compact.add(c);
+                nodes += c.getNodesCount();
+            }
+            timer.printDiff("Compact " + nodes + " nodes");
+            full = null;
+            long compactMemory = getUsedMemory() - initialMemory;
+
+            timer = new Timer();
+            for (CompactAst c : compact) {
+                c.inflate();
+            }
+            timer.printDiff("Inflate " + nodes + " nodes");
+
+            System.out.println(StringUtils.format("Retained by full ASTs: %s KB", fullMemory / 1024));
+            System.out.println(StringUtils.format("Retained by compact ASTs: %s KB", compactMemory / 1024));
+            System.out.println(compact.size()); //keep it alive up to here
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static long getUsedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private void parseAll(File dir, List<SimpleNode> asts) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File f : files) {
+            if (f.isDirectory()) {
+                parseAll(f, asts);
+            } else if (f.getName().endsWith(".py")) {
+                try {
+                    SimpleNode ast = parseLegalDocStr(FileUtils.getFileContents(f));
+                    if (ast != null) {
+                        asts.add(ast);
+                    }
+                } catch (Throwable e) {
+                    //ignore files with errors (or not for the grammar used).
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        setDefaultVersion(IGrammarVersionProvider.GRAMMAR_PYTHON_VERSION_2_7);
+    }
+
+    private void checkSame(SimpleNode ast, SimpleNode inflated) throws Exception {
+        assertNotSame(ast, inflated);
+        assertEquals(ast.toString(), inflated.toString());
+
+        PrettyPrinterPrefsV2 prefs = new PrettyPrinterPrefsV2("\n", "    ", versionProvider);
+        assertEquals(AbstractPrettyPrinterTestBase.makePrint(prefs, ast),
+                AbstractPrettyPrinterTestBase.makePrint(prefs, inflated));
+
+        List<ASTEntry> expected = SequencialASTIteratorVisitor.create(ast).getAsList(SimpleNode.class);
+        List<ASTEntry> found = SequencialASTIteratorVisitor.create(inflated).getAsList(SimpleNode.class);
+        assertEquals(expected.size(), found.size());
+        Iterator<ASTEntry> it = found.iterator();
+        for (ASTEntry entry : expected) {
+            SimpleNode n = it.next().node;
+            assertEquals(entry.node.getClass(), n.getClass());
+            assertEquals(entry.node.beginLine, n.beginLine);
+            assertEquals(entry.node.beginColumn, n.beginColumn);
+            assertEquals(String.valueOf(entry.node.specialsBefore), String.valueOf(n.specialsBefore));
+            assertEquals(String.valueOf(entry.node.specialsAfter), String.valueOf(n.specialsAfter));
+        }
+    }
+
+    public void testRoundTrip() throws Exception {
+        String s = "" +
+                "'''module doc'''\n" +
+                "import os, sys as system #comment on import\n" +
+                "from a.b import (c, d)\n" +
+                "#comment before class\n" +
+                "@decorator(1, b=2)\n" +
+                "class A(object):\n" +
+                "    attr = [1, 2L, 3.5, 0x10, 4j, u'unicode', r'raw']\n" +
+                "\n" +
+                "    def method(self, a, b=10, *args, **kwargs):\n" +
+                "        '''method doc'''\n" +
+                "        for i in range(10):\n" +
+                "            if i % 2 == 0 and not a:\n" +
+                "                yield i #comment after yield\n" +
+                "        x = lambda y: y[1:2, ...]\n" +
+                "        return {k: v for k, v in kwargs.items()}\n" +
+                "\n" +
+                "try:\n" +
+                "    pass\n" +
+                "except (ValueError, TypeError), e:\n" +
+                "    print >> sys.stderr, e\n" +
+                "finally:\n" +
+                "    del x\n" +
+                "";
+        SimpleNode ast = parseLegalDocStr(s);
+        CompactAst compact = CompactAst.create(ast);
+        assertNotNull(compact);
+        assertTrue(compact.getNodesCount() > 50);
+
+        SimpleNode inflated = compact.inflate();
+        checkSame(ast, inflated);
+        //Can be inflated more than once (and always gives a new tree).
+        checkSame(ast, compact.inflate());
+
+        //The parent of methods/classes in a class is kept.
+        ClassDef classDef = (ClassDef) ((Module) inflated).body[3];
+        FunctionDef method = (FunctionDef) classDef.body[1];
+        assertSame(classDef, method.parent);
+        assertNull(classDef.parent);
+    }
+
+    public void testSharedNodes() throws Exception {
+        //The same node referenced twice is still the same node when inflated.
+        Name name = new Name("a", Name.Load, false);
+        name.beginLine = 1;
+        name.beginColumn = 2;
+        commentType comment = new commentType("#comment");
+        comment.beginLine = 1;
+        comment.beginColumn = 5;
+        name.addSpecial(comment, true);
+        Module module = (Module) parseLegalDocStr("a\na\n");
+        ((Expr) module.body[0]).value = name;
+        ((Expr) module.body[1]).value = name;
+
+        Module inflated = (Module) CompactAst.create(module).inflate();
+        SimpleNode n0 = ((Expr) inflated.body[0]).value;
+        SimpleNode n1 = ((Expr) inflated.body[1]).value;
+        assertSame(n0, n1);
+        assertEquals(name, n0);
+        assertEquals(1, n0.beginLine);
+        assertEquals(2, n0.beginColumn);
+        assertEquals(1, n0.specialsAfter.size());
+        assertEquals(comment, n0.specialsAfter.get(0));
+    }
+
+    public void testNull() throws Exception {
+        assertNull(CompactAst.create(null));
+    }
+}
@@ -0,0 +1,282 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.cache;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import org.python.pydev.shared_core.log.Log;
+import org.python.pydev.shared_core.metrics.Counter;
+import org.python.pydev.shared_core.metrics.Metrics;
+
+/**
+ * Central registry of the caches which may be evicted when the memory is low.
+ *
+ * The heap is watched through the usage thresholds of the tenured memory pool: when the memory used after a
+ * garbage collection passes the threshold (75% of the max heap by default, which may be changed with
+ * -Dpydev.cache.threshold=0.xx), a fraction of the entries of each registered cache is evicted (the fraction is
+ * proportional to how much the usage is above the threshold). The usage is then checked again after the next
+ * garbage collection and another step is done if it's still above the threshold, so that caches are evicted
+ * gradually (instead of clearing everything only when an OutOfMemoryError is already being thrown).
+ *
+ * Caches are kept with weak references (so, short-lived caches don't need to be unregistered).
+ */
+public final class CacheManager {
+
+    public static final double DEFAULT_USAGE_THRESHOLD = 0.75;
+
+    private static final double MIN_FRACTION_TO_EVICT = 0.1;
+    private static final double MAX_FRACTION_TO_EVICT = 0.5;
+
+    /**
+     * Max number of eviction steps for each time the threshold is passed.
+     */
+    private static final int MAX_STEPS = 10;
+
+    private static final long STEP_DELAY_MILLIS = 500;
+
+    private static final Object lock = new Object();
+
+    private static final WeakHashMap<IManagedCache, Boolean> caches = new WeakHashMap<IManagedCache, Boolean>();
+
+    private static final Counter evictionsCounter = Metrics.counter("memory.cache_evictions");
+    private static final Counter evictedEntriesCounter = Metrics.counter("memory.cache_evicted_entries");
+
+    private static final AtomicBoolean evictionScheduled = new AtomicBoolean();
+
+    private static boolean watching;
+    private static MemoryPoolMXBean watchedPool;
+    private static double usageThreshold = DEFAULT_USAGE_THRESHOLD;
+    private static ExecutorService executor;
+
+    private CacheManager() {
+    }
+
+    public static void register(IManagedCache cache) {
+        synchronized (lock) {
+            caches.put(cache, Boolean.TRUE);
+            if (!watching) {
+                watching = true;
+                startWatching();
+            }
+        }
+    }
+
+    public static void unregister(IManagedCache cache) {
+        synchronized (lock) {
+            caches.remove(cache);
+        }
+    }
+
+    public static List<IManagedCache> getCaches() {
+        synchronized (lock) {
+            return new ArrayList<IManagedCache>(caches.keySet());
+        }
+    }
+
+    /**
+     * @return the sum of the size estimates of all the registered caches (in bytes).
+     */
+    public static long getSizeEstimate() {
+        long size = 0;
+        for (IManagedCache cache : getCaches()) {
+            size += cache.getSizeEstimate();
+        }
+        return size;
+    }
+
+    /**
+     * Evicts the given fraction of the entries of all the registered caches (so, the memory freed from each cache is
+     * proportional to its size).
+     *
+     * @param fraction a value from 0 to 1 (1 means that all the caches are cleared).
+     */
+    public static void evict(double fraction) {
+        evictionsCounter.inc();
+        for (IManagedCache cache : getCaches()) {
+            try {
+                int before = cache.getEntriesCount();
+                cache.evict(fraction);
+                evictedEntriesCounter.add(before - cache.getEntriesCount());
+            } catch (Throwable e) {
+                Log.log("Error evicting entries from: " + cache.getCacheName(), e);
+            }
+        }
+    }
+
+    /**
+     * @return the number of entries to be removed to evict the given fraction of a cache with the given size.
+     */
+    public static int getEntriesToEvict(int size, double fraction) {
+        if (fraction >= 1) {
+            return size;
+        }
+        if (fraction <= 0) {
+            return 0;
+        }
+        return Math.min(size, (int) Math.ceil(size * fraction));
+    }
+
+    /**
+     * @param usage the fraction of the heap being used.
+     * @param threshold the fraction of the heap from which caches should be evicted.
+     * @return the fraction of the caches to be evicted (0 if the usage is below the threshold).
+     */
+    public static double getFractionToEvict(double usage, double threshold) {
+        if (usage < threshold) {
+            return 0;
+        }
+        double fraction = threshold >= 1 ? MAX_FRACTION_TO_EVICT : (usage - threshold) / (1 - threshold);
+        return Math.max(MIN_FRACTION_TO_EVICT, Math.min(MAX_FRACTION_TO_EVICT, fraction));
+    }
+
+    private static void startWatching() {
+        try {
+            String threshold = System.getProperty("pydev.cache.threshold");
+            if (threshold != null) {
+                usageThreshold = Double.parseDouble(threshold);
+            }
+            //Watch the heap pool with the biggest max (i.e.: the tenured generation).
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported()
+                        && pool.getUsage().getMax() > 0) {
+                    if (watchedPool == null || pool.getUsage().getMax() > watchedPool.getUsage().getMax()) {
+                        watchedPool = pool;
+                    }
+                }
+            }
+            if (watchedPool == null) {
+                return;
+            }
+            long thresholdInBytes = (long) (watchedPool.getUsage().getMax() * usageThreshold);
+            watchedPool.setUsageThreshold(thresholdInBytes);
+            if (watchedPool.isCollectionUsageThresholdSupported()) {
+                watchedPool.setCollectionUsageThreshold(thresholdInBytes);
+            }
+
+            NotificationEmitter emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+            emitter.addNotificationListener(new NotificationListener() {
+
+                @Override
+                public void handleNotification(Notification notification, Object handback) {
+                    String type = notification.getType();
+                    if (MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+                            || MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+                        scheduleEviction();
+                    }
+                }
+            }, null, null);
+        } catch (Throwable e) {
+            Log.log("Unable to watch the memory usage.", e);
+        }
+    }
+
+    private static void scheduleEviction() {
+        if (!evictionScheduled.compareAndSet(false, true)) {
+            return; //Already evicting.
+        }
+        synchronized (lock) {
+            if (executor == null) {
+                executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "PyDev cache eviction");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+        }
+        executor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    evictWhileAboveThreshold();
+                } finally {
+                    evictionScheduled.set(false);
+                }
+            }
+        });
+    }
+
+    /**
+     * Evicts a fraction of the caches and waits for the next garbage collection to check whether it's still
+     * needed to evict more.
+     */
+    private static void evictWhileAboveThreshold() {
+        long lastGcCount = -1;
+        for (int step = 0; step < MAX_STEPS; step++) {
+            double usage = getUsage();
+            double fraction = getFractionToEvict(usage, usageThreshold);
+            if (fraction == 0) {
+                return;
+            }
+            long gcCount = getGcCount();
+            if (gcCount != lastGcCount) {
+                //Only evict again if a collection happened (otherwise the usage doesn't reflect the last eviction).
+                lastGcCount = gcCount;
+                if (step == 0) {
+                    Log.logInfo("Low memory detected (" + Math.round(usage * 100) + "% of max heap used): "
+                            + "evicting caches (consider raising -Xmx setting on .ini).");
+                }
+                evict(fraction);
+            }
+            try {
+                Thread.sleep(STEP_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the fraction of the watched pool being used (after the last collection if available).
+     */
+    private static double getUsage() {
+        MemoryUsage usage = null;
+        if (watchedPool.isCollectionUsageThresholdSupported()) {
+            usage = watchedPool.getCollectionUsage();
+        }
+        if (usage == null || usage.getMax() <= 0) {
+            usage = watchedPool.getUsage();
+        }
+        if (usage.getMax() <= 0) {
+            return 0;
+        }
+        return usage.getUsed() / (double) usage.getMax();
+    }
+
+    private static long getGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+}
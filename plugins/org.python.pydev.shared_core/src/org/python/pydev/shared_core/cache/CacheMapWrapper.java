@@ -6,6 +6,7 @@
  */
 package org.python.pydev.shared_core.cache;
 
+import java.util.Iterator;
 import java.util.Map;
 
 /**
@@ -40,4 +41,23 @@ public class CacheMapWrapper<Key, Val> implements Cache<Key, Val> {
     public void removeStaleEntries() {
         //Subclasses need to override if they have this concept (i.e.: SoftHashMap)
     }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Removes the given fraction of the entries (the first ones in the iteration order of the map, which for a
+     * LRUMap are the eldest ones).
+     *
+     * @see CacheManager#getEntriesToEvict(int, double)
+     */
+    public void evict(double fraction) {
+        int toEvict = CacheManager.getEntriesToEvict(cache.size(), fraction);
+        Iterator<Key> it = cache.keySet().iterator();
+        for (int i = 0; i < toEvict && it.hasNext(); i++) {
+            it.next();
+            it.remove();
+        }
+    }
 }
@@ -0,0 +1,41 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.cache;
+
+/**
+ * A cache which may be registered in the {@link CacheManager} so that its entries are evicted when the memory is
+ * low.
+ *
+ * Note that implementations must do their own synchronization (evict may be called from any thread).
+ */
+public interface IManagedCache {
+
+    /**
+     * @return a name for the cache (i.e.: to be shown in logs).
+     */
+    String getCacheName();
+
+    int getEntriesCount();
+
+    /**
+     * @return a rough estimate on the memory (in bytes) used by the entries of this cache.
+     */
+    long getSizeEstimate();
+
+    /**
+     * Removes the given fraction of the entries from the cache (eldest/least used entries first when the cache
+     * is able to know that).
+     *
+     * @param fraction a value from 0 to 1 (1 means that the cache should be cleared).
+     */
+    void evict(double fraction);
+}
@@ -31,10 +31,12 @@ import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -126,6 +128,31 @@ public class FileUtils {
         }
     }
 
+    /**
+     * Writes the given bytes to a temporary file which is then renamed to the target file (so, readers either see
+     * the previous contents or the new contents, never a partially written file).
+     */
+    public static void writeBytesToFileAtomically(byte[] bytes, File file) throws IOException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(tempFile)) {
+            stream.write(bytes);
+        }
+        replaceFile(tempFile, file);
+    }
+
+    /**
+     * Renames the source to the target (replacing the target if it exists). An atomic move is used when the
+     * file system supports it.
+     */
+    public static void replaceFile(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     public static void writeToFile(Object o, File file) {
         writeToFile(o, file, false);
     }
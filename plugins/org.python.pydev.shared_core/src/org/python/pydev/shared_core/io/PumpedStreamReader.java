@@ -0,0 +1,178 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.io;
+
+import java.io.InputStream;
+
+import org.python.pydev.shared_core.string.FastStringBuffer;
+
+/**
+ * Keeps the contents of a stream read by the StreamPump (same API of the ThreadStreamReader, but without
+ * creating a thread for each stream).
+ *
+ * The contents retained may be bounded: when the limit is reached the oldest contents are discarded or (when
+ * created with back-pressure) the stream isn't read anymore until the contents are consumed with
+ * getAndClearContents().
+ */
+public final class PumpedStreamReader implements StreamPump.IPumpListener {
+
+    public static final int UNBOUNDED = -1;
+
+    private final InputStream is;
+    private final Process process;
+    private final String encoding;
+    private final int maxRetained;
+    private final boolean backPressure;
+    private final StreamPump pump;
+
+    private final FastStringBuffer contents = new FastStringBuffer();
+    private final Object lock = new Object();
+
+    private volatile StreamPump.Handle handle;
+    private boolean finished;
+    private boolean stopGettingOutput;
+    private long discarded;
+
+    /**
+     * Reads a stream of the given process keeping all its contents.
+     */
+    public PumpedStreamReader(Process process, InputStream is) {
+        this(process, is, null, UNBOUNDED, false);
+    }
+
+    /**
+     * @param process the process writing to the stream (may be null if the stream doesn't block when
+     * nothing is available).
+     * @param encoding the encoding to read the stream (null for the default).
+     * @param maxRetained maximum number of chars kept (UNBOUNDED to keep all).
+     * @param backPressure if true, the stream isn't read when maxRetained is reached (until contents are
+     * consumed) and if false, the oldest contents are discarded.
+     */
+    public PumpedStreamReader(Process process, InputStream is, String encoding, int maxRetained,
+            boolean backPressure) {
+        this(StreamPump.getDefault(), process, is, encoding, maxRetained, backPressure);
+    }
+
+    public PumpedStreamReader(StreamPump pump, Process process, InputStream is, String encoding,
+            int maxRetained, boolean backPressure) {
+        this.pump = pump;
+        this.process = process;
+        this.is = is;
+        this.encoding = encoding;
+        this.maxRetained = maxRetained;
+        this.backPressure = backPressure && maxRetained > 0;
+    }
+
+    /**
+     * Starts reading the stream.
+     */
+    public void start() {
+        if (handle == null) {
+            handle = pump.register(is, process, encoding, this);
+        }
+    }
+
+    public void onContents(char[] chars, int len) {
+        synchronized (lock) {
+            if (stopGettingOutput) {
+                return;
+            }
+            contents.append(chars, 0, len);
+            if (maxRetained > 0 && contents.length() >= maxRetained) {
+                if (backPressure) {
+                    StreamPump.Handle h = handle;
+                    if (h != null) { //may still be null if called before register() returned
+                        h.pause();
+                    }
+                } else if (contents.length() > maxRetained) {
+                    int delete = contents.length() - maxRetained;
+                    contents.deleteFirstChars(delete);
+                    discarded += delete;
+                }
+            }
+        }
+    }
+
+    public void onFinished() {
+        synchronized (lock) {
+            finished = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * @return the contents that were obtained from this instance since it was started or since
+     * the last call to this method.
+     */
+    public String getAndClearContents() {
+        synchronized (lock) {
+            String string = contents.toString();
+            contents.clear();
+            StreamPump.Handle h = handle;
+            if (h != null && h.isPaused()) {
+                h.resume();
+            }
+            return string;
+        }
+    }
+
+    public String getContents() {
+        synchronized (lock) {
+            return contents.toString();
+        }
+    }
+
+    /**
+     * @return the number of chars discarded because maxRetained was reached.
+     */
+    public long getDiscardedCount() {
+        synchronized (lock) {
+            return discarded;
+        }
+    }
+
+    public boolean isFinished() {
+        synchronized (lock) {
+            return finished;
+        }
+    }
+
+    /**
+     * Waits until the end of the stream is reached (or the timeout elapses).
+     *
+     * @return whether the end of the stream was reached.
+     */
+    public boolean waitFinished(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (lock) {
+            while (!finished) {
+                long timeout = deadline - System.currentTimeMillis();
+                if (timeout <= 0) {
+                    return false;
+                }
+                lock.wait(timeout);
+            }
+            return true;
+        }
+    }
+
+    public void stopGettingOutput() {
+        synchronized (lock) {
+            stopGettingOutput = true;
+            contents.clear();
+        }
+        StreamPump.Handle h = handle;
+        if (h != null) {
+            h.stop();
+        }
+    }
+}
@@ -0,0 +1,445 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.python.pydev.shared_core.log.Log;
+
+/**
+ * Reads the output of many child processes with a few shared threads (instead of one thread per stream).
+ *
+ * The pump threads poll the registered streams with available() and read everything available at once (with a
+ * large buffer), so, a thread is never blocked in a stream which has nothing to be read. The threads are only
+ * alive while there are streams registered.
+ *
+ * When nothing is available in a stream registered with a process after the process exited, the stream is read
+ * until its end with (possibly blocking) reads in a dedicated thread, as the stream may still be kept open by some
+ * child of the process. If it doesn't get to its end in DRAIN_TIMEOUT millis, the stream is closed. Streams
+ * registered without a process must not block when there's nothing available (i.e.: in-memory or file streams).
+ *
+ * Back-pressure: a listener may pause its stream. A paused stream isn't read anymore, so, when the pipe buffer
+ * fills up, the child process blocks writing until the stream is resumed.
+ */
+public final class StreamPump {
+
+    /**
+     * Listener for the contents of a registered stream (called in a pump thread, so, it should be fast).
+     */
+    public interface IPumpListener {
+
+        /**
+         * @param chars the decoded contents (only valid during the call).
+         */
+        void onContents(char[] chars, int len);
+
+        /**
+         * Called once when the end of the stream is reached (or if the stream was stopped or had an error).
+         */
+        void onFinished();
+    }
+
+    /**
+     * Wait when nothing was read in a round (doubled while idle up to MAX_IDLE_WAIT).
+     */
+    private static final int MIN_IDLE_WAIT = 1;
+    private static final int MAX_IDLE_WAIT = 20;
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Time given to get to the end of a stream after its process exited.
+     */
+    public static int DRAIN_TIMEOUT = 2000;
+
+    private static StreamPump defaultPump;
+
+    public static synchronized StreamPump getDefault() {
+        if (defaultPump == null) {
+            int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+            defaultPump = new StreamPump("StreamPump", threads, DEFAULT_BUFFER_SIZE);
+        }
+        return defaultPump;
+    }
+
+    /**
+     * A stream registered in the pump.
+     */
+    public final class Handle {
+
+        private final InputStream is;
+        private final Process process;
+        private final CharsetDecoder decoder;
+        private final IPumpListener listener;
+
+        /**
+         * Bytes of an incomplete char kept to the next read.
+         */
+        private byte[] leftover;
+
+        private volatile boolean paused;
+        private volatile boolean stopped;
+        private volatile boolean finished;
+
+        /**
+         * When the stream is being drained in a dedicated thread, the time when we should give up on it.
+         */
+        private volatile long drainDeadline = -1;
+
+        private Handle(InputStream is, Process process, Charset charset, IPumpListener listener) {
+            this.is = is;
+            this.process = process;
+            this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.listener = listener;
+        }
+
+        /**
+         * Stops reading the stream until resume() is called.
+         */
+        public void pause() {
+            paused = true;
+        }
+
+        public void resume() {
+            paused = false;
+        }
+
+        public boolean isPaused() {
+            return paused;
+        }
+
+        /**
+         * Stops reading the stream (the listener is notified that it finished).
+         */
+        public void stop() {
+            stopped = true;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+
+        private boolean mayBlock() {
+            if (process == null) {
+                return false;
+            }
+            try {
+                process.exitValue();
+                return false;
+            } catch (IllegalThreadStateException e) {
+                return true; //still running
+            }
+        }
+
+        /**
+         * @return true if something was read.
+         */
+        private boolean pump(ByteBuffer bytes, CharBuffer chars) {
+            if (finished) {
+                return false;
+            }
+            if (stopped) {
+                finish();
+                return false;
+            }
+            if (drainDeadline != -1) {
+                //Being drained in a dedicated thread.
+                if (System.currentTimeMillis() > drainDeadline) {
+                    finish();
+                }
+                return false;
+            }
+            if (paused) {
+                return false;
+            }
+            int n;
+            try {
+                takeLeftover(bytes);
+                int available = is.available();
+                if (available <= 0 && process != null) {
+                    if (bytes.position() > 0) {
+                        leftover = copyRemaining(bytes, 0, bytes.position());
+                    }
+                    if (!mayBlock()) {
+                        //The process exited, but the stream may still be open (i.e.: inherited by a child of the
+                        //process), so, a read could block forever: do it in another thread.
+                        startDrain();
+                    }
+                    return false;
+                }
+                int toRead = bytes.remaining();
+                if (available > 0 && available < toRead) {
+                    toRead = available;
+                }
+                n = is.read(bytes.array(), bytes.position(), toRead);
+            } catch (IOException e) {
+                n = -1;
+            }
+            return consume(bytes, chars, n);
+        }
+
+        private void takeLeftover(ByteBuffer bytes) {
+            bytes.clear();
+            if (leftover != null) {
+                bytes.put(leftover);
+                leftover = null;
+            }
+        }
+
+        /**
+         * Decodes the n bytes read (n < 0 means that the end of the stream was reached).
+         *
+         * @return true if something was read.
+         */
+        private boolean consume(ByteBuffer bytes, CharBuffer chars, int n) {
+            if (n < 0) {
+                bytes.flip();
+                decode(bytes, chars, true);
+                finish();
+                return false;
+            }
+            bytes.position(bytes.position() + n);
+            bytes.flip();
+            decode(bytes, chars, false);
+            if (bytes.hasRemaining()) {
+                leftover = copyRemaining(bytes, bytes.position(), bytes.limit());
+            }
+            return n > 0;
+        }
+
+        /**
+         * Reads the stream until its end in a new thread (the pump thread closes the stream if it isn't finished
+         * until the drain deadline -- if the read still blocks after that, only the drain thread is kept blocked).
+         */
+        private void startDrain() {
+            drainDeadline = System.currentTimeMillis() + DRAIN_TIMEOUT;
+            Thread thread = new Thread(name + ": drain") {
+
+                @Override
+                public void run() {
+                    ByteBuffer bytes = ByteBuffer.allocate(bufferSize + 16);
+                    CharBuffer chars = CharBuffer.allocate(bufferSize + 16);
+                    while (true) {
+                        synchronized (Handle.this) {
+                            if (finished) {
+                                return;
+                            }
+                            takeLeftover(bytes);
+                        }
+                        int n;
+                        try {
+                            n = is.read(bytes.array(), bytes.position(), bytes.remaining());
+                        } catch (IOException e) {
+                            n = -1;
+                        }
+                        //The listener is not notified after the stream is finished by the pump thread.
+                        synchronized (Handle.this) {
+                            if (finished) {
+                                return;
+                            }
+                            consume(bytes, chars, n);
+                        }
+                    }
+                }
+            };
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void decode(ByteBuffer bytes, CharBuffer chars, boolean endOfInput) {
+            while (true) {
+                chars.clear();
+                CoderResult result = decoder.decode(bytes, chars, endOfInput);
+                if (endOfInput && !result.isOverflow()) {
+                    decoder.flush(chars);
+                }
+                chars.flip();
+                if (chars.hasRemaining()) {
+                    try {
+                        listener.onContents(chars.array(), chars.limit());
+                    } catch (Throwable e) {
+                        Log.log(e);
+                    }
+                }
+                if (!result.isOverflow()) {
+                    return;
+                }
+            }
+        }
+
+        private synchronized void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            try {
+                is.close();
+            } catch (IOException e) {
+                //ignore
+            }
+        }
+
+        /**
+         * Called after the handle is no longer registered in the pump.
+         */
+        private void notifyFinished() {
+            try {
+                listener.onFinished();
+            } catch (Throwable e) {
+                Log.log(e);
+            }
+        }
+    }
+
+    private static byte[] copyRemaining(ByteBuffer bytes, int start, int end) {
+        byte[] ret = new byte[end - start];
+        System.arraycopy(bytes.array(), start, ret, 0, ret.length);
+        return ret;
+    }
+
+    private final class PumpThread extends Thread {
+
+        private final List<Handle> handles = new ArrayList<Handle>();
+
+        private PumpThread(int id) {
+            setName(name + ": " + id);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            //+16 to fit the bytes of an incomplete char from the last read.
+            ByteBuffer bytes = ByteBuffer.allocate(bufferSize + 16);
+            CharBuffer chars = CharBuffer.allocate(bufferSize + 16);
+            Handle[] current = new Handle[0];
+            int idleWait = 0;
+            while (true) {
+                synchronized (lock) {
+                    if (handles.isEmpty()) {
+                        threads.remove(this);
+                        return;
+                    }
+                    current = handles.toArray(current);
+                }
+                boolean readSomething = false;
+                for (Handle handle : current) {
+                    if (handle == null) {
+                        break;
+                    }
+                    if (handle.pump(bytes, chars)) {
+                        readSomething = true;
+                    }
+                    if (handle.finished) {
+                        synchronized (lock) {
+                            handles.remove(handle);
+                        }
+                        handle.notifyFinished();
+                    }
+                }
+                if (readSomething) {
+                    idleWait = 0;
+                } else {
+                    idleWait = idleWait == 0 ? MIN_IDLE_WAIT : Math.min(idleWait * 2, MAX_IDLE_WAIT);
+                    try {
+                        sleep(idleWait);
+                    } catch (InterruptedException e) {
+                        //ignore
+                    }
+                }
+            }
+        }
+    }
+
+    private final Object lock = new Object();
+    private final List<PumpThread> threads = new ArrayList<PumpThread>();
+    private final String name;
+    private final int maxThreads;
+    private final int bufferSize;
+    private int nextThreadId;
+
+    /**
+     * @param maxThreads the maximum number of threads reading the streams.
+     * @param bufferSize the number of bytes read at once from a stream.
+     */
+    public StreamPump(String name, int maxThreads, int bufferSize) {
+        this.name = name;
+        this.maxThreads = maxThreads;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Registers a stream to be read.
+     *
+     * @param process the process which writes to the stream (may be null if the stream doesn't block when
+     * there's nothing available).
+     * @param encoding the encoding of the stream (if null the default encoding is used).
+     */
+    public Handle register(InputStream is, Process process, String encoding, IPumpListener listener) {
+        Charset charset;
+        try {
+            charset = encoding != null ? Charset.forName(encoding) : Charset.defaultCharset();
+        } catch (Exception e) {
+            Log.log("Invalid encoding: " + encoding + " (using default).", e);
+            charset = Charset.defaultCharset();
+        }
+        Handle handle = new Handle(is, process, charset, listener);
+        synchronized (lock) {
+            PumpThread thread = null;
+            if (threads.size() < maxThreads) {
+                thread = new PumpThread(++nextThreadId);
+                threads.add(thread);
+                thread.handles.add(handle);
+                thread.start();
+            } else {
+                for (PumpThread t : threads) {
+                    if (thread == null || t.handles.size() < thread.handles.size()) {
+                        thread = t;
+                    }
+                }
+                thread.handles.add(handle);
+            }
+        }
+        return handle;
+    }
+
+    /**
+     * @return the number of threads currently alive in the pump.
+     */
+    public int getThreadsCount() {
+        synchronized (lock) {
+            return threads.size();
+        }
+    }
+
+    /**
+     * @return the number of streams still being read.
+     */
+    public int getRegisteredCount() {
+        synchronized (lock) {
+            int count = 0;
+            for (PumpThread t : threads) {
+                count += t.handles.size();
+            }
+            return count;
+        }
+    }
+}
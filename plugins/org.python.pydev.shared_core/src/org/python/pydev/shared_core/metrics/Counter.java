@@ -0,0 +1,57 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A metric which just counts how many times something happened.
+ */
+public final class Counter extends Metric {
+
+    private final AtomicLong count = new AtomicLong();
+
+    Counter(String name) {
+        super(name);
+    }
+
+    public void inc() {
+        if (Metrics.enabled) {
+            count.incrementAndGet();
+        }
+    }
+
+    public void add(long delta) {
+        if (Metrics.enabled) {
+            count.addAndGet(delta);
+        }
+    }
+
+    public long get() {
+        return count.get();
+    }
+
+    @Override
+    public String getType() {
+        return "counter";
+    }
+
+    @Override
+    public String getValueRepresentation() {
+        return String.valueOf(count.get());
+    }
+
+    @Override
+    public void reset() {
+        count.set(0);
+    }
+}
@@ -0,0 +1,113 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.metrics;
+
+import org.python.pydev.shared_core.string.StringUtils;
+
+/**
+ * Keeps the distribution of the values recorded (count, mean, min, max and percentiles).
+ *
+ * Values are kept in power of 2 buckets, so, the percentiles are an approximation (the upper bound of the bucket,
+ * which is never above the max value recorded).
+ */
+public class Histogram extends Metric {
+
+    /**
+     * Bucket i has the values where the highest bit set is i-1 (bucket 0 is for values <= 0).
+     */
+    private final long[] buckets = new long[65];
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+
+    Histogram(String name) {
+        super(name);
+    }
+
+    public void record(long value) {
+        if (Metrics.enabled) {
+            doRecord(value);
+        }
+    }
+
+    protected final synchronized void doRecord(long value) {
+        if (count == 0 || value < min) {
+            min = value;
+        }
+        if (count == 0 || value > max) {
+            max = value;
+        }
+        count++;
+        sum += value;
+        buckets[value <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(value)]++;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMin() {
+        return min;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized double getMean() {
+        return count == 0 ? 0 : sum / (double) count;
+    }
+
+    /**
+     * @param percentile a value from 0 to 100.
+     * @return an approximation of the value at the given percentile.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(count * (percentile / 100.0));
+        long accumulated = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            accumulated += buckets[i];
+            if (accumulated >= target) {
+                long upperBound = i == 0 ? 0 : (i == 64 ? Long.MAX_VALUE : (1L << i) - 1);
+                return Math.max(min, Math.min(upperBound, max));
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String getType() {
+        return "histogram";
+    }
+
+    @Override
+    public synchronized String getValueRepresentation() {
+        return StringUtils.format("count: %s mean: %s min: %s p50: %s p90: %s p99: %s max: %s", count,
+                Math.round(getMean() * 100) / 100.0, min, getPercentile(50), getPercentile(90), getPercentile(99),
+                max);
+    }
+
+    @Override
+    public synchronized void reset() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = 0;
+        }
+        count = 0;
+        sum = 0;
+        min = 0;
+        max = 0;
+    }
+}
@@ -0,0 +1,75 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.python.pydev.shared_core.string.StringUtils;
+
+/**
+ * Counts the hits and misses of a cache.
+ */
+public final class HitCounter extends Metric {
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    HitCounter(String name) {
+        super(name);
+    }
+
+    public void hit() {
+        if (Metrics.enabled) {
+            hits.incrementAndGet();
+        }
+    }
+
+    public void miss() {
+        if (Metrics.enabled) {
+            misses.incrementAndGet();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the percentage of hits (0 if there were no accesses).
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (h * 100.0) / total;
+    }
+
+    @Override
+    public String getType() {
+        return "cache";
+    }
+
+    @Override
+    public String getValueRepresentation() {
+        return StringUtils.format("hits: %s misses: %s hit rate: %s%%", hits.get(), misses.get(),
+                Math.round(getHitRate() * 100) / 100.0);
+    }
+
+    @Override
+    public void reset() {
+        hits.set(0);
+        misses.set(0);
+    }
+}
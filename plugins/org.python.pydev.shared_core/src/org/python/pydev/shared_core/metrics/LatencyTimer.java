@@ -0,0 +1,59 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.metrics;
+
+import org.python.pydev.shared_core.string.StringUtils;
+
+/**
+ * Keeps the distribution of the time taken by some operation (in nanos). Usage:
+ *
+ * long start = timer.start();
+ * try {
+ *     ...
+ * } finally {
+ *     timer.stop(start);
+ * }
+ *
+ * When the metrics are disabled, start() returns 0 and stop() does nothing.
+ */
+public final class LatencyTimer extends Histogram {
+
+    LatencyTimer(String name) {
+        super(name);
+    }
+
+    public long start() {
+        return Metrics.enabled ? System.nanoTime() : 0;
+    }
+
+    public void stop(long start) {
+        if (start != 0) {
+            doRecord(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String getType() {
+        return "timer";
+    }
+
+    @Override
+    public synchronized String getValueRepresentation() {
+        return StringUtils.format("count: %s mean: %sms p50: %sms p90: %sms p99: %sms max: %sms", getCount(),
+                toMillis(getMean()), toMillis(getPercentile(50)), toMillis(getPercentile(90)),
+                toMillis(getPercentile(99)), toMillis(getMax()));
+    }
+
+    private static double toMillis(double nanos) {
+        return Math.round(nanos / 10000.0) / 100.0;
+    }
+}
@@ -0,0 +1,41 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.metrics;
+
+/**
+ * Base class for the metrics kept in the {@link Metrics} registry.
+ */
+public abstract class Metric {
+
+    public final String name;
+
+    protected Metric(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return a short name for the kind of the metric (i.e.: counter, timer, etc).
+     */
+    public abstract String getType();
+
+    /**
+     * @return a String with the current values of this metric.
+     */
+    public abstract String getValueRepresentation();
+
+    public abstract void reset();
+
+    @Override
+    public String toString() {
+        return name + " (" + getType() + "): " + getValueRepresentation();
+    }
+}
@@ -0,0 +1,158 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.metrics;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.log.Log;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+
+/**
+ * In-process registry of metrics (counters, cache hit counters, histograms and timers).
+ *
+ * Metrics are disabled by default: when disabled, recording something is just a check of a volatile field. They
+ * may be enabled with -Dpydev.metrics=true (in which case they're also dumped to {@link #getDumpFile()} when the
+ * VM exits) or through the Metrics view.
+ *
+ * Clients should get the metric once (usually in a static field) and use it afterwards:
+ *
+ * private static final LatencyTimer parseTimer = Metrics.timer("parser.parse");
+ */
+public final class Metrics {
+
+    /**
+     * Accessed directly by the metrics in this package.
+     */
+    static volatile boolean enabled;
+
+    private static final ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<String, Metric>();
+
+    static {
+        if (Boolean.getBoolean("pydev.metrics")) {
+            enabled = true;
+            Runtime.getRuntime().addShutdownHook(new Thread("PyDev metrics dump") {
+                @Override
+                public void run() {
+                    dump(getDumpFile());
+                }
+            });
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    public static Counter counter(String name) {
+        return get(name, new Counter(name), Counter.class);
+    }
+
+    public static HitCounter hitCounter(String name) {
+        return get(name, new HitCounter(name), HitCounter.class);
+    }
+
+    public static Histogram histogram(String name) {
+        return get(name, new Histogram(name), Histogram.class);
+    }
+
+    public static LatencyTimer timer(String name) {
+        return get(name, new LatencyTimer(name), LatencyTimer.class);
+    }
+
+    private static <T extends Metric> T get(String name, T metric, Class<T> expectedClass) {
+        Metric existing = metrics.putIfAbsent(name, metric);
+        if (existing == null) {
+            return metric;
+        }
+        if (existing.getClass() != expectedClass) {
+            throw new IllegalArgumentException("Metric: " + name + " already registered as: " + existing.getType());
+        }
+        return expectedClass.cast(existing);
+    }
+
+    /**
+     * @return the registered metrics sorted by name.
+     */
+    public static List<Metric> getMetrics() {
+        List<Metric> ret = new ArrayList<Metric>(metrics.values());
+        Collections.sort(ret, new Comparator<Metric>() {
+
+            @Override
+            public int compare(Metric o1, Metric o2) {
+                return o1.name.compareTo(o2.name);
+            }
+        });
+        return ret;
+    }
+
+    /**
+     * Resets the values of all the metrics (they're still kept registered).
+     */
+    public static void reset() {
+        for (Metric metric : metrics.values()) {
+            metric.reset();
+        }
+    }
+
+    /**
+     * @return a textual representation with the current values of all the metrics.
+     */
+    public static String getDump() {
+        FastStringBuffer buf = new FastStringBuffer();
+        buf.append("PyDev metrics (").append(new Date().toString()).append(")\n");
+        for (Metric metric : getMetrics()) {
+            buf.append(metric.toString()).append('\n');
+        }
+        return buf.toString();
+    }
+
+    /**
+     * The file where the metrics are dumped (may be set with -Dpydev.metrics.file, otherwise it's
+     * pydev_metrics.txt in the temp dir).
+     */
+    public static File getDumpFile() {
+        String file = System.getProperty("pydev.metrics.file");
+        if (file != null && file.length() > 0) {
+            return new File(file);
+        }
+        return new File(System.getProperty("java.io.tmpdir"), "pydev_metrics.txt");
+    }
+
+    /**
+     * Writes the current values of all the metrics to the given file.
+     *
+     * @return whether it was properly written.
+     */
+    public static boolean dump(File file) {
+        try {
+            FileUtils.writeStrToFile(getDump(), file);
+            return true;
+        } catch (Exception e) {
+            Log.log(e);
+            return false;
+        }
+    }
+}
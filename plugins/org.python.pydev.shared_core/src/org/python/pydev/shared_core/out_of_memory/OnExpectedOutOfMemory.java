@@ -1,5 +1,6 @@
 package org.python.pydev.shared_core.out_of_memory;
 
+import org.python.pydev.shared_core.cache.CacheManager;
 import org.python.pydev.shared_core.callbacks.CallbackWithListeners;
 import org.python.pydev.shared_core.callbacks.ICallbackListener;
 import org.python.pydev.shared_core.log.Log;
@@ -14,6 +15,9 @@ public class OnExpectedOutOfMemory {
             @Override
             public Object call(Object obj) {
                 Log.logWarning("Low memory detected on JVM: Clearing caches (consider raising -Xmx setting on .ini)");
+                //Clears all the caches registered in the CacheManager (note that it'll usually be able to evict
+                //entries gradually before getting here).
+                CacheManager.evict(1.0);
                 return null;
             }
         });
@@ -11,9 +11,13 @@ import java.io.FileFilter;
 import java.nio.file.Path;
 import java.nio.file.WatchKey;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.Assert;
 import org.python.pydev.shared_core.callbacks.ListenerList;
@@ -23,10 +27,18 @@ import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.structure.OrderedMap;
 
 /**
- * This object will stack many ADD/REMOVE changes into a single change. It also deals with OVERFLOW changes, which
- * mean that too many changes occurred and thus can't be properly mapped to the actual events. In this case,
- * a notification that the base path was removed and then added again is issued (listener clients must take care
- * of properly dealing with this notification, as no events of added/removed children will be issued in this case).
+ * This object will stack many ADD/REMOVE/MODIFY changes into a single change per file and notify them in a batch.
+ *
+ * When used through scheduleFlush(), the notification is debounced: it's only done after no new events arrive
+ * for FLUSH_DEBOUNCE_MILLIS (or after MAX_FLUSH_DELAY_MILLIS since the first pending event), so, a burst of
+ * events (i.e.: git checkout, pip install) becomes a few batches instead of one notification per file.
+ *
+ * It also deals with OVERFLOW changes, which mean that too many changes occurred and thus can't be properly mapped
+ * to the actual events. In this case, when watching a directory, its contents are listed again and compared
+ * with the last contents seen (so, only the actual changes are notified). If a snapshot of the contents is not
+ * available, a notification that the base path was removed and then added again is issued (listener clients must
+ * take care of properly dealing with this notification, as no events of added/removed children will be issued in
+ * this case).
  *
  * @author fabioz
  */
@@ -34,6 +46,7 @@ public class EventsStackerRunnable implements Runnable {
 
     public final static int ADDED = 0;
     public final static int REMOVED = 1;
+    public final static int MODIFIED = 2;
 
     /**
      * As we only get notifications in directories from the files beneath it, or files within a folder
@@ -41,6 +54,16 @@ public class EventsStackerRunnable implements Runnable {
      */
     public final static int LEVELS_TO_GET_MODIFIED_TIME = 2;
 
+    /**
+     * Time without new events before notifying the stacked events.
+     */
+    public final static long FLUSH_DEBOUNCE_MILLIS = 100;
+
+    /**
+     * Maximum time to wait (if events keep on arriving) before notifying the stacked events.
+     */
+    public final static long MAX_FLUSH_DELAY_MILLIS = 1000;
+
     /**
      * May be null!
      */
@@ -50,10 +73,15 @@ public class EventsStackerRunnable implements Runnable {
     public final Path watchedPath;
 
     /**
-     * Lock for dealing with fileToEvent and overflow.
+     * Lock for dealing with fileToEvent, overflow and the scheduling.
      */
     private final Object lock = new Object();
 
+    /**
+     * Only one notification is done at a time.
+     */
+    private final Object runLock = new Object();
+
     /**
      * The file mapping to the last event recorded in it.
      */
@@ -76,6 +104,14 @@ public class EventsStackerRunnable implements Runnable {
      */
     private final Map<File, Long> internalDirToLastModifiedTime = new HashMap<File, Long>();
 
+    /**
+     * The last modified time of the (interesting) files directly in the directory we're watching (used to
+     * rescan the directory on an overflow).
+     *
+     * If not a directory, it's not considered.
+     */
+    private final Map<File, Long> internalFileToLastModifiedTime = new HashMap<File, Long>();
+
     /**
      * Identifies whether we're watching a dir or not.
      */
@@ -97,6 +133,42 @@ public class EventsStackerRunnable implements Runnable {
 
     private final Object lockInitialization = new Object();
 
+    /**
+     * The flush scheduled (null if there's no flush pending). Synchronized with lock.
+     */
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * The time of the first event not notified yet. Synchronized with lock.
+     */
+    private long firstPendingEventTime;
+
+    private volatile boolean disposed;
+
+    private final Runnable flushTask = new Runnable() {
+
+        @Override
+        public void run() {
+            synchronized (lock) {
+                if (disposed) {
+                    return;
+                }
+                if (!initializationFinished) {
+                    //Don't hold a thread from the executor waiting for it.
+                    scheduledFlush = PathWatch.getExecutor().schedule(this, FLUSH_DEBOUNCE_MILLIS,
+                            TimeUnit.MILLISECONDS);
+                    return;
+                }
+                scheduledFlush = null;
+            }
+            try {
+                EventsStackerRunnable.this.run();
+            } catch (Exception e) {
+                Log.log(e);
+            }
+        }
+    };
+
     /**
      * Creates the events stacker based on the key, path and listeners related (the contents of the listeners may
      * change later on, but the actual key and path may not change).
@@ -115,7 +187,7 @@ public class EventsStackerRunnable implements Runnable {
         this.fileFilter = fileFilter;
         this.dirFilter = dirFilter;
         if (isDir) {
-            new Thread() {
+            PathWatch.getExecutor().execute(new Runnable() {
                 @Override
                 public void run() {
                     try {
@@ -134,6 +206,8 @@ public class EventsStackerRunnable implements Runnable {
                                                     f, DIRECTORY_WITH_NOTHING_INTERESTING);
                                         }
                                     }
+                                } else if (fileFilter.accept(f)) {
+                                    internalFileToLastModifiedTime.put(f, f.lastModified());
                                 }
                             }
                         }
@@ -142,12 +216,50 @@ public class EventsStackerRunnable implements Runnable {
                     }
 
                 };
-            }.start();
+            });
         } else {
             initializationFinished = true;
         }
     }
 
+    /**
+     * Schedules the notification of the stacked events in the shared executor (debounced).
+     */
+    public void scheduleFlush() {
+        synchronized (lock) {
+            if (disposed) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (scheduledFlush != null) {
+                if (now - firstPendingEventTime >= MAX_FLUSH_DELAY_MILLIS) {
+                    return; //Waited too much already: keep the current schedule.
+                }
+                if (!scheduledFlush.cancel(false)) {
+                    return; //Already running (and the current events will be gotten by it).
+                }
+            } else {
+                firstPendingEventTime = now;
+            }
+            long delay = Math.min(FLUSH_DEBOUNCE_MILLIS, MAX_FLUSH_DELAY_MILLIS - (now - firstPendingEventTime));
+            scheduledFlush = PathWatch.getExecutor().schedule(flushTask, Math.max(delay, 0),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Cancels any pending notification (no notifications are done from scheduleFlush() afterwards).
+     */
+    public void dispose() {
+        synchronized (lock) {
+            disposed = true;
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+        }
+    }
+
     /**
      * When run, it'll notify clients about the events that were stacked as it makes sense (i.e.: if multiple additions
      * or removals of a file were issued, only the last one will actually be seen by clients).
@@ -162,50 +274,60 @@ public class EventsStackerRunnable implements Runnable {
                 }
             }
         }
-        Map<File, Integer> currentFileToEvent;
-        File currentOverflow;
-        boolean dirExists = true;
-        synchronized (lock) {
-            currentFileToEvent = fileToEvent;
-            fileToEvent = new OrderedMap<File, Integer>();
-            currentOverflow = overflow;
-            overflow = null;
-        }
+        synchronized (runLock) {
+            Map<File, Integer> currentFileToEvent;
+            File currentOverflow;
+            synchronized (lock) {
+                currentFileToEvent = fileToEvent;
+                fileToEvent = new OrderedMap<File, Integer>();
+                currentOverflow = overflow;
+                overflow = null;
+            }
 
-        IFilesystemChangesListener[] listeners = list.getListeners();
-        if (listeners.length == 0) {
-            return;
-        }
+            IFilesystemChangesListener[] listeners = list.getListeners();
+            if (listeners.length == 0) {
+                return;
+            }
 
-        if (isDir) {
-            dirExists = file.exists();
-            if (!dirExists) {
+            FilesystemChanges changes = new FilesystemChanges(file);
+            if (isDir && !file.exists()) {
                 //Special case if we were watching a directory and it no longer exists...
-                for (IFilesystemChangesListener iFilesystemChangesListener : listeners) {
-                    try {
-                        iFilesystemChangesListener.removed(file);
-                    } catch (Exception e) {
-                        Log.log(e);
+                //Directory no longer exists: just notify about it!
+                changes.add(file, REMOVED);
+
+            } else if (currentOverflow != null) {
+                if (isDir) {
+                    rescan(changes);
+                } else {
+                    //Say that the path was removed (and later added again if it exists).
+                    changes.add(file, REMOVED);
+                    if (file.exists()) {
+                        changes.add(file, ADDED);
                     }
                 }
 
-                //Directory no longer exists: just bail out!
-                return;
+            } else {
+                computeChanges(currentFileToEvent, changes);
             }
-        }
 
-        if (currentOverflow != null) {
-            for (IFilesystemChangesListener iFilesystemChangesListener : listeners) {
-                //Say that the dir was removed...
-                File watched = file;
-                iFilesystemChangesListener.removed(watched);
-                if (watched.exists()) {
-                    //And later added again (without notifying about inner contents!!)
-                    iFilesystemChangesListener.added(watched);
+            if (changes.isEmpty()) {
+                return;
+            }
+            for (IFilesystemChangesListener listener : listeners) {
+                if (listener instanceof IFilesystemChangesBatchListener) {
+                    try {
+                        ((IFilesystemChangesBatchListener) listener).changed(changes);
+                    } catch (Exception e) {
+                        Log.log(e);
+                    }
+                } else {
+                    changes.notify(listener);
                 }
             }
-            return;
         }
+    }
+
+    private void computeChanges(Map<File, Integer> currentFileToEvent, FilesystemChanges changes) {
         Set<Entry<File, Integer>> entrySet = currentFileToEvent.entrySet();
         for (Entry<File, Integer> entry : entrySet) {
             Integer value = entry.getValue();
@@ -234,7 +356,7 @@ public class EventsStackerRunnable implements Runnable {
                     }
                 } else {
                     if (lastModifiedTime != null) {
-                        if (value == ADDED && !currKey.exists()) {
+                        if (value != REMOVED && !currKey.exists()) {
                             //we have an add notification from addition of a directory that no longer exists.
                             //Don't notify: just wait for the remove notification.
                             continue;
@@ -249,30 +371,69 @@ public class EventsStackerRunnable implements Runnable {
                         if (!fileFilter.accept(currKey)) {
                             continue;
                         }
+                        if (value == REMOVED) {
+                            internalFileToLastModifiedTime.remove(currKey);
+                        } else {
+                            internalFileToLastModifiedTime.put(currKey, currKey.lastModified());
+                        }
                     }
                 }
             }
+            changes.add(currKey, value);
+        }
+    }
 
-            switch (value) {
-                case ADDED:
-                    for (IFilesystemChangesListener iFilesystemChangesListener : listeners) {
-                        try {
-                            iFilesystemChangesListener.added(currKey);
-                        } catch (Exception e) {
-                            Log.log(e);
-                        }
+    /**
+     * Lists the directory being watched and compares it with the last contents seen to find out what changed.
+     */
+    private void rescan(FilesystemChanges changes) {
+        changes.setRescanned(true);
+        Set<File> found = new HashSet<File>();
+        File[] listFiles = file.listFiles();
+        if (listFiles != null) {
+            for (File f : listFiles) {
+                if (f.isDirectory()) {
+                    if (!dirFilter.accept(f)) {
+                        continue;
                     }
-                    break;
-
-                case REMOVED:
-                    for (IFilesystemChangesListener iFilesystemChangesListener : listeners) {
-                        try {
-                            iFilesystemChangesListener.removed(currKey);
-                        } catch (Exception e) {
-                            Log.log(e);
+                    found.add(f);
+                    long newLast = FileUtils.getLastModifiedTimeFromDir(f, fileFilter, dirFilter,
+                            LEVELS_TO_GET_MODIFIED_TIME);
+                    Long lastModifiedTime = internalDirToLastModifiedTime.put(f, newLast);
+                    if (lastModifiedTime == null) {
+                        if (newLast != 0) {
+                            changes.add(f, ADDED);
                         }
+                    } else if (lastModifiedTime.longValue() != newLast) {
+                        changes.add(f, MODIFIED);
+                    }
+
+                } else if (fileFilter.accept(f)) {
+                    found.add(f);
+                    Long lastModifiedTime = internalFileToLastModifiedTime.put(f, f.lastModified());
+                    if (lastModifiedTime == null) {
+                        changes.add(f, ADDED);
+                    } else if (lastModifiedTime.longValue() != f.lastModified()) {
+                        changes.add(f, MODIFIED);
                     }
-                    break;
+                }
+            }
+        }
+
+        for (Iterator<Entry<File, Long>> it = internalDirToLastModifiedTime.entrySet().iterator(); it.hasNext();) {
+            Entry<File, Long> entry = it.next();
+            if (!found.contains(entry.getKey())) {
+                it.remove();
+                if (entry.getValue().longValue() != DIRECTORY_WITH_NOTHING_INTERESTING) {
+                    changes.add(entry.getKey(), REMOVED);
+                }
+            }
+        }
+        for (Iterator<File> it = internalFileToLastModifiedTime.keySet().iterator(); it.hasNext();) {
+            File f = it.next();
+            if (!found.contains(f)) {
+                it.remove();
+                changes.add(f, REMOVED);
             }
         }
     }
@@ -291,7 +452,19 @@ public class EventsStackerRunnable implements Runnable {
     public void added(File file) {
         synchronized (lock) {
             if (overflow == null) {
-                fileToEvent.put(file, ADDED);
+                Integer last = fileToEvent.get(file);
+                //removed and added again: the file was changed.
+                fileToEvent.put(file, last != null && last == REMOVED ? MODIFIED : ADDED);
+            }
+        }
+    }
+
+    public void modified(File file) {
+        synchronized (lock) {
+            if (overflow == null) {
+                Integer last = fileToEvent.get(file);
+                //added and then modified: it's still an addition.
+                fileToEvent.put(file, last != null && last == ADDED ? ADDED : MODIFIED);
             }
         }
     }
@@ -315,4 +488,4 @@ public class EventsStackerRunnable implements Runnable {
                 .append(";listeners=").appendObject(this.list.getListeners()).append(")").toString();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,121 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.path_watch;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.python.pydev.shared_core.log.Log;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+
+/**
+ * The changes (already coalesced: only the last change of each file is kept) gathered for a watched path
+ * during some time.
+ */
+public final class FilesystemChanges {
+
+    /**
+     * The path being watched.
+     */
+    public final File root;
+
+    private final Set<File> added = new LinkedHashSet<File>();
+    private final Set<File> removed = new LinkedHashSet<File>();
+    private final Set<File> modified = new LinkedHashSet<File>();
+
+    /**
+     * Whether the changes were computed from a rescan of the watched path (after an overflow).
+     */
+    private boolean rescanned;
+
+    public FilesystemChanges(File root) {
+        this.root = root;
+    }
+
+    /*default*/void add(File file, int event) {
+        switch (event) {
+            case EventsStackerRunnable.ADDED:
+                added.add(file);
+                break;
+            case EventsStackerRunnable.REMOVED:
+                removed.add(file);
+                break;
+            case EventsStackerRunnable.MODIFIED:
+                modified.add(file);
+                break;
+        }
+    }
+
+    /*default*/void setRescanned(boolean rescanned) {
+        this.rescanned = rescanned;
+    }
+
+    public Set<File> getAdded() {
+        return Collections.unmodifiableSet(added);
+    }
+
+    public Set<File> getRemoved() {
+        return Collections.unmodifiableSet(removed);
+    }
+
+    public Set<File> getModified() {
+        return Collections.unmodifiableSet(modified);
+    }
+
+    public boolean isRescanned() {
+        return rescanned;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && modified.isEmpty();
+    }
+
+    public int size() {
+        return added.size() + removed.size() + modified.size();
+    }
+
+    /**
+     * Notifies a listener which doesn't deal with batches (modifications are notified as additions).
+     */
+    public void notify(IFilesystemChangesListener listener) {
+        for (File f : removed) {
+            try {
+                listener.removed(f);
+            } catch (Exception e) {
+                Log.log(e);
+            }
+        }
+        for (File f : added) {
+            try {
+                listener.added(f);
+            } catch (Exception e) {
+                Log.log(e);
+            }
+        }
+        for (File f : modified) {
+            try {
+                listener.added(f);
+            } catch (Exception e) {
+                Log.log(e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new FastStringBuffer().append("FilesystemChanges(root=").appendObject(root).append(";added=")
+                .appendObject(added).append(";removed=").appendObject(removed).append(";modified=")
+                .appendObject(modified).append(";rescanned=").append(rescanned).append(")").toString();
+    }
+}
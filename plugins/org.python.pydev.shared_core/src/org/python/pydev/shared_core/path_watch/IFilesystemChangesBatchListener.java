@@ -0,0 +1,25 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.path_watch;
+
+/**
+ *
+ * A listener which receives all the changes gathered for a watched path at once (in which case added(File) and
+ * removed(File) aren't called).
+ */
+public interface IFilesystemChangesBatchListener extends IFilesystemChangesListener {
+
+    /**
+     * @param changes the changes in the watched path (never empty).
+     */
+    void changed(FilesystemChanges changes);
+}
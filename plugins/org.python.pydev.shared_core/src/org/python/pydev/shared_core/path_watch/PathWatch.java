@@ -22,6 +22,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.Assert;
 import org.python.pydev.shared_core.callbacks.ListenerList;
@@ -34,13 +38,39 @@ import org.python.pydev.shared_core.string.FastStringBuffer;
  *
  * Service to watch filesystem changes at a given path. Works with the default watch service from JDK 1.7.
  *
- * Multiple events are stacked and reported as soon as it happens (from a non-main thread).
+ * Multiple events are stacked and reported in batches shortly after they happen (from a thread of an executor
+ * shared among all the instances -- see: EventsStackerRunnable.scheduleFlush()).
  *
  * Note that if a directory being watched is removed, it should notify that the given path was removed
  * (and will remove all the listeners for the path afterwards).
  */
 public class PathWatch {
 
+    private static ScheduledThreadPoolExecutor executor;
+
+    /**
+     * @return the executor used to initialize the stackers and to notify the listeners.
+     */
+    /*default*/static synchronized ScheduledExecutorService getExecutor() {
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(2, new ThreadFactory() {
+
+                private int i;
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "PathWatch events: " + (++i));
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY + 1); //Just a bit above minimum.
+                    return thread;
+                }
+            });
+            executor.setKeepAliveTime(30, TimeUnit.SECONDS);
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
     /**
      * The service that'll give us notifications.
      */
@@ -150,31 +180,32 @@ public class PathWatch {
                         }
 
                         for (WatchEvent<?> e : list) {
-                            Path context = (Path) e.context();
-                            Path resolve = watchedPath.resolve(context);
-                            File file = new File(resolve.toString());
                             Kind<?> kind = e.kind();
                             if (log != null) {
                                 log.append("Event: ").appendObject(e).append('\n');
                             }
 
                             if (kind == StandardWatchEventKinds.OVERFLOW) {
+                                //Note: there's no context in an overflow (it's related to the watched path).
+                                File file = new File(watchedPath.toString());
                                 if (!file.exists()) {
                                     //It may be that it became invalid...
                                     keyToPath.remove(signalledKey);
                                     stacker.key = null;
                                     stacker.removed(file);
-                                } else {
                                 }
-                                //On an overflow, wait a bit and signal that all files being watched were removed,
-                                //do a list and say that the current files were added again.
+                                //On an overflow, the directory is listed again to find out what changed.
                                 stacker.overflow(file);
 
                             } else {
-                                if (kind == StandardWatchEventKinds.ENTRY_CREATE
-                                        || kind == StandardWatchEventKinds.ENTRY_MODIFY) {
+                                Path context = (Path) e.context();
+                                File file = new File(watchedPath.resolve(context).toString());
+                                if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
                                     stacker.added(file);
 
+                                } else if (kind == StandardWatchEventKinds.ENTRY_MODIFY) {
+                                    stacker.modified(file);
+
                                 } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
                                     stacker.removed(file);
 
@@ -189,11 +220,8 @@ public class PathWatch {
                             }
                         }
 
-                        try {
-                            stacker.run();
-                        } catch (Exception e1) {
-                            Log.log(e1);
-                        }
+                        //Notified in the executor (after the burst of events finishes).
+                        stacker.scheduleFlush();
                     }
                 } catch (Exception e) {
                     Log.log(e);
@@ -222,6 +250,7 @@ public class PathWatch {
                 if (list.getListeners().length == 0) {
                     pathToStacker.remove(watchedPath);
                     keyToPath.remove(stacker.key);
+                    stacker.dispose();
                 }
             }
         }
@@ -231,6 +260,9 @@ public class PathWatch {
         disposed = true;
         try {
             synchronized (lock) {
+                for (EventsStackerRunnable stacker : pathToStacker.values()) {
+                    stacker.dispose();
+                }
                 pathToStacker.clear();
                 keyToPath.clear();
                 try {
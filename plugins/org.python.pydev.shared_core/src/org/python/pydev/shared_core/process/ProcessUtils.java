@@ -21,7 +21,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
 import org.python.pydev.shared_core.SharedCorePlugin;
-import org.python.pydev.shared_core.io.ThreadStreamReader;
+import org.python.pydev.shared_core.io.PumpedStreamReader;
 import org.python.pydev.shared_core.log.Log;
 import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.string.StringUtils;
@@ -48,9 +48,10 @@ public class ProcessUtils {
 
             monitor.setTaskName("Reading output...");
             monitor.worked(5);
-            //No need to synchronize as we'll waitFor() the process before getting the contents.
-            ThreadStreamReader std = new ThreadStreamReader(process.getInputStream(), false, encoding);
-            ThreadStreamReader err = new ThreadStreamReader(process.getErrorStream(), false, encoding);
+            PumpedStreamReader std = new PumpedStreamReader(process, process.getInputStream(), encoding,
+                    PumpedStreamReader.UNBOUNDED, false);
+            PumpedStreamReader err = new PumpedStreamReader(process, process.getErrorStream(), encoding,
+                    PumpedStreamReader.UNBOUNDED, false);
 
             std.start();
             err.start();
@@ -68,12 +69,10 @@ public class ProcessUtils {
             }
 
             try {
-                //just to see if we get something after the process finishes (and let the other threads run).
-                Object sync = new Object();
-                synchronized (sync) {
-                    sync.wait(50);
-                }
-            } catch (Exception e) {
+                //get what's still in the pipes after the process finishes.
+                std.waitFinished(1000);
+                err.waitFinished(1000);
+            } catch (InterruptedException e) {
                 //ignore
             }
             return new Tuple<String, String>(std.getContents(), err.getContents());
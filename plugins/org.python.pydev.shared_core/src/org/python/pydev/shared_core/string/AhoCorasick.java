@@ -0,0 +1,186 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.string;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton to find all the occurrences of a set of patterns in a single pass over a string (instead
+ * of doing an indexOf for each pattern).
+ *
+ * The automaton is immutable after created (so, it may be shared among threads).
+ */
+public final class AhoCorasick {
+
+    public static interface IMatchListener {
+
+        /**
+         * @param patternIndex the index of the pattern found (in the patterns passed in the constructor).
+         * @param start the offset where the pattern starts.
+         */
+        void onMatch(int patternIndex, int start);
+    }
+
+    private final String[] patterns;
+
+    /**
+     * Sorted chars which appear in the patterns (any other char goes back to the root).
+     */
+    private final char[] alphabet;
+
+    /**
+     * Index in the alphabet for ascii chars (-1 if not in the alphabet).
+     */
+    private final int[] asciiIndex = new int[128];
+
+    /**
+     * transitions[state][index of char in alphabet] = next state (already considering the failure links).
+     */
+    private final int[][] transitions;
+
+    /**
+     * Patterns which end at each state (null if none).
+     */
+    private final int[][] outputs;
+
+    /**
+     * @param patterns the patterns to be found (empty patterns are ignored).
+     */
+    public AhoCorasick(String[] patterns) {
+        this.patterns = patterns.clone();
+
+        FastStringBuffer chars = new FastStringBuffer();
+        for (String pattern : patterns) {
+            chars.append(pattern);
+        }
+        char[] all = chars.toCharArray();
+        Arrays.sort(all);
+        int size = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (size == 0 || all[size - 1] != all[i]) {
+                all[size++] = all[i];
+            }
+        }
+        alphabet = Arrays.copyOf(all, size);
+        Arrays.fill(asciiIndex, -1);
+        for (int i = 0; i < size && alphabet[i] < 128; i++) {
+            asciiIndex[alphabet[i]] = i;
+        }
+
+        //Build the trie.
+        List<int[]> trie = new ArrayList<int[]>();
+        List<int[]> trieOutputs = new ArrayList<int[]>();
+        trie.add(newState(size));
+        trieOutputs.add(null);
+        for (int p = 0; p < patterns.length; p++) {
+            String pattern = patterns[p];
+            if (pattern.length() == 0) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = Arrays.binarySearch(alphabet, pattern.charAt(i));
+                if (trie.get(state)[c] == -1) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(newState(size));
+                    trieOutputs.add(null);
+                }
+                state = trie.get(state)[c];
+            }
+            trieOutputs.set(state, append(trieOutputs.get(state), p));
+        }
+
+        //Compute the failure links in breadth-first order, filling the missing transitions with the transitions of
+        //the failure state (so that the search never has to follow failure links).
+        int states = trie.size();
+        transitions = trie.toArray(new int[states][]);
+        outputs = trieOutputs.toArray(new int[states][]);
+        int[] fail = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < size; c++) {
+            int next = transitions[0][c];
+            if (next == -1) {
+                transitions[0][c] = 0;
+            } else {
+                fail[next] = 0;
+                queue[tail++] = next;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            int[] failOutputs = outputs[fail[state]];
+            if (failOutputs != null) {
+                for (int p : failOutputs) {
+                    outputs[state] = append(outputs[state], p);
+                }
+            }
+            for (int c = 0; c < size; c++) {
+                int next = transitions[state][c];
+                if (next == -1) {
+                    transitions[state][c] = transitions[fail[state]][c];
+                } else {
+                    fail[next] = transitions[fail[state]][c];
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    private static int[] newState(int alphabetSize) {
+        int[] state = new int[alphabetSize];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private static int[] append(int[] array, int value) {
+        if (array == null) {
+            return new int[] { value };
+        }
+        int[] ret = Arrays.copyOf(array, array.length + 1);
+        ret[array.length] = value;
+        return ret;
+    }
+
+    public String getPattern(int patternIndex) {
+        return patterns[patternIndex];
+    }
+
+    /**
+     * Notifies the listener of all the occurrences of the patterns in s[start:end] (in the order their end is
+     * found -- overlapping occurrences are also reported).
+     */
+    public void search(String s, int start, int end, IMatchListener listener) {
+        if (alphabet.length == 0) {
+            return;
+        }
+        int state = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            int index = c < 128 ? asciiIndex[c] : Arrays.binarySearch(alphabet, c);
+            if (index < 0) {
+                state = 0;
+                continue;
+            }
+            state = transitions[state][index];
+            int[] found = outputs[state];
+            if (found != null) {
+                for (int p : found) {
+                    listener.onMatch(p, i - patterns[p].length() + 1);
+                }
+            }
+        }
+    }
+}
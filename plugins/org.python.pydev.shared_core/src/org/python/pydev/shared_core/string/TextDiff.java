@@ -0,0 +1,381 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.string;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the minimal set of edits needed to transform a string into another one (used to apply the results of
+ * the formatter/code transformations to an opened document changing only what's actually different).
+ *
+ * The diff is first done on lines (Myers' O(ND) algorithm after removing the common leading/trailing lines) and
+ * each changed block of lines is then refined with a diff on tokens (identifiers, whitespaces and other chars), so
+ * that changing the spacing around an operator only touches the spaces.
+ */
+public final class TextDiff {
+
+    /**
+     * A replacement to be done in the original string (offsets are always relative to the original string).
+     */
+    public static final class Edit {
+
+        public final int offset;
+        public final int length;
+        public final String text;
+
+        public Edit(int offset, int length, String text) {
+            this.offset = offset;
+            this.length = length;
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return "Edit[" + offset + ", " + length + ", '" + text + "']";
+        }
+    }
+
+    /**
+     * If the edit distance of the lines is higher than this, the changed lines are handled as a single block.
+     */
+    private static final int MAX_LINES_DISTANCE = 2000;
+
+    /**
+     * If the edit distance of the tokens in a changed block is higher than this, only the common prefix/suffix
+     * of the block is kept.
+     */
+    private static final int MAX_TOKENS_DISTANCE = 500;
+
+    /**
+     * Blocks bigger than this (in chars) are not refined with a diff on tokens.
+     */
+    private static final int MAX_CHARS_TO_REFINE = 20000;
+
+    private TextDiff() {
+    }
+
+    /**
+     * @return the edits (sorted by offset and not overlapping) which transform the original contents into the
+     * new contents (an empty list if they're equal).
+     */
+    public static List<Edit> computeEdits(String original, String changed) {
+        List<Edit> edits = new ArrayList<Edit>();
+        if (original.equals(changed)) {
+            return edits;
+        }
+        List<Integer> originalLines = getLineStarts(original);
+        List<Integer> changedLines = getLineStarts(changed);
+        int[][] ids = toIds(getSegments(original, originalLines), getSegments(changed, changedLines));
+
+        List<int[]> hunks = diff(ids[0], ids[1], MAX_LINES_DISTANCE);
+        if (hunks == null) {
+            //Too many changes: handle all that's between the common leading/trailing lines as a single block.
+            hunks = new ArrayList<int[]>();
+            hunks.add(getChangedBlock(ids[0], ids[1]));
+        }
+        for (int[] hunk : hunks) {
+            int lines = hunk[1] - hunk[0];
+            if (lines > 1 && lines == hunk[3] - hunk[2]) {
+                //Same number of lines (i.e.: usual for the formatter): diff each line with its counterpart.
+                for (int i = 0; i < lines; i++) {
+                    addRefined(original, changed, originalLines, changedLines, hunk[0] + i, hunk[0] + i + 1,
+                            hunk[2] + i, hunk[2] + i + 1, edits);
+                }
+            } else {
+                addRefined(original, changed, originalLines, changedLines, hunk[0], hunk[1], hunk[2], hunk[3],
+                        edits);
+            }
+        }
+        return edits;
+    }
+
+    private static void addRefined(String original, String changed, List<Integer> originalLines,
+            List<Integer> changedLines, int aStart, int aEnd, int bStart, int bEnd, List<Edit> edits) {
+        String newText = changed.substring(changedLines.get(bStart), changedLines.get(bEnd));
+        refine(original, originalLines.get(aStart), originalLines.get(aEnd), newText, edits);
+    }
+
+    /**
+     * @return a new string with the given edits applied to the original string.
+     */
+    public static String apply(String original, List<Edit> edits) {
+        FastStringBuffer buf = new FastStringBuffer(original.length() + 16);
+        int last = 0;
+        for (Edit edit : edits) {
+            buf.append(original.substring(last, edit.offset)).append(edit.text);
+            last = edit.offset + edit.length;
+        }
+        buf.append(original.substring(last));
+        return buf.toString();
+    }
+
+    /**
+     * Adds the edits to replace the original[start:end] with the new text (diffing the tokens if it's not too big).
+     */
+    private static void refine(String original, int start, int end, String newText, List<Edit> edits) {
+        String oldText = original.substring(start, end);
+        if (oldText.length() <= MAX_CHARS_TO_REFINE && newText.length() <= MAX_CHARS_TO_REFINE) {
+            List<Integer> oldTokens = getTokenStarts(oldText);
+            List<Integer> newTokens = getTokenStarts(newText);
+            int[][] ids = toIds(getSegments(oldText, oldTokens), getSegments(newText, newTokens));
+            List<int[]> hunks = diff(ids[0], ids[1], MAX_TOKENS_DISTANCE);
+            if (hunks != null) {
+                for (int[] hunk : hunks) {
+                    addTrimmed(original, start + oldTokens.get(hunk[0]), start + oldTokens.get(hunk[1]),
+                            newText.substring(newTokens.get(hunk[2]), newTokens.get(hunk[3])), edits);
+                }
+                return;
+            }
+        }
+        addTrimmed(original, start, end, newText, edits);
+    }
+
+    /**
+     * Adds an edit replacing original[start:end] with the new text without the chars which are equal at the
+     * start/end.
+     */
+    private static void addTrimmed(String original, int start, int end, String newText, List<Edit> edits) {
+        int newStart = 0;
+        int newEnd = newText.length();
+        while (start < end && newStart < newEnd && original.charAt(start) == newText.charAt(newStart)) {
+            start++;
+            newStart++;
+        }
+        while (start < end && newStart < newEnd && original.charAt(end - 1) == newText.charAt(newEnd - 1)) {
+            end--;
+            newEnd--;
+        }
+        if (start == end && newStart == newEnd) {
+            return;
+        }
+        edits.add(new Edit(start, end - start, newText.substring(newStart, newEnd)));
+    }
+
+    /**
+     * @return the offsets where each line starts (the delimiter is kept in the line) with the string length
+     * added as the last element.
+     */
+    private static List<Integer> getLineStarts(String s) {
+        List<Integer> starts = new ArrayList<Integer>();
+        starts.add(0);
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c == '\r') {
+                if (i + 1 < len && s.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                starts.add(i + 1);
+            } else if (c == '\n') {
+                starts.add(i + 1);
+            }
+        }
+        if (starts.get(starts.size() - 1).intValue() != len) {
+            starts.add(len);
+        }
+        return starts;
+    }
+
+    /**
+     * @return the offsets where each token starts with the string length added as the last element. Tokens
+     * are sequences of identifier chars, sequences of spaces/tabs or any other single char.
+     */
+    private static List<Integer> getTokenStarts(String s) {
+        List<Integer> starts = new ArrayList<Integer>();
+        int len = s.length();
+        int i = 0;
+        while (i < len) {
+            starts.add(i);
+            char c = s.charAt(i);
+            i++;
+            if (Character.isJavaIdentifierPart(c)) {
+                while (i < len && Character.isJavaIdentifierPart(s.charAt(i))) {
+                    i++;
+                }
+            } else if (c == ' ' || c == '\t') {
+                while (i < len && (s.charAt(i) == ' ' || s.charAt(i) == '\t')) {
+                    i++;
+                }
+            }
+        }
+        starts.add(len);
+        return starts;
+    }
+
+    private static List<String> getSegments(String s, List<Integer> starts) {
+        int size = starts.size() - 1;
+        List<String> segments = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            segments.add(s.substring(starts.get(i), starts.get(i + 1)));
+        }
+        return segments;
+    }
+
+    /**
+     * @return the segments mapped to ints (equal segments have the same id) so that comparing them is cheap.
+     */
+    private static int[][] toIds(List<String> a, List<String> b) {
+        Map<String, Integer> map = new HashMap<String, Integer>();
+        return new int[][] { toIds(a, map), toIds(b, map) };
+    }
+
+    private static int[] toIds(List<String> segments, Map<String, Integer> map) {
+        int[] ids = new int[segments.size()];
+        for (int i = 0; i < ids.length; i++) {
+            String s = segments.get(i);
+            Integer id = map.get(s);
+            if (id == null) {
+                id = map.size();
+                map.put(s, id);
+            }
+            ids[i] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * Myers' diff.
+     *
+     * @return a list with the changed blocks (each as [aStart, aEnd, bStart, bEnd]) or null if the edit distance
+     * is higher than maxD.
+     */
+    static List<int[]> diff(int[] a, int[] b, int maxD) {
+        List<int[]> hunks = new ArrayList<int[]>();
+        int[] block = getChangedBlock(a, b);
+        int prefix = block[0];
+        int aLen = block[1] - prefix;
+        int bLen = block[3] - prefix;
+        if (aLen == 0 && bLen == 0) {
+            return hunks;
+        }
+        if (aLen == 0 || bLen == 0) {
+            hunks.add(block);
+            return hunks;
+        }
+
+        boolean[] deleted = new boolean[aLen];
+        boolean[] inserted = new boolean[bLen];
+        if (!myers(a, b, prefix, aLen, bLen, maxD, deleted, inserted)) {
+            return null;
+        }
+
+        int i = 0;
+        int j = 0;
+        while (i < aLen || j < bLen) {
+            if (i < aLen && j < bLen && !deleted[i] && !inserted[j]) {
+                i++;
+                j++;
+                continue;
+            }
+            int startI = i;
+            int startJ = j;
+            while ((i < aLen && deleted[i]) || (j < bLen && inserted[j])) {
+                while (i < aLen && deleted[i]) {
+                    i++;
+                }
+                while (j < bLen && inserted[j]) {
+                    j++;
+                }
+            }
+            hunks.add(new int[] { prefix + startI, prefix + i, prefix + startJ, prefix + j });
+        }
+        return hunks;
+    }
+
+    /**
+     * @return the block without the common prefix/suffix as [aStart, aEnd, bStart, bEnd].
+     */
+    private static int[] getChangedBlock(int[] a, int[] b) {
+        int n = a.length;
+        int m = b.length;
+        int prefix = 0;
+        while (prefix < n && prefix < m && a[prefix] == b[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < n - prefix && suffix < m - prefix && a[n - 1 - suffix] == b[m - 1 - suffix]) {
+            suffix++;
+        }
+        return new int[] { prefix, n - suffix, prefix, m - suffix };
+    }
+
+    /**
+     * Marks the deleted/inserted elements of a[offset:offset+n] and b[offset:offset+m].
+     *
+     * @return false if the edit distance is higher than maxD.
+     */
+    private static boolean myers(int[] a, int[] b, int offset, int n, int m, int maxD, boolean[] deleted,
+            boolean[] inserted) {
+        int max = Math.min(n + m, maxD);
+        int vOffset = max + 1;
+        int[] v = new int[2 * max + 3];
+        //Keeps v[-d-1:d+1] for each d to backtrack the path later on.
+        List<int[]> trace = new ArrayList<int[]>();
+
+        for (int d = 0; d <= max; d++) {
+            int[] snapshot = new int[2 * d + 3];
+            System.arraycopy(v, vOffset - d - 1, snapshot, 0, snapshot.length);
+            trace.add(snapshot);
+
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && v[vOffset + k - 1] < v[vOffset + k + 1])) {
+                    x = v[vOffset + k + 1];
+                } else {
+                    x = v[vOffset + k - 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && a[offset + x] == b[offset + y]) {
+                    x++;
+                    y++;
+                }
+                v[vOffset + k] = x;
+                if (x >= n && y >= m) {
+                    backtrack(trace, n, m, deleted, inserted);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void backtrack(List<int[]> trace, int n, int m, boolean[] deleted, boolean[] inserted) {
+        int x = n;
+        int y = m;
+        for (int d = trace.size() - 1; d > 0; d--) {
+            int[] v = trace.get(d); //v[-d-1:d+1] before step d
+            int k = x - y;
+            int prevK;
+            if (k == -d || (k != d && v[k - 1 + d + 1] < v[k + 1 + d + 1])) {
+                prevK = k + 1;
+            } else {
+                prevK = k - 1;
+            }
+            int prevX = v[prevK + d + 1];
+            int prevY = prevX - prevK;
+            while (x > prevX && y > prevY) {
+                x--;
+                y--;
+            }
+            if (x == prevX) {
+                inserted[prevY] = true;
+            } else {
+                deleted[prevX] = true;
+            }
+            x = prevX;
+            y = prevY;
+        }
+    }
+}
@@ -11,13 +11,18 @@ import java.util.List;
 import java.util.Set;
 
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentRewriteSession;
+import org.eclipse.jface.text.DocumentRewriteSessionType;
 import org.eclipse.jface.text.FindReplaceDocumentAdapter;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextSelection;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextSelection;
 import org.eclipse.jface.text.TextUtilities;
+import org.eclipse.text.undo.DocumentUndoManagerRegistry;
+import org.eclipse.text.undo.IDocumentUndoManager;
 import org.python.pydev.shared_core.log.Log;
 import org.python.pydev.shared_core.structure.Tuple;
 
@@ -1049,6 +1054,15 @@ public class TextSelectionUtils {
     }
 
     /**
+     * If more edits than this are needed in setOnlyDifferentCode, they're applied in a rewrite session.
+     */
+    private static final int MAX_EDITS_WITHOUT_REWRITE_SESSION = 500;
+
+    /**
+     * Changes the document so that its contents become the new contents, replacing only the parts which are
+     * actually different (so that markers, folding and the undo are kept as much as possible). All the replacements
+     * are done as a single undoable change.
+     *
      * @param docContents should be == doc.get() (just optimizing if the user already did that before).
      */
     public static void setOnlyDifferentCode(IDocument doc, String docContents, String newContents) {
@@ -1056,31 +1070,40 @@ public class TextSelectionUtils {
         if (contents == null) {
             contents = doc.get();
         }
-        int minorLen;
-        int contentsLen = contents.length();
-        if (contentsLen > newContents.length()) {
-            minorLen = newContents.length();
-        } else {
-            minorLen = contentsLen;
-        }
-        int applyFrom = 0;
-        for (; applyFrom < minorLen; applyFrom++) {
-            if (contents.charAt(applyFrom) == newContents.charAt(applyFrom)) {
-                continue;
-            } else {
-                //different
-                break;
-            }
-        }
-
-        if (applyFrom >= contentsLen) {
+        List<TextDiff.Edit> edits = TextDiff.computeEdits(contents, newContents);
+        if (edits.size() == 0) {
             //Document is the same.
             return;
         }
+        IDocumentUndoManager undoManager = DocumentUndoManagerRegistry.getDocumentUndoManager(doc);
+        if (undoManager != null) {
+            undoManager.beginCompoundChange();
+        }
+        //Only use a rewrite session for many changes (as it makes the partitioning/line information be
+        //recomputed for the whole document when it's stopped).
+        DocumentRewriteSession session = null;
+        if (edits.size() > MAX_EDITS_WITHOUT_REWRITE_SESSION && doc instanceof IDocumentExtension4) {
+            IDocumentExtension4 ext = (IDocumentExtension4) doc;
+            if (ext.getActiveRewriteSession() == null) {
+                session = ext.startRewriteSession(DocumentRewriteSessionType.STRICTLY_SEQUENTIAL);
+            }
+        }
         try {
-            doc.replace(applyFrom, contentsLen - applyFrom, newContents.substring(applyFrom));
+            //Edits are relative to the original contents: apply them in order keeping the offset delta.
+            int delta = 0;
+            for (TextDiff.Edit edit : edits) {
+                doc.replace(edit.offset + delta, edit.length, edit.text);
+                delta += edit.text.length() - edit.length;
+            }
         } catch (BadLocationException e) {
             Log.log(e);
+        } finally {
+            if (session != null) {
+                ((IDocumentExtension4) doc).stopRewriteSession(session);
+            }
+            if (undoManager != null) {
+                undoManager.endCompoundChange();
+            }
         }
     }
 
@@ -0,0 +1,32 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.benchmark;
+
+/**
+ * A piece of code to be measured by the {@link BenchmarkRunner}.
+ */
+public abstract class Benchmark {
+
+    public final String name;
+
+    public Benchmark(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Executes one operation of the benchmark.
+     *
+     * @return something computed by the operation (it's consumed by the runner so that the work done can't be
+     * optimized away by the JIT).
+     */
+    public abstract Object run() throws Exception;
+}
@@ -0,0 +1,295 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.python.pydev.shared_core.string.FastStringBuffer;
+import org.python.pydev.shared_core.string.StringUtils;
+
+/**
+ * Headless runner for {@link Benchmark}s: each benchmark has some warmup iterations (so that the JIT can do its
+ * work) and then measured iterations, reporting the throughput (operations/second) and the bytes allocated by
+ * each operation (when the VM is able to provide that information).
+ *
+ * The results may be saved as a baseline and later runs compared against it.
+ */
+public class BenchmarkRunner {
+
+    private static final String OPS_PER_SECOND = ".ops_per_second";
+    private static final String BYTES_PER_OP = ".bytes_per_op";
+
+    public static class Result {
+
+        public final String name;
+
+        /**
+         * Mean of the measured iterations.
+         */
+        public final double opsPerSecond;
+
+        /**
+         * Standard deviation of the measured iterations.
+         */
+        public final double opsPerSecondError;
+
+        /**
+         * -1 if not available.
+         */
+        public final long bytesPerOp;
+
+        public Result(String name, double opsPerSecond, double opsPerSecondError, long bytesPerOp) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.opsPerSecondError = opsPerSecondError;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return StringUtils.format("%s: %s ops/s (+- %s) %s bytes/op", name, format(opsPerSecond),
+                    format(opsPerSecondError), bytesPerOp >= 0 ? String.valueOf(bytesPerOp) : "n/a");
+        }
+    }
+
+    public int warmupIterations = 3;
+    public int measurementIterations = 5;
+    public long iterationMillis = 1000;
+
+    /**
+     * Consumes the results of the benchmarks (so that they're not considered dead code).
+     */
+    private int sink;
+
+    public List<Result> run(List<Benchmark> benchmarks) throws Exception {
+        List<Result> results = new ArrayList<Result>(benchmarks.size());
+        for (Benchmark benchmark : benchmarks) {
+            Result result = run(benchmark);
+            System.out.println(result);
+            results.add(result);
+        }
+        return results;
+    }
+
+    public Result run(Benchmark benchmark) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(benchmark);
+        }
+
+        double[] opsPerSecond = new double[measurementIterations];
+        long totalOps = 0;
+        long totalBytes = 0;
+        boolean bytesAvailable = true;
+        for (int i = 0; i < measurementIterations; i++) {
+            long bytesBefore = getAllocatedBytes();
+            long start = System.nanoTime();
+            long ops = runIteration(benchmark);
+            long elapsed = System.nanoTime() - start;
+            long bytesAfter = getAllocatedBytes();
+
+            opsPerSecond[i] = ops / (Math.max(elapsed, 1) / 1000000000.0);
+            totalOps += ops;
+            if (bytesBefore < 0 || bytesAfter < 0) {
+                bytesAvailable = false;
+            } else {
+                totalBytes += bytesAfter - bytesBefore;
+            }
+        }
+
+        double mean = 0;
+        for (double d : opsPerSecond) {
+            mean += d;
+        }
+        mean /= Math.max(measurementIterations, 1);
+        double variance = 0;
+        for (double d : opsPerSecond) {
+            variance += (d - mean) * (d - mean);
+        }
+        double error = measurementIterations > 1 ? Math.sqrt(variance / (measurementIterations - 1)) : 0;
+        long bytesPerOp = bytesAvailable && totalOps > 0 ? totalBytes / totalOps : -1;
+        return new Result(benchmark.name, mean, error, bytesPerOp);
+    }
+
+    /**
+     * Runs the benchmark for (at least) the configured time.
+     *
+     * @return the number of operations executed.
+     */
+    private long runIteration(Benchmark benchmark) throws Exception {
+        long ops = 0;
+        long end = System.nanoTime() + iterationMillis * 1000000L;
+        do {
+            Object o = benchmark.run();
+            if (o != null) {
+                sink += System.identityHashCode(o);
+            }
+            ops++;
+        } while (System.nanoTime() < end);
+        return ops;
+    }
+
+    /**
+     * @return the bytes allocated so far by the current thread or -1 if the VM doesn't provide it.
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    public static void save(List<Result> results, File file) throws IOException {
+        Properties properties = new Properties();
+        for (Result result : results) {
+            properties.setProperty(result.name + OPS_PER_SECOND, String.valueOf(result.opsPerSecond));
+            properties.setProperty(result.name + BYTES_PER_OP, String.valueOf(result.bytesPerOp));
+        }
+        OutputStream out = new FileOutputStream(file);
+        try {
+            properties.store(out, "Benchmark baseline");
+        } finally {
+            out.close();
+        }
+    }
+
+    public static List<Result> load(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+        List<Result> results = new ArrayList<Result>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.endsWith(OPS_PER_SECOND)) {
+                String name = key.substring(0, key.length() - OPS_PER_SECOND.length());
+                String bytes = properties.getProperty(name + BYTES_PER_OP, "-1");
+                results.add(new Result(name, Double.parseDouble(properties.getProperty(key)), 0,
+                        Long.parseLong(bytes)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Compares the current results against a baseline.
+     *
+     * @param tolerance the relative difference accepted (i.e.: 0.1 means that a throughput up to 10% lower or an
+     * allocation up to 10% higher is still not considered a regression).
+     * @param report the comparison is written to it.
+     * @return the names of the benchmarks which regressed.
+     */
+    public static List<String> compare(List<Result> baseline, List<Result> current, double tolerance,
+            FastStringBuffer report) {
+        List<String> regressions = new ArrayList<String>();
+        for (Result result : current) {
+            Result base = null;
+            for (Result r : baseline) {
+                if (r.name.equals(result.name)) {
+                    base = r;
+                    break;
+                }
+            }
+            if (base == null) {
+                report.append(result.name).append(": not in baseline\n");
+                continue;
+            }
+            boolean regressed = false;
+            double opsRatio = base.opsPerSecond > 0 ? result.opsPerSecond / base.opsPerSecond : 1;
+            report.append(result.name).append(": throughput ").append(format(opsRatio * 100)).append("% of baseline");
+            if (opsRatio < 1 - tolerance) {
+                report.append(" (REGRESSION)");
+                regressed = true;
+            }
+            if (base.bytesPerOp > 0 && result.bytesPerOp >= 0) {
+                double bytesRatio = result.bytesPerOp / (double) base.bytesPerOp;
+                report.append(", allocation ").append(format(bytesRatio * 100)).append("% of baseline");
+                if (bytesRatio > 1 + tolerance) {
+                    report.append(" (REGRESSION)");
+                    regressed = true;
+                }
+            }
+            report.append('\n');
+            if (regressed) {
+                regressions.add(result.name);
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Entry point for the benchmark mains: runs the benchmarks and saves them (--save file) and/or compares them
+     * to a baseline (--baseline file [--tolerance 0.1]). Also accepts --warmup n, --iterations n and --millis n.
+     *
+     * @return false if some benchmark regressed compared to the baseline.
+     */
+    public static boolean runFromArgs(String[] args, List<Benchmark> benchmarks) throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        File save = null;
+        File baseline = null;
+        double tolerance = 0.1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String arg = args[i];
+            String value = args[i + 1];
+            if (arg.equals("--save")) {
+                save = new File(value);
+            } else if (arg.equals("--baseline")) {
+                baseline = new File(value);
+            } else if (arg.equals("--tolerance")) {
+                tolerance = Double.parseDouble(value);
+            } else if (arg.equals("--warmup")) {
+                runner.warmupIterations = Integer.parseInt(value);
+            } else if (arg.equals("--iterations")) {
+                runner.measurementIterations = Integer.parseInt(value);
+            } else if (arg.equals("--millis")) {
+                runner.iterationMillis = Long.parseLong(value);
+            } else {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+        }
+
+        List<Result> results = runner.run(benchmarks);
+        if (save != null) {
+            save(results, save);
+            System.out.println("Results saved to: " + save);
+        }
+        if (baseline != null) {
+            FastStringBuffer report = new FastStringBuffer();
+            List<String> regressions = compare(load(baseline), results, tolerance, report);
+            System.out.println(report);
+            if (regressions.size() > 0) {
+                System.out.println("Regressions found: " + regressions);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String format(double d) {
+        return String.valueOf(Math.round(d * 100) / 100.0);
+    }
+}
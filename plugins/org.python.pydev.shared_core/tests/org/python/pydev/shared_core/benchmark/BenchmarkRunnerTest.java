@@ -0,0 +1,73 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.python.pydev.shared_core.benchmark.BenchmarkRunner.Result;
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+
+public class BenchmarkRunnerTest extends TestCase {
+
+    public void testRun() throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        runner.warmupIterations = 1;
+        runner.measurementIterations = 2;
+        runner.iterationMillis = 20;
+
+        final int[] calls = new int[1];
+        Result result = runner.run(new Benchmark("alloc") {
+
+            @Override
+            public Object run() throws Exception {
+                calls[0]++;
+                return new byte[1024];
+            }
+        });
+        assertEquals("alloc", result.name);
+        assertTrue(calls[0] > 3);
+        assertTrue(result.opsPerSecond > 0);
+        if (result.bytesPerOp != -1) {
+            assertTrue("Bytes/op: " + result.bytesPerOp, result.bytesPerOp >= 1024);
+        }
+    }
+
+    public void testSaveLoadCompare() throws Exception {
+        File file = File.createTempFile("benchmark", ".properties");
+        try {
+            BenchmarkRunner.save(Arrays.asList(new Result("parse", 100, 1, 1000), new Result("index", 50, 1, -1)),
+                    file);
+            List<Result> baseline = BenchmarkRunner.load(file);
+            assertEquals(2, baseline.size());
+
+            List<Result> current = new ArrayList<Result>();
+            current.add(new Result("parse", 95, 1, 1050)); //inside the tolerance
+            current.add(new Result("index", 40, 1, 10)); //slower
+            current.add(new Result("new", 10, 1, 10)); //not in the baseline
+            FastStringBuffer report = new FastStringBuffer();
+            assertEquals(Arrays.asList("index"), BenchmarkRunner.compare(baseline, current, 0.1, report));
+            assertTrue(report.toString(), report.toString().contains("new: not in baseline"));
+
+            current.set(0, new Result("parse", 120, 1, 2000)); //faster but allocating more
+            assertEquals(Arrays.asList("parse", "index"),
+                    BenchmarkRunner.compare(baseline, current, 0.1, new FastStringBuffer()));
+        } finally {
+            FileUtils.deleteFile(file);
+        }
+    }
+}
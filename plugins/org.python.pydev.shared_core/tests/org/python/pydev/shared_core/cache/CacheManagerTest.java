@@ -0,0 +1,113 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.cache;
+
+import junit.framework.TestCase;
+
+public class CacheManagerTest extends TestCase {
+
+    private static class ManagedLRUCache implements IManagedCache {
+
+        private final LRUCache<Integer, Integer> cache = new LRUCache<Integer, Integer>(100);
+
+        @Override
+        public String getCacheName() {
+            return "Test cache";
+        }
+
+        @Override
+        public synchronized int getEntriesCount() {
+            return cache.size();
+        }
+
+        @Override
+        public long getSizeEstimate() {
+            return getEntriesCount() * 10;
+        }
+
+        @Override
+        public synchronized void evict(double fraction) {
+            cache.evict(fraction);
+        }
+    }
+
+    public void testEntriesToEvict() throws Exception {
+        assertEquals(0, CacheManager.getEntriesToEvict(10, 0));
+        assertEquals(1, CacheManager.getEntriesToEvict(10, 0.01));
+        assertEquals(3, CacheManager.getEntriesToEvict(10, 0.25));
+        assertEquals(10, CacheManager.getEntriesToEvict(10, 1));
+        assertEquals(0, CacheManager.getEntriesToEvict(0, 0.5));
+    }
+
+    public void testFractionToEvict() throws Exception {
+        assertEquals(0.0, CacheManager.getFractionToEvict(0.5, 0.75));
+        assertEquals(0.1, CacheManager.getFractionToEvict(0.76, 0.75)); //min
+        assertEquals(0.2, CacheManager.getFractionToEvict(0.8, 0.75), 0.0001);
+        assertEquals(0.5, CacheManager.getFractionToEvict(0.99, 0.75)); //max
+    }
+
+    public void testEvict() throws Exception {
+        ManagedLRUCache cache1 = new ManagedLRUCache();
+        ManagedLRUCache cache2 = new ManagedLRUCache();
+        IManagedCache failing = new IManagedCache() {
+
+            @Override
+            public String getCacheName() {
+                return "Failing cache";
+            }
+
+            @Override
+            public int getEntriesCount() {
+                return 0;
+            }
+
+            @Override
+            public long getSizeEstimate() {
+                return 0;
+            }
+
+            @Override
+            public void evict(double fraction) {
+                throw new RuntimeException("Expected in test");
+            }
+        };
+        CacheManager.register(cache1);
+        CacheManager.register(failing);
+        CacheManager.register(cache2);
+        try {
+            for (int i = 0; i < 10; i++) {
+                cache1.cache.add(i, i);
+            }
+            for (int i = 0; i < 4; i++) {
+                cache2.cache.add(i, i);
+            }
+            assertTrue(CacheManager.getCaches().contains(cache1));
+            assertTrue(CacheManager.getSizeEstimate() >= 140);
+
+            CacheManager.evict(0.5);
+            assertEquals(5, cache1.getEntriesCount());
+            assertEquals(2, cache2.getEntriesCount());
+            //the eldest entries are removed first
+            assertNull(cache1.cache.getObj(4));
+            assertEquals(Integer.valueOf(5), cache1.cache.getObj(5));
+
+            CacheManager.evict(1);
+            assertEquals(0, cache1.getEntriesCount());
+            assertEquals(0, cache2.getEntriesCount());
+        } finally {
+            CacheManager.unregister(cache1);
+            CacheManager.unregister(failing);
+            CacheManager.unregister(cache2);
+        }
+        assertFalse(CacheManager.getCaches().contains(cache1));
+    }
+}
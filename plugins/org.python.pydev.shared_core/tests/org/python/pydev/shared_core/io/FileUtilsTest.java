@@ -105,4 +105,15 @@ public class FileUtilsTest extends TestCase {
         lastModifiedTimeFromDir = FileUtils.getLastModifiedTimeFromDir(baseDir, acceptOnlyTxt, acceptOnlyDir1, 2);
         assertEquals(lastModifiedTimeFromDir, f1a.lastModified());
     }
+
+    public void testWriteBytesToFileAtomically() throws Exception {
+        baseDir.mkdir();
+        File f = new File(baseDir, "f.txt");
+        FileUtils.writeBytesToFileAtomically("initial".getBytes(), f);
+        assertEquals("initial", FileUtils.getFileContents(f));
+
+        FileUtils.writeBytesToFileAtomically("replaced".getBytes(), f);
+        assertEquals("replaced", FileUtils.getFileContents(f));
+        assertFalse(new File(baseDir, "f.txt.tmp").exists());
+    }
 }
@@ -0,0 +1,286 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.python.pydev.shared_core.string.FastStringBuffer;
+import org.python.pydev.shared_core.utils.Timer;
+
+public class StreamPumpTest extends TestCase {
+
+    /**
+     * Child process which writes the given number of lines to stdout and stderr.
+     */
+    public static class Chatty {
+
+        public static void main(String[] args) {
+            int lines = Integer.parseInt(args[0]);
+            PrintStream out = System.out;
+            PrintStream err = System.err;
+            for (int i = 0; i < lines; i++) {
+                out.print(getLine(i));
+                if (i % 10 == 0) {
+                    err.print(getLine(i));
+                }
+            }
+            out.flush();
+            err.flush();
+        }
+    }
+
+    private static String getLine(int i) {
+        return "line: " + i + " \u00e7\u00e3o\n";
+    }
+
+    private static String getExpected(int lines, int step) {
+        FastStringBuffer buf = new FastStringBuffer();
+        for (int i = 0; i < lines; i += step) {
+            buf.append(getLine(i));
+        }
+        return buf.toString();
+    }
+
+    private static Process startChatty(int lines) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(java, "-Dfile.encoding=UTF-8", "-cp", System.getProperty("java.class.path"),
+                Chatty.class.getName(), String.valueOf(lines)).start();
+    }
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: read many chatty processes with a thread per stream and with the shared pump.
+            int processes = 16;
+            int lines = 200000;
+            for (int j = 0; j < 2; j++) {
+                Timer timer = new Timer();
+                List<ThreadStreamReader> threadReaders = new ArrayList<ThreadStreamReader>();
+                List<Process> started = new ArrayList<Process>();
+                for (int i = 0; i < processes; i++) {
+                    Process p = startChatty(lines);
+                    started.add(p);
+                    ThreadStreamReader out = new ThreadStreamReader(p.getInputStream(), true, "UTF-8");
+                    ThreadStreamReader err = new ThreadStreamReader(p.getErrorStream(), true, "UTF-8");
+                    out.start();
+                    err.start();
+                    threadReaders.add(out);
+                    threadReaders.add(err);
+                }
+                for (ThreadStreamReader r : threadReaders) {
+                    r.join();
+                }
+                for (Process p : started) {
+                    p.waitFor();
+                }
+                timer.printDiff("ThreadStreamReader (" + threadReaders.size() + " threads)");
+
+                timer = new Timer();
+                List<PumpedStreamReader> pumpedReaders = new ArrayList<PumpedStreamReader>();
+                started.clear();
+                for (int i = 0; i < processes; i++) {
+                    Process p = startChatty(lines);
+                    started.add(p);
+                    PumpedStreamReader out = new PumpedStreamReader(p, p.getInputStream(), "UTF-8",
+                            PumpedStreamReader.UNBOUNDED, false);
+                    PumpedStreamReader err = new PumpedStreamReader(p, p.getErrorStream(), "UTF-8",
+                            PumpedStreamReader.UNBOUNDED, false);
+                    out.start();
+                    err.start();
+                    pumpedReaders.add(out);
+                    pumpedReaders.add(err);
+                }
+                for (PumpedStreamReader r : pumpedReaders) {
+                    r.waitFinished(60000);
+                }
+                for (Process p : started) {
+                    p.waitFor();
+                }
+                timer.printDiff("PumpedStreamReader (" + StreamPump.getDefault().getThreadsCount()
+                        + " threads alive at the end)");
+            }
+
+            junit.textui.TestRunner.run(StreamPumpTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void testReadAllWithSplitChars() throws Exception {
+        String expected = getExpected(1000, 1);
+        //small buffer so that the multi-byte chars are split among reads
+        StreamPump pump = new StreamPump("Test", 1, 7);
+        PumpedStreamReader reader = new PumpedStreamReader(pump, null, new ByteArrayInputStream(
+                expected.getBytes("UTF-8")), "UTF-8", PumpedStreamReader.UNBOUNDED, false);
+        assertEquals("", reader.getContents());
+        reader.start();
+        assertTrue(reader.waitFinished(5000));
+        assertEquals(expected, reader.getContents());
+        assertEquals(0, reader.getDiscardedCount());
+
+        //thread finishes when there's nothing else to read
+        for (int i = 0; i < 100 && pump.getThreadsCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pump.getThreadsCount());
+    }
+
+    public void testBoundedRetention() throws Exception {
+        String expected = getExpected(1000, 1);
+        PumpedStreamReader reader = new PumpedStreamReader(new StreamPump("Test", 1, 64), null,
+                new ByteArrayInputStream(expected.getBytes("UTF-8")), "UTF-8", 100, false);
+        reader.start();
+        assertTrue(reader.waitFinished(5000));
+        assertEquals(expected.substring(expected.length() - 100), reader.getContents());
+        assertEquals(expected.length() - 100, reader.getDiscardedCount());
+    }
+
+    public void testManyProcessesWithFewThreads() throws Exception {
+        int lines = 5000;
+        StreamPump pump = new StreamPump("Test", 2, StreamPump.DEFAULT_BUFFER_SIZE);
+        List<PumpedStreamReader> outs = new ArrayList<PumpedStreamReader>();
+        List<PumpedStreamReader> errs = new ArrayList<PumpedStreamReader>();
+        for (int i = 0; i < 10; i++) {
+            Process p = startChatty(lines);
+            PumpedStreamReader out = new PumpedStreamReader(pump, p, p.getInputStream(), "UTF-8",
+                    PumpedStreamReader.UNBOUNDED, false);
+            PumpedStreamReader err = new PumpedStreamReader(pump, p, p.getErrorStream(), "UTF-8",
+                    PumpedStreamReader.UNBOUNDED, false);
+            out.start();
+            err.start();
+            outs.add(out);
+            errs.add(err);
+            assertTrue(pump.getThreadsCount() <= 2);
+        }
+        String expectedOut = getExpected(lines, 1);
+        String expectedErr = getExpected(lines, 10);
+        for (int i = 0; i < outs.size(); i++) {
+            assertTrue(outs.get(i).waitFinished(20000));
+            assertTrue(errs.get(i).waitFinished(20000));
+            assertEquals(expectedOut, outs.get(i).getContents());
+            assertEquals(expectedErr, errs.get(i).getContents());
+        }
+        assertEquals(0, pump.getRegisteredCount());
+    }
+
+    /**
+     * A stream kept open after the process exited (i.e.: by a child of the process): read() blocks until closed.
+     */
+    private static class NeverEndingStream extends InputStream {
+
+        private final byte[] contents;
+        private int pos;
+        private boolean closed;
+
+        private NeverEndingStream(byte[] contents) {
+            this.contents = contents;
+        }
+
+        @Override
+        public synchronized int available() {
+            return contents.length - pos;
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            while (pos == contents.length && !closed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            if (closed) {
+                throw new IOException("Closed");
+            }
+            return contents[pos++] & 0xFF;
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+    }
+
+    public void testStreamKeptOpenAfterProcessExited() throws Exception {
+        int drainTimeout = StreamPump.DRAIN_TIMEOUT;
+        StreamPump.DRAIN_TIMEOUT = 300;
+        try {
+            Process p = startChatty(0);
+            assertEquals(0, p.waitFor());
+            StreamPump pump = new StreamPump("Test", 1, 64);
+            PumpedStreamReader blocked = new PumpedStreamReader(pump, p, new NeverEndingStream(
+                    "blocked".getBytes("UTF-8")), "UTF-8", PumpedStreamReader.UNBOUNDED, false);
+            blocked.start();
+
+            //The pump thread is not blocked by it (it still reads other streams).
+            String expected = getExpected(100, 1);
+            PumpedStreamReader other = new PumpedStreamReader(pump, null, new ByteArrayInputStream(
+                    expected.getBytes("UTF-8")), "UTF-8", PumpedStreamReader.UNBOUNDED, false);
+            other.start();
+            assertTrue(other.waitFinished(5000));
+            assertEquals(expected, other.getContents());
+
+            //And the blocked stream is finished after the timeout.
+            assertTrue(blocked.waitFinished(5000));
+            assertEquals("blocked", blocked.getContents());
+            assertEquals(0, pump.getRegisteredCount());
+        } finally {
+            StreamPump.DRAIN_TIMEOUT = drainTimeout;
+        }
+    }
+
+    public void testBackPressure() throws Exception {
+        int lines = 100000;
+        int maxRetained = 1000;
+        int bufferSize = 1024;
+        StreamPump pump = new StreamPump("Test", 1, bufferSize);
+        Process p = startChatty(lines);
+        PumpedStreamReader out = new PumpedStreamReader(pump, p, p.getInputStream(), "UTF-8", maxRetained, true);
+        PumpedStreamReader err = new PumpedStreamReader(pump, p, p.getErrorStream(), "UTF-8",
+                PumpedStreamReader.UNBOUNDED, false);
+        out.start();
+        err.start();
+
+        //The stream is paused: the process can't finish (it's blocked writing to the pipe).
+        Thread.sleep(300);
+        try {
+            p.exitValue();
+            fail("Expected the process to be blocked.");
+        } catch (IllegalThreadStateException e) {
+            //expected
+        }
+        assertTrue(out.getContents().length() < maxRetained + bufferSize + 16);
+        assertFalse(out.isFinished());
+
+        //Consuming the contents resumes it.
+        FastStringBuffer buf = new FastStringBuffer();
+        long deadline = System.currentTimeMillis() + 20000;
+        while (!out.isFinished() && System.currentTimeMillis() < deadline) {
+            buf.append(out.getAndClearContents());
+            Thread.sleep(1);
+        }
+        buf.append(out.getAndClearContents());
+        assertEquals(getExpected(lines, 1), buf.toString());
+        assertEquals(0, p.waitFor());
+        assertTrue(err.waitFinished(5000));
+        assertEquals(getExpected(lines, 10), err.getContents());
+    }
+}
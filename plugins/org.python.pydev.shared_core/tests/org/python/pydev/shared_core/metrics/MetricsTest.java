@@ -0,0 +1,145 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.metrics;
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.utils.Timer;
+
+public class MetricsTest extends TestCase {
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: overhead of the metrics when disabled/enabled.
+            LatencyTimer timer = Metrics.timer("benchmark.timer");
+            Counter counter = Metrics.counter("benchmark.counter");
+            for (int j = 0; j < 3; j++) {
+                for (boolean enabled : new boolean[] { false, true }) {
+                    Metrics.setEnabled(enabled);
+                    Timer t = new Timer();
+                    for (int i = 0; i < 10000000; i++) {
+                        timer.stop(timer.start());
+                        counter.inc();
+                    }
+                    t.printDiff("10M timer/counter calls (enabled: " + enabled + ")");
+                }
+            }
+            Metrics.setEnabled(false);
+
+            junit.textui.TestRunner.run(MetricsTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private boolean wasEnabled;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        wasEnabled = Metrics.isEnabled();
+        Metrics.setEnabled(true);
+        Metrics.reset();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Metrics.setEnabled(wasEnabled);
+        super.tearDown();
+    }
+
+    public void testCounters() throws Exception {
+        Counter counter = Metrics.counter("test.counter");
+        assertSame(counter, Metrics.counter("test.counter"));
+        counter.inc();
+        counter.add(2);
+        assertEquals(3, counter.get());
+
+        HitCounter hitCounter = Metrics.hitCounter("test.cache");
+        hitCounter.hit();
+        hitCounter.hit();
+        hitCounter.hit();
+        hitCounter.miss();
+        assertEquals(75.0, hitCounter.getHitRate());
+        assertEquals("hits: 3 misses: 1 hit rate: 75.0%", hitCounter.getValueRepresentation());
+
+        Metrics.setEnabled(false);
+        counter.inc();
+        hitCounter.miss();
+        assertEquals(3, counter.get());
+        assertEquals(1, hitCounter.getMisses());
+
+        Metrics.reset();
+        assertEquals(0, counter.get());
+        assertEquals(0, hitCounter.getHits());
+    }
+
+    public void testHistogram() throws Exception {
+        Histogram histogram = Metrics.histogram("test.histogram");
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean());
+        assertEquals(63, histogram.getPercentile(50)); //bucket from 32 to 63
+        assertEquals(100, histogram.getPercentile(99)); //capped at the max
+        assertEquals(1, histogram.getPercentile(0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    public void testTimer() throws Exception {
+        LatencyTimer timer = Metrics.timer("test.timer");
+        long start = timer.start();
+        assertTrue(start != 0);
+        timer.stop(start);
+        assertEquals(1, timer.getCount());
+
+        Metrics.setEnabled(false);
+        start = timer.start();
+        assertEquals(0, start);
+        timer.stop(start);
+        assertEquals(1, timer.getCount());
+    }
+
+    public void testTypeMismatch() throws Exception {
+        Metrics.counter("test.mismatch");
+        try {
+            Metrics.timer("test.mismatch");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+
+    public void testDump() throws Exception {
+        Metrics.counter("test.dump.counter").add(10);
+        Metrics.timer("test.dump.timer");
+        File file = File.createTempFile("metrics", ".txt");
+        try {
+            assertTrue(Metrics.dump(file));
+            String contents = FileUtils.getFileContents(file);
+            assertTrue(contents, contents.contains("test.dump.counter (counter): 10\n"));
+            assertTrue(contents, contents.contains("test.dump.timer (timer): count: 0"));
+            assertTrue(contents.indexOf("test.dump.counter") < contents.indexOf("test.dump.timer"));
+        } finally {
+            FileUtils.deleteFile(file);
+        }
+    }
+}
@@ -434,6 +434,160 @@ public class PathWatchTest extends TestCase {
         assertEquals(0, changes.size());
     }
 
+    private final class BatchListener implements IFilesystemChangesBatchListener {
+
+        private final List<FilesystemChanges> batches = Collections
+                .synchronizedList(new ArrayList<FilesystemChanges>());
+
+        @Override
+        public void changed(FilesystemChanges changes) {
+            batches.add(changes);
+        }
+
+        @Override
+        public void added(File file) {
+            fail("Batch listener should not receive single events.");
+        }
+
+        @Override
+        public void removed(File file) {
+            fail("Batch listener should not receive single events.");
+        }
+
+        private Set<File> getAll() {
+            Set<File> all = new HashSet<>();
+            synchronized (batches) {
+                for (FilesystemChanges changes : batches) {
+                    all.addAll(changes.getAdded());
+                    all.addAll(changes.getModified());
+                }
+            }
+            return all;
+        }
+    }
+
+    public void testBurstIsCoalesced() throws Exception {
+        baseDir.mkdir();
+        BatchListener batchListener = new BatchListener();
+        ListenerList<IFilesystemChangesListener> list = new ListenerList<IFilesystemChangesListener>(
+                IFilesystemChangesListener.class);
+        list.add(batchListener);
+        EventsStackerRunnable stack = new EventsStackerRunnable(null, Paths.get(FileUtils.getFileAbsolutePath(baseDir)),
+                list, baseDir, acceptAllFilter, acceptAllFilter);
+
+        //Replay a burst of events (as a git checkout would do): each file is created, modified many times and half
+        //of those are removed later on.
+        int files = 2000;
+        for (int i = 0; i < files; i++) {
+            File f = new File(baseDir, "f" + i + ".py");
+            stack.added(f);
+            stack.scheduleFlush();
+            for (int j = 0; j < 3; j++) {
+                stack.modified(f);
+                stack.scheduleFlush();
+            }
+        }
+        for (int i = 0; i < files; i += 2) {
+            stack.removed(new File(baseDir, "f" + i + ".py"));
+            stack.scheduleFlush();
+        }
+        final List<FilesystemChanges> batches = batchListener.batches;
+        waitUntilCondition(new ICallback<String, Object>() {
+
+            public String call(Object arg) {
+                if (batches.size() == 1) {
+                    return null;
+                }
+                return "Batches: " + batches.size();
+            }
+        });
+        FilesystemChanges changes = batches.get(0);
+        assertEquals(files / 2, changes.getAdded().size());
+        assertEquals(files / 2, changes.getRemoved().size());
+        assertEquals(0, changes.getModified().size());
+        assertTrue(changes.getAdded().contains(new File(baseDir, "f1.py")));
+        assertTrue(changes.getRemoved().contains(new File(baseDir, "f0.py")));
+
+        //Nothing else should be reported.
+        synchronized (lockToSynchWait) {
+            lockToSynchWait.wait(EventsStackerRunnable.FLUSH_DEBOUNCE_MILLIS * 3);
+        }
+        assertEquals(1, batches.size());
+        stack.dispose();
+    }
+
+    public void testOverflowRescan() throws Exception {
+        baseDir.mkdir();
+        File a = new File(baseDir, "a.py");
+        File b = new File(baseDir, "b.py");
+        File sub = new File(baseDir, "sub");
+        FileUtils.writeStrToFile("a", a);
+        FileUtils.writeStrToFile("b", b);
+        sub.mkdir();
+        FileUtils.writeStrToFile("x", new File(sub, "x.py"));
+
+        BatchListener batchListener = new BatchListener();
+        ListenerList<IFilesystemChangesListener> list = new ListenerList<IFilesystemChangesListener>(
+                IFilesystemChangesListener.class);
+        list.add(batchListener);
+        EventsStackerRunnable stack = new EventsStackerRunnable(null, Paths.get(FileUtils.getFileAbsolutePath(baseDir)),
+                list, baseDir, pyFilesFilter, acceptAllFilter);
+        stack.run(); //wait for the initialization
+        assertEquals(0, batchListener.batches.size());
+
+        assertTrue(a.delete());
+        File c = new File(baseDir, "c.py");
+        FileUtils.writeStrToFile("c", c);
+        assertTrue(b.setLastModified(b.lastModified() + 10000));
+        File sub2 = new File(baseDir, "sub2");
+        sub2.mkdir();
+        FileUtils.writeStrToFile("y", new File(sub2, "y.py"));
+        File sub3 = new File(baseDir, "sub3");
+        sub3.mkdir(); //nothing interesting inside it
+        FileUtils.writeStrToFile("not interesting", new File(baseDir, "t.txt"));
+
+        stack.added(c); //discarded by the overflow
+        stack.overflow(baseDir);
+        stack.run();
+
+        assertEquals(1, batchListener.batches.size());
+        FilesystemChanges changes = batchListener.batches.get(0);
+        assertTrue(changes.isRescanned());
+        assertEquals(new HashSet<>(Arrays.asList(c, sub2)), changes.getAdded());
+        assertEquals(new HashSet<>(Arrays.asList(a)), changes.getRemoved());
+        assertEquals(new HashSet<>(Arrays.asList(b)), changes.getModified());
+
+        //A new rescan without changes doesn't report anything.
+        stack.overflow(baseDir);
+        stack.run();
+        assertEquals(1, batchListener.batches.size());
+    }
+
+    public void testPathWatchBurst() throws Exception {
+        baseDir.mkdir();
+        BatchListener batchListener = new BatchListener();
+        pathWatch.track(baseDir, batchListener);
+
+        final Set<File> expected = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            File f = new File(baseDir, "f" + i + ".txt");
+            FileUtils.writeStrToFile("FILE", f);
+            expected.add(f);
+        }
+        final BatchListener listener = batchListener;
+        waitUntilCondition(new ICallback<String, Object>() {
+
+            public String call(Object arg) {
+                if (listener.getAll().containsAll(expected)) {
+                    return null;
+                }
+                return "Found: " + listener.getAll().size();
+            }
+        });
+        //Each batch has many files (not one notification per file).
+        assertTrue("Batches: " + batchListener.batches.size(), batchListener.batches.size() < 100);
+    }
+
     private void waitUntilCondition(ICallback<String, Object> call) {
         try {
             TestUtils.waitUntilCondition(call);
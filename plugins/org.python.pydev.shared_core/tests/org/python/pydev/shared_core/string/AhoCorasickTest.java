@@ -0,0 +1,81 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.string;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class AhoCorasickTest extends TestCase {
+
+    private List<String> search(AhoCorasick automaton, String s) {
+        final List<String> found = new ArrayList<String>();
+        automaton.search(s, 0, s.length(), new AhoCorasick.IMatchListener() {
+
+            @Override
+            public void onMatch(int patternIndex, int start) {
+                found.add(start + ":" + patternIndex);
+            }
+        });
+        Collections.sort(found);
+        return found;
+    }
+
+    /**
+     * @return the matches found with indexOf (to compare with the automaton).
+     */
+    private List<String> searchIndexOf(String[] patterns, String s) {
+        List<String> found = new ArrayList<String>();
+        for (int p = 0; p < patterns.length; p++) {
+            if (patterns[p].length() == 0) {
+                continue;
+            }
+            int index = -1;
+            while ((index = s.indexOf(patterns[p], index + 1)) != -1) {
+                found.add(index + ":" + p);
+            }
+        }
+        Collections.sort(found);
+        return found;
+    }
+
+    public void testSearch() throws Exception {
+        AhoCorasick automaton = new AhoCorasick(new String[] { "TODO", "FIXME", "TODO:", "DO", "" });
+        assertEquals("[0:0, 0:2, 2:3, 6:1]", search(automaton, "TODO: FIXME").toString());
+        assertEquals("[]", search(automaton, "todo fixme").toString());
+        assertEquals("[1:3, 3:0, 5:3]", search(automaton, "TDOTODO").toString());
+    }
+
+    public void testNoPatterns() throws Exception {
+        AhoCorasick automaton = new AhoCorasick(new String[0]);
+        assertEquals("[]", search(automaton, "TODO").toString());
+    }
+
+    public void testRandom() throws Exception {
+        Random random = new Random(7);
+        String[] patterns = new String[] { "ab", "abab", "bab", "b", "ca", "ça" };
+        AhoCorasick automaton = new AhoCorasick(patterns);
+        char[] chars = new char[] { 'a', 'b', 'c', 'ç', ' ' };
+        for (int i = 0; i < 200; i++) {
+            FastStringBuffer buf = new FastStringBuffer();
+            int len = random.nextInt(30);
+            for (int j = 0; j < len; j++) {
+                buf.append(chars[random.nextInt(chars.length)]);
+            }
+            String s = buf.toString();
+            assertEquals(s, searchIndexOf(patterns, s), search(automaton, s));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_core.string;
+
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.text.Document;
+import org.python.pydev.shared_core.string.TextDiff.Edit;
+import org.python.pydev.shared_core.utils.Timer;
+
+public class TextDiffTest extends TestCase {
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: formatting a big file (10k lines) with a single change or with changes in all the lines.
+            String original = createContents(10000, false);
+            String oneLineChanged = original.replaceFirst("a5=b5", "a5 = b5");
+            String allChanged = createContents(10000, true);
+            for (int i = 0; i < 5; i++) {
+                Timer timer = new Timer();
+                List<Edit> edits = TextDiff.computeEdits(original, oneLineChanged);
+                timer.printDiff("10k lines, 1 line changed (" + edits.size() + " edits)");
+
+                timer = new Timer();
+                edits = TextDiff.computeEdits(original, allChanged);
+                timer.printDiff("10k lines, all lines changed (" + edits.size() + " edits)");
+            }
+
+            junit.textui.TestRunner.run(TextDiffTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static String createContents(int lines, boolean formatted) {
+        FastStringBuffer buf = new FastStringBuffer();
+        for (int i = 0; i < lines; i++) {
+            buf.append(formatted ? "    a" + i + " = b" + i + "\n" : "    a" + i + "=b" + i + "\n");
+        }
+        return buf.toString();
+    }
+
+    private void check(String original, String changed) {
+        List<Edit> edits = TextDiff.computeEdits(original, changed);
+        assertEquals(changed, TextDiff.apply(original, edits));
+
+        int last = 0;
+        for (Edit edit : edits) {
+            assertTrue(edit.toString(), edit.offset >= last);
+            last = edit.offset + edit.length;
+        }
+
+        Document doc = new Document(original);
+        TextSelectionUtils.setOnlyDifferentCode(doc, null, changed);
+        assertEquals(changed, doc.get());
+    }
+
+    public void testEqual() throws Exception {
+        assertEquals(0, TextDiff.computeEdits("a\nb\n", "a\nb\n").size());
+        check("", "");
+        check("", "a\n");
+        check("a\n", "");
+    }
+
+    public void testOnlyChangedParts() throws Exception {
+        String original = "class A:\n    a=10\n    def m(self):\n        pass\n";
+        String changed = "class A:\n    a = 10\n    def m(self):\n        pass\n";
+        List<Edit> edits = TextDiff.computeEdits(original, changed);
+        assertEquals(2, edits.size());
+        assertEquals(original.indexOf('='), edits.get(0).offset);
+        assertEquals(0, edits.get(0).length);
+        assertEquals(" ", edits.get(0).text);
+        assertEquals(original.indexOf('=') + 1, edits.get(1).offset);
+        assertEquals(" ", edits.get(1).text);
+        check(original, changed);
+    }
+
+    public void testLinesAddedAndRemoved() throws Exception {
+        check("a\nb\nc\nd\n", "a\nc\nd\ne\n");
+        check("a\nb\nc\n", "x\na\ny\nb\nz\n");
+        check("a\r\nb\r\nc", "a\r\nb\r\nc\r\n");
+        check("a\rb\rc", "a\nb\nc");
+        check("a = 1\nb = 2\n", "b = 2\na = 1\n");
+    }
+
+    public void testLargeDistanceFallback() throws Exception {
+        String original = createContents(5000, false);
+        String changed = createContents(5000, true);
+        //Same number of lines: each line is diffed with its counterpart.
+        List<Edit> edits = TextDiff.computeEdits(original, changed);
+        assertEquals(10000, edits.size());
+        check(original, changed);
+
+        //A different number of lines: replaced as a single block.
+        changed += "end\n";
+        edits = TextDiff.computeEdits(original, changed);
+        assertEquals(1, edits.size());
+        check(original, changed);
+    }
+
+    public void testRandom() throws Exception {
+        Random random = new Random(42);
+        String[] lines = new String[] { "a=1\n", "b = 2\n", "    pass\n", "\n", "def m(a,b):\n", "x  =  y\n" };
+        for (int i = 0; i < 300; i++) {
+            FastStringBuffer original = new FastStringBuffer();
+            FastStringBuffer changed = new FastStringBuffer();
+            int len = random.nextInt(20);
+            for (int j = 0; j < len; j++) {
+                String line = lines[random.nextInt(lines.length)];
+                original.append(line);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        break; //removed
+                    case 1:
+                        changed.append(lines[random.nextInt(lines.length)]).append(line);
+                        break;
+                    case 2:
+                        changed.append(line.replace(" ", ""));
+                        break;
+                    default:
+                        changed.append(line);
+                }
+            }
+            check(original.toString(), changed.toString());
+        }
+    }
+}
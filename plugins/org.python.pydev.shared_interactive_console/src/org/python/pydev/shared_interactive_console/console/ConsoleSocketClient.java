@@ -0,0 +1,312 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_interactive_console.console;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.xmlrpc.XmlRpcException;
+import org.python.pydev.shared_core.callbacks.ICallback;
+import org.python.pydev.shared_core.io.PumpedStreamReader;
+import org.python.pydev.shared_core.net.LocalHost;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+import org.python.pydev.shared_core.string.StringUtils;
+import org.python.pydev.shared_core.structure.Tuple;
+
+/**
+ * Client for the persistent socket transport of the console (see: pydev_console_socket.py).
+ *
+ * Each request has an id and the answers (as well as the stdout/stderr written while it's executed) are pushed
+ * by the server, so, there's no polling: a request is finished as soon as its result arrives (or as soon as the
+ * connection is closed because the process died).
+ *
+ * It implements the same interface of the xml-rpc client (so, the results have the same structure).
+ */
+public class ConsoleSocketClient implements IXmlRpcClient {
+
+    private static final String RESULT = "result";
+    private static final String ERROR = "error";
+    private static final String OUT = "out";
+    private static final String ERR = "err";
+    private static final String CANCEL = "cancel";
+
+    private static final int CONNECT_TIMEOUT = 5000;
+
+    /**
+     * A request which was sent to the server.
+     */
+    public final class Request {
+
+        public final int id;
+
+        private final ICallback<Object, Tuple<String, String>> onContentsReceived;
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile Object result;
+
+        private Request(int id, ICallback<Object, Tuple<String, String>> onContentsReceived) {
+            this.id = id;
+            this.onContentsReceived = onContentsReceived;
+        }
+
+        private void finish(Object result) {
+            this.result = result;
+            finished.countDown();
+        }
+
+        /**
+         * Waits for the result of the request.
+         */
+        public Object get() throws InterruptedException {
+            finished.await();
+            return result;
+        }
+
+        public boolean isDone() {
+            return finished.getCount() == 0;
+        }
+
+        /**
+         * Asks the server to cancel this request (if it's running, a KeyboardInterrupt is raised in the server
+         * and if it still didn't start, it won't be executed).
+         */
+        public void cancel() {
+            if (isDone()) {
+                return;
+            }
+            try {
+                send(new Object[] { nextId.incrementAndGet(), CANCEL, id });
+            } catch (IOException e) {
+                //Ignore: if the connection is broken, the request is finished anyways.
+            }
+        }
+    }
+
+    private final Map<Integer, Request> pending = new ConcurrentHashMap<Integer, Request>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Object connectLock = new Object();
+    private final Object writeLock = new Object();
+
+    private final Process process;
+    private final PumpedStreamReader stdErrReader;
+    private final PumpedStreamReader stdOutReader;
+
+    private int port;
+    private volatile Socket socket;
+    private OutputStream out;
+    private volatile boolean closed;
+
+    /**
+     * @param process the process of the server (may be null). Used to report its exit value if the connection
+     * is closed.
+     */
+    public ConsoleSocketClient(Process process, PumpedStreamReader stdErrReader, PumpedStreamReader stdOutReader) {
+        this.process = process;
+        this.stdErrReader = stdErrReader;
+        this.stdOutReader = stdOutReader;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Executes a command in the server and waits for its result (see: executeAsync).
+     */
+    public Object execute(String command, Object[] args) throws XmlRpcException {
+        Request request = executeAsync(command, args, null);
+        try {
+            return request.get();
+        } catch (InterruptedException e) {
+            request.cancel();
+            throw new XmlRpcException("Interrupted while waiting for: " + command, e);
+        }
+    }
+
+    /**
+     * Sends a command to the server (connecting to it if still not connected).
+     *
+     * @param onContentsReceived called (in the thread reading from the socket) with the stdout/stderr written
+     * while the command executes (may be null).
+     * @return the request sent (its result is the result from the server or an Object[] with an error message).
+     * @throws XmlRpcException if it was not possible to connect to the server.
+     */
+    public Request executeAsync(String command, Object[] args,
+            ICallback<Object, Tuple<String, String>> onContentsReceived) throws XmlRpcException {
+        connect();
+        Request request = new Request(nextId.incrementAndGet(), onContentsReceived);
+        pending.put(request.id, request);
+        try {
+            send(new Object[] { request.id, command, args != null ? args : new Object[0] });
+        } catch (IOException e) {
+            pending.remove(request.id);
+            throw new XmlRpcException("Error sending: " + command, e);
+        }
+        if (closed) {
+            //The connection may have been closed while sending (make sure that it's finished).
+            onConnectionClosed();
+        }
+        return request;
+    }
+
+    private void connect() throws XmlRpcException {
+        synchronized (connectLock) {
+            if (closed) {
+                throw new XmlRpcException(getClosedMessage());
+            }
+            if (socket != null) {
+                return;
+            }
+            Socket s = new Socket();
+            try {
+                s.setTcpNoDelay(true);
+                s.connect(new InetSocketAddress(LocalHost.getLocalHost(), port), CONNECT_TIMEOUT);
+                out = s.getOutputStream();
+            } catch (IOException e) {
+                try {
+                    s.close();
+                } catch (IOException e1) {
+                    //ignore
+                }
+                throw new XmlRpcException("Unable to connect to the console at port: " + port, e);
+            }
+            socket = s;
+            final InputStream in;
+            try {
+                in = new BufferedInputStream(s.getInputStream());
+            } catch (IOException e) {
+                close();
+                throw new XmlRpcException("Unable to connect to the console at port: " + port, e);
+            }
+            Thread reader = new Thread("Console socket reader (port: " + port + ")") {
+                @Override
+                public void run() {
+                    readMessages(in);
+                }
+            };
+            reader.setDaemon(true);
+            reader.start();
+        }
+    }
+
+    private void send(Object message) throws IOException {
+        byte[] bytes = ConsoleWireFormat.encode(message);
+        synchronized (writeLock) {
+            out.write(bytes);
+            out.flush();
+        }
+    }
+
+    private void readMessages(InputStream in) {
+        try {
+            while (true) {
+                Object[] message = (Object[]) ConsoleWireFormat.decode(in);
+                Request request = pending.get(message[0]);
+                if (request == null) {
+                    continue;
+                }
+                String kind = (String) message[1];
+                Object payload = message[2];
+                if (RESULT.equals(kind)) {
+                    pending.remove(request.id);
+                    request.finish(payload);
+
+                } else if (ERROR.equals(kind)) {
+                    pending.remove(request.id);
+                    request.finish(new Object[] { payload });
+
+                } else if (OUT.equals(kind) || ERR.equals(kind)) {
+                    if (request.onContentsReceived != null) {
+                        String contents = payload != null ? payload.toString() : "";
+                        request.onContentsReceived.call(OUT.equals(kind) ? new Tuple<String, String>(contents, "")
+                                : new Tuple<String, String>("", contents));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            //Connection closed (or invalid contents): no more answers will arrive.
+        }
+        close();
+    }
+
+    private String getClosedMessage() {
+        FastStringBuffer buf = new FastStringBuffer();
+        String exitValue = "(unknown)";
+        if (process != null) {
+            try {
+                exitValue = String.valueOf(process.exitValue());
+            } catch (IllegalThreadStateException e) {
+                //still running
+            }
+        }
+        buf.append(StringUtils.format("Console already exited with value: %s while waiting for an answer.\n",
+                exitValue));
+        if (stdErrReader != null) {
+            buf.append("Error stream: ").append(stdErrReader.getContents()).append('\n');
+        }
+        if (stdOutReader != null) {
+            buf.append("Output stream: ").append(stdOutReader.getContents());
+        }
+        return buf.toString();
+    }
+
+    private void onConnectionClosed() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Object[] error = new Object[] { getClosedMessage() };
+        List<Request> finished = new ArrayList<Request>();
+        for (Integer id : pending.keySet()) {
+            Request request = pending.remove(id);
+            if (request != null) {
+                finished.add(request);
+            }
+        }
+        //Only notify after all were removed (so, no request is seen as pending after one is finished).
+        for (Request request : finished) {
+            request.finish(error);
+        }
+    }
+
+    /**
+     * Closes the connection (pending requests are finished with an error).
+     */
+    public void close() {
+        synchronized (connectLock) {
+            closed = true;
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    //ignore
+                }
+            }
+        }
+        onConnectionClosed();
+    }
+
+    /**
+     * @return the number of requests still waiting for an answer.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+}
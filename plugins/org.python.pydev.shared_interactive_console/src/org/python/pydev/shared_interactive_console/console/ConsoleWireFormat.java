@@ -0,0 +1,155 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.shared_interactive_console.console;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Encodes/decodes the values passed in the socket transport of the console (see: pydev_console_socket.py).
+ *
+ * null -> n
+ * true/false -> t/f
+ * int -> i<digits>;
+ * string -> s<number of bytes>:<utf-8 bytes>
+ * list (Object[] or List) -> l<number of items>:<items>
+ *
+ * Lists are always decoded as Object[] (as done in xml-rpc).
+ */
+public final class ConsoleWireFormat {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private ConsoleWireFormat() {
+    }
+
+    public static byte[] encode(Object obj) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encode(obj, out);
+        return out.toByteArray();
+    }
+
+    private static void encode(Object obj, ByteArrayOutputStream out) {
+        if (obj == null) {
+            out.write('n');
+
+        } else if (obj instanceof Boolean) {
+            out.write(((Boolean) obj) ? 't' : 'f');
+
+        } else if (obj instanceof Integer || obj instanceof Long || obj instanceof Short || obj instanceof Byte) {
+            writeAscii(out, "i" + obj + ";");
+
+        } else if (obj instanceof Object[]) {
+            Object[] objects = (Object[]) obj;
+            writeAscii(out, "l" + objects.length + ":");
+            for (Object o : objects) {
+                encode(o, out);
+            }
+
+        } else if (obj instanceof List) {
+            List<?> list = (List<?>) obj;
+            writeAscii(out, "l" + list.size() + ":");
+            for (Object o : list) {
+                encode(o, out);
+            }
+
+        } else {
+            byte[] bytes = obj.toString().getBytes(UTF_8);
+            writeAscii(out, "s" + bytes.length + ":");
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static void writeAscii(ByteArrayOutputStream out, String s) {
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            out.write(s.charAt(i));
+        }
+    }
+
+    /**
+     * @return the next value in the stream.
+     * @throws EOFException if the stream ended.
+     */
+    public static Object decode(InputStream in) throws IOException {
+        int tag = readByte(in);
+        switch (tag) {
+            case 'n':
+                return null;
+
+            case 't':
+                return Boolean.TRUE;
+
+            case 'f':
+                return Boolean.FALSE;
+
+            case 'i':
+                long l = readNumber(in, ';');
+                if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) {
+                    return (int) l;
+                }
+                return l;
+
+            case 's':
+                byte[] bytes = new byte[(int) readNumber(in, ':')];
+                int read = 0;
+                while (read < bytes.length) {
+                    int n = in.read(bytes, read, bytes.length - read);
+                    if (n < 0) {
+                        throw new EOFException();
+                    }
+                    read += n;
+                }
+                return new String(bytes, UTF_8);
+
+            case 'l':
+                Object[] objects = new Object[(int) readNumber(in, ':')];
+                for (int i = 0; i < objects.length; i++) {
+                    objects[i] = decode(in);
+                }
+                return objects;
+
+            default:
+                throw new IOException("Unexpected tag: " + tag);
+        }
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    private static long readNumber(InputStream in, char end) throws IOException {
+        long value = 0;
+        boolean negative = false;
+        int b = readByte(in);
+        if (b == '-') {
+            negative = true;
+            b = readByte(in);
+        }
+        while (b != end) {
+            if (b < '0' || b > '9') {
+                throw new IOException("Unexpected char in number: " + (char) b);
+            }
+            value = value * 10 + (b - '0');
+            b = readByte(in);
+        }
+        return negative ? -value : value;
+    }
+}
@@ -14,7 +14,7 @@ import org.apache.xmlrpc.XmlRpcRequest;
 import org.apache.xmlrpc.client.AsyncCallback;
 import org.apache.xmlrpc.client.XmlRpcClient;
 import org.apache.xmlrpc.client.XmlRpcClientConfigImpl;
-import org.python.pydev.shared_core.io.ThreadStreamReader;
+import org.python.pydev.shared_core.io.PumpedStreamReader;
 import org.python.pydev.shared_core.net.LocalHost;
 import org.python.pydev.shared_core.string.StringUtils;
 
@@ -39,17 +39,17 @@ public class ScriptXmlRpcClient implements IXmlRpcClient {
     /**
      * This is the thread that's reading the error stream from the process.
      */
-    private ThreadStreamReader stdErrReader;
+    private PumpedStreamReader stdErrReader;
 
     /**
      * This is the thread that's reading the output stream from the process.
      */
-    private ThreadStreamReader stdOutReader;
+    private PumpedStreamReader stdOutReader;
 
     /**
      * Constructor (see fields description)
      */
-    public ScriptXmlRpcClient(Process process, ThreadStreamReader stdErrReader, ThreadStreamReader stdOutReader) {
+    public ScriptXmlRpcClient(Process process, PumpedStreamReader stdErrReader, PumpedStreamReader stdOutReader) {
         this.impl = new XmlRpcClient();
         this.process = process;
         this.stdErrReader = stdErrReader;
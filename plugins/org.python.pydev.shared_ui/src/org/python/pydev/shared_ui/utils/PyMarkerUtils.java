@@ -213,9 +213,19 @@ public class PyMarkerUtils {
      * @param removeUserEditable if true, will remove the user-editable markers too (otherwise, will leave the user-editable markers)
      * @param monitor used to check whether this process should be canceled.
      */
-    @SuppressWarnings("unchecked")
     public static void replaceMarkers(final List<MarkerInfo> lst, final IResource resource, final String markerType,
             final boolean removeUserEditable, IProgressMonitor monitor) {
+        replaceMarkers(lst, resource, markerType, removeUserEditable, monitor, null);
+    }
+
+    /**
+     * Same as replaceMarkers, but the existing markers for which keepExisting returns true are kept.
+     * 
+     * @param keepExisting if not null, the existing markers for which it returns true are not removed.
+     */
+    @SuppressWarnings("unchecked")
+    public static void replaceMarkers(final List<MarkerInfo> lst, final IResource resource, final String markerType,
+            final boolean removeUserEditable, IProgressMonitor monitor, ICallback<Boolean, IMarker> keepExisting) {
         List<Map<String, Object>> lMap = new ArrayList<Map<String, Object>>(lst.size());
         for (MarkerInfo markerInfo : lst) {
             try {
@@ -228,7 +238,7 @@ public class PyMarkerUtils {
             }
         }
         replaceMarkers((Map<String, Object>[]) lMap.toArray(new Map[lMap.size()]), resource, markerType,
-                removeUserEditable, monitor);
+                removeUserEditable, monitor, keepExisting);
     }
 
     /**
@@ -243,6 +253,17 @@ public class PyMarkerUtils {
     public static void replaceMarkers(final Map<String, Object>[] lst, final IResource resource,
             final String markerType,
             final boolean removeUserEditable, IProgressMonitor monitor) {
+        replaceMarkers(lst, resource, markerType, removeUserEditable, monitor, null);
+    }
+
+    /**
+     * Same as replaceMarkers, but the existing markers for which keepExisting returns true are kept.
+     * 
+     * @param keepExisting if not null, the existing markers for which it returns true are not removed.
+     */
+    public static void replaceMarkers(final Map<String, Object>[] lst, final IResource resource,
+            final String markerType, final boolean removeUserEditable, IProgressMonitor monitor,
+            final ICallback<Boolean, IMarker> keepExisting) {
         IWorkspaceRunnable r = new IWorkspaceRunnable() {
 
             public void run(IProgressMonitor monitor) throws CoreException {
@@ -250,7 +271,20 @@ public class PyMarkerUtils {
                     return;
                 }
                 try {
-                    if (removeUserEditable) {
+                    if (keepExisting != null) {
+                        IMarker[] existingMarkers = resource.findMarkers(markerType, true, IResource.DEPTH_ZERO);
+                        existingMarkers = ArrayUtils.filter(existingMarkers, new ICallback<Boolean, IMarker>() {
+
+                            public Boolean call(IMarker marker) {
+                                if (!removeUserEditable && marker.getAttribute(IMarker.USER_EDITABLE, true)) {
+                                    return false;
+                                }
+                                return !keepExisting.call(marker);
+                            }
+                        }).toArray(new IMarker[0]);
+                        ResourcesPlugin.getWorkspace().deleteMarkers(existingMarkers);
+
+                    } else if (removeUserEditable) {
                         resource.deleteMarkers(markerType, true, IResource.DEPTH_ZERO);
 
                     } else {
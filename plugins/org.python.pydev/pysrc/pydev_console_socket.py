@@ -0,0 +1,350 @@
+'''
+Persistent socket transport for the interactive console (used instead of the xml-rpc server when pydevconsole.py
+receives the --socket flag).
+
+A single connection is kept with the client and each message is a list encoded with the format below:
+
+    client -> server: [request_id, method_name, [args]] or [id, 'cancel', request_id_to_cancel]
+    server -> client: [request_id, 'result', result], [request_id, 'error', message],
+                      [request_id, 'out', text] or [request_id, 'err', text]
+
+The 'out' and 'err' events are pushed while an addExec is running (so, the client doesn't need to poll for the
+output of long-running commands).
+
+Values are encoded as:
+
+    None -> n
+    True/False -> t/f
+    int -> i<digits>;
+    string -> s<number of bytes>:<utf-8 bytes>
+    list/tuple -> l<number of items>:<items>
+'''
+import socket
+import sys
+import threading
+
+from pydev_imports import Queue
+
+try:
+    import thread
+except ImportError:
+    import _thread as thread  #@UnresolvedImport @Reimport -- Py3K
+
+try:
+    unicode
+except NameError:
+    unicode = str  #@ReservedAssignment -- Py3K
+
+try:
+    bytes
+except NameError:
+    bytes = str  #@ReservedAssignment -- Python < 2.6
+
+try:
+    long
+except NameError:
+    long = int  #@ReservedAssignment -- Py3K
+
+
+def _b(s):
+    return s.encode('ascii')
+
+_NONE = _b('n')
+_TRUE = _b('t')
+_FALSE = _b('f')
+_INT = _b('i')
+_STR = _b('s')
+_LIST = _b('l')
+_INT_END = _b(';')
+_LEN_END = _b(':')
+_EMPTY = _b('')
+
+
+#=======================================================================================================================
+# Encoding
+#=======================================================================================================================
+def _to_bytes(s):
+    if isinstance(s, unicode):
+        return s.encode('utf-8')
+    if isinstance(s, bytes):
+        return s
+    return _to_bytes(str(s))
+
+
+def _encode(obj, out):
+    if obj is None:
+        out.append(_NONE)
+    elif obj is True:
+        out.append(_TRUE)
+    elif obj is False:
+        out.append(_FALSE)
+    elif isinstance(obj, (int, long)):
+        out.append(_b('i%d;' % (obj,)))
+    elif isinstance(obj, (list, tuple)):
+        out.append(_b('l%d:' % (len(obj),)))
+        for o in obj:
+            _encode(o, out)
+    else:
+        s = _to_bytes(obj)
+        out.append(_b('s%d:' % (len(s),)))
+        out.append(s)
+
+
+def encode(obj):
+    out = []
+    _encode(obj, out)
+    return _EMPTY.join(out)
+
+
+#=======================================================================================================================
+# Decoding
+#=======================================================================================================================
+def _read_exactly(rfile, size):
+    ret = []
+    while size > 0:
+        s = rfile.read(size)
+        if not s:
+            raise EOFError()
+        size -= len(s)
+        ret.append(s)
+    return _EMPTY.join(ret)
+
+
+def _read_until(rfile, end):
+    ret = []
+    while True:
+        c = _read_exactly(rfile, 1)
+        if c == end:
+            return int(_EMPTY.join(ret).decode('ascii'))
+        ret.append(c)
+
+
+def decode(rfile):
+    '''
+    @raise EOFError: if the stream ended.
+    '''
+    tag = _read_exactly(rfile, 1)
+    if tag == _NONE:
+        return None
+    if tag == _TRUE:
+        return True
+    if tag == _FALSE:
+        return False
+    if tag == _INT:
+        return _read_until(rfile, _INT_END)
+    if tag == _STR:
+        s = _read_exactly(rfile, _read_until(rfile, _LEN_END)).decode('utf-8')
+        if str is bytes:  # Python 2: keep ascii as str
+            try:
+                s = s.encode('ascii')
+            except UnicodeError:
+                pass
+        return s
+    if tag == _LIST:
+        return [decode(rfile) for _i in range(_read_until(rfile, _LEN_END))]
+    raise ValueError('Unexpected tag: %r' % (tag,))
+
+
+#=======================================================================================================================
+# _EventWriter
+#=======================================================================================================================
+class _EventWriter:
+    '''
+        Set as sys.stdout/sys.stderr while a request is executed to push the contents written as events.
+    '''
+
+    def __init__(self, server, request_id, kind, original):
+        self.server = server
+        self.request_id = request_id
+        self.kind = kind
+        self.original = original
+        self.encoding = getattr(original, 'encoding', None) or 'utf-8'
+
+    def write(self, s):
+        if s:
+            self.server.send([self.request_id, self.kind, s])
+
+    def writelines(self, lines):
+        for line in lines:
+            self.write(line)
+
+    def flush(self):
+        pass
+
+    def isatty(self):
+        return False
+
+    def __getattr__(self, attr):
+        return getattr(self.original, attr)
+
+
+#=======================================================================================================================
+# ConsoleSocketServer
+#=======================================================================================================================
+class ConsoleSocketServer:
+    '''
+        Has the same interface used from the xml-rpc server (register_function, serve_forever, setDebugHook),
+        but the requests are read from a persistent socket. Requests are executed in the thread calling
+        serve_forever (so that they can be interrupted with a KeyboardInterrupt).
+    '''
+
+    def __init__(self, host, port):
+        self._listen_socket = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+        self._listen_socket.setsockopt(socket.SOL_SOCKET, socket.SO_REUSEADDR, 1)
+        self._listen_socket.bind((host, port))
+        self._listen_socket.listen(1)
+
+        self._functions = {}
+        self._requests = Queue.Queue()
+        self._send_lock = threading.Lock()
+        self._state_lock = threading.Lock()
+        self._current_id = None
+        self._cancelled = {}
+        self._conn = None
+
+        self.debug_hook = None
+        self.return_control_osc = False
+        try:
+            from pydev_ipython.inputhook import set_return_control_callback
+            set_return_control_callback(self.return_control)
+        except:
+            pass  # GUI loop integration not available
+
+    def register_function(self, function):
+        self._functions[function.__name__] = function
+
+    def setDebugHook(self, debug_hook):
+        self.debug_hook = debug_hook
+
+    def return_control(self):
+        ''' See: InputHookedXMLRPCServer.return_control '''
+        if self.debug_hook:
+            self.return_control_osc = not self.return_control_osc
+            if self.return_control_osc:
+                return True
+        return not self._requests.empty()
+
+    def send(self, message):
+        data = encode(message)
+        self._send_lock.acquire()
+        try:
+            self._conn.sendall(data)
+        finally:
+            self._send_lock.release()
+
+    def _read_requests(self):
+        rfile = self._conn.makefile('rb')
+        try:
+            while True:
+                message = decode(rfile)
+                if message[1] == 'cancel':
+                    self._cancel(message[2])
+                else:
+                    self._requests.put(message)
+        except:
+            pass  # Connection closed: finish serving.
+        self._requests.put(None)
+
+    def _cancel(self, request_id):
+        self._state_lock.acquire()
+        try:
+            if self._current_id == request_id:
+                try:
+                    thread.interrupt_main()
+                except:
+                    pass  # Not available (i.e.: Jython)
+            else:
+                self._cancelled[request_id] = True
+        finally:
+            self._state_lock.release()
+
+    def _handle(self, message):
+        request_id, method, args = message[0], message[1], message[2]
+        self._state_lock.acquire()
+        try:
+            if self._cancelled.pop(request_id, False):
+                self.send([request_id, 'error', 'Cancelled'])
+                return
+            self._current_id = request_id
+        finally:
+            self._state_lock.release()
+
+        original_out = sys.stdout
+        original_err = sys.stderr
+        try:
+            if method == 'addExec':
+                sys.stdout = _EventWriter(self, request_id, 'out', original_out)
+                sys.stderr = _EventWriter(self, request_id, 'err', original_err)
+            try:
+                function = self._functions[method]
+                result = function(*args)
+            except SystemExit:
+                raise
+            except KeyboardInterrupt:
+                self.send([request_id, 'error', 'KeyboardInterrupt'])
+                return
+            except:
+                import traceback
+                self.send([request_id, 'error', traceback.format_exc()])
+                return
+        finally:
+            sys.stdout = original_out
+            sys.stderr = original_err
+            self._state_lock.acquire()
+            try:
+                self._current_id = None
+            finally:
+                self._state_lock.release()
+        self.send([request_id, 'result', result])
+
+    def serve_forever(self):
+        ''' Serve until the connection is closed, running defined hooks regularly and when idle. '''
+        self._conn, _addr = self._listen_socket.accept()
+        self._listen_socket.close()
+        try:
+            self._conn.setsockopt(socket.IPPROTO_TCP, socket.TCP_NODELAY, 1)
+        except:
+            pass
+
+        t = threading.Thread(target=self._read_requests)
+        t.setDaemon(True)
+        t.start()
+
+        try:
+            from pydev_ipython.inputhook import get_inputhook
+        except:
+            get_inputhook = lambda: None
+        inputhook = get_inputhook()
+        while True:
+            try:
+                # Block for default 1/2 second when no GUI is in progress
+                timeout = 0.5
+                if self.debug_hook:
+                    self.debug_hook()
+                    timeout = 0.1
+                if inputhook:
+                    try:
+                        inputhook()
+                        timeout = 0.020
+                    except:
+                        inputhook = None
+                try:
+                    message = self._requests.get(True, timeout)
+                except Queue.Empty:
+                    continue
+                if message is None:
+                    return
+                try:
+                    self._handle(message)
+                except socket.error:
+                    return  # The connection was closed while handling the request.
+                # Running the request may have changed the inputhook in use
+                inputhook = get_inputhook()
+            except KeyboardInterrupt:
+                pass  # A cancel arrived after the request finished.
+
+    def shutdown(self):
+        try:
+            self._conn.close()
+        except:
+            pass
@@ -180,18 +180,26 @@ def _DoExit(*args):
 #=======================================================================================================================
 # StartServer
 #=======================================================================================================================
-def StartServer(host, port, client_port):
+def StartServer(host, port, client_port, socket_transport=False):
+    '''
+    @param socket_transport: if True, the requests are received through a persistent socket (see:
+        pydev_console_socket) instead of xml-rpc.
+    '''
     # replace exit (see comments on method)
     # note that this does not work in jython!!! (sys method can't be replaced).
     sys.exit = _DoExit
 
     try:
-        from _pydev_xmlrpc_hook import InputHookedXMLRPCServer as XMLRPCServer  #@UnusedImport
-    except:
-        #I.e.: supporting the internal Jython version in PyDev to create a Jython interactive console inside Eclipse.
-        from pydev_imports import SimpleXMLRPCServer as XMLRPCServer  #@Reimport
-    try:
-        server = XMLRPCServer((host, port), logRequests=False)
+        if socket_transport:
+            from pydev_console_socket import ConsoleSocketServer
+            server = ConsoleSocketServer(host, port)
+        else:
+            try:
+                from _pydev_xmlrpc_hook import InputHookedXMLRPCServer as XMLRPCServer  #@UnusedImport
+            except:
+                #I.e.: supporting the internal Jython version in PyDev to create a Jython interactive console inside Eclipse.
+                from pydev_imports import SimpleXMLRPCServer as XMLRPCServer  #@Reimport
+            server = XMLRPCServer((host, port), logRequests=False)
         interpreter = InterpreterInterface(host, client_port, server)
     except:
         sys.stderr.write('Error starting server with host: %s, port: %s, client_port: %s\n' % (host, port, client_port))
@@ -215,6 +223,9 @@ def StartServer(host, port, client_port):
 
 
     server.serve_forever()
+    if socket_transport:
+        # The connection was closed (i.e.: the console was closed in the client side).
+        _DoExit()
 
 #=======================================================================================================================
 # main
@@ -223,5 +234,5 @@ if __name__ == '__main__':
     sys.stdin = BaseStdIn()
     port, client_port = sys.argv[1:3]
     import pydev_localhost
-    StartServer(pydev_localhost.get_localhost(), int(port), int(client_port))
+    StartServer(pydev_localhost.get_localhost(), int(port), int(client_port), '--socket' in sys.argv[3:])
 
@@ -11,6 +11,7 @@ from pydevd_comm import  CMD_CHANGE_VARIABLE, \
                          CMD_GET_FRAME, \
                          CMD_SET_PY_EXCEPTION, \
                          CMD_GET_VARIABLE, \
+                         CMD_GET_VARIABLE_PAGE, \
                          CMD_LIST_THREADS, \
                          CMD_REMOVE_BREAK, \
                          CMD_RUN, \
@@ -35,6 +36,7 @@ from pydevd_comm import  CMD_CHANGE_VARIABLE, \
                          InternalEvaluateExpression, \
                          InternalGetFrame, \
                          InternalGetVariable, \
+                         InternalGetVariablePage, \
                          InternalEvaluateConsoleExpression, \
                          InternalRunCustomOperation, \
                          InternalConsoleGetCompletions, \
@@ -696,6 +698,23 @@ class PyDB:
                     except:
                         traceback.print_exc()
 
+                elif cmd_id == CMD_GET_VARIABLE_PAGE:
+                    #we received some command to get a page of the contents of a variable
+                    #the text is: offset\tlimit\tthread_id\tframe_id\tFRAME|GLOBAL\tattributes*
+                    try:
+                        offset, limit, thread_id, frame_id, scopeattrs = text.split('\t', 4)
+
+                        if scopeattrs.find('\t') != -1:  # there are attributes beyond scope
+                            scope, attrs = scopeattrs.split('\t', 1)
+                        else:
+                            scope, attrs = (scopeattrs, None)
+
+                        int_cmd = InternalGetVariablePage(seq, thread_id, frame_id, scope, attrs, int(offset), int(limit))
+                        self.postInternalCommand(int_cmd, thread_id)
+
+                    except:
+                        traceback.print_exc()
+
                 elif cmd_id == CMD_GET_COMPLETIONS:
                     #we received some command to get a variable
                     #the text is: thread_id\tframe_id\tactivation token
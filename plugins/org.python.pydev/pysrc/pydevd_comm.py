@@ -123,6 +123,7 @@ CMD_STEP_CAUGHT_EXCEPTION = 129
 CMD_SEND_CURR_EXCEPTION_TRACE = 130
 CMD_SEND_CURR_EXCEPTION_TRACE_PROCEEDED = 131
 CMD_IGNORE_THROWN_EXCEPTION_AT = 132
+CMD_GET_VARIABLE_PAGE = 133
 CMD_VERSION = 501
 CMD_RETURN = 502
 CMD_ERROR = 901
@@ -159,6 +160,7 @@ ID_TO_MEANING = {
     '130':'CMD_SEND_CURR_EXCEPTION_TRACE',
     '131':'CMD_SEND_CURR_EXCEPTION_TRACE_PROCEEDED',
     '132':'CMD_IGNORE_THROWN_EXCEPTION_AT',
+    '133':'CMD_GET_VARIABLE_PAGE',
     '501':'CMD_VERSION',
     '502':'CMD_RETURN',
     '901':'CMD_ERROR',
@@ -587,6 +589,12 @@ class NetCommandFactory:
         except Exception:
             return self.makeErrorMessage(seq, GetExceptionTracebackStr())
 
+    def makeGetVariablePageMessage(self, seq, payload):
+        try:
+            return NetCommand(CMD_GET_VARIABLE_PAGE, seq, payload)
+        except Exception:
+            return self.makeErrorMessage(seq, GetExceptionTracebackStr())
+
     def makeGetFrameMessage(self, seq, payload):
         try:
             return NetCommand(CMD_GET_FRAME, seq, payload)
@@ -814,6 +822,47 @@ class InternalGetVariable(InternalThreadCommand):
             dbg.writer.addCommand(cmd)
 
 
+#=======================================================================================================================
+# InternalGetVariablePage
+#=======================================================================================================================
+class InternalGetVariablePage(InternalThreadCommand):
+    """ gets a page (offset/limit) of the contents of a variable
+
+    The contents are only gotten for the requested page (so, huge containers may be inspected). If there are more
+    items after the page, a <more offset="next_offset" total="total_items" /> is added to the xml.
+    """
+    def __init__(self, seq, thread_id, frame_id, scope, attrs, offset, limit):
+        self.sequence = seq
+        self.thread_id = thread_id
+        self.frame_id = frame_id
+        self.scope = scope
+        self.attributes = attrs
+        self.offset = offset
+        self.limit = limit
+
+    def doIt(self, dbg):
+        """ Converts request into python variable """
+        try:
+            xml = "<xml>"
+            page = pydevd_vars.resolveCompoundVariablePage(
+                self.thread_id, self.frame_id, self.scope, self.attributes, self.offset, self.limit)
+            if page is not None:
+                items, total = page
+                for k, v in items:
+                    xml += pydevd_vars.varToXML(v, str(k))
+
+                next_offset = self.offset + self.limit
+                if next_offset < total:
+                    xml += '<more offset="%s" total="%s" />' % (next_offset, total)
+
+            xml += "</xml>"
+            cmd = dbg.cmdFactory.makeGetVariablePageMessage(self.sequence, xml)
+            dbg.writer.addCommand(cmd)
+        except Exception:
+            cmd = dbg.cmdFactory.makeErrorMessage(self.sequence, "Error resolving variables " + GetExceptionTracebackStr())
+            dbg.writer.addCommand(cmd)
+
+
 #=======================================================================================================================
 # InternalChangeVariable
 #=======================================================================================================================
@@ -202,6 +202,55 @@ class DefaultResolver:
         return d
 
 
+#=======================================================================================================================
+# getItemsPage
+#=======================================================================================================================
+def getItemsPage(iterable, offset, limit):
+    '''
+        @return: a list with the items from offset to offset + limit of the iterable (without creating a list with all
+        the items in the iterable).
+    '''
+    ret = []
+    if limit <= 0:
+        return ret
+    end = offset + limit
+    i = 0
+    for item in iterable:
+        if i >= offset:
+            ret.append(item)
+            if i + 1 >= end:
+                break
+        i += 1
+    return ret
+
+
+#=======================================================================================================================
+# sortByName
+#=======================================================================================================================
+def sortByName(items):
+    """ returns the list of (name, value) sorted by str(name) (Jython 2.1 has neither sorted() nor sort(key=...)) """
+    decorated = []
+    i = 0
+    for name, value in items:
+        decorated.append((str(name), i, name, value))  #i is there so that the values are never compared
+        i += 1
+    decorated.sort()
+    return [(name, value) for _str_name, _i, name, value in decorated]
+
+
+#=======================================================================================================================
+# iterItems
+#=======================================================================================================================
+def iterItems(d):
+    '''
+        @return: the items of the dict without creating a list with all of them when possible (dict.items() creates
+        a list in python 2 -- but iteritems is not available in Jython 2.1).
+    '''
+    if hasattr(d, 'iteritems'):
+        return d.iteritems()
+    return d.items()
+
+
 #=======================================================================================================================
 # DictResolver
 #=======================================================================================================================
@@ -219,7 +268,7 @@ class DictResolver:
         #ok, we have to iterate over the items to find the one that matches the id, because that's the only way
         #to actually find the reference from the string we have before.
         expected_id = int(key.split('(')[-1][:-1])
-        for key, val in dict.items():
+        for key, val in iterItems(dict):
             if id(key) == expected_id:
                 return val
 
@@ -236,6 +285,14 @@ class DictResolver:
         ret['__len__'] = len(dict)
         return ret
 
+    def getPage(self, dict, offset, limit):
+        #all the keys are sorted before getting the page (so that the pages are sorted among themselves too)
+        items = []
+        for key, val in iterItems(dict):
+            items.append(('%s (%s)' % (key, id(key)), val))
+        items = sortByName(items)
+        return items[offset:offset + limit], len(items)
+
 
 
 #=======================================================================================================================
@@ -269,6 +326,14 @@ class TupleResolver:  #to enumerate tuples and lists
         d['__len__'] = len(var)
         return d
 
+    def getPage(self, var, offset, limit):
+        l = len(var)
+        format = '%0' + str(int(len(str(l)))) + 'd'
+        ret = []
+        for i in range(offset, min(offset + limit, l)):
+            ret.append((format % i, var[i]))
+        return ret, l
+
 
 
 #=======================================================================================================================
@@ -297,6 +362,12 @@ class SetResolver:
         d['__len__'] = len(var)
         return d
 
+    def getPage(self, var, offset, limit):
+        ret = []
+        for item in getItemsPage(var, offset, limit):
+            ret.append((id(item), item))
+        return ret, len(var)
+
 
 #=======================================================================================================================
 # InstanceResolver
@@ -345,6 +416,14 @@ class JyArrayResolver:
         ret['__len__'] = len(obj)
         return ret
 
+    def getPage(self, obj, offset, limit):
+        l = len(obj)
+        format = '%0' + str(int(len(str(l)))) + 'd'
+        ret = []
+        for i in range(offset, min(offset + limit, l)):
+            ret.append((format % i, obj[i]))
+        return ret, l
+
 
 #=======================================================================================================================
 # NdArrayResolver
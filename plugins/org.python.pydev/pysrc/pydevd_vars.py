@@ -147,6 +147,37 @@ except:
         return s.replace('<', '&lt;').replace('>', '&gt;').replace('"', '&quot;').replace("&", "&amp;")
 
 
+#Number of items shown in the value of a container that's too large to be shown entirely.
+MAX_ITEMS_IN_LARGE_CONTAINER_VALUE = 20
+
+def getLargeContainerValue(cName, v, resolver):
+    '''
+    str() of a huge container would convert all its items (only to have the result cut to
+    MAXIMUM_VARIABLE_REPRESENTATION_SIZE later on), so, only its size and its first items are shown.
+
+    @return: the value to be shown or None if it's not a large container.
+    '''
+    if not hasattr(resolver, 'getPage'):
+        return None
+
+    try:
+        size = len(v)
+    except:
+        return None
+
+    if size <= pydevd_resolver.MAX_ITEMS_TO_HANDLE:
+        return None
+
+    if resolver is pydevd_resolver.dictResolver:
+        items = pydevd_resolver.getItemsPage(pydevd_resolver.iterItems(v), 0, MAX_ITEMS_IN_LARGE_CONTAINER_VALUE)
+        contents = ', '.join(['%r: %r' % (key, val) for key, val in items])
+    else:
+        items = pydevd_resolver.getItemsPage(v, 0, MAX_ITEMS_IN_LARGE_CONTAINER_VALUE)
+        contents = ', '.join([repr(item) for item in items])
+
+    return '%s: len=%s (%s, ...)' % (cName, size, contents)
+
+
 def varToXML(v, name, additionalInXml=''):
     """ single variable or dictionary to xml representation """
     type, typeName, resolver = getType(v)
@@ -168,7 +199,9 @@ def varToXML(v, name, additionalInXml=''):
                         cName = cName[:-2]
                 except:
                     cName = str(v.__class__)
-                value = '%s: %s' % (cName, v)
+                value = getLargeContainerValue(cName, v, resolver)
+                if value is None:
+                    value = '%s: %s' % (cName, v)
         else:
             value = str(v)
     except:
@@ -431,6 +464,32 @@ def resolveCompoundVariable(thread_id, frame_id, scope, attrs):
         traceback.print_exc()
 
 
+def resolveCompoundVariablePage(thread_id, frame_id, scope, attrs, offset, limit):
+    """ returns a tuple with a list of (name, value) with the contents of the compound variable from offset to
+    offset + limit and the total number of items in the variable."""
+
+    var = getVariable(thread_id, frame_id, scope, attrs)
+
+    try:
+        _type, _typeName, resolver = getType(var)
+        if hasattr(resolver, 'getPage'):
+            #only the items in the page are gotten from the container (already in the order they should be shown,
+            #which must be the same for all the pages, so, they're not sorted here)
+            items, total = resolver.getPage(var, offset, limit)
+            if offset == 0:
+                items.append(('__len__', total))
+            return items, total
+
+        #other resolvers are not expected to return huge dicts
+        valDict = resolver.getDictionary(var)
+        items = pydevd_resolver.sortByName(valDict.items())
+        return items[offset:offset + limit], len(items)
+    except:
+        sys.stderr.write('Error evaluating: thread_id: %s\nframe_id: %s\nscope: %s\nattrs: %s\n' % (
+            thread_id, frame_id, scope, attrs,))
+        traceback.print_exc()
+
+
 def customOperation(thread_id, frame_id, scope, attrs, style, code_or_file, operation_fn_name):
     """
     We'll execute the code_or_file and then search in the namespace the operation_fn_name to execute with the given var.
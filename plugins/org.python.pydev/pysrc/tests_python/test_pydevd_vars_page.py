@@ -0,0 +1,156 @@
+'''
+    Tests getting the contents of containers in pages (CMD_GET_VARIABLE_PAGE).
+'''
+import sys
+import threading
+import unittest
+
+import pydevd_resolver
+import pydevd_vars
+from pydevd_constants import GetThreadId
+
+
+class CountingIterable:
+    '''
+        An iterable which records how many items were gotten from it.
+    '''
+
+    def __init__(self, size):
+        self.size = size
+        self.gotten = 0
+
+    def __iter__(self):
+        i = 0
+        while i < self.size:
+            self.gotten += 1
+            yield i
+            i += 1
+
+
+#=======================================================================================================================
+# TestVariablePage
+#=======================================================================================================================
+class TestVariablePage(unittest.TestCase):
+
+    def setUp(self):
+        self.thread_id = GetThreadId(threading.currentThread())
+        self.frame = sys._getframe()
+        self.frame_id = str(id(self.frame))
+        pydevd_vars.addAdditionalFrameById(self.thread_id, {id(self.frame): self.frame})
+
+    def tearDown(self):
+        pydevd_vars.removeAdditionalFrameById(self.thread_id)
+        self.frame = None
+
+    def getPage(self, attrs, offset, limit):
+        return pydevd_vars.resolveCompoundVariablePage(self.thread_id, self.frame_id, 'FRAME', attrs, offset, limit)
+
+    def testGetItemsPage(self):
+        iterable = CountingIterable(1000000)
+        self.assertEqual([10, 11, 12], pydevd_resolver.getItemsPage(iterable, 10, 3))
+        #only the items up to the end of the page are gotten
+        self.assertEqual(13, iterable.gotten)
+
+        self.assertEqual([8, 9], pydevd_resolver.getItemsPage(range(10), 8, 5))
+        self.assertEqual([], pydevd_resolver.getItemsPage(range(10), 10, 5))
+
+    def testSortByName(self):
+        items = [('b', 1), (2, 2), ('a', 3), (10, 4)]
+        self.assertEqual([(10, 4), (2, 2), ('a', 3), ('b', 1)], pydevd_resolver.sortByName(items))
+
+        #values are never compared (even when names have the same str)
+        items = [('1', object()), (1, object())]
+        self.assertEqual(items, pydevd_resolver.sortByName(items))
+
+    def testListPage(self):
+        huge = list(range(1000000))
+        self.frame = sys._getframe()
+        pydevd_vars.addAdditionalFrameById(self.thread_id, {id(self.frame): self.frame})
+        self.frame_id = str(id(self.frame))
+
+        items, total = self.getPage('huge', 0, 100)
+        self.assertEqual(1000000, total)
+        self.assertEqual(101, len(items))  #the page and the __len__
+        self.assertEqual(('0000000', 0), items[0])
+        self.assertEqual(('0000099', 99), items[99])
+        self.assertEqual(('__len__', 1000000), items[100])
+
+        items, total = self.getPage('huge', 999950, 100)
+        self.assertEqual(1000000, total)
+        self.assertEqual(50, len(items))
+        self.assertEqual(('0999950', 999950), items[0])
+        self.assertEqual(('0999999', 999999), items[-1])
+
+        #the names of the children are resolved in the container
+        self.assertEqual(500, pydevd_vars.getVariable(self.thread_id, self.frame_id, 'FRAME', 'huge\t0000500'))
+
+    def testDictPage(self):
+        d = {}
+        for i in range(1000):
+            d['key%s' % i] = i
+        self.frame = sys._getframe()
+        pydevd_vars.addAdditionalFrameById(self.thread_id, {id(self.frame): self.frame})
+        self.frame_id = str(id(self.frame))
+
+        found = {}
+        names = []
+        offset = 0
+        while offset < 1000:
+            items, total = self.getPage('d', offset, 100)
+            self.assertEqual(1000, total)
+            for name, value in items:
+                if name == '__len__':
+                    continue
+                names.append(name)
+                #the name has the id of the key, which is used to resolve it later on
+                self.assertEqual(value, pydevd_vars.getVariable(self.thread_id, self.frame_id, 'FRAME', 'd\t' + name))
+                found[name.split(' ')[0]] = value
+            offset += 100
+        self.assertEqual(d, found)
+
+        #all the keys are sorted (not only the ones in each page)
+        sortedNames = names[:]
+        sortedNames.sort()
+        self.assertEqual(sortedNames, names)
+        self.assertTrue(names[0].startswith('key0 ('), names[0])
+        self.assertTrue(names[-1].startswith('key999 ('), names[-1])
+
+    def testJyArrayPage(self):
+        #the names are zero-padded (as in the tuple resolver), so that they're sorted by their index
+        items, total = pydevd_resolver.jyArrayResolver.getPage(list(range(12)), 8, 5)
+        self.assertEqual(12, total)
+        self.assertEqual([('08', 8), ('09', 9), ('10', 10), ('11', 11)], items)
+        self.assertEqual(9, pydevd_resolver.jyArrayResolver.resolve(list(range(12)), '09'))
+
+    def testOtherResolverPage(self):
+        class Obj:
+            pass
+        obj = Obj()
+        obj.b = 1
+        obj.a = 2
+        obj.c = 3
+        self.frame = sys._getframe()
+        pydevd_vars.addAdditionalFrameById(self.thread_id, {id(self.frame): self.frame})
+        self.frame_id = str(id(self.frame))
+
+        items, total = self.getPage('obj', 0, 2)
+        self.assertEqual(3, total)
+        self.assertEqual([('a', 2), ('b', 1)], items)
+        items, total = self.getPage('obj', 2, 2)
+        self.assertEqual([('c', 3)], items)
+
+    def testLargeContainerValue(self):
+        xml = pydevd_vars.varToXML(list(range(1000000)), 'huge')
+        self.assertTrue('len=1000000' in xml, xml)
+        self.assertTrue('19%2C ...' in xml, xml)
+
+        d = {}
+        for i in range(1000):
+            d[i] = i
+        xml = pydevd_vars.varToXML(d, 'd')
+        self.assertTrue('len=1000' in xml, xml)
+
+
+if __name__ == '__main__':
+    suite = unittest.makeSuite(TestVariablePage)
+    unittest.TextTestRunner(verbosity=3).run(suite)
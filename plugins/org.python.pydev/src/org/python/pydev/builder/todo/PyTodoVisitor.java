@@ -12,7 +12,6 @@
 package org.python.pydev.builder.todo;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -22,10 +21,10 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.python.pydev.builder.PyDevBuilderVisitor;
-import org.python.pydev.core.docutils.ParsingUtils;
 import org.python.pydev.core.docutils.SyntaxErrorException;
 import org.python.pydev.core.log.Log;
 import org.python.pydev.logging.DebugSettings;
+import org.python.pydev.shared_core.cache.LRUMap;
 import org.python.pydev.shared_core.callbacks.ICallback0;
 import org.python.pydev.shared_ui.utils.PyMarkerUtils;
 import org.python.pydev.shared_ui.utils.PyMarkerUtils.MarkerInfo;
@@ -35,6 +34,11 @@ import org.python.pydev.shared_ui.utils.PyMarkerUtils.MarkerInfo;
  */
 public class PyTodoVisitor extends PyDevBuilderVisitor {
 
+    /**
+     * The last scans done (so that when a resource is changed again only the changed part has to be scanned).
+     */
+    private static final LRUMap<String, TodoScanner> lastScans = new LRUMap<String, TodoScanner>(20);
+
     /*
      * (non-Javadoc)
      * 
@@ -55,8 +59,9 @@ public class PyTodoVisitor extends PyDevBuilderVisitor {
             }
 
             try {
-                PyMarkerUtils.replaceMarkers(computeTodoMarkers(document.call(), todoTags), resource, IMarker.TASK,
-                        false, monitor);
+                PyMarkerUtils.replaceMarkers(
+                        computeTodoMarkers(document.call(), todoTags, resource.getFullPath().toString()), resource,
+                        IMarker.TASK, false, monitor);
                 //timer.printDiff("Total time to put markers: "+lst.size());
             } catch (Exception e) {
                 Log.log(e);
@@ -71,83 +76,60 @@ public class PyTodoVisitor extends PyDevBuilderVisitor {
      */
     /*default*/List<MarkerInfo> computeTodoMarkers(IDocument document, List<String> todoTags)
             throws BadLocationException {
+        return computeTodoMarkers(document, todoTags, null);
+    }
+
+    /**
+     * @param cacheKey if not null, the scan of the document is kept so that the next time the same key is passed
+     * only the parts of the document which changed are scanned again.
+     */
+    /*default*/List<MarkerInfo> computeTodoMarkers(IDocument document, List<String> todoTags, String cacheKey)
+            throws BadLocationException {
         List<PyMarkerUtils.MarkerInfo> lst = new ArrayList<PyMarkerUtils.MarkerInfo>();
         if (todoTags.size() > 0) {
-
             String str = document.get();
-            ParsingUtils utils = ParsingUtils.create(str);
-            int len = utils.len();
-            try {
-                for (int i = 0; i < len; i++) {
-                    char c = str.charAt(i);
-                    switch (c) {
-                        case '\'':
-                        case '\"':
-                            int j = utils.eatLiterals(null, i);
-                            check(i, j, document, lst, todoTags);
-                            i = j;
-                            break;
-
-                        case '#':
-                            j = utils.eatComments(null, i);
-                            check(i, j, document, lst, todoTags);
-                            i = j;
-                            break;
-                    }
+            TodoScanner previous = null;
+            if (cacheKey != null) {
+                synchronized (lastScans) {
+                    previous = lastScans.get(cacheKey);
                 }
-            } catch (BadLocationException e) {
-                //ignore (if document changed in the iteration).
+            }
+            TodoScanner scanner;
+            try {
+                scanner = TodoScanner.scan(str, todoTags, previous);
             } catch (SyntaxErrorException e) {
                 Log.log(e); //Should not happen!
+                return lst;
             }
-
-            if (DebugSettings.DEBUG_ANALYSIS_REQUESTS) {
-                Log.toLogFile(this, "Adding todo markers");
-            }
-        }
-        return lst;
-    }
-
-    /**
-     * Checks a partition of a document for todo tags (filling lst with the markers to be created).
-     */
-    private void check(int i, int j, IDocument document, List<MarkerInfo> lst, List<String> todoTags)
-            throws BadLocationException {
-        String tok = document.get(i, j - i);
-        int index;
-        HashSet<Integer> lines = new HashSet<Integer>();
-        for (String element : todoTags) {
-
-            if (element.length() == 0) {
-                continue;
+            if (cacheKey != null) {
+                synchronized (lastScans) {
+                    lastScans.put(cacheKey, scanner);
+                }
             }
-            int start = 0;
-            while ((index = tok.indexOf(element, start)) != -1) {
-
-                start = index + element.length();
 
-                int absoluteStart = i + index;
-                int line = document.getLineOfOffset(absoluteStart);
-                if (lines.contains(line)) {
-                    //Only 1 TASK per line!
-                    continue;
-                } else {
-                    lines.add(line);
+            for (TodoScanner.Region region : scanner.regions) {
+                for (int i = 0; i < region.found.length; i++) {
+                    String message = region.messages[i];
+                    String markerType = IMarker.TASK;
+                    int severity = IMarker.SEVERITY_WARNING;
+                    boolean userEditable = false;
+                    boolean isTransient = false;
+                    int absoluteStart = region.start + region.found[i];
+                    int absoluteEnd = absoluteStart + message.length();
+                    int line = scanner.getLineOfOffset(absoluteStart);
+                    Map<String, Object> additionalInfo = null;
+
+                    MarkerInfo markerInfo = new PyMarkerUtils.MarkerInfo(document, message, markerType, severity,
+                            userEditable, isTransient, line, absoluteStart, absoluteEnd, additionalInfo);
+                    lst.add(markerInfo);
                 }
+            }
 
-                String message = tok.substring(index).trim();
-                String markerType = IMarker.TASK;
-                int severity = IMarker.SEVERITY_WARNING;
-                boolean userEditable = false;
-                boolean isTransient = false;
-                int absoluteEnd = absoluteStart + message.length();
-                Map<String, Object> additionalInfo = null;
-
-                MarkerInfo markerInfo = new PyMarkerUtils.MarkerInfo(document, message, markerType, severity,
-                        userEditable, isTransient, line, absoluteStart, absoluteEnd, additionalInfo);
-                lst.add(markerInfo);
+            if (DebugSettings.DEBUG_ANALYSIS_REQUESTS) {
+                Log.toLogFile(this, "Adding todo markers");
             }
         }
+        return lst;
     }
 
     /**
@@ -155,6 +137,9 @@ public class PyTodoVisitor extends PyDevBuilderVisitor {
      */
     @Override
     public void visitRemovedResource(IResource resource, ICallback0<IDocument> document, IProgressMonitor monitor) {
+        synchronized (lastScans) {
+            lastScans.remove(resource.getFullPath().toString());
+        }
     }
 
 }
\ No newline at end of file
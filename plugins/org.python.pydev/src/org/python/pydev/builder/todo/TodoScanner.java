@@ -0,0 +1,261 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.builder.todo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.python.pydev.core.docutils.ParsingUtils;
+import org.python.pydev.core.docutils.SyntaxErrorException;
+import org.python.pydev.shared_core.string.AhoCorasick;
+import org.python.pydev.shared_core.structure.Tuple;
+
+/**
+ * Finds the todo tags in the strings and comments of a document.
+ *
+ * All the tags are searched in a single pass (with an Aho-Corasick automaton) and the results of a previous scan of
+ * the same resource may be passed so that only the part of the document which actually changed is scanned again.
+ */
+final class TodoScanner {
+
+    /**
+     * A string or comment and the todo tags found in it.
+     */
+    static final class Region {
+
+        /**
+         * Offset of the ' or " or #.
+         */
+        final int start;
+
+        /**
+         * Offset of the last char of the region (the region contents are start:end).
+         */
+        final int end;
+
+        /**
+         * Offsets where the tags were found (relative to the region start).
+         */
+        final int[] found;
+
+        /**
+         * The message for each tag found (the contents from the tag to the end of the region).
+         */
+        final String[] messages;
+
+        private Region(int start, int end, int[] found, String[] messages) {
+            this.start = start;
+            this.end = end;
+            this.found = found;
+            this.messages = messages;
+        }
+
+        private Region shift(int delta) {
+            return new Region(start + delta, end + delta, found, messages);
+        }
+    }
+
+    private static final int[] EMPTY_FOUND = new int[0];
+    private static final String[] EMPTY_MESSAGES = new String[0];
+
+    /**
+     * Chars which may be read after the end of a region when it's being tokenized (i.e.: to check if a literal is
+     * a multi-line literal).
+     */
+    private static final int LOOK_AHEAD = 2;
+
+    private static Tuple<List<String>, AhoCorasick> lastAutomaton;
+
+    final String text;
+    final List<String> todoTags;
+
+    /**
+     * Regions (sorted by offset).
+     */
+    final List<Region> regions = new ArrayList<Region>();
+
+    private final int[] lineStarts;
+
+    /**
+     * Number of regions reused from the previous scan (for tests).
+     */
+    int reused;
+
+    private TodoScanner(String text, List<String> todoTags) {
+        this.text = text;
+        this.todoTags = todoTags;
+        this.lineStarts = computeLineStarts(text);
+    }
+
+    /**
+     * @param previous the scan done for a previous version of the same document (or null).
+     */
+    static TodoScanner scan(String text, List<String> todoTags, TodoScanner previous) throws SyntaxErrorException {
+        TodoScanner scanner = new TodoScanner(text, todoTags);
+        AhoCorasick automaton = getAutomaton(todoTags);
+
+        int len = text.length();
+        int pos = 0;
+        int resyncFrom = len + 1; //Only changed if we have a previous scan.
+        int delta = 0;
+        List<Region> oldRegions = null;
+        int oldIndex = 0;
+        if (previous != null && previous.todoTags.equals(todoTags)) {
+            String oldText = previous.text;
+            int max = Math.min(oldText.length(), len);
+            int prefix = 0;
+            while (prefix < max && oldText.charAt(prefix) == text.charAt(prefix)) {
+                prefix++;
+            }
+            int suffix = 0;
+            while (suffix < max - prefix
+                    && oldText.charAt(oldText.length() - 1 - suffix) == text.charAt(len - 1 - suffix)) {
+                suffix++;
+            }
+
+            //Regions before the first change are the same.
+            oldRegions = previous.regions;
+            int size = oldRegions.size();
+            for (; oldIndex < size; oldIndex++) {
+                Region region = oldRegions.get(oldIndex);
+                if (region.end + LOOK_AHEAD >= prefix) {
+                    break;
+                }
+                scanner.regions.add(region);
+                pos = region.end + 1;
+            }
+            scanner.reused = oldIndex;
+            delta = len - oldText.length();
+            resyncFrom = len - suffix;
+        }
+
+        ParsingUtils utils = ParsingUtils.create(text);
+        for (int i = pos; i < len; i++) {
+            if (i >= resyncFrom) {
+                //We're in the part which didn't change: if the previous scan was also out of a region in the same
+                //place, all the remaining regions are the same (just shifted).
+                int oldPos = i - delta;
+                int size = oldRegions.size();
+                while (oldIndex < size && oldRegions.get(oldIndex).end < oldPos) {
+                    oldIndex++;
+                }
+                if (oldIndex == size || oldRegions.get(oldIndex).start >= oldPos) {
+                    scanner.reused += size - oldIndex;
+                    for (; oldIndex < size; oldIndex++) {
+                        scanner.regions.add(oldRegions.get(oldIndex).shift(delta));
+                    }
+                    break;
+                }
+            }
+            char c = text.charAt(i);
+            int j;
+            switch (c) {
+                case '\'':
+                case '\"':
+                    j = utils.eatLiterals(null, i);
+                    scanner.addRegion(i, j, automaton);
+                    i = j;
+                    break;
+
+                case '#':
+                    j = utils.eatComments(null, i);
+                    scanner.addRegion(i, j, automaton);
+                    i = j;
+                    break;
+            }
+        }
+        return scanner;
+    }
+
+    private static synchronized AhoCorasick getAutomaton(List<String> todoTags) {
+        if (lastAutomaton == null || !lastAutomaton.o1.equals(todoTags)) {
+            List<String> tags = new ArrayList<String>(todoTags);
+            lastAutomaton = new Tuple<List<String>, AhoCorasick>(tags, new AhoCorasick(
+                    tags.toArray(new String[tags.size()])));
+        }
+        return lastAutomaton.o2;
+    }
+
+    /**
+     * Only 1 tag is kept per line: the first tag in the preferences order (and the first occurrence of it if it
+     * appears more than once in the same line).
+     */
+    private void addRegion(final int start, int end, AhoCorasick automaton) {
+        end = Math.min(end, text.length());
+        final List<int[]> matches = new ArrayList<int[]>(); //[line, tag index, offset]
+        automaton.search(text, start, end, new AhoCorasick.IMatchListener() {
+
+            @Override
+            public void onMatch(int patternIndex, int offset) {
+                int line = getLineOfOffset(offset);
+                for (int[] match : matches) {
+                    if (match[0] == line) {
+                        if (patternIndex < match[1] || (patternIndex == match[1] && offset < match[2])) {
+                            match[1] = patternIndex;
+                            match[2] = offset;
+                        }
+                        return;
+                    }
+                }
+                matches.add(new int[] { line, patternIndex, offset });
+            }
+        });
+
+        int size = matches.size();
+        if (size == 0) {
+            regions.add(new Region(start, end, EMPTY_FOUND, EMPTY_MESSAGES));
+            return;
+        }
+        int[] found = new int[size];
+        for (int i = 0; i < size; i++) {
+            found[i] = matches.get(i)[2];
+        }
+        Arrays.sort(found);
+        String[] messages = new String[size];
+        for (int i = 0; i < size; i++) {
+            messages[i] = text.substring(found[i], end).trim();
+            found[i] -= start;
+        }
+        regions.add(new Region(start, end, found, messages));
+    }
+
+    /**
+     * @return the line (0-based) of the given offset.
+     */
+    int getLineOfOffset(int offset) {
+        int i = Arrays.binarySearch(lineStarts, offset);
+        if (i < 0) {
+            i = -i - 2; //insertion point - 1
+        }
+        return i;
+    }
+
+    private static int[] computeLineStarts(String text) {
+        int len = text.length();
+        int[] starts = new int[64];
+        int size = 1; //starts[0] = 0
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            if (c == '\r' || c == '\n') {
+                if (c == '\r' && i + 1 < len && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                if (size == starts.length) {
+                    starts = Arrays.copyOf(starts, size * 2);
+                }
+                starts[size++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(starts, size);
+    }
+}
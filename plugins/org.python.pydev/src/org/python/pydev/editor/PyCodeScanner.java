@@ -10,20 +10,16 @@
  */
 package org.python.pydev.editor;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-import org.eclipse.jface.text.rules.IRule;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.rules.IToken;
-import org.eclipse.jface.text.rules.IWhitespaceDetector;
+import org.eclipse.jface.text.rules.ITokenScanner;
 import org.eclipse.jface.text.rules.IWordDetector;
-import org.eclipse.jface.text.rules.RuleBasedScanner;
 import org.eclipse.jface.text.rules.Token;
-import org.eclipse.jface.text.rules.WhitespaceRule;
-import org.eclipse.jface.text.rules.WordRule;
 import org.python.pydev.shared_core.callbacks.ICallbackListener;
 import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.utils.ArrayUtils;
@@ -33,9 +29,14 @@ import org.python.pydev.ui.ColorAndStyleCache;
  * PyCodeScanner - A scanner that looks for python keywords and code
  * and supports the updating of named colors through the colorCache
  * 
- * GreatWhite, GreatKeywordDetector came from PyEditConfiguration
+ * It's written as a state machine (it gives the same tokens the previous chain of rules -- whitespace, words
+ * with keywords, parens and operators, decorators and numbers -- gave, without trying each rule for each char).
+ * 
+ * The only state kept among tokens is the last keyword found (so that the name after a 'def' or 'class' gets its
+ * own color). It's reset at each setRange: the damager asks for ranges starting at the start of a line in the
+ * default partition, where there's no previous state to be kept.
  */
-public class PyCodeScanner extends RuleBasedScanner {
+public class PyCodeScanner implements ITokenScanner {
 
     // keywords list has to be alphabetized for the keyword detector to work properly
     static final public String[] DEFAULT_KEYWORDS = { "and", "as", "assert", "break", "class", "continue", "def",
@@ -68,57 +69,22 @@ public class PyCodeScanner extends RuleBasedScanner {
 
     private String[] keywords;
 
+    private Map<String, IToken> keywordTokens;
+
     private ICodeScannerKeywords codeScannerKeywords;
 
-    /**
-     * Whitespace detector.
-     * 
-     * I know, naming the class after a band that burned
-     * is not funny, but I've got to get my brain off my
-     * annoyance with the abstractions of JFace.
-     * So many classes and interfaces for a single method?
-     * f$%@#$!!
-     */
-    static private class GreatWhite implements IWhitespaceDetector {
-        public boolean isWhitespace(char c) {
-            return Character.isWhitespace(c);
-        }
-    }
+    private final NumberDetector numberDetector = new NumberDetector();
+
+    private String text = "";
+    private int rangeOffset;
+    private int offset;
+    private int end;
+    private int tokenOffset;
 
     /**
-     * Python keyword detector
+     * The last keyword found (or the name after it if it's a 'def' or 'class').
      */
-    static private class GreatKeywordDetector implements IWordDetector {
-
-        public GreatKeywordDetector() {
-        }
-
-        public boolean isWordStart(char c) {
-            return Character.isJavaIdentifierStart(c);
-        }
-
-        public boolean isWordPart(char c) {
-            return Character.isJavaIdentifierPart(c);
-        }
-    }
-
-    static private class DecoratorDetector implements IWordDetector {
-
-        /**
-         * @see org.eclipse.jface.text.rules.IWordDetector#isWordStart(char)
-         */
-        public boolean isWordStart(char c) {
-            return c == '@';
-        }
-
-        /**
-         * @see org.eclipse.jface.text.rules.IWordDetector#isWordPart(char)
-         */
-        public boolean isWordPart(char c) {
-            return c != '\n' && c != '\r' && c != '(';
-        }
-
-    }
+    private String lastFound = "";
 
     static public class NumberDetector implements IWordDetector {
 
@@ -226,49 +192,124 @@ public class PyCodeScanner extends RuleBasedScanner {
 
         operatorsToken = new Token(colorCache.getOperatorsTextAttribute());
 
-        setDefaultReturnToken(defaultToken);
-        List<IRule> rules = new ArrayList<IRule>();
+        Map<String, IToken> tokens = new HashMap<String, IToken>();
+        for (String keyword : keywords) {
+            tokens.put(keyword, "self".equals(keyword) ? selfToken : keywordToken);
+        }
+        keywordTokens = tokens;
+    }
 
-        // Scanning strategy:
-        // 1) whitespace
-        // 2) code
-        // 3) regular words?
+    /**
+     * Used from the django templates editor.
+     */
+    public void setKeywords(String[] keywords) {
+        this.keywords = keywords;
+        this.setupRules();
+    }
 
-        WhitespaceRule whitespaceRule;
+    public void setRange(IDocument document, int offset, int length) {
         try {
-            whitespaceRule = new WhitespaceRule(new GreatWhite(), defaultToken);
-        } catch (Throwable e) {
-            //Compatibility with Eclipse 3.4 and below.
-            whitespaceRule = new WhitespaceRule(new GreatWhite());
+            this.text = document.get(offset, length);
+        } catch (BadLocationException e) {
+            this.text = "";
         }
-        rules.add(whitespaceRule);
+        this.rangeOffset = offset;
+        this.offset = 0;
+        this.end = text.length();
+        this.tokenOffset = 0;
+        this.lastFound = "";
+    }
 
-        Map<String, IToken> defaults = new HashMap<String, IToken>();
-        defaults.put("self", selfToken);
+    public int getTokenOffset() {
+        return rangeOffset + tokenOffset;
+    }
 
-        PyWordRule wordRule = new PyWordRule(new GreatKeywordDetector(), defaultToken, classNameToken, funcNameToken,
-                parensToken, operatorsToken);
-        for (String keyword : keywords) {
-            IToken token = defaults.get(keyword);
-            if (token == null) {
-                token = keywordToken;
+    public int getTokenLength() {
+        return offset - tokenOffset;
+    }
+
+    public IToken nextToken() {
+        tokenOffset = offset;
+        if (offset >= end) {
+            return Token.EOF;
+        }
+        char c = text.charAt(offset);
+        offset++;
+
+        if (Character.isWhitespace(c)) {
+            while (offset < end && Character.isWhitespace(text.charAt(offset))) {
+                offset++;
             }
-            wordRule.addWord(keyword, token);
+            return defaultToken;
         }
 
-        rules.add(wordRule);
+        switch (c) {
+            case '(':
+            case ')':
+            case '[':
+            case ']':
+            case '{':
+            case '}':
+                lastFound = "";
+                return parensToken;
+
+            case '<':
+            case '>':
+            case '=':
+            case '+':
+            case '-':
+            case '/':
+            case '*':
+            case '!':
+            case '&':
+            case '|':
+            case '%':
+            case '~':
+            case '^':
+            case ',':
+                lastFound = "";
+                return operatorsToken;
+
+            case '@':
+                //Decorator: up to the end of the line or the first '('.
+                while (offset < end) {
+                    c = text.charAt(offset);
+                    if (c == '\n' || c == '\r' || c == '(') {
+                        break;
+                    }
+                    offset++;
+                }
+                return decoratorToken;
+        }
 
-        rules.add(new WordRule(new DecoratorDetector(), decoratorToken));
-        rules.add(new WordRule(new NumberDetector(), numberToken));
+        if (Character.isJavaIdentifierStart(c)) {
+            while (offset < end && Character.isJavaIdentifierPart(text.charAt(offset))) {
+                offset++;
+            }
+            String word = text.substring(tokenOffset, offset);
+            IToken token = keywordTokens.get(word);
+            if (token != null) {
+                lastFound = word;
+                return token;
+            }
+            if (lastFound.equals("def")) {
+                lastFound = word;
+                return funcNameToken;
+            }
+            if (lastFound.equals("class")) {
+                lastFound = word;
+                return classNameToken;
+            }
+            return defaultToken;
+        }
 
-        setRules(rules.toArray(new IRule[0]));
-    }
+        if (numberDetector.isWordStart(c)) {
+            while (offset < end && numberDetector.isWordPart(text.charAt(offset))) {
+                offset++;
+            }
+            return numberToken;
+        }
 
-    /**
-     * Used from the django templates editor.
-     */
-    public void setKeywords(String[] keywords) {
-        this.keywords = keywords;
-        this.setupRules();
+        return defaultToken;
     }
 }
@@ -153,10 +153,8 @@ public class PyFormatStd extends PyAction implements IFormatter {
         try {
 
             if (regionsToFormat == null || regionsToFormat.length == 0) {
-                if (doc instanceof IDocumentExtension4) {
-                    IDocumentExtension4 ext = (IDocumentExtension4) doc;
-                    session = ext.startRewriteSession(DocumentRewriteSessionType.STRICTLY_SEQUENTIAL);
-                }
+                //No rewrite session here: only the changed parts are replaced (and setOnlyDifferentCode starts
+                //a session itself if there are many changes).
                 participant.formatAll(doc, pyEdit, null, true, throwSyntaxError);
 
             } else {
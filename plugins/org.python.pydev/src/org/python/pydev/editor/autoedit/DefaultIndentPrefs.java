@@ -31,7 +31,7 @@ public class DefaultIndentPrefs extends AbstractIndentPrefs {
 
     private int tabWidth;
 
-    private static PyPreferencesCache cache;
+    private static volatile PyPreferencesCache cache;
 
     /**
      * Singleton instance for the preferences
@@ -62,10 +62,17 @@ public class DefaultIndentPrefs extends AbstractIndentPrefs {
      * @return a cache for the preferences.
      */
     private PyPreferencesCache getCache() {
-        if (cache == null) {
-            cache = new PyPreferencesCache(PydevPlugin.getDefault().getPreferenceStore());
+        PyPreferencesCache c = cache;
+        if (c == null) {
+            synchronized (DefaultIndentPrefs.class) {
+                c = cache;
+                if (c == null) {
+                    c = new PyPreferencesCache(PydevPlugin.getDefault().getPreferenceStore());
+                    cache = c;
+                }
+            }
         }
-        return cache;
+        return c;
     }
 
     /**
@@ -0,0 +1,383 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.editor.hover;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.python.pydev.core.log.Log;
+import org.python.pydev.shared_core.cache.CacheManager;
+import org.python.pydev.shared_core.cache.IManagedCache;
+import org.python.pydev.shared_core.cache.LRUCache;
+import org.python.pydev.shared_core.callbacks.ICallback;
+import org.python.pydev.shared_core.metrics.Counter;
+import org.python.pydev.shared_core.metrics.HitCounter;
+import org.python.pydev.shared_core.metrics.Metrics;
+import org.python.pydev.shared_core.structure.Tuple;
+
+/**
+ * Computes (and caches) the hover information which is expensive to get (i.e.: the definition/docstring of the
+ * token under the mouse).
+ *
+ * - Results are cached by resource, modification stamp of the document and token (so, hovering again over the same
+ * token in an unchanged document is instantaneous).
+ * - Requests don't block each other (a request for a token being already computed -- by another request or by the
+ * prefetch -- waits for that computation instead of starting a new one).
+ * - When a new request arrives, the previous one is considered stale (the mouse moved): its monitor is cancelled and
+ * it stops waiting for the result (results of cancelled computations are never cached nor returned).
+ * - Tokens may be prefetched in a background thread (i.e.: the identifiers in the visible part of the editor). The
+ * prefetch is bounded in time and is cancelled when a new batch is scheduled or when the caret moves.
+ */
+public final class PyHoverInfoService implements IManagedCache {
+
+    /**
+     * Identifies the token for which the hover is requested.
+     */
+    public static final class HoverKey {
+
+        public final String resource;
+        public final long modificationStamp;
+        public final int offset;
+        public final String token;
+
+        public HoverKey(String resource, long modificationStamp, int offset, String token) {
+            this.resource = resource;
+            this.modificationStamp = modificationStamp;
+            this.offset = offset;
+            this.token = token;
+        }
+
+        @Override
+        public int hashCode() {
+            return resource.hashCode() * 31 + (int) (modificationStamp ^ (modificationStamp >>> 32)) * 7 + offset;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof HoverKey)) {
+                return false;
+            }
+            HoverKey other = (HoverKey) obj;
+            return offset == other.offset && modificationStamp == other.modificationStamp
+                    && resource.equals(other.resource) && token.equals(other.token);
+        }
+
+        @Override
+        public String toString() {
+            return "HoverKey[" + resource + ", " + modificationStamp + ", " + offset + ", " + token + "]";
+        }
+    }
+
+    private static final int MAX_CACHED = 100;
+
+    /**
+     * Rough estimate on the memory used by each hover text.
+     */
+    private static final int ESTIMATED_BYTES_PER_ENTRY = 2048;
+
+    /**
+     * Time to wait for the result before checking if the request became stale.
+     */
+    private static final long WAIT_STEP_MILLIS = 50;
+
+    /**
+     * Max time spent prefetching a batch of tokens (after that, the computation running is cancelled and the
+     * remaining tokens are discarded).
+     */
+    private static final long MAX_PREFETCH_MILLIS = 2000;
+
+    private static final HitCounter hitCounter = Metrics.hitCounter("cache.hover");
+    private static final Counter prefetchCounter = Metrics.counter("hover.prefetched");
+
+    private static final PyHoverInfoService instance = new PyHoverInfoService();
+
+    public static PyHoverInfoService getInstance() {
+        return instance;
+    }
+
+    /**
+     * A monitor which is also cancelled when the given deadline is reached.
+     */
+    private static final class DeadlineMonitor extends NullProgressMonitor {
+
+        private final long deadline;
+
+        private DeadlineMonitor(long deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return super.isCanceled() || System.currentTimeMillis() > deadline;
+        }
+    }
+
+    /**
+     * The computation of the hover for some key (the monitor is the one of the request or prefetch which started it).
+     */
+    private final class HoverTask extends FutureTask<String> {
+
+        private final HoverKey key;
+        private final IProgressMonitor monitor;
+
+        private HoverTask(final HoverKey key, final ICallback<String, IProgressMonitor> computation,
+                final IProgressMonitor monitor) {
+            super(new Callable<String>() {
+
+                @Override
+                public String call() throws Exception {
+                    return compute(key, computation, monitor);
+                }
+            });
+            this.key = key;
+            this.monitor = monitor;
+        }
+
+        @Override
+        protected void done() {
+            synchronized (lock) {
+                if (running.get(key) == this) {
+                    running.remove(key);
+                }
+            }
+        }
+    }
+
+    private final Object lock = new Object();
+
+    private final LRUCache<HoverKey, String> cache = new LRUCache<HoverKey, String>(MAX_CACHED);
+
+    /**
+     * Computations currently running (for requests or prefetches).
+     */
+    private final Map<HoverKey, HoverTask> running = new HashMap<HoverKey, HoverTask>();
+
+    private final LinkedList<Tuple<HoverKey, ICallback<String, IProgressMonitor>>> prefetchQueue =
+            new LinkedList<Tuple<HoverKey, ICallback<String, IProgressMonitor>>>();
+
+    private IProgressMonitor currentRequest;
+    private HoverKey currentKey;
+
+    /**
+     * The monitor used for the computations of the current prefetch batch.
+     */
+    private IProgressMonitor prefetchMonitor;
+
+    private Thread prefetchThread;
+
+    /*default*/PyHoverInfoService() {
+        CacheManager.register(this);
+    }
+
+    /**
+     * @param computation receives a monitor (which is cancelled if the request becomes stale) and returns the hover
+     * text (may return null).
+     * @return the hover text or null if the request became stale before finishing (i.e.: another hover was
+     * requested).
+     */
+    public String getHoverInfo(HoverKey key, ICallback<String, IProgressMonitor> computation) {
+        IProgressMonitor monitor;
+        synchronized (lock) {
+            String cached = cache.getObj(key);
+            if (cached != null) {
+                hitCounter.hit();
+                return cached;
+            }
+            hitCounter.miss();
+            if (currentRequest != null && key.equals(currentKey)) {
+                //The mouse moved inside the same token: share the monitor of the current request.
+                monitor = currentRequest;
+            } else {
+                if (currentRequest != null) {
+                    currentRequest.setCanceled(true); //The mouse moved: the previous request is stale.
+                }
+                monitor = new NullProgressMonitor();
+                currentRequest = monitor;
+                currentKey = key;
+            }
+        }
+        while (!monitor.isCanceled()) {
+            HoverTask task;
+            boolean runHere = false;
+            synchronized (lock) {
+                String cached = cache.getObj(key);
+                if (cached != null) {
+                    return cached;
+                }
+                task = running.get(key);
+                if (task == null || task.monitor.isCanceled()) {
+                    //Not running or the one running is stale (so, its result would be discarded).
+                    task = new HoverTask(key, computation, monitor);
+                    running.put(key, task);
+                    runHere = true;
+                }
+            }
+            if (runHere) {
+                task.run();
+            }
+            try {
+                String ret = task.get(WAIT_STEP_MILLIS, TimeUnit.MILLISECONDS);
+                if (monitor.isCanceled()) {
+                    return null;
+                }
+                if (!task.monitor.isCanceled()) {
+                    return ret;
+                }
+                //The task was cancelled (so, it had no result): compute it again.
+            } catch (TimeoutException e) {
+                //Keep on waiting unless it became stale.
+            } catch (InterruptedException e) {
+                return null;
+            } catch (CancellationException e) {
+                return null;
+            } catch (ExecutionException e) {
+                Log.log(e);
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Schedules the given computations to be done in a background thread (the computations previously scheduled
+     * which weren't started yet are discarded and the one running is cancelled).
+     *
+     * The batch is bounded by MAX_PREFETCH_MILLIS.
+     */
+    public void prefetch(List<Tuple<HoverKey, ICallback<String, IProgressMonitor>>> requests) {
+        synchronized (lock) {
+            cancelPrefetch();
+            prefetchQueue.addAll(requests);
+            prefetchMonitor = new DeadlineMonitor(System.currentTimeMillis() + MAX_PREFETCH_MILLIS);
+            if (prefetchThread == null) {
+                prefetchThread = new Thread("PyDev hover prefetch") {
+
+                    @Override
+                    public void run() {
+                        try {
+                            while (true) {
+                                prefetchNext();
+                            }
+                        } catch (InterruptedException e) {
+                            //Just exit.
+                        }
+                    }
+                };
+                prefetchThread.setDaemon(true);
+                prefetchThread.setPriority(Thread.MIN_PRIORITY);
+                prefetchThread.start();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Discards the computations scheduled to be prefetched and cancels the one running (i.e.: the caret moved).
+     */
+    public void cancelPrefetch() {
+        synchronized (lock) {
+            prefetchQueue.clear();
+            if (prefetchMonitor != null) {
+                prefetchMonitor.setCanceled(true);
+                prefetchMonitor = null;
+            }
+        }
+    }
+
+    private void prefetchNext() throws InterruptedException {
+        HoverTask task = null;
+        synchronized (lock) {
+            while (prefetchQueue.isEmpty()) {
+                lock.wait();
+            }
+            if (prefetchMonitor == null || prefetchMonitor.isCanceled()) {
+                prefetchQueue.clear(); //Time for the batch is over.
+                return;
+            }
+            Tuple<HoverKey, ICallback<String, IProgressMonitor>> next = prefetchQueue.removeFirst();
+            HoverTask current = running.get(next.o1);
+            if (cache.getObj(next.o1) == null && (current == null || current.monitor.isCanceled())) {
+                task = new HoverTask(next.o1, next.o2, prefetchMonitor);
+                running.put(next.o1, task);
+            }
+        }
+        if (task != null) {
+            prefetchCounter.inc();
+            task.run();
+        }
+    }
+
+    /**
+     * @return the hover text computed or null if the computation was cancelled (in which case the result could be
+     * partial and isn't published).
+     */
+    private String compute(HoverKey key, ICallback<String, IProgressMonitor> computation, IProgressMonitor monitor) {
+        String ret;
+        try {
+            ret = computation.call(monitor);
+        } catch (OperationCanceledException e) {
+            return null;
+        }
+        if (monitor.isCanceled()) {
+            return null;
+        }
+        if (ret != null && ret.length() > 0) {
+            //Empty results aren't cached (they may be due to the nature/index not being ready yet).
+            synchronized (lock) {
+                cache.add(key, ret);
+            }
+        }
+        return ret;
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            cache.clear();
+        }
+        cancelPrefetch();
+    }
+
+    @Override
+    public String getCacheName() {
+        return "Hover cache";
+    }
+
+    @Override
+    public int getEntriesCount() {
+        synchronized (lock) {
+            return cache.size();
+        }
+    }
+
+    @Override
+    public long getSizeEstimate() {
+        return getEntriesCount() * (long) ESTIMATED_BYTES_PER_ENTRY;
+    }
+
+    @Override
+    public void evict(double fraction) {
+        synchronized (lock) {
+            cache.evict(fraction);
+        }
+    }
+}
@@ -11,15 +11,22 @@
  */
 package org.python.pydev.editor.hover;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.DefaultInformationControl;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IInformationControl;
 import org.eclipse.jface.text.IInformationControlCreator;
 import org.eclipse.jface.text.IInformationControlExtension3;
@@ -31,6 +38,11 @@ import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.source.ISourceViewer;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CaretEvent;
+import org.eclipse.swt.custom.CaretListener;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.events.DisposeEvent;
+import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.editors.text.EditorsUI;
 import org.python.pydev.core.ExtensionHelper;
@@ -39,6 +51,7 @@ import org.python.pydev.core.IIndentPrefs;
 import org.python.pydev.core.IPythonNature;
 import org.python.pydev.core.IPythonPartitions;
 import org.python.pydev.core.MisconfigurationException;
+import org.python.pydev.core.docutils.ParsingUtils;
 import org.python.pydev.core.docutils.PySelection;
 import org.python.pydev.core.docutils.PyStringUtils;
 import org.python.pydev.core.docutils.StringEscapeUtils;
@@ -51,6 +64,7 @@ import org.python.pydev.editor.codecompletion.revisited.CompletionCache;
 import org.python.pydev.editor.codecompletion.revisited.visitors.Definition;
 import org.python.pydev.editor.codefolding.MarkerAnnotationAndPosition;
 import org.python.pydev.editor.codefolding.PySourceViewer;
+import org.python.pydev.editor.hover.PyHoverInfoService.HoverKey;
 import org.python.pydev.editor.model.ItemPointer;
 import org.python.pydev.editor.refactoring.PyRefactoringFindDefinition;
 import org.python.pydev.editor.refactoring.RefactoringRequest;
@@ -65,9 +79,12 @@ import org.python.pydev.parser.prettyprinterv2.MakeAstValidForPrettyPrintingVisi
 import org.python.pydev.parser.prettyprinterv2.PrettyPrinterPrefsV2;
 import org.python.pydev.parser.prettyprinterv2.PrettyPrinterV2;
 import org.python.pydev.parser.visitors.NodeUtils;
+import org.python.pydev.parser.visitors.PythonLanguageUtils;
+import org.python.pydev.shared_core.callbacks.ICallback;
 import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.string.StringUtils;
 import org.python.pydev.shared_core.structure.FastStack;
+import org.python.pydev.shared_core.structure.Tuple;
 
 /**
  * Gets the default hover information and asks for clients to gather more info.
@@ -90,14 +107,28 @@ public class PyTextHover implements ITextHover, ITextHoverExtension {
     private final boolean pythonCommentOrMultiline;
 
     /**
-     * A buffer we can fill with the information to be returned.
+     * Max number of tokens to prefetch in the visible part of the editor.
      */
-    private final FastStringBuffer buf = new FastStringBuffer();
+    private static final int MAX_PREFETCH = 15;
 
     /**
      * The text selected
      */
-    private ITextSelection textSelection;
+    private volatile ITextSelection textSelection;
+
+    /**
+     * Used to know whether the visible part of the editor changed since the last prefetch.
+     */
+    private IDocument lastPrefetchDoc;
+    private long lastPrefetchStamp;
+    private int lastPrefetchTop;
+    private int lastPrefetchBottom;
+
+    /**
+     * Key (in the widget data) for the listener which cancels the prefetch when the caret moves (only one is
+     * registered per widget, regardless of how many hovers are created for it).
+     */
+    private static final String CANCEL_PREFETCH_CARET_LISTENER = "PyTextHover.CancelPrefetchCaretListener";
 
     /**
      * Constructor
@@ -118,11 +149,12 @@ public class PyTextHover implements ITextHover, ITextHoverExtension {
     }
 
     /**
-     * Synchronized because of buffer access.
+     * Not synchronized: the definition/docstring is gotten through the PyHoverInfoService (so, a slow hover doesn't
+     * stall the others and stale requests stop waiting when a new hover is requested).
      */
     @SuppressWarnings("unchecked")
-    public synchronized String getHoverInfo(ITextViewer textViewer, IRegion hoverRegion) {
-        buf.clear();
+    public String getHoverInfo(ITextViewer textViewer, IRegion hoverRegion) {
+        FastStringBuffer buf = new FastStringBuffer();
 
         if (!pythonCommentOrMultiline) {
             if (textViewer instanceof PySourceViewer) {
@@ -145,9 +177,15 @@ public class PyTextHover implements ITextHover, ITextHoverExtension {
                     }
                 }
 
-                getMarkerHover(hoverRegion, s);
+                getMarkerHover(hoverRegion, s, buf);
                 if (PyHoverPreferencesPage.getShowDocstringOnHover()) {
-                    getDocstringHover(hoverRegion, s, ps);
+                    String docstringHover = getDocstringHover(s.getEdit(), ps);
+                    if (docstringHover != null && docstringHover.length() > 0) {
+                        if (buf.length() > 0) {
+                            buf.append(PyInformationPresenter.LINE_DELIM);
+                        }
+                        buf.append(docstringHover);
+                    }
                 }
 
             }
@@ -158,7 +196,7 @@ public class PyTextHover implements ITextHover, ITextHoverExtension {
     /**
      * Fills the buffer with the text for markers we're hovering over.
      */
-    private void getMarkerHover(IRegion hoverRegion, PySourceViewer s) {
+    private void getMarkerHover(IRegion hoverRegion, PySourceViewer s, FastStringBuffer buf) {
         for (Iterator<MarkerAnnotationAndPosition> it = s.getMarkerIterator(); it.hasNext();) {
             MarkerAnnotationAndPosition marker = it.next();
             try {
@@ -184,32 +222,81 @@ public class PyTextHover implements ITextHover, ITextHoverExtension {
     }
 
     /**
-     * Fills the buffer with the text for docstrings of the selected element.
+     * @return the text for docstrings of the selected element (cached by the PyHoverInfoService) or null if the
+     * request became stale.
+     */
+    private static String getDocstringHover(PyEdit edit, PySelection ps) {
+        HoverKey key = createHoverKey(edit, ps);
+        if (key == null) {
+            return computeDocstringHover(edit, ps, new NullProgressMonitor());
+        }
+        return PyHoverInfoService.getInstance().getHoverInfo(key, createDocstringComputation(edit, ps));
+    }
+
+    private static ICallback<String, IProgressMonitor> createDocstringComputation(final PyEdit edit,
+            final PySelection ps) {
+        return new ICallback<String, IProgressMonitor>() {
+
+            @Override
+            public String call(IProgressMonitor monitor) {
+                return computeDocstringHover(edit, ps, monitor);
+            }
+        };
+    }
+
+    /**
+     * @return the key to cache the hover for the token in the selection (or null if it can't be cached).
+     */
+    private static HoverKey createHoverKey(PyEdit edit, PySelection ps) {
+        IDocument doc = ps.getDoc();
+        if (!(doc instanceof IDocumentExtension4)) {
+            return null;
+        }
+        long stamp = ((IDocumentExtension4) doc).getModificationStamp();
+        if (stamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+            return null;
+        }
+        Tuple<String, Integer> token;
+        try {
+            token = ps.getCurrToken();
+        } catch (BadLocationException e) {
+            return null;
+        }
+        if (token.o1.length() == 0) {
+            return null;
+        }
+        File file = edit.getEditorFile();
+        String resource = file != null ? file.getAbsolutePath() : "doc:" + System.identityHashCode(doc);
+        return new HoverKey(resource, stamp, token.o2, token.o1);
+    }
+
+    /**
+     * @return the text for docstrings of the selected element.
      */
     @SuppressWarnings("unchecked")
-    private void getDocstringHover(IRegion hoverRegion, PySourceViewer s, PySelection ps) {
+    private static String computeDocstringHover(PyEdit edit, PySelection ps, IProgressMonitor monitor) {
         //Now, aside from the marker, let's check if there's some definition we should show the user about.
         CompletionCache completionCache = new CompletionCache();
         ArrayList<IDefinition> selected = new ArrayList<IDefinition>();
 
-        PyEdit edit = s.getEdit();
         RefactoringRequest request;
         IPythonNature nature = null;
         try {
             nature = edit.getPythonNature();
-            request = new RefactoringRequest(edit.getEditorFile(), ps, new NullProgressMonitor(), nature, edit);
+            request = new RefactoringRequest(edit.getEditorFile(), ps, monitor, nature, edit);
         } catch (MisconfigurationException e) {
-            return;
+            return null;
         }
         String[] tokenAndQual = null;
         try {
             tokenAndQual = PyRefactoringFindDefinition.findActualDefinition(request, completionCache, selected);
         } catch (CompletionRecursionException e1) {
             Log.log(e1);
-            buf.append("Unable to compute hover. Details: " + e1.getMessage());
-            return;
+            return "Unable to compute hover. Details: " + e1.getMessage();
         }
 
+        FastStringBuffer buf = new FastStringBuffer();
+
         FastStringBuffer temp = new FastStringBuffer();
 
         if (tokenAndQual != null && selected.size() > 0) {
@@ -300,6 +387,7 @@ public class PyTextHover implements ITextHover, ITextHoverExtension {
                 }
             }
         }
+        return buf.toString();
     }
 
     public static String printAst(PyEdit edit, SimpleNode astToPrint) {
@@ -338,9 +426,114 @@ public class PyTextHover implements ITextHover, ITextHoverExtension {
     public IRegion getHoverRegion(ITextViewer textViewer, int offset) {
         //we have to set it here (otherwise we don't have thread access to the UI)
         this.textSelection = (ITextSelection) textViewer.getSelectionProvider().getSelection();
+        if (!pythonCommentOrMultiline && textViewer instanceof PySourceViewer
+                && PyHoverPreferencesPage.getShowDocstringOnHover()) {
+            prefetchVisibleTokens((PySourceViewer) textViewer, offset);
+        }
         return new Region(offset, 0);
     }
 
+    /**
+     * Asks the PyHoverInfoService to prefetch the hover for the identifiers in the visible part of the editor (the
+     * ones closer to the mouse first). Must be called in the UI thread.
+     */
+    private void prefetchVisibleTokens(PySourceViewer viewer, int offset) {
+        IDocument doc = viewer.getDocument();
+        PyEdit edit = viewer.getEdit();
+        if (!(doc instanceof IDocumentExtension4) || edit == null) {
+            return;
+        }
+        long stamp = ((IDocumentExtension4) doc).getModificationStamp();
+        int top = viewer.getTopIndex();
+        int bottom = viewer.getBottomIndex();
+        if (doc == lastPrefetchDoc && stamp == lastPrefetchStamp && top == lastPrefetchTop
+                && bottom == lastPrefetchBottom) {
+            return; //Nothing changed since the last prefetch.
+        }
+        StyledText textWidget = viewer.getTextWidget();
+        if (textWidget != null) {
+            addCancelPrefetchCaretListener(textWidget);
+        }
+        lastPrefetchDoc = doc;
+        lastPrefetchStamp = stamp;
+        lastPrefetchTop = top;
+        lastPrefetchBottom = bottom;
+
+        try {
+            int start = doc.getLineOffset(top);
+            IRegion lastLine = doc.getLineInformation(Math.min(bottom, doc.getNumberOfLines() - 1));
+            String text = doc.get(start, lastLine.getOffset() + lastLine.getLength() - start);
+
+            //Offsets at the end of each identifier (in code) in the visible part.
+            List<Integer> offsets = new ArrayList<Integer>();
+            int len = text.length();
+            for (int i = 0; i < len; i++) {
+                if (!Character.isJavaIdentifierStart(text.charAt(i))) {
+                    continue;
+                }
+                int j = i + 1;
+                while (j < len && Character.isJavaIdentifierPart(text.charAt(j))) {
+                    j++;
+                }
+                if (!PythonLanguageUtils.isKeyword(text.substring(i, j))
+                        && IPythonPartitions.PY_DEFAULT.equals(ParsingUtils.getContentType(doc, start + i))) {
+                    offsets.add(start + j);
+                }
+                i = j;
+            }
+
+            final int mouseOffset = offset;
+            Collections.sort(offsets, new Comparator<Integer>() {
+
+                @Override
+                public int compare(Integer o1, Integer o2) {
+                    return Math.abs(o1 - mouseOffset) - Math.abs(o2 - mouseOffset);
+                }
+            });
+
+            List<Tuple<HoverKey, ICallback<String, IProgressMonitor>>> requests = new ArrayList<Tuple<HoverKey, ICallback<String, IProgressMonitor>>>();
+            for (int i = 0; i < offsets.size() && requests.size() < MAX_PREFETCH; i++) {
+                PySelection ps = new PySelection(doc, offsets.get(i));
+                HoverKey key = createHoverKey(edit, ps);
+                if (key != null) {
+                    requests.add(new Tuple<HoverKey, ICallback<String, IProgressMonitor>>(key,
+                            createDocstringComputation(edit, ps)));
+                }
+            }
+            PyHoverInfoService.getInstance().prefetch(requests);
+        } catch (BadLocationException e) {
+            //Document changed: ignore.
+        }
+    }
+
+    /**
+     * Registers (once per widget) a listener which cancels the prefetch when the caret moves. It's removed when the
+     * widget is disposed. Must be called in the UI thread.
+     */
+    private static void addCancelPrefetchCaretListener(final StyledText textWidget) {
+        if (textWidget.isDisposed() || textWidget.getData(CANCEL_PREFETCH_CARET_LISTENER) != null) {
+            return;
+        }
+        final CaretListener caretListener = new CaretListener() {
+
+            @Override
+            public void caretMoved(CaretEvent event) {
+                //The user is typing/navigating: the prefetched hovers would probably be outdated.
+                PyHoverInfoService.getInstance().cancelPrefetch();
+            }
+        };
+        textWidget.setData(CANCEL_PREFETCH_CARET_LISTENER, caretListener);
+        textWidget.addCaretListener(caretListener);
+        textWidget.addDisposeListener(new DisposeListener() {
+
+            @Override
+            public void widgetDisposed(DisposeEvent e) {
+                textWidget.removeCaretListener(caretListener);
+                textWidget.setData(CANCEL_PREFETCH_CARET_LISTENER, null);
+            }
+        });
+    }
+
     /*
      * @see org.eclipse.jface.text.ITextHoverExtension#getHoverControlCreator()
      */
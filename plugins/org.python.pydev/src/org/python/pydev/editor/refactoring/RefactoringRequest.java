@@ -44,6 +44,11 @@ public class RefactoringRequest extends DecoratableObject {
 
     public static final String FIND_DEFINITION_IN_ADDITIONAL_INFO = "findDefinitionInAdditionalInfo";
 
+    /**
+     * Whether the modules with possible references in the workspace may be analyzed in parallel (default: true).
+     */
+    public static final String FIND_REFERENCES_IN_PARALLEL = "findReferencesInParallel";
+
     /**
      * The file associated with the editor where the refactoring is being requested
      */
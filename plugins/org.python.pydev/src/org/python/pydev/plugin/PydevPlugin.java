@@ -23,12 +23,9 @@ import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.swt.graphics.Color;
@@ -41,6 +38,7 @@ import org.python.pydev.core.IPythonNature;
 import org.python.pydev.core.MisconfigurationException;
 import org.python.pydev.core.log.Log;
 import org.python.pydev.editor.codecompletion.revisited.SynchSystemModulesManagerScheduler;
+import org.python.pydev.editor.codecompletion.revisited.WorkspaceIndexSnapshot;
 import org.python.pydev.editor.codecompletion.shell.AbstractShell;
 import org.python.pydev.plugin.nature.PythonNature;
 import org.python.pydev.plugin.nature.SystemPythonNature;
@@ -201,16 +199,6 @@ public class PydevPlugin extends AbstractUIPlugin {
         plugin = this;
     }
 
-    Job startSynchSchedulerJob = new Job("SynchScheduler start") {
-
-        @Override
-        protected IStatus run(IProgressMonitor monitor) {
-            synchScheduler.start();
-            return Status.OK_STATUS;
-        }
-
-    };
-
     @Override
     public void start(BundleContext context) throws Exception {
         this.isAlive = true;
@@ -237,9 +225,9 @@ public class PydevPlugin extends AbstractUIPlugin {
             new CheckPreferredPyDevSettingsJob().schedule(500);
         }
 
-        //This is usually fast, but in lower end machines it could be a bit slow, so, let's do it in a job to make sure
-        //that the plugin is properly initialized without any delays.
-        startSynchSchedulerJob.schedule(1000);
+        //Restores the interpreters and projects (in parallel) and starts the synch scheduler afterwards. It's done
+        //in a job to make sure that the plugin is properly initialized without any delays.
+        new StartupRestoreJob(synchScheduler).schedule(1000);
 
         //restore the nature for all python projects -- that's done when the project is set now.
         //        new Job("PyDev: Restoring projects python nature"){
@@ -305,6 +293,7 @@ public class PydevPlugin extends AbstractUIPlugin {
                     Log.log(e);
                 }
             }
+            WorkspaceIndexSnapshot.saveCurrentIfDirty();
         } finally {
             super.stop(context);
         }
@@ -555,6 +544,14 @@ public class PydevPlugin extends AbstractUIPlugin {
     //Default for using in tests (could be private)
     /*default*/static File location;
 
+    /**
+     * Sets the folder used instead of the plugin state location (when running without the platform, i.e.: in the
+     * batch analysis).
+     */
+    public static void setStateLocation(File stateLocation) {
+        location = stateLocation;
+    }
+
     /**
      * Loads from the workspace metadata a given object (given the filename)
      */
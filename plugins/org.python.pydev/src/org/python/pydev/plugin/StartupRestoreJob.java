@@ -0,0 +1,118 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.python.pydev.core.IInterpreterManager;
+import org.python.pydev.core.concurrency.DependentTasks;
+import org.python.pydev.core.log.Log;
+import org.python.pydev.editor.codecompletion.revisited.SynchSystemModulesManagerScheduler;
+import org.python.pydev.plugin.nature.PythonNature;
+import org.python.pydev.shared_core.callbacks.ICallback;
+
+/**
+ * Restores the interpreters (and their system modules managers) and the natures of the python projects
+ * (and their project modules managers) at startup.
+ *
+ * Previously those were restored lazily, one after the other, as they were first requested. Now the
+ * independent ones are restored in parallel (the synch scheduler is only started after all the interpreters
+ * are restored).
+ *
+ * Requests done while this job is still running block only on what they actually need (and code completion
+ * answers with what's already available while the project modules manager is still being restored).
+ *
+ * The natures of different projects are also restored in parallel (see: PythonNature.getPythonNature(IProject),
+ * which only locks per project).
+ */
+public class StartupRestoreJob extends Job {
+
+    private final SynchSystemModulesManagerScheduler synchScheduler;
+
+    public StartupRestoreJob(SynchSystemModulesManagerScheduler synchScheduler) {
+        super("PyDev: Restoring interpreters and projects");
+        this.synchScheduler = synchScheduler;
+    }
+
+    @Override
+    protected IStatus run(final IProgressMonitor monitor) {
+        DependentTasks tasks = new DependentTasks();
+
+        List<String> interpreterTaskIds = new ArrayList<String>();
+        for (final IInterpreterManager manager : PydevPlugin.getAllInterpreterManagers()) {
+            if (manager != null) {
+                String id = getInterpretersTaskId(manager);
+                tasks.addTask(id, "Restoring " + manager.getManagerRelatedName() + " interpreters", new Runnable() {
+
+                    public void run() {
+                        manager.getInterpreterInfos();
+                    }
+                });
+                interpreterTaskIds.add(id);
+            }
+        }
+
+        //The project modules manager doesn't need the interpreter to be restored (only when actually used).
+        for (final IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+            tasks.addTask(getProjectTaskId(project), "Restoring project: " + project.getName(), new Runnable() {
+
+                public void run() {
+                    try {
+                        if (project.isOpen() && project.hasNature(PythonNature.PYTHON_NATURE_ID)) {
+                            PythonNature.getPythonNature(project);
+                        }
+                    } catch (CoreException e) {
+                        Log.log(e);
+                    }
+                }
+            });
+        }
+
+        tasks.addTask("synch scheduler", "Starting interpreters synchronization", new Runnable() {
+
+            public void run() {
+                synchScheduler.start();
+            }
+        }, interpreterTaskIds.toArray(new String[interpreterTaskIds.size()]));
+
+        monitor.beginTask(getName(), tasks.size());
+        try {
+            tasks.run(monitor, new ICallback<Object, String>() {
+
+                public Object call(String id) {
+                    monitor.subTask("Finished: " + id);
+                    return null;
+                }
+            });
+        } finally {
+            monitor.done();
+        }
+        return Status.OK_STATUS;
+    }
+
+    private static String getInterpretersTaskId(IInterpreterManager manager) {
+        return "interpreters:" + manager.getManagerRelatedName();
+    }
+
+    private static String getProjectTaskId(IProject project) {
+        return "project:" + project.getName();
+    }
+
+}
@@ -586,17 +586,20 @@ public class PythonNature extends AbstractPythonNature implements IPythonNature
                         null);
                 return; //The project was deleted
             }
-            astManager = ASTManager.loadFromFile(astOutputFile);
-            if (astManager != null) {
-                synchronized (astManager.getLock()) {
-                    astManager.setProject(getProject(), this, true); // this is the project related to it, restore the deltas (we may have some crash)
+            //Only published after it's completely restored (clients such as the code completion check it to know
+            //whether the modules manager finished loading).
+            ICodeCompletionASTManager restored = ASTManager.loadFromFile(astOutputFile);
+            if (restored != null) {
+                synchronized (restored.getLock()) {
+                    restored.setProject(getProject(), this, true); // this is the project related to it, restore the deltas (we may have some crash)
 
                     //just a little validation so that we restore the needed info if we did not get the modules
-                    if (astManager.getModulesManager().getOnlyDirectModules().length < 15) {
-                        astManager = null;
+                    if (restored.getModulesManager().getOnlyDirectModules().length < 15) {
+                        restored = null;
                     }
 
-                    if (astManager != null) {
+                    if (restored != null) {
+                        astManager = restored;
                         List<IInterpreterObserver> participants = ExtensionHelper
                                 .getParticipants(ExtensionHelper.PYDEV_INTERPRETER_OBSERVER);
                         for (IInterpreterObserver observer : participants) {
@@ -747,14 +750,29 @@ public class PythonNature extends AbstractPythonNature implements IPythonNature
         return getPythonNature(resource.getProject());
     }
 
-    private static final Object lockGetNature = new Object();
+    /**
+     * The locks used when creating the nature of each project (the nature of different projects may be created --
+     * and restored -- in parallel).
+     */
+    private static final Map<IProject, Object> lockGetNature = new HashMap<IProject, Object>();
+
+    private static Object getLockGetNature(IProject project) {
+        synchronized (lockGetNature) {
+            Object lock = lockGetNature.get(project);
+            if (lock == null) {
+                lock = new Object();
+                lockGetNature.put(project, lock);
+            }
+            return lock;
+        }
+    }
 
     /**
      * @param project the project we want to know about (if it is null, null is returned)
      * @return the python nature for a project (or null if it does not exist for the project)
      * 
-     * @note: it's synchronized because more than 1 place could call getPythonNature at the same time and more
-     * than one nature ended up being created from project.getNature().
+     * @note: it's synchronized (per project) because more than 1 place could call getPythonNature at the same time
+     * and more than one nature ended up being created from project.getNature().
      */
     public static PythonNature getPythonNature(IProject project) {
         if (project != null && project.isOpen()) {
@@ -777,7 +795,7 @@ public class PythonNature extends AbstractPythonNature implements IPythonNature
                     Log.log(e);
                 }
 
-                synchronized (lockGetNature) {
+                synchronized (getLockGetNature(project)) {
                     IProjectNature n = project.getNature(PYTHON_NATURE_ID);
                     if (n instanceof PythonNature) {
                         return (PythonNature) n;
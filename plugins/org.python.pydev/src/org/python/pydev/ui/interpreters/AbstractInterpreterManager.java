@@ -47,12 +47,15 @@ import org.python.pydev.core.ISystemModulesManager;
 import org.python.pydev.core.IToken;
 import org.python.pydev.core.MisconfigurationException;
 import org.python.pydev.core.NotConfiguredInterpreterException;
+import org.python.pydev.core.concurrency.OrderedParallelRunner;
 import org.python.pydev.core.log.Log;
 import org.python.pydev.editor.codecompletion.revisited.PythonPathHelper;
+import org.python.pydev.editor.codecompletion.revisited.WorkspaceIndexSnapshot;
 import org.python.pydev.editor.codecompletion.shell.AbstractShell;
 import org.python.pydev.plugin.PydevPlugin;
 import org.python.pydev.plugin.nature.PythonNature;
 import org.python.pydev.plugin.nature.PythonNatureListenersManager;
+import org.python.pydev.shared_core.callbacks.ICallback;
 import org.python.pydev.shared_core.callbacks.ListenerList;
 import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.string.StringUtils;
@@ -63,6 +66,7 @@ import org.python.pydev.ui.pythonpathconf.AutoConfigMaker;
 import org.python.pydev.ui.pythonpathconf.IInterpreterProviderFactory.InterpreterType;
 import org.python.pydev.ui.pythonpathconf.InterpreterConfigHelpers;
 import org.python.pydev.ui.pythonpathconf.InterpreterInfo;
+import org.python.pydev.ui.pythonpathconf.InterpreterInfoSnapshot;
 
 /**
  * Does not write directly in INTERPRETER_PATH, just loads from it and works with it.
@@ -327,13 +331,15 @@ public abstract class AbstractInterpreterManager implements IInterpreterManager
     private IInterpreterInfo[] internalRecreateCacheGetInterpreterInfos() {
         IInterpreterInfo[] interpreters = interpreterInfosFromPersistedString;
         if (interpreters == null) {
+            //Restored without holding the lock (the modules managers are loaded in other threads).
+            IInterpreterInfo[] restored = getInterpretersFromPersistedString(getPersistedString());
             synchronized (lock) {
                 if (interpreterInfosFromPersistedString != null) {
-                    //Some other thread restored it while we're locked.
+                    //Some other thread restored it while we're restoring.
                     interpreters = interpreterInfosFromPersistedString;
 
                 } else {
-                    interpreters = getInterpretersFromPersistedString(getPersistedString());
+                    interpreters = restored;
                     try {
                         this.exeToInfo.clear();
                         for (IInterpreterInfo info : interpreters) {
@@ -442,10 +448,10 @@ public abstract class AbstractInterpreterManager implements IInterpreterManager
      */
     public InterpreterInfo getInterpreterInfo(String nameOrExecutableOrJar, IProgressMonitor monitor)
             throws MisconfigurationException {
+        if (interpreterInfosFromPersistedString == null) {
+            internalRecreateCacheGetInterpreterInfos(); //recreate cache!
+        }
         synchronized (lock) {
-            if (interpreterInfosFromPersistedString == null) {
-                internalRecreateCacheGetInterpreterInfos(); //recreate cache!
-            }
             for (IInterpreterInfo info : this.exeToInfo.values()) {
                 if (info != null) {
                     if (info.matchNameBackwardCompatible(nameOrExecutableOrJar)) {
@@ -460,6 +466,11 @@ public abstract class AbstractInterpreterManager implements IInterpreterManager
     }
 
     private Object lock = new Object();
+    /**
+     * Only one thread restores the interpreters from the persisted string at a time (but the lock is not held
+     * while doing so).
+     */
+    private Object restoreLock = new Object();
     //little cache...
     private String persistedCache;
     private IInterpreterInfo[] persistedCacheRet;
@@ -468,106 +479,159 @@ public abstract class AbstractInterpreterManager implements IInterpreterManager
      * @see org.python.pydev.core.IInterpreterManager#getInterpretersFromPersistedString(java.lang.String)
      */
     public IInterpreterInfo[] getInterpretersFromPersistedString(String persisted) {
-        synchronized (lock) {
-            if (persisted == null || persisted.trim().length() == 0) {
+        if (persisted == null || persisted.trim().length() == 0) {
+            return new IInterpreterInfo[0];
+        }
+        synchronized (restoreLock) {
+            synchronized (lock) {
+                if (persistedCache != null && persistedCache.equals(persisted)) {
+                    return persistedCacheRet;
+                }
+            }
+
+            IInterpreterInfo[] ret = restoreInterpretersFromPersistedString(persisted);
+            if (ret == null) {
                 return new IInterpreterInfo[0];
             }
 
-            if (persistedCache == null || persistedCache.equals(persisted) == false) {
-                List<IInterpreterInfo> ret = new ArrayList<IInterpreterInfo>();
+            synchronized (lock) {
+                persistedCache = persisted;
+                persistedCacheRet = ret;
+            }
+            return ret;
+        }
+    }
 
-                try {
-                    List<InterpreterInfo> list = new ArrayList<InterpreterInfo>();
-                    String[] strings = persisted.split("&&&&&");
-
-                    //first, get it...
-                    for (String string : strings) {
-                        try {
-                            list.add(InterpreterInfo.fromString(string, false));
-                        } catch (Exception e) {
-                            //ok, its format might have changed
-                            String errMsg = "Interpreter storage changed.\r\n"
-                                    + "Please restore it (window > preferences > Pydev > Interpreter)";
-                            Log.log(errMsg, e);
-
-                            return new IInterpreterInfo[0];
-                        }
-                    }
+    /**
+     * @return the interpreters in the persisted string (with their modules managers loaded) or null if they
+     * couldn't be restored.
+     */
+    private IInterpreterInfo[] restoreInterpretersFromPersistedString(String persisted) {
+        List<IInterpreterInfo> ret = new ArrayList<IInterpreterInfo>();
 
-                    //then, put it in the list to be returned
-                    for (InterpreterInfo info : list) {
-                        if (info != null && info.executableOrJar != null) {
-                            ret.add(info);
-                        }
+        try {
+            //first, get it (from the binary snapshot if it's still valid for the persisted string)...
+            File snapshotFile = getSnapshotFile();
+            List<InterpreterInfo> list = snapshotFile != null ? InterpreterInfoSnapshot.load(snapshotFile,
+                    persisted) : null;
+            if (list == null) {
+                list = new ArrayList<InterpreterInfo>();
+                String[] strings = persisted.split("&&&&&");
+
+                for (String string : strings) {
+                    try {
+                        list.add(InterpreterInfo.fromString(string, false));
+                    } catch (Exception e) {
+                        //ok, its format might have changed
+                        String errMsg = "Interpreter storage changed.\r\n"
+                                + "Please restore it (window > preferences > Pydev > Interpreter)";
+                        Log.log(errMsg, e);
+
+                        return null;
                     }
+                }
+                if (snapshotFile != null) {
+                    InterpreterInfoSnapshot.save(snapshotFile, persisted, list);
+                }
+            }
 
-                    //and at last, restore the system info
-                    for (final InterpreterInfo info : list) {
-                        try {
-                            info.getModulesManager().load();
-                        } catch (Exception e) {
-                            Log.logInfo(new RuntimeException("Restoring info for: " + info.getExecutableOrJar(), e));
-
-                            info.setLoadFinished(false);
-                            try {
-                                //if it does not work it (probably) means that the internal storage format changed among versions,
-                                //so, we have to recreate that info.
-
-                                IProgressMonitor monitor = new NullProgressMonitor();
-                                //ok, maybe its file-format changed... let's re-create it then.
-                                info.restorePythonpath(monitor);
-                                //after restoring it, let's save it.
-                                info.getModulesManager().save();
-
-                                //Note: All the code below is the same as the 2 lines above. It's no longer done needing the
-                                //UI access because of issue: https://sourceforge.net/tracker/?func=detail&aid=3515102&group_id=85796&atid=577329
-                                //(Can hang Eclipse at startup updating interpreter info)
-
-                                //                                final Display def = Display.getDefault();
-                                //                                def.syncExec(new Runnable(){
-                                //
-                                //                                    public void run() {
-                                //                                        Shell shell = def.getActiveShell();
-                                //                                        ProgressMonitorDialog dialog = new AsynchronousProgressMonitorDialog(shell);
-                                //                                        dialog.setBlockOnOpen(false);
-                                //                                        try {
-                                //                                            dialog.run(false, false, new IRunnableWithProgress(){
-                                //
-                                //                                                public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
-                                //                                                    monitor.beginTask("Updating the interpreter info.", 100);
-                                //                                                    //ok, maybe its file-format changed... let's re-create it then.
-                                //                                                    info.restorePythonpath(monitor);
-                                //                                                    //after restoring it, let's save it.
-                                //                                                    info.getModulesManager().save();
-                                //                                                    monitor.done();
-                                //                                                }}
-                                //                                            );
-                                //                                        } catch (Exception e) {
-                                //                                            throw new RuntimeException(e);
-                                //                                        }
-                                //                                    }
-                                //
-                                //                                });
-                            } finally {
-                                info.setLoadFinished(true);
-                            }
-                            Log.logInfo(("Finished restoring information for: " + info.executableOrJar + " at: " + info
-                                    .getModulesManager().getIoDirectory()));
-                        }
-                    }
+            //then, put it in the list to be returned
+            for (InterpreterInfo info : list) {
+                if (info != null && info.executableOrJar != null) {
+                    ret.add(info);
+                }
+            }
 
-                } catch (Exception e) {
-                    Log.log(e);
+            //and at last, restore the system info (the modules managers of each interpreter are
+            //independent, so, they're loaded in parallel).
+            OrderedParallelRunner.run(list, new ICallback<Object, InterpreterInfo>() {
 
-                    //ok, some error happened (maybe it's not configured)
-                    return new IInterpreterInfo[0];
+                public Object call(InterpreterInfo info) {
+                    restoreSystemInfo(info);
+                    return null;
                 }
+            }, new ICallback<Object, Object>() {
 
-                persistedCache = persisted;
-                persistedCacheRet = ret.toArray(new IInterpreterInfo[0]);
+                public Object call(Object arg) {
+                    return null;
+                }
+            });
+
+        } catch (Exception e) {
+            Log.log(e);
+
+            //ok, some error happened (maybe it's not configured)
+            return null;
+        }
+        return ret.toArray(new IInterpreterInfo[0]);
+    }
+
+    /**
+     * Loads the modules manager of the given info (restoring it if it can't be loaded).
+     */
+    private void restoreSystemInfo(InterpreterInfo info) {
+        try {
+            info.getModulesManager().load();
+        } catch (Exception e) {
+            Log.logInfo(new RuntimeException("Restoring info for: " + info.getExecutableOrJar(), e));
+
+            info.setLoadFinished(false);
+            try {
+                //if it does not work it (probably) means that the internal storage format changed among versions,
+                //so, we have to recreate that info.
+
+                IProgressMonitor monitor = new NullProgressMonitor();
+                //ok, maybe its file-format changed... let's re-create it then.
+                info.restorePythonpath(monitor);
+                //after restoring it, let's save it.
+                info.getModulesManager().save();
+
+                //Note: All the code below is the same as the 2 lines above. It's no longer done needing the
+                //UI access because of issue: https://sourceforge.net/tracker/?func=detail&aid=3515102&group_id=85796&atid=577329
+                //(Can hang Eclipse at startup updating interpreter info)
+
+                //                                final Display def = Display.getDefault();
+                //                                def.syncExec(new Runnable(){
+                //
+                //                                    public void run() {
+                //                                        Shell shell = def.getActiveShell();
+                //                                        ProgressMonitorDialog dialog = new AsynchronousProgressMonitorDialog(shell);
+                //                                        dialog.setBlockOnOpen(false);
+                //                                        try {
+                //                                            dialog.run(false, false, new IRunnableWithProgress(){
+                //
+                //                                                public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+                //                                                    monitor.beginTask("Updating the interpreter info.", 100);
+                //                                                    //ok, maybe its file-format changed... let's re-create it then.
+                //                                                    info.restorePythonpath(monitor);
+                //                                                    //after restoring it, let's save it.
+                //                                                    info.getModulesManager().save();
+                //                                                    monitor.done();
+                //                                                }}
+                //                                            );
+                //                                        } catch (Exception e) {
+                //                                            throw new RuntimeException(e);
+                //                                        }
+                //                                    }
+                //
+                //                                });
+            } finally {
+                info.setLoadFinished(true);
             }
+            Log.logInfo(("Finished restoring information for: " + info.executableOrJar + " at: " + info
+                    .getModulesManager().getIoDirectory()));
+        }
+    }
+
+    /**
+     * @return the file with the binary snapshot of the interpreters (or null if it's not available).
+     */
+    private File getSnapshotFile() {
+        try {
+            return PydevPlugin.getWorkspaceMetadataFile(getPreferenceName() + ".snapshot");
+        } catch (Exception e) {
+            return null; //i.e.: tests without a state location
         }
-        return persistedCacheRet;
     }
 
     /**
@@ -657,6 +721,7 @@ public abstract class AbstractInterpreterManager implements IInterpreterManager
                     }
                 }
             }
+            removeSnapshotEntriesOfRemovedInterpreters(interpreterInfos);
 
             //Now, last step is updating the natures (the call must NOT be locked in this case).
             this.restorePythopathForNatures(monitor);
@@ -675,6 +740,24 @@ public abstract class AbstractInterpreterManager implements IInterpreterManager
         }
     }
 
+    /**
+     * Removes the entries of the interpreters (of this manager type) which are no longer configured from the
+     * workspace index snapshot.
+     */
+    private void removeSnapshotEntriesOfRemovedInterpreters(IInterpreterInfo[] interpreterInfos) {
+        Set<String> currentIds = new HashSet<String>();
+        for (IInterpreterInfo info : interpreterInfos) {
+            currentIds.add(WorkspaceIndexSnapshot.getSystemId(getInterpreterType(), info.getExecutableOrJar()));
+        }
+        String prefix = WorkspaceIndexSnapshot.getSystemId(getInterpreterType(), "");
+        WorkspaceIndexSnapshot snapshot = WorkspaceIndexSnapshot.getCurrent();
+        for (String id : snapshot.getEntryIds()) {
+            if (id.startsWith(prefix) && !currentIds.contains(id)) {
+                snapshot.removeEntry(id);
+            }
+        }
+    }
+
     /**
      * @param interpreterNamesToRestore if null, all interpreters are restored, otherwise, only the interpreters
      *      whose name is in this set are restored.
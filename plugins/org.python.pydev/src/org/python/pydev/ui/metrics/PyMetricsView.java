@@ -0,0 +1,156 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.ui.metrics;
+
+import java.io.File;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IAction;
+import org.eclipse.jface.action.IMenuManager;
+import org.eclipse.jface.action.IToolBarManager;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.KeyEvent;
+import org.eclipse.swt.events.KeyListener;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.ui.IActionBars;
+import org.eclipse.ui.part.ViewPart;
+import org.python.pydev.plugin.PydevPlugin;
+import org.python.pydev.shared_core.metrics.Metric;
+import org.python.pydev.shared_core.metrics.Metrics;
+import org.python.pydev.shared_ui.UIConstants;
+
+/**
+ * Lists the current values of the metrics kept in {@link Metrics} (parse/index/shell latencies, cache hit rates,
+ * etc). F5 refreshes the values.
+ */
+public class PyMetricsView extends ViewPart {
+
+    private Table table;
+
+    private final class RefreshAction extends Action {
+
+        public RefreshAction() {
+            this.setText("Refresh");
+            this.setToolTipText("Refresh the metrics values");
+            this.setImageDescriptor(PydevPlugin.getImageCache().getDescriptor(UIConstants.REFRESH));
+        }
+
+        @Override
+        public void run() {
+            refresh();
+        }
+    }
+
+    private final class ResetAction extends Action {
+
+        public ResetAction() {
+            this.setText("Reset");
+            this.setToolTipText("Reset the values of all the metrics");
+            this.setImageDescriptor(PydevPlugin.getImageCache().getDescriptor(UIConstants.REMOVE));
+        }
+
+        @Override
+        public void run() {
+            Metrics.reset();
+            refresh();
+        }
+    }
+
+    private final class EnableAction extends Action {
+
+        public EnableAction() {
+            super("Collect metrics", IAction.AS_CHECK_BOX);
+            this.setChecked(Metrics.isEnabled());
+        }
+
+        @Override
+        public void run() {
+            Metrics.setEnabled(isChecked());
+            refresh();
+        }
+    }
+
+    private final class DumpAction extends Action {
+
+        public DumpAction() {
+            this.setText("Dump to file");
+        }
+
+        @Override
+        public void run() {
+            File file = Metrics.getDumpFile();
+            if (Metrics.dump(file)) {
+                MessageDialog.openInformation(getSite().getShell(), "Metrics dumped", "Metrics written to: " + file);
+            }
+        }
+    }
+
+    @Override
+    public void createPartControl(Composite parent) {
+        table = new Table(parent, SWT.FULL_SELECTION | SWT.MULTI);
+        table.setHeaderVisible(true);
+        table.setLinesVisible(true);
+        String[] columns = new String[] { "Name", "Type", "Value" };
+        int[] widths = new int[] { 220, 80, 500 };
+        for (int i = 0; i < columns.length; i++) {
+            TableColumn column = new TableColumn(table, SWT.NONE);
+            column.setText(columns[i]);
+            column.setWidth(widths[i]);
+        }
+
+        table.addKeyListener(new KeyListener() {
+
+            public void keyReleased(KeyEvent e) {
+                if (e.keyCode == SWT.F5) {
+                    refresh();
+                }
+            }
+
+            public void keyPressed(KeyEvent e) {
+            }
+        });
+
+        IActionBars actionBars = getViewSite().getActionBars();
+        IToolBarManager toolBar = actionBars.getToolBarManager();
+        toolBar.add(new RefreshAction());
+        toolBar.add(new ResetAction());
+        IMenuManager menuManager = actionBars.getMenuManager();
+        menuManager.add(new EnableAction());
+        menuManager.add(new DumpAction());
+
+        refresh();
+    }
+
+    private void refresh() {
+        if (table == null || table.isDisposed()) {
+            return;
+        }
+        table.removeAll();
+        if (!Metrics.isEnabled()) {
+            TableItem item = new TableItem(table, SWT.NONE);
+            item.setText(new String[] { "Metrics collection is disabled (enable it in the view menu)", "", "" });
+        }
+        for (Metric metric : Metrics.getMetrics()) {
+            TableItem item = new TableItem(table, SWT.NONE);
+            item.setText(new String[] { metric.name, metric.getType(), metric.getValueRepresentation() });
+        }
+    }
+
+    @Override
+    public void setFocus() {
+        table.setFocus();
+    }
+}
@@ -1665,7 +1665,7 @@ public class InterpreterInfo implements IInterpreterInfo {
      * @return a new interpreter info that's a copy of the current interpreter info.
      */
     public InterpreterInfo makeCopy() {
-        InterpreterInfo ret = fromString(toString(), false);
+        InterpreterInfo ret = InterpreterInfoSnapshot.copy(this);
         ret.setModificationStamp(modificationStamp);
         return ret;
     }
@@ -1693,6 +1693,13 @@ public class InterpreterInfo implements IInterpreterInfo {
         return this.executableOrJar;
     }
 
+    /**
+     * @return the name set by the user (may be null).
+     */
+    /*default*/String getRawName() {
+        return this.name;
+    }
+
     public String getNameForUI() {
         if (this.name != null && !this.name.equals(this.executableOrJar)) {
             return this.name + "  (" + this.executableOrJar + ")";
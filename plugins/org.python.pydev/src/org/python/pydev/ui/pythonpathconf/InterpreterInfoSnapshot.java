@@ -0,0 +1,282 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.ui.pythonpathconf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+import org.python.pydev.core.log.Log;
+import org.python.pydev.shared_core.io.FileUtils;
+
+/**
+ * Compact binary snapshot of the configured interpreters.
+ *
+ * The XML generated by InterpreterInfo.toString() is still the format kept in the preferences (and used for
+ * import/export), but parsing its DOM for each interpreter on each startup is slow, so, the infos are also saved
+ * in this format, keyed by the checksum of the XML they were created from (so, the snapshot is only used
+ * while the preferences aren't changed).
+ *
+ * Format: magic, format version, key (length and crc32 of the persisted string), payload length, payload and
+ * the crc32 of the payload. Any mismatch makes the snapshot be discarded (and the XML parsed again).
+ *
+ * Only the actual configuration is saved: derived structures (such as the builtins cache and the predefined
+ * modules) are still lazily computed when first requested.
+ */
+public final class InterpreterInfoSnapshot {
+
+    private static final int MAGIC = 0x50444949; //PDII
+
+    /**
+     * Must be raised whenever the payload changes.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private InterpreterInfoSnapshot() {
+    }
+
+    /**
+     * @return the checksum identifying the persisted string (the snapshot is only valid for the same string).
+     */
+    public static long getKey(String persisted) {
+        CRC32 crc = new CRC32();
+        try {
+            crc.update(persisted.getBytes("UTF-8"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return (((long) persisted.length()) << 32) ^ crc.getValue();
+    }
+
+    public static byte[] toBytes(long key, List<InterpreterInfo> infos) {
+        try {
+            ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(1024 * infos.size() + 16);
+            DataOutputStream payload = new DataOutputStream(payloadBytes);
+            payload.writeInt(infos.size());
+            for (InterpreterInfo info : infos) {
+                write(payload, info);
+            }
+            payload.flush();
+            byte[] bytes = payloadBytes.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+
+            ByteArrayOutputStream outBytes = new ByteArrayOutputStream(bytes.length + 32);
+            DataOutputStream out = new DataOutputStream(outBytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(key);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeLong(crc.getValue());
+            out.flush();
+            return outBytes.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e); //Writing to memory: not expected.
+        }
+    }
+
+    /**
+     * @return the infos in the snapshot or null if the snapshot isn't valid (different format version,
+     * different key or corrupted).
+     */
+    public static List<InterpreterInfo> fromBytes(long key, byte[] bytes) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readLong() != key) {
+                return null;
+            }
+            int len = in.readInt();
+            if (len < 0 || len > bytes.length) {
+                return null;
+            }
+            byte[] payloadBytes = new byte[len];
+            in.readFully(payloadBytes);
+            CRC32 crc = new CRC32();
+            crc.update(payloadBytes);
+            if (in.readLong() != crc.getValue()) {
+                return null;
+            }
+
+            DataInputStream payload = new DataInputStream(new ByteArrayInputStream(payloadBytes));
+            int size = payload.readInt();
+            List<InterpreterInfo> ret = new ArrayList<InterpreterInfo>(size);
+            for (int i = 0; i < size; i++) {
+                ret.add(read(payload));
+            }
+            return ret;
+        } catch (IOException e) {
+            return null; //truncated
+        }
+    }
+
+    /**
+     * Saves the snapshot (errors are only logged: the snapshot is just a cache).
+     */
+    public static void save(File file, String persisted, List<InterpreterInfo> infos) {
+        try {
+            FileUtils.writeBytesToFile(toBytes(getKey(persisted), infos), file);
+        } catch (Exception e) {
+            Log.log(e);
+        }
+    }
+
+    /**
+     * @return the infos saved for the given persisted string or null if there's no valid snapshot for it.
+     */
+    public static List<InterpreterInfo> load(File file, String persisted) {
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return fromBytes(getKey(persisted), Files.readAllBytes(file.toPath()));
+        } catch (Exception e) {
+            Log.log(e);
+            return null;
+        }
+    }
+
+    /**
+     * @return a copy of the given info (faster than recreating it from its XML).
+     */
+    public static InterpreterInfo copy(InterpreterInfo info) {
+        List<InterpreterInfo> lst = new ArrayList<InterpreterInfo>(1);
+        lst.add(info);
+        return fromBytes(0, toBytes(0, lst)).get(0);
+    }
+
+    private static void write(DataOutputStream out, InterpreterInfo info) throws IOException {
+        writeString(out, info.getRawName());
+        writeString(out, info.getVersion());
+        writeString(out, info.executableOrJar);
+        writeStrings(out, info.libs);
+
+        List<String> forced = new ArrayList<String>();
+        for (Iterator<String> it = info.forcedLibsIterator(); it.hasNext();) {
+            forced.add(it.next());
+        }
+        writeStrings(out, forced);
+
+        String[] envVariables = info.getEnvVariables();
+        if (envVariables == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(envVariables.length);
+            for (String s : envVariables) {
+                writeString(out, s);
+            }
+        }
+
+        Properties stringSubstitution = info.getStringSubstitutionVariables();
+        if (stringSubstitution == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(stringSubstitution.size());
+            for (Entry<Object, Object> entry : stringSubstitution.entrySet()) {
+                writeString(out, entry.getKey().toString());
+                writeString(out, entry.getValue().toString());
+            }
+        }
+
+        writeStrings(out, info.getPredefinedCompletionsPath());
+    }
+
+    private static InterpreterInfo read(DataInputStream in) throws IOException {
+        String name = readString(in);
+        String version = readString(in);
+        String executable = readString(in);
+        List<String> libs = readStrings(in);
+        List<String> forced = readStrings(in);
+
+        List<String> envVars = null;
+        int envSize = in.readInt();
+        if (envSize >= 0) {
+            envVars = new ArrayList<String>(envSize);
+            for (int i = 0; i < envSize; i++) {
+                envVars.add(readString(in));
+            }
+        }
+
+        Properties stringSubstitution = null;
+        int substSize = in.readInt();
+        if (substSize >= 0) {
+            stringSubstitution = new Properties();
+            for (int i = 0; i < substSize; i++) {
+                String key = readString(in);
+                stringSubstitution.setProperty(key, readString(in));
+            }
+        }
+
+        List<String> predefinedPaths = readStrings(in);
+
+        InterpreterInfo info = new InterpreterInfo(version, executable, libs, new ArrayList<String>(), forced,
+                envVars, stringSubstitution);
+        info.setName(name);
+        for (String s : predefinedPaths) {
+            info.addPredefinedCompletionsPath(s);
+        }
+        return info;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String s : strings) {
+            writeString(out, s);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Invalid size: " + size);
+        }
+        List<String> ret = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            ret.add(readString(in));
+        }
+        return ret;
+    }
+
+    /**
+     * Note: not using writeUTF because it's limited to 64K (and an env. variable may be bigger than that).
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes("UTF-8");
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+}
@@ -13,6 +13,7 @@ package org.python.pydev.editor.codecompletion;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -223,7 +224,9 @@ public class PyCodeCompletion extends AbstractPyCodeCompletion {
 
             ICodeCompletionASTManager astManager = nature.getAstManager();
             if (astManager == null) {
-                //we're probably still loading it.
+                //the project modules manager is still being loaded (so, answer with what's available in the current
+                //module instead of waiting).
+                addGlobalsFromCurrentModule(request, ret);
                 return ret;
             }
 
@@ -362,6 +365,31 @@ public class PyCodeCompletion extends AbstractPyCodeCompletion {
         return ret;
     }
 
+    /**
+     * Used while the project modules manager (or the interpreter it uses) is still being restored: a globals
+     * completion is answered only with the tokens from the current module (which doesn't need the modules manager).
+     */
+    private void addGlobalsFromCurrentModule(CompletionRequest request, ArrayList<ICompletionProposal> ret)
+            throws BadLocationException, MisconfigurationException {
+        if (request.activationToken.trim().length() > 0
+                || getImportsTipperStr(request).importsTipperStr.length() != 0) {
+            return;
+        }
+        IModule module = request.getModule();
+        if (module == null) {
+            return;
+        }
+        int line = request.doc.getLineOfOffset(request.documentOffset);
+        IRegion region = request.doc.getLineInformation(line);
+        ICompletionState state = new CompletionState(line, request.documentOffset - region.getOffset(), null,
+                request.nature, request.qualifier);
+        state.setIsInCalltip(request.isInCalltip);
+
+        List<Object> tokensList = new ArrayList<Object>();
+        tokensList.addAll(Arrays.asList(module.getGlobalTokens()));
+        changeItokenToCompletionPropostal(request, ret, tokensList, false, state);
+    }
+
     private void fillTokensWithJediCompletions(CompletionRequest request, PySelection ps, IPythonNature nature,
             ICodeCompletionASTManager astManager, List<Object> tokensList) throws IOException, CoreException,
             MisconfigurationException, PythonNatureWithoutProjectException {
@@ -7,18 +7,78 @@
 package org.python.pydev.editor.codecompletion.revisited;
 
 import org.python.pydev.core.ICompletionCache;
+import org.python.pydev.shared_core.cache.CacheManager;
 import org.python.pydev.shared_core.cache.CacheMapWrapper;
+import org.python.pydev.shared_core.cache.IManagedCache;
 import org.python.pydev.shared_core.cache.LRUMap;
+import org.python.pydev.shared_core.metrics.HitCounter;
+import org.python.pydev.shared_core.metrics.Metrics;
 
 /**
  * Default completion cache implementation
  *
+ * Registered in the CacheManager (so, its methods are synchronized as entries may be evicted from another thread).
+ *
  * @author Fabio
  */
-public final class CompletionCache extends CacheMapWrapper<Object, Object> implements ICompletionCache {
+public final class CompletionCache extends CacheMapWrapper<Object, Object> implements ICompletionCache,
+        IManagedCache {
+
+    private static final HitCounter hitCounter = Metrics.hitCounter("cache.completion");
+
+    /**
+     * Rough estimate on the memory used by each entry.
+     */
+    private static final int ESTIMATED_BYTES_PER_ENTRY = 512;
 
     public CompletionCache() {
         super(new LRUMap<Object, Object>(200));
+        CacheManager.register(this);
+    }
+
+    @Override
+    public synchronized Object getObj(Object key) {
+        Object obj = cache.get(key);
+        if (obj != null) {
+            hitCounter.hit();
+        } else {
+            hitCounter.miss();
+        }
+        return obj;
+    }
+
+    @Override
+    public synchronized void add(Object key, Object val) {
+        super.add(key, val);
+    }
+
+    @Override
+    public synchronized void remove(Object key) {
+        super.remove(key);
     }
 
+    @Override
+    public synchronized void clear() {
+        super.clear();
+    }
+
+    @Override
+    public synchronized void evict(double fraction) {
+        super.evict(fraction);
+    }
+
+    @Override
+    public String getCacheName() {
+        return "Completion cache";
+    }
+
+    @Override
+    public synchronized int getEntriesCount() {
+        return size();
+    }
+
+    @Override
+    public long getSizeEstimate() {
+        return getEntriesCount() * (long) ESTIMATED_BYTES_PER_ENTRY;
+    }
 }
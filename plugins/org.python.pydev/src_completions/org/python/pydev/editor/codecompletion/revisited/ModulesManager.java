@@ -54,9 +54,7 @@ import org.python.pydev.parser.jython.ast.Name;
 import org.python.pydev.parser.jython.ast.exprType;
 import org.python.pydev.parser.jython.ast.stmtType;
 import org.python.pydev.parser.visitors.NodeUtils;
-import org.python.pydev.shared_core.callbacks.ICallbackListener;
 import org.python.pydev.shared_core.io.FileUtils;
-import org.python.pydev.shared_core.out_of_memory.OnExpectedOutOfMemory;
 import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.string.StringUtils;
 import org.python.pydev.shared_core.structure.Tuple;
@@ -80,17 +78,6 @@ public abstract class ModulesManager implements IModulesManager {
 
     private final static boolean DEBUG_ZIP = false;
 
-    static {
-        OnExpectedOutOfMemory.clearCacheOnOutOfMemory.registerListener(new ICallbackListener<Object>() {
-
-            @Override
-            public Object call(Object obj) {
-                clearCache();
-                return null;
-            }
-        });
-    }
-
     public ModulesManager() {
     }
 
@@ -351,8 +338,7 @@ public abstract class ModulesManager implements IModulesManager {
      *
      *  and was changed to be faster (as this was one of the slow things in startup).
      */
-    /*default*/@SuppressWarnings("rawtypes")
-    static void handleFileContents(ModulesManager modulesManager, String fileContents,
+    /*default*/static void handleFileContents(ModulesManager modulesManager, String fileContents,
             HashMap<Integer, String> intToString) {
         String string = fileContents;
         int len = string.length();
@@ -413,11 +399,19 @@ public abstract class ModulesManager implements IModulesManager {
             handleLineParts(modulesManager, intToString, parts, partsFound, lst);
         }
 
+        modulesManager.buildKeysFromSorted(lst);
+    }
+
+    /**
+     * Sets the modules keys from a list which is already sorted (MUCH faster than adding the items one by one).
+     */
+    /*default*/@SuppressWarnings("rawtypes")
+    void buildKeysFromSorted(final List<ModulesKey> lst) {
         try {
             final int size = lst.size();
             //As we saved in sorted order, we can build in sorted order too (which is MUCH faster than adding items one
             //by one).
-            modulesManager.modulesKeys.buildFromSorted(size, new Iterator() {
+            modulesKeys.buildFromSorted(size, new Iterator() {
 
                 private int i = 0;
 
@@ -6,29 +6,92 @@
  */
 package org.python.pydev.editor.codecompletion.revisited;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.python.pydev.core.ModulesKey;
 import org.python.pydev.editor.codecompletion.revisited.modules.AbstractModule;
+import org.python.pydev.editor.codecompletion.revisited.modules.CompactSourceModule;
+import org.python.pydev.editor.codecompletion.revisited.modules.SourceModule;
+import org.python.pydev.shared_core.cache.CacheManager;
+import org.python.pydev.shared_core.cache.CacheMapWrapper;
+import org.python.pydev.shared_core.cache.IManagedCache;
 import org.python.pydev.shared_core.cache.LRUCache;
+import org.python.pydev.shared_core.metrics.HitCounter;
+import org.python.pydev.shared_core.metrics.Metrics;
 import org.python.pydev.shared_core.structure.Tuple;
 
 /**
  * This is a 'global' cache implementation, that can have at most n objects in
  * the memory at any time.
+ *
+ * The source modules removed because the cache is full are still kept (up to some limit) with their ast in a
+ * compact form, so that, if they're requested again, a new module is created from it (instead of reading and
+ * parsing the file again).
  */
-final class ModulesManagerCache {
+final class ModulesManagerCache implements IManagedCache {
     /**
      * Defines the maximum amount of modules that can be in the memory at any time (for all the managers)
      */
     private static final int MAX_NUMBER_OF_MODULES = 400;
 
+    /**
+     * Rough estimate on the memory used by a module (with its ast) in the cache.
+     */
+    private static final int ESTIMATED_BYTES_PER_MODULE = 30 * 1024;
+
+    /**
+     * Defines the maximum amount of modules kept in the compact form (the compact form of an ast takes about a
+     * quarter of the memory of the ast, so, this takes less memory than the modules above).
+     */
+    private static final int MAX_NUMBER_OF_COMPACT_MODULES = 1000;
+
+    /**
+     * Rough estimate on the memory used by a module in the compact form.
+     */
+    private static final int ESTIMATED_BYTES_PER_COMPACT_MODULE = 8 * 1024;
+
+    private static final HitCounter hitCounter = Metrics.hitCounter("cache.modules_manager");
+
     /**
      * The access to the cache is synchronized
      */
-    private LRUCache<Tuple<ModulesKey, ModulesManager>, AbstractModule> internalCache;
+    private CacheMapWrapper<Tuple<ModulesKey, ModulesManager>, AbstractModule> internalCache;
+    private LRUCache<Tuple<ModulesKey, ModulesManager>, CompactSourceModule> compactCache;
     private final Object lock = new Object();
 
     ModulesManagerCache() {
-        internalCache = new LRUCache<Tuple<ModulesKey, ModulesManager>, AbstractModule>(MAX_NUMBER_OF_MODULES);
+        internalCache = new CacheMapWrapper<Tuple<ModulesKey, ModulesManager>, AbstractModule>(
+                new LinkedHashMap<Tuple<ModulesKey, ModulesManager>, AbstractModule>() {
+
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(
+                            Map.Entry<Tuple<ModulesKey, ModulesManager>, AbstractModule> eldest) {
+                        if (size() > MAX_NUMBER_OF_MODULES) {
+                            addCompact(eldest.getKey(), eldest.getValue());
+                            return true;
+                        }
+                        return false;
+                    }
+                }) {
+        };
+        compactCache = new LRUCache<Tuple<ModulesKey, ModulesManager>, CompactSourceModule>(
+                MAX_NUMBER_OF_COMPACT_MODULES);
+        CacheManager.register(this);
+    }
+
+    /**
+     * Keeps the compact form of a module which is being removed from the cache (called with the lock held).
+     */
+    private void addCompact(Tuple<ModulesKey, ModulesManager> keyTuple, AbstractModule module) {
+        if (module instanceof SourceModule) {
+            CompactSourceModule compact = CompactSourceModule.create((SourceModule) module);
+            if (compact != null) {
+                compactCache.add(keyTuple, compact);
+            }
+        }
     }
 
     /**
@@ -40,9 +103,21 @@ final class ModulesManagerCache {
 
             synchronized (lock) {
                 AbstractModule obj = internalCache.getObj(keyTuple);
+                if (obj != null) {
+                    hitCounter.hit();
+                } else {
+                    hitCounter.miss();
+                }
                 if (obj == null && modulesManager.modulesKeys.containsKey(key)) {
-                    key = modulesManager.modulesKeys.get(key); //get the 'real' key
-                    obj = AbstractModule.createEmptyModule(key);
+                    CompactSourceModule compact = compactCache.getObj(keyTuple);
+                    if (compact != null) {
+                        compactCache.remove(keyTuple);
+                        obj = compact.createModule(); //null if the file changed
+                    }
+                    if (obj == null) {
+                        key = modulesManager.modulesKeys.get(key); //get the 'real' key
+                        obj = AbstractModule.createEmptyModule(key);
+                    }
                     internalCache.add(keyTuple, obj);
                 }
                 return obj;
@@ -55,6 +130,7 @@ final class ModulesManagerCache {
             Tuple<ModulesKey, ModulesManager> keyTuple = new Tuple<ModulesKey, ModulesManager>(key, modulesManager);
             synchronized (lock) {
                 internalCache.remove(keyTuple);
+                compactCache.remove(keyTuple);
             }
         }
     }
@@ -64,6 +140,7 @@ final class ModulesManagerCache {
             Tuple<ModulesKey, ModulesManager> keyTuple = new Tuple<ModulesKey, ModulesManager>(key, modulesManager);
             synchronized (lock) {
                 internalCache.add(keyTuple, n);
+                compactCache.remove(keyTuple);
             }
         }
     }
@@ -71,6 +148,36 @@ final class ModulesManagerCache {
     public void clear() {
         synchronized (lock) {
             internalCache.clear();
+            compactCache.clear();
+        }
+    }
+
+    @Override
+    public String getCacheName() {
+        return "Modules cache";
+    }
+
+    @Override
+    public int getEntriesCount() {
+        synchronized (lock) {
+            return internalCache.size() + compactCache.size();
+        }
+    }
+
+    @Override
+    public long getSizeEstimate() {
+        synchronized (lock) {
+            return internalCache.size() * (long) ESTIMATED_BYTES_PER_MODULE + compactCache.size()
+                    * (long) ESTIMATED_BYTES_PER_COMPACT_MODULE;
+        }
+    }
+
+    @Override
+    public void evict(double fraction) {
+        synchronized (lock) {
+            //Note: the evicted modules are not compacted (memory is needed).
+            internalCache.evict(fraction);
+            compactCache.evict(fraction);
         }
     }
 }
\ No newline at end of file
@@ -46,12 +46,14 @@ import org.python.pydev.core.FullRepIterable;
 import org.python.pydev.core.IPythonPathNature;
 import org.python.pydev.core.ModulesKey;
 import org.python.pydev.core.ModulesKeyForZip;
+import org.python.pydev.core.concurrency.OrderedParallelRunner;
 import org.python.pydev.core.log.Log;
 import org.python.pydev.editor.PyEdit;
 import org.python.pydev.editor.codecompletion.revisited.ModulesFoundStructure.ZipContents;
 import org.python.pydev.plugin.PyStructureConfigHelpers;
 import org.python.pydev.plugin.nature.IPythonPathHelper;
 import org.python.pydev.plugin.nature.PythonNature;
+import org.python.pydev.shared_core.callbacks.ICallback;
 import org.python.pydev.shared_core.io.FileUtils;
 import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.string.StringUtils;
@@ -130,70 +132,89 @@ public final class PythonPathHelper implements IPythonPathHelper {
 
         String fileName = root.getName();
         if (root.isFile() && FileTypesPreferencesPage.isValidZipFile(fileName)) { //ok, it may be a jar file, so let's get its contents and get the available modules
+            ModulesFoundStructure.ZipContents zipContents = ZipContentsCache.get(root);
+            if (zipContents != null) {
+                return zipContents;
+            }
 
-            //the major difference from handling jars from regular python files is that we don't have to check for __init__.py files
-            ModulesFoundStructure.ZipContents zipContents = new ModulesFoundStructure.ZipContents(root);
+            //get it before reading the contents (so, if it's changed while we're reading it, it'll be read again later)
+            long length = root.length();
+            long lastModified = root.lastModified();
+            zipContents = scanZip(root, monitor);
+            if (zipContents != null && !monitor.isCanceled()) {
+                ZipContentsCache.put(root, length, lastModified, zipContents);
+            }
+            return zipContents;
+        }
+        return null;
+    }
 
-            //by default it's a zip (for python) -- may change if a .class is found.
-            zipContents.zipContentsType = ZipContents.ZIP_CONTENTS_TYPE_PY_ZIP;
+    /**
+     * Actually reads the entries in the zip file (without using the cache).
+     */
+    private static ModulesFoundStructure.ZipContents scanZip(File root, IProgressMonitor monitor) {
+        //the major difference from handling jars from regular python files is that we don't have to check for __init__.py files
+        ModulesFoundStructure.ZipContents zipContents = new ModulesFoundStructure.ZipContents(root);
 
-            try {
-                String zipFileName = root.getName();
+        //by default it's a zip (for python) -- may change if a .class is found.
+        zipContents.zipContentsType = ZipContents.ZIP_CONTENTS_TYPE_PY_ZIP;
 
-                ZipFile zipFile = new ZipFile(root);
-                try {
-                    Enumeration<? extends ZipEntry> entries = zipFile.entries();
-
-                    int i = 0;
-                    FastStringBuffer buffer = new FastStringBuffer();
-                    //ok, now that we have the zip entries, let's map them to modules
-                    while (entries.hasMoreElements()) {
-                        ZipEntry entry = entries.nextElement();
-                        String name = entry.getName();
-                        if (!entry.isDirectory()) {
-                            if (isValidFileMod(name) || name.endsWith(".class")) {
-
-                                if (name.endsWith(".class")) {
-                                    zipContents.zipContentsType = ZipContents.ZIP_CONTENTS_TYPE_JAR;
-                                }
+        try {
+            String zipFileName = root.getName();
 
-                                //it is a valid python file
-                                if (i % 15 == 0) {
-                                    if (monitor.isCanceled()) {
-                                        return null;
-                                    }
-                                    buffer.clear();
-                                    monitor.setTaskName(buffer.append("Found in ").append(zipFileName)
-                                            .append(" module ").append(name).toString());
-                                    monitor.worked(1);
-                                }
+            ZipFile zipFile = new ZipFile(root);
+            try {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+                int i = 0;
+                FastStringBuffer buffer = new FastStringBuffer();
+                //ok, now that we have the zip entries, let's map them to modules
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    String name = entry.getName();
+                    if (!entry.isDirectory()) {
+                        if (isValidFileMod(name) || name.endsWith(".class")) {
+
+                            if (name.endsWith(".class")) {
+                                zipContents.zipContentsType = ZipContents.ZIP_CONTENTS_TYPE_JAR;
+                            }
 
-                                if (isValidInitFile(name)) {
-                                    zipContents.pyInitFilesLowerWithoutExtension.add(StringUtils.stripExtension(name)
-                                            .toLowerCase());
+                            //it is a valid python file
+                            if (i % 15 == 0) {
+                                if (monitor.isCanceled()) {
+                                    return null;
                                 }
-                                zipContents.pyFilesLowerToRegular.put(name.toLowerCase(), name);
+                                buffer.clear();
+                                monitor.setTaskName(buffer.append("Found in ").append(zipFileName)
+                                        .append(" module ").append(name).toString());
+                                monitor.worked(1);
                             }
 
-                        } else { //!isDirectory
-                            zipContents.pyfoldersLower.add(name.toLowerCase());
+                            if (isValidInitFile(name)) {
+                                zipContents.pyInitFilesLowerWithoutExtension.add(StringUtils.stripExtension(name)
+                                        .toLowerCase());
+                            }
+                            zipContents.pyFilesLowerToRegular.put(name.toLowerCase(), name);
                         }
-                        i++;
+
+                    } else { //!isDirectory
+                        zipContents.pyfoldersLower.add(name.toLowerCase());
                     }
-                } finally {
-                    zipFile.close();
+                    i++;
                 }
+            } finally {
+                zipFile.close();
+            }
 
-                //now, on to actually filling the structure if we have a zip file (just add the ones that are actually under
-                //the pythonpath)
-                zipContents.consolidatePythonpathInfo(monitor);
+            //now, on to actually filling the structure if we have a zip file (just add the ones that are actually under
+            //the pythonpath)
+            zipContents.consolidatePythonpathInfo(monitor);
 
-                return zipContents;
+            return zipContents;
 
-            } catch (Exception e) {
-                //that's ok, it is probably not a zip file after all...
-                Log.log(e);
-            }
+        } catch (Exception e) {
+            //that's ok, it is probably not a zip file after all...
+            Log.log(e);
         }
         return null;
     }
@@ -542,7 +563,8 @@ public final class PythonPathHelper implements IPythonPathHelper {
         }
         List<String> pythonpathList = getPythonpath();
 
-        ModulesFoundStructure ret = new ModulesFoundStructure();
+        final ModulesFoundStructure ret = new ModulesFoundStructure();
+        List<File> zipRoots = new ArrayList<File>();
 
         FastStringBuffer tempBuf = new FastStringBuffer();
         for (Iterator<String> iter = pythonpathList.iterator(); iter.hasNext();) {
@@ -568,12 +590,41 @@ public final class PythonPathHelper implements IPythonPathHelper {
                 }
 
             } else { //ok, it was null, so, maybe this is not a folder, but zip file with java classes...
-                ModulesFoundStructure.ZipContents zipContents = getFromZip(root, monitor);
-                if (zipContents != null) {
+                zipRoots.add(root);
+            }
+        }
+
+        //The zips are read in parallel (most are usually already in the cache, so, only the changed ones are
+        //actually read) and added in the same order they have in the pythonpath.
+        final IProgressMonitor finalMonitor = monitor;
+        final IProgressMonitor workerMonitor = new NullProgressMonitor() {
+            @Override
+            public boolean isCanceled() {
+                return finalMonitor.isCanceled();
+            }
+        };
+        final FastStringBuffer zipsBuf = new FastStringBuffer();
+        OrderedParallelRunner.run(zipRoots, new ICallback<ModulesFoundStructure.ZipContents, File>() {
+
+            public ModulesFoundStructure.ZipContents call(File root) {
+                if (workerMonitor.isCanceled()) {
+                    return null;
+                }
+                return getFromZip(root, workerMonitor);
+            }
+        }, new ICallback<Object, ModulesFoundStructure.ZipContents>() {
+
+            public Object call(ModulesFoundStructure.ZipContents zipContents) {
+                if (zipContents != null && !finalMonitor.isCanceled()) {
+                    zipsBuf.clear();
+                    finalMonitor.setTaskName(zipsBuf.append("Found in zip: ").append(zipContents.zipFile.getName())
+                            .toString());
+                    finalMonitor.worked(1);
                     ret.zipContents.add(zipContents);
                 }
+                return null;
             }
-        }
+        });
         return ret;
     }
 
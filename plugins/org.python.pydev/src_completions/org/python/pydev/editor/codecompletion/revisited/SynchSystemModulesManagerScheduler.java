@@ -26,7 +26,8 @@ import org.python.pydev.plugin.PydevPlugin;
 import org.python.pydev.plugin.preferences.PydevPrefs;
 import org.python.pydev.shared_core.io.FileUtils;
 import org.python.pydev.shared_core.path_watch.EventsStackerRunnable;
-import org.python.pydev.shared_core.path_watch.IFilesystemChangesListener;
+import org.python.pydev.shared_core.path_watch.FilesystemChanges;
+import org.python.pydev.shared_core.path_watch.IFilesystemChangesBatchListener;
 import org.python.pydev.shared_core.path_watch.PathWatch;
 import org.python.pydev.shared_core.structure.DataAndImageTreeNode;
 import org.python.pydev.shared_core.structure.TreeNode;
@@ -328,7 +329,7 @@ public class SynchSystemModulesManagerScheduler implements IInterpreterManagerLi
      * Helper class: when a path in the IInterpreterInfo changes some content (or actual path),
      * it calls a listener to take action (i.e.: validate contents).
      */
-    public static final class InfoTracker implements IFilesystemChangesListener {
+    public static final class InfoTracker implements IFilesystemChangesBatchListener {
 
         public final IInterpreterInfo info;
         public final IInterpreterManager manager;
@@ -353,6 +354,24 @@ public class SynchSystemModulesManagerScheduler implements IInterpreterManagerLi
             listener.onChangedIInterpreterInfo(this, file);
         }
 
+        @Override
+        public void changed(FilesystemChanges changes) {
+            //Report only once for all the changes (preferring a directory which may still be being copied).
+            List<File> files = new ArrayList<>(changes.size());
+            files.addAll(changes.getAdded());
+            files.addAll(changes.getModified());
+            files.addAll(changes.getRemoved());
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    listener.onChangedIInterpreterInfo(this, file);
+                    return;
+                }
+            }
+            if (files.size() > 0) {
+                listener.onChangedIInterpreterInfo(this, files.get(0));
+            }
+        }
+
         public void registerTracking(File f) {
             filepathsTracked.add(f);
         }
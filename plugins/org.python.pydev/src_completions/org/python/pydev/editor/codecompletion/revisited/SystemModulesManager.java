@@ -13,6 +13,7 @@ package org.python.pydev.editor.codecompletion.revisited;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -371,7 +372,16 @@ public final class SystemModulesManager extends ModulesManagerWithBuild implemen
 
     public void load() throws IOException {
         final File workspaceMetadataFile = getIoDirectory();
-        ModulesManager.loadFromFile(this, workspaceMetadataFile);
+        WorkspaceIndexSnapshot.Entry entry = getUpToDateSnapshotEntry();
+        if (entry != null && entry.keys.size() >= 2) {
+            //The snapshot is still valid for the current pythonpath: no need to parse the modulesKeys file.
+            synchronized (modulesKeysLock) {
+                buildKeysFromSorted(entry.keys);
+            }
+            pythonPathHelper.setPythonPath(entry.pythonpath);
+        } else {
+            ModulesManager.loadFromFile(this, workspaceMetadataFile);
+        }
 
         DeltaSaver<ModulesKey> d = this.deltaSaver = new DeltaSaver<ModulesKey>(this.getIoDirectory(),
                 "v1_sys_astdelta", readFromFileMethod,
@@ -386,7 +396,44 @@ public final class SystemModulesManager extends ModulesManagerWithBuild implemen
             d.clearAll(); //When save is called, the deltas don't need to be used anymore.
         }
         this.saveToFile(workspaceMetadataFile);
+        updateSnapshotEntry();
+    }
+
+    /**
+     * @return the id of this manager in the workspace index snapshot.
+     */
+    public String getSnapshotId() {
+        return WorkspaceIndexSnapshot.getSystemId(info.getInterpreterType(), info.getExecutableOrJar());
+    }
+
+    /**
+     * Updates the keys of this manager in the workspace index snapshot (and the stamps of the folders related to
+     * them, so, should be called right after the keys are synchronized with the pythonpath).
+     */
+    public void updateSnapshotEntry() {
+        List<ModulesKey> keys;
+        synchronized (modulesKeysLock) {
+            keys = new ArrayList<ModulesKey>(modulesKeys.keySet());
+        }
+        WorkspaceIndexSnapshot.getCurrent().putEntry(
+                WorkspaceIndexSnapshot.createEntry(getSnapshotId(), pythonPathHelper.getPythonpath(), keys));
+    }
 
+    /**
+     * @return the entry for this manager in the workspace index snapshot if it's still valid for the pythonpath
+     * of the interpreter (i.e.: no related folder changed since it was created) or null otherwise.
+     */
+    public WorkspaceIndexSnapshot.Entry getUpToDateSnapshotEntry() {
+        WorkspaceIndexSnapshot.Entry entry = WorkspaceIndexSnapshot.getCurrent().getEntry(getSnapshotId());
+        if (entry == null) {
+            return null;
+        }
+        //Same thing done when the pythonpath is set in the modules manager from the interpreter info.
+        List<String> pythonpath = PythonPathHelper.parsePythonPathFromStr(StringUtils.join("|", info.libs), null);
+        if (!entry.isUpToDate(pythonpath)) {
+            return null;
+        }
+        return entry;
     }
 
     public File getIoDirectory() {
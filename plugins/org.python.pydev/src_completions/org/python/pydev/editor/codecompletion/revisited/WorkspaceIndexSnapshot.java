@@ -0,0 +1,658 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.editor.codecompletion.revisited;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.python.pydev.core.ModulesKey;
+import org.python.pydev.core.ModulesKeyForZip;
+import org.python.pydev.core.log.Log;
+import org.python.pydev.plugin.PydevPlugin;
+import org.python.pydev.shared_core.SharedCorePlugin;
+import org.python.pydev.shared_core.io.FileUtils;
+
+/**
+ * Snapshot (in a single checksummed file) of the modules keys found for each interpreter along with the stamps of
+ * the files/folders those keys were computed from and the stamps of the token index files which were in sync with
+ * those keys.
+ *
+ * On startup, checking the stamps is enough to know whether a full scan of the interpreter pythonpath is needed (so,
+ * we don't need to traverse the whole pythonpath to know that nothing changed).
+ *
+ * Note: only the interpreters (system modules managers and their token index) are in the snapshot. The modules
+ * managers and token indexes of projects are restored as before.
+ *
+ * The stamps are the pythonpath entries, the folders containing modules (and their direct subfolders, so that a
+ * folder which becomes a package is noticed) and the zip files with modules. Note that changing only the contents
+ * of a module doesn't change its folder stamp (which is Ok, as the keys are still the same in that case). When the
+ * last modified time of a folder changes, its listing is checked (so, folders where only compiled files --
+ * .pyc/.pyo/$py.class -- or __pycache__ changed are still considered valid).
+ *
+ * Format: magic, format version, payload length, payload and the crc32 of the payload. Any mismatch makes the
+ * snapshot be discarded (and the regular restore/scan is done).
+ *
+ * The file is written atomically (temporary file + rename) some time after it changes and when the plugin is
+ * stopped.
+ */
+public final class WorkspaceIndexSnapshot {
+
+    private static final int MAGIC = 0x50445753; //PDWS
+
+    /**
+     * Must be raised whenever the payload changes.
+     */
+    public static final int FORMAT_VERSION = 2;
+
+    public static final String FILE_NAME = "workspace_index.snapshot";
+
+    /**
+     * Time to wait after a change before writing the snapshot (so that many changes are written only once).
+     */
+    private static final long SAVE_DELAY = 30 * 1000;
+
+    private static final byte KEY_NO_FILE = 0;
+    private static final byte KEY_FILE = 1;
+    private static final byte KEY_ZIP = 2;
+
+    /**
+     * The last modified time (and length for files or a hash of the listing for directories) of some path.
+     */
+    public static final class FileStamp {
+
+        public final String path;
+        public final long lastModified;
+
+        /**
+         * -1 for directories (where the length is not meaningful).
+         */
+        public final long length;
+
+        /**
+         * For directories, the hash of the names in it (without compiled files). 0 for files.
+         */
+        public final long listingHash;
+
+        public FileStamp(String path, long lastModified, long length, long listingHash) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.listingHash = listingHash;
+        }
+
+        public static FileStamp create(File file) {
+            if (file.isDirectory()) {
+                return new FileStamp(file.getPath(), file.lastModified(), -1, getListingHash(file));
+            }
+            return new FileStamp(file.getPath(), file.lastModified(), file.length(), 0);
+        }
+
+        /**
+         * @return whether the path still has the same stamp.
+         */
+        public boolean isValid() {
+            File file = new File(path);
+            if (length != -1) {
+                return file.lastModified() == lastModified && file.length() == length;
+            }
+            if (file.lastModified() == lastModified) {
+                return true;
+            }
+            //The folder changed: check whether it was only due to compiled files.
+            return file.isDirectory() && getListingHash(file) == listingHash;
+        }
+    }
+
+    /**
+     * @return whether the given name is a compiled file or folder (which are created by the interpreter and don't
+     * change the modules available).
+     */
+    public static boolean isCompiledName(String name) {
+        return name.equals("__pycache__") || name.endsWith(".pyc") || name.endsWith(".pyo")
+                || name.endsWith("$py.class");
+    }
+
+    /**
+     * @return a hash of the names in the given folder (ignoring compiled files).
+     */
+    public static long getListingHash(File dir) {
+        String[] names = dir.list();
+        if (names == null) {
+            return 0;
+        }
+        Arrays.sort(names);
+        CRC32 crc = new CRC32();
+        for (String name : names) {
+            if (isCompiledName(name)) {
+                continue;
+            }
+            try {
+                crc.update(name.getBytes("UTF-8"));
+            } catch (IOException e) {
+                throw new RuntimeException(e); //UTF-8 is always available.
+            }
+            crc.update('/');
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * The information for an interpreter (immutable).
+     */
+    public static final class Entry {
+
+        public final String id;
+        public final List<String> pythonpath;
+
+        /**
+         * Sorted (as they're kept in the modules manager).
+         */
+        public final List<ModulesKey> keys;
+        public final List<FileStamp> stamps;
+
+        /**
+         * The stamps of the token index files which were saved in sync with the keys (empty if not available).
+         */
+        public final List<FileStamp> indexStamps;
+
+        public Entry(String id, List<String> pythonpath, List<ModulesKey> keys, List<FileStamp> stamps,
+                List<FileStamp> indexStamps) {
+            this.id = id;
+            this.pythonpath = Collections.unmodifiableList(pythonpath);
+            this.keys = Collections.unmodifiableList(keys);
+            this.stamps = Collections.unmodifiableList(stamps);
+            this.indexStamps = Collections.unmodifiableList(indexStamps);
+        }
+
+        /**
+         * @return whether the keys in this entry may still be used for the given pythonpath (i.e.: the pythonpath
+         * is the same and no folder/zip related to the keys was changed).
+         */
+        public boolean isUpToDate(List<String> pythonpath) {
+            if (!this.pythonpath.equals(pythonpath)) {
+                return false;
+            }
+            for (FileStamp stamp : stamps) {
+                if (!stamp.isValid()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return whether the token index files are still the ones saved when the keys were in sync.
+         */
+        public boolean isIndexUpToDate() {
+            if (indexStamps.size() == 0) {
+                return false;
+            }
+            for (FileStamp stamp : indexStamps) {
+                if (!stamp.isValid()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public Entry withIndexFiles(Collection<File> indexFiles) {
+            List<FileStamp> newIndexStamps = new ArrayList<FileStamp>(indexFiles.size());
+            for (File file : indexFiles) {
+                newIndexStamps.add(FileStamp.create(file));
+            }
+            return new Entry(id, pythonpath, keys, stamps, newIndexStamps);
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    private boolean dirty;
+
+    public WorkspaceIndexSnapshot() {
+    }
+
+    /**
+     * @return the id of the entry for an interpreter.
+     */
+    public static String getSystemId(int interpreterType, String executableOrJar) {
+        return "system:" + interpreterType + ":" + executableOrJar;
+    }
+
+    /**
+     * Creates an entry computing the stamps of the related files/folders (must be called right after the keys
+     * are found, as later changes would be considered already in the keys).
+     */
+    public static Entry createEntry(String id, List<String> pythonpath, Collection<ModulesKey> sortedKeys) {
+        Set<File> dirs = new LinkedHashSet<File>();
+        Set<File> files = new LinkedHashSet<File>();
+        for (String path : pythonpath) {
+            File file = new File(path);
+            if (file.isDirectory()) {
+                dirs.add(file);
+            } else {
+                files.add(file);
+            }
+        }
+        for (ModulesKey key : sortedKeys) {
+            if (key.file == null) {
+                continue;
+            }
+            if (key instanceof ModulesKeyForZip) {
+                files.add(key.file);
+            } else {
+                File parent = key.file.getParentFile();
+                if (parent != null) {
+                    dirs.add(parent);
+                }
+            }
+        }
+        Set<File> subdirs = new LinkedHashSet<File>();
+        for (File dir : dirs) {
+            File[] children = dir.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    if (child.isDirectory() && !isCompiledName(child.getName())) {
+                        subdirs.add(child);
+                    }
+                }
+            }
+        }
+        dirs.addAll(subdirs);
+
+        List<FileStamp> stamps = new ArrayList<FileStamp>(dirs.size() + files.size());
+        for (File dir : dirs) {
+            stamps.add(FileStamp.create(dir));
+        }
+        for (File file : files) {
+            stamps.add(FileStamp.create(file));
+        }
+        return new Entry(id, new ArrayList<String>(pythonpath), new ArrayList<ModulesKey>(sortedKeys), stamps,
+                new ArrayList<FileStamp>(0));
+    }
+
+    public synchronized List<String> getEntryIds() {
+        return new ArrayList<String>(entries.keySet());
+    }
+
+    public synchronized Entry getEntry(String id) {
+        return entries.get(id);
+    }
+
+    /**
+     * Note: if the keys are the same keys of the previous entry, the index stamps of the previous entry are kept
+     * (as the index is still in sync with those keys).
+     */
+    public synchronized void putEntry(Entry entry) {
+        Entry previous = entries.get(entry.id);
+        if (previous != null && entry.indexStamps.size() == 0 && previous.keys.equals(entry.keys)) {
+            entry = new Entry(entry.id, entry.pythonpath, entry.keys, entry.stamps, previous.indexStamps);
+        }
+        entries.put(entry.id, entry);
+        onChanged();
+    }
+
+    /**
+     * Marks the given token index files as being in sync with the keys of the entry with the given id.
+     */
+    public synchronized void setIndexFiles(String id, Collection<File> indexFiles) {
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            entries.put(id, entry.withIndexFiles(indexFiles));
+            onChanged();
+        }
+    }
+
+    public synchronized void removeEntry(String id) {
+        if (entries.remove(id) != null) {
+            onChanged();
+        }
+    }
+
+    public synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    private void onChanged() {
+        dirty = true;
+        if (this == current) {
+            scheduleSave();
+        }
+    }
+
+    public synchronized byte[] toBytes() {
+        try {
+            ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(1024 * 64);
+            DataOutputStream payload = new DataOutputStream(payloadBytes);
+            payload.writeInt(entries.size());
+            for (Entry entry : entries.values()) {
+                write(payload, entry);
+            }
+            payload.flush();
+            byte[] bytes = payloadBytes.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+
+            ByteArrayOutputStream outBytes = new ByteArrayOutputStream(bytes.length + 32);
+            DataOutputStream out = new DataOutputStream(outBytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeLong(crc.getValue());
+            out.flush();
+            return outBytes.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e); //Writing to memory: not expected.
+        }
+    }
+
+    /**
+     * @return the snapshot or null if it isn't valid (different format version or corrupted).
+     */
+    public static WorkspaceIndexSnapshot fromBytes(byte[] bytes) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            int len = in.readInt();
+            if (len < 0 || len > bytes.length) {
+                return null;
+            }
+            byte[] payloadBytes = new byte[len];
+            in.readFully(payloadBytes);
+            CRC32 crc = new CRC32();
+            crc.update(payloadBytes);
+            if (in.readLong() != crc.getValue()) {
+                return null;
+            }
+
+            DataInputStream payload = new DataInputStream(new ByteArrayInputStream(payloadBytes));
+            WorkspaceIndexSnapshot ret = new WorkspaceIndexSnapshot();
+            int size = payload.readInt();
+            for (int i = 0; i < size; i++) {
+                Entry entry = read(payload);
+                ret.entries.put(entry.id, entry);
+            }
+            return ret;
+        } catch (IOException e) {
+            return null; //truncated
+        }
+    }
+
+    /**
+     * Saves the snapshot atomically (errors are only logged: the snapshot is just a cache).
+     */
+    public void save(File file) {
+        byte[] bytes;
+        synchronized (this) {
+            bytes = toBytes();
+            dirty = false;
+        }
+        try {
+            FileUtils.writeBytesToFileAtomically(bytes, file);
+        } catch (Exception e) {
+            Log.log(e);
+        }
+    }
+
+    /**
+     * @return the snapshot saved in the given file or null if there's no valid snapshot in it.
+     */
+    public static WorkspaceIndexSnapshot load(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return fromBytes(Files.readAllBytes(file.toPath()));
+        } catch (Exception e) {
+            Log.log(e);
+            return null;
+        }
+    }
+
+    private static void write(DataOutputStream out, Entry entry) throws IOException {
+        writeString(out, entry.id);
+        out.writeInt(entry.pythonpath.size());
+        for (String s : entry.pythonpath) {
+            writeString(out, s);
+        }
+        writeStamps(out, entry.stamps);
+        writeStamps(out, entry.indexStamps);
+
+        //The folders (and zips) are shared among many keys: write them only once.
+        Map<String, Integer> dirs = new LinkedHashMap<String, Integer>();
+        for (ModulesKey key : entry.keys) {
+            if (key.file != null) {
+                String dir = key instanceof ModulesKeyForZip ? key.file.getPath() : key.file.getParent();
+                if (dir != null && !dirs.containsKey(dir)) {
+                    dirs.put(dir, dirs.size());
+                }
+            }
+        }
+        out.writeInt(dirs.size());
+        for (String dir : dirs.keySet()) {
+            writeString(out, dir);
+        }
+
+        out.writeInt(entry.keys.size());
+        for (ModulesKey key : entry.keys) {
+            writeString(out, key.name);
+            if (key.file == null) {
+                out.writeByte(KEY_NO_FILE);
+
+            } else if (key instanceof ModulesKeyForZip) {
+                ModulesKeyForZip zipKey = (ModulesKeyForZip) key;
+                out.writeByte(KEY_ZIP);
+                out.writeInt(dirs.get(key.file.getPath()));
+                writeString(out, zipKey.zipModulePath);
+                out.writeBoolean(zipKey.isFile);
+
+            } else {
+                String parent = key.file.getParent();
+                if (parent == null) {
+                    out.writeByte(KEY_NO_FILE);
+                    continue;
+                }
+                out.writeByte(KEY_FILE);
+                out.writeInt(dirs.get(parent));
+                writeString(out, key.file.getName());
+            }
+        }
+    }
+
+    private static Entry read(DataInputStream in) throws IOException {
+        String id = readString(in);
+        int pythonpathSize = readSize(in);
+        List<String> pythonpath = new ArrayList<String>(pythonpathSize);
+        for (int i = 0; i < pythonpathSize; i++) {
+            pythonpath.add(readString(in));
+        }
+        List<FileStamp> stamps = readStamps(in);
+        List<FileStamp> indexStamps = readStamps(in);
+
+        int dirsSize = readSize(in);
+        File[] dirs = new File[dirsSize];
+        for (int i = 0; i < dirsSize; i++) {
+            dirs[i] = new File(readString(in));
+        }
+
+        int keysSize = readSize(in);
+        List<ModulesKey> keys = new ArrayList<ModulesKey>(keysSize);
+        for (int i = 0; i < keysSize; i++) {
+            String name = readString(in);
+            byte type = in.readByte();
+            switch (type) {
+                case KEY_NO_FILE:
+                    keys.add(new ModulesKey(name, null));
+                    break;
+                case KEY_FILE:
+                    File dir = getDir(dirs, in.readInt());
+                    keys.add(new ModulesKey(name, new File(dir, readString(in))));
+                    break;
+                case KEY_ZIP:
+                    File zip = getDir(dirs, in.readInt());
+                    String zipModulePath = readString(in);
+                    keys.add(new ModulesKeyForZip(name, zip, zipModulePath, in.readBoolean()));
+                    break;
+                default:
+                    throw new IOException("Invalid key type: " + type);
+            }
+        }
+        return new Entry(id, pythonpath, keys, stamps, indexStamps);
+    }
+
+    private static File getDir(File[] dirs, int i) throws IOException {
+        if (i < 0 || i >= dirs.length) {
+            throw new IOException("Invalid folder index: " + i);
+        }
+        return dirs[i];
+    }
+
+    private static void writeStamps(DataOutputStream out, List<FileStamp> stamps) throws IOException {
+        out.writeInt(stamps.size());
+        for (FileStamp stamp : stamps) {
+            writeString(out, stamp.path);
+            out.writeLong(stamp.lastModified);
+            out.writeLong(stamp.length);
+            out.writeLong(stamp.listingHash);
+        }
+    }
+
+    private static List<FileStamp> readStamps(DataInputStream in) throws IOException {
+        int size = readSize(in);
+        List<FileStamp> ret = new ArrayList<FileStamp>(size);
+        for (int i = 0; i < size; i++) {
+            String path = readString(in);
+            long lastModified = in.readLong();
+            long length = in.readLong();
+            ret.add(new FileStamp(path, lastModified, length, in.readLong()));
+        }
+        return ret;
+    }
+
+    private static int readSize(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Invalid size: " + size);
+        }
+        return size;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes("UTF-8");
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readSize(in)];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    // Snapshot shared in the workspace -------------------------------------------------------------------------------
+
+    private static final Object lock = new Object();
+
+    private static WorkspaceIndexSnapshot current;
+
+    private static File currentFile;
+
+    private static Job saveJob;
+
+    /**
+     * @return the snapshot for the workspace (loaded from the plugin state location on the first call).
+     */
+    public static WorkspaceIndexSnapshot getCurrent() {
+        synchronized (lock) {
+            if (current == null) {
+                WorkspaceIndexSnapshot snapshot = null;
+                try {
+                    currentFile = PydevPlugin.getWorkspaceMetadataFile(FILE_NAME);
+                    snapshot = load(currentFile);
+                } catch (Exception e) {
+                    //it may fail in tests (no state location): keep it only in memory.
+                    currentFile = null;
+                }
+                current = snapshot != null ? snapshot : new WorkspaceIndexSnapshot();
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Should only be used in tests.
+     */
+    public static void setCurrent(WorkspaceIndexSnapshot snapshot, File file) {
+        synchronized (lock) {
+            current = snapshot;
+            currentFile = file;
+        }
+    }
+
+    /**
+     * Writes the workspace snapshot if it changed (called when the plugin is stopped).
+     */
+    public static void saveCurrentIfDirty() {
+        WorkspaceIndexSnapshot snapshot;
+        File file;
+        synchronized (lock) {
+            snapshot = current;
+            file = currentFile;
+        }
+        if (snapshot != null && file != null && snapshot.isDirty()) {
+            snapshot.save(file);
+        }
+    }
+
+    private static void scheduleSave() {
+        if (SharedCorePlugin.inTestMode()) {
+            return;
+        }
+        synchronized (lock) {
+            if (saveJob == null) {
+                saveJob = new Job("Save workspace index snapshot") {
+
+                    @Override
+                    protected IStatus run(IProgressMonitor monitor) {
+                        saveCurrentIfDirty();
+                        return Status.OK_STATUS;
+                    }
+                };
+                saveJob.setSystem(true);
+            }
+            saveJob.schedule(SAVE_DELAY);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.editor.codecompletion.revisited;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.python.pydev.editor.codecompletion.revisited.ModulesFoundStructure.ZipContents;
+import org.python.pydev.shared_core.cache.CacheManager;
+import org.python.pydev.shared_core.cache.IManagedCache;
+import org.python.pydev.shared_core.cache.LRUMap;
+import org.python.pydev.shared_core.io.FileUtils;
+
+/**
+ * Keeps the contents found in the zip files (.zip, .egg, .jar) of the pythonpath, so that the central
+ * directory of an unchanged zip file isn't read again each time the modules structure is rebuilt.
+ *
+ * An entry is only valid while the size and the modification time of the zip file are the same ones it had
+ * when it was scanned.
+ */
+public final class ZipContentsCache {
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private static final class Entry {
+
+        private final long length;
+        private final long lastModified;
+        private final int zipContentsType;
+        private final Set<String> foundFileZipPaths;
+        private final Set<String> foundFolderZipPaths;
+
+        private Entry(long length, long lastModified, ZipContents zipContents) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.zipContentsType = zipContents.zipContentsType;
+            this.foundFileZipPaths = Collections.unmodifiableSet(new HashSet<String>(
+                    zipContents.foundFileZipPaths));
+            this.foundFolderZipPaths = Collections.unmodifiableSet(new HashSet<String>(
+                    zipContents.foundFolderZipPaths));
+        }
+    }
+
+    private static final LRUMap<String, Entry> cache = new LRUMap<String, Entry>(MAX_ENTRIES);
+
+    /**
+     * Rough estimate on the memory used by each path found in a zip.
+     */
+    private static final int ESTIMATED_BYTES_PER_PATH = 64;
+
+    /**
+     * Kept in a field because the CacheManager only keeps weak references to the caches.
+     */
+    private static final IManagedCache managedCache = new IManagedCache() {
+
+        @Override
+        public String getCacheName() {
+            return "Zip contents cache";
+        }
+
+        @Override
+        public int getEntriesCount() {
+            synchronized (cache) {
+                return cache.size();
+            }
+        }
+
+        @Override
+        public long getSizeEstimate() {
+            long paths = 0;
+            synchronized (cache) {
+                for (Entry entry : cache.values()) {
+                    paths += entry.foundFileZipPaths.size() + entry.foundFolderZipPaths.size();
+                }
+            }
+            return paths * ESTIMATED_BYTES_PER_PATH;
+        }
+
+        @Override
+        public void evict(double fraction) {
+            synchronized (cache) {
+                int toEvict = CacheManager.getEntriesToEvict(cache.size(), fraction);
+                Iterator<String> it = cache.keySet().iterator();
+                for (int i = 0; i < toEvict && it.hasNext(); i++) {
+                    it.next();
+                    it.remove();
+                }
+            }
+        }
+    };
+
+    static {
+        CacheManager.register(managedCache);
+    }
+
+    private ZipContentsCache() {
+    }
+
+    /**
+     * @return the contents for the given zip file or null if it isn't in the cache (or if the file changed
+     * since it was added).
+     */
+    public static ZipContents get(File zipFile) {
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(FileUtils.getFileAbsolutePath(zipFile));
+        }
+        if (entry == null || entry.length != zipFile.length() || entry.lastModified != zipFile.lastModified()) {
+            return null;
+        }
+        //Each client gets its own instance (but the found paths are shared and can't be changed).
+        ZipContents zipContents = new ZipContents(zipFile);
+        zipContents.zipContentsType = entry.zipContentsType;
+        zipContents.foundFileZipPaths = entry.foundFileZipPaths;
+        zipContents.foundFolderZipPaths = entry.foundFolderZipPaths;
+        zipContents.pyFilesLowerToRegular = null;
+        zipContents.pyfoldersLower = null;
+        zipContents.pyInitFilesLowerWithoutExtension = null;
+        return zipContents;
+    }
+
+    /**
+     * Adds the (already consolidated) contents of a zip file to the cache.
+     *
+     * @param length the length of the zip file before it was scanned.
+     * @param lastModified the modification time of the zip file before it was scanned.
+     */
+    public static void put(File zipFile, long length, long lastModified, ZipContents zipContents) {
+        Entry entry = new Entry(length, lastModified, zipContents);
+        synchronized (cache) {
+            cache.put(FileUtils.getFileAbsolutePath(zipFile), entry);
+        }
+    }
+
+    /**
+     * Removes all the entries from the cache.
+     */
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.editor.codecompletion.revisited.modules;
+
+import java.io.File;
+
+import org.python.pydev.parser.jython.CompactAst;
+
+/**
+ * What's kept of a source module which was removed from the modules cache: its ast in a compact form (so, when it's
+ * requested again, a new module may be created without reading and parsing the file again).
+ */
+public final class CompactSourceModule {
+
+    private final String name;
+    private final File file;
+    private final long lastModified;
+    private final CompactAst compactAst;
+    private final Throwable parseError;
+
+    private CompactSourceModule(String name, File file, long lastModified, CompactAst compactAst,
+            Throwable parseError) {
+        this.name = name;
+        this.file = file;
+        this.lastModified = lastModified;
+        this.compactAst = compactAst;
+        this.parseError = parseError;
+    }
+
+    /**
+     * @return the compact form of the given module or null if it can't be compacted (i.e.: it's not in sync with
+     * its file, it's from a zip or it has no ast).
+     */
+    public static CompactSourceModule create(SourceModule module) {
+        File file = module.getFile();
+        if (file == null || module.zipFilePath != null || module.getAst() == null) {
+            return null;
+        }
+        long lastModified = file.lastModified();
+        if (!module.isSynched()) {
+            return null;
+        }
+        CompactAst compactAst = CompactAst.create(module.getAst());
+        if (compactAst == null) {
+            return null;
+        }
+        return new CompactSourceModule(module.getName(), file, lastModified, compactAst, module.parseError);
+    }
+
+    /**
+     * @return a new module with the ast inflated from the compact form or null if the file changed since it was
+     * compacted.
+     */
+    public SourceModule createModule() {
+        if (file.lastModified() != lastModified) {
+            return null;
+        }
+        return new SourceModule(name, file, compactAst.inflate(), parseError);
+    }
+}
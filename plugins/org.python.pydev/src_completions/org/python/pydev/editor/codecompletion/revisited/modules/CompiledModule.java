@@ -56,6 +56,8 @@ import org.python.pydev.editor.codecompletion.revisited.visitors.Definition;
 import org.python.pydev.editor.codecompletion.shell.AbstractShell;
 import org.python.pydev.shared_core.cache.LRUCache;
 import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.metrics.HitCounter;
+import org.python.pydev.shared_core.metrics.Metrics;
 import org.python.pydev.shared_core.structure.Tuple;
 
 /**
@@ -122,6 +124,8 @@ public class CompiledModule extends AbstractModule {
      */
     private LRUCache<String, Definition[]> definitionsFoundCache = new LRUCache<String, Definition[]>(30);
 
+    private static final HitCounter definitionsFoundHitCounter = Metrics.hitCounter("cache.compiled_definitions");
+
     private File file;
 
     private final boolean isPythonBuiltin;
@@ -571,11 +575,13 @@ public class CompiledModule extends AbstractModule {
         }
         Definition[] found = this.definitionsFoundCache.getObj(token);
         if (found != null) {
+            definitionsFoundHitCounter.hit();
             if (TRACE_COMPILED_MODULES) {
                 System.out.println("CompiledModule.findDefinition: found in cache.");
             }
             return found;
         }
+        definitionsFoundHitCounter.miss();
 
         AbstractShell shell = AbstractShell.getServerShell(nature, AbstractShell.COMPLETION_SHELL);
         Tuple<String[], int[]> def = shell.getLineCol(this.name, token, nature.getAstManager().getModulesManager()
@@ -38,6 +38,8 @@ import org.python.pydev.editor.codecompletion.revisited.modules.CompiledToken;
 import org.python.pydev.logging.DebugSettings;
 import org.python.pydev.plugin.PydevPlugin;
 import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.metrics.LatencyTimer;
+import org.python.pydev.shared_core.metrics.Metrics;
 import org.python.pydev.shared_core.net.SocketUtil;
 import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.string.StringUtils;
@@ -683,11 +685,15 @@ public abstract class AbstractShell {
         };
     }
 
+    private static final LatencyTimer roundTripTimer = Metrics.timer("shell.round_trip");
+
     private FastStringBuffer writeAndGetResults(String... str) throws CoreException {
         try {
             synchronized (ioLock) {
+                long start = roundTripTimer.start();
                 this.write(StringUtils.join("", str));
                 FastStringBuffer read = this.read();
+                roundTripTimer.stop(start);
                 return read;
             }
         } catch (NullPointerException e) {
@@ -10,7 +10,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 
-import org.python.pydev.shared_core.io.ThreadStreamReader;
+import org.python.pydev.shared_core.io.PumpedStreamReader;
 import org.python.pydev.shared_core.string.StringUtils;
 
 public class ProcessCreationInfo {
@@ -20,8 +20,13 @@ public class ProcessCreationInfo {
     public final File workingDir;
     public final Process process;
 
-    private ThreadStreamReader stdReader;
-    private ThreadStreamReader errReader;
+    /**
+     * The shell is long-lived and its output is only used in the process log (so, only its last contents are kept).
+     */
+    private static final int MAX_RETAINED_OUTPUT = 100 * 1024;
+
+    private PumpedStreamReader stdReader;
+    private PumpedStreamReader errReader;
 
     public ProcessCreationInfo(String[] parameters, String[] envp, File workingDir, Process process) {
         this.parameters = parameters;
@@ -38,11 +43,8 @@ public class ProcessCreationInfo {
         }
 
         //will print things if we are debugging or just get it (and do nothing except emptying it)
-        stdReader = new ThreadStreamReader(process.getInputStream());
-        errReader = new ThreadStreamReader(process.getErrorStream());
-
-        stdReader.setName("Shell reader (stdout)");
-        errReader.setName("Shell reader (stderr)");
+        stdReader = new PumpedStreamReader(process, process.getInputStream(), null, MAX_RETAINED_OUTPUT, false);
+        errReader = new PumpedStreamReader(process, process.getErrorStream(), null, MAX_RETAINED_OUTPUT, false);
 
         stdReader.start();
         errReader.start();
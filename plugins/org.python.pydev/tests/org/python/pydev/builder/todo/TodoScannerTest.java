@@ -0,0 +1,143 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.builder.todo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.python.pydev.shared_core.string.FastStringBuffer;
+import org.python.pydev.shared_core.utils.Timer;
+
+public class TodoScannerTest extends TestCase {
+
+    private static final List<String> TAGS = Arrays.asList("TODO:", "TODO", "FIXME", "XXX");
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: scanning all the files in a build and re-scanning a file after a small change.
+            String[] files = new String[300];
+            for (int i = 0; i < files.length; i++) {
+                files[i] = createContents(1000, i);
+            }
+            for (int j = 0; j < 5; j++) {
+                Timer timer = new Timer();
+                TodoScanner[] scans = new TodoScanner[files.length];
+                for (int i = 0; i < files.length; i++) {
+                    scans[i] = TodoScanner.scan(files[i], TAGS, null);
+                }
+                timer.printDiff("Full build: 300 files with 1000 lines");
+
+                timer = new Timer();
+                for (int i = 0; i < files.length; i++) {
+                    String changed = files[i].replaceFirst("a500 = 10", "a500 = 20");
+                    TodoScanner.scan(changed, TAGS, scans[i]);
+                }
+                timer.printDiff("Incremental: 300 files with 1 line changed");
+            }
+
+            junit.textui.TestRunner.run(TodoScannerTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static String createContents(int lines, int seed) {
+        FastStringBuffer buf = new FastStringBuffer();
+        for (int i = 0; i < lines; i++) {
+            switch ((i + seed) % 5) {
+                case 0:
+                    buf.append("# comment without tags on line ").append(i).append('\n');
+                    break;
+                case 1:
+                    buf.append("a").append(i).append(" = 10 # TODO: change value\n");
+                    break;
+                case 2:
+                    buf.append("s = '''multi\nline FIXME\nstring XXX'''\n");
+                    break;
+                default:
+                    buf.append("print('some string', \"other\")\n");
+            }
+        }
+        return buf.toString();
+    }
+
+    private String asStr(TodoScanner scanner) {
+        FastStringBuffer buf = new FastStringBuffer();
+        for (TodoScanner.Region region : scanner.regions) {
+            for (int i = 0; i < region.found.length; i++) {
+                int offset = region.start + region.found[i];
+                buf.append(scanner.getLineOfOffset(offset)).append(':').append(offset).append(':')
+                        .append(region.messages[i]).append('\n');
+            }
+        }
+        return buf.toString();
+    }
+
+    public void testScan() throws Exception {
+        String text = "#TODO: a\nx = 'FIXME b' #XXX c TODO d\n'''\nTODO e\n\nXXX f'''";
+        TodoScanner scanner = TodoScanner.scan(text, TAGS, null);
+        assertEquals(""
+                + "0:1:TODO: a\n"
+                + "1:14:FIXME b\n"
+                + "1:30:TODO d\n" //TODO comes before XXX in the tags (only 1 per line)
+                + "3:41:TODO e\n\nXXX f''\n" //the message goes to the end of the string
+                + "5:49:XXX f''\n", asStr(scanner));
+        assertEquals(4, scanner.regions.size());
+    }
+
+    public void testIncremental() throws Exception {
+        String text = createContents(100, 0);
+        TodoScanner scanner = TodoScanner.scan(text, TAGS, null);
+
+        String changed = text.replaceFirst("a51 = 10", "a51 = 100");
+        TodoScanner incremental = TodoScanner.scan(changed, TAGS, scanner);
+        assertEquals(asStr(TodoScanner.scan(changed, TAGS, null)), asStr(incremental));
+        //The change is in code (the regions are just shifted).
+        assertEquals(scanner.regions.size(), incremental.reused);
+
+        changed = text.replaceFirst("TODO: change value", "TODO: change value later");
+        incremental = TodoScanner.scan(changed, TAGS, scanner);
+        assertEquals(asStr(TodoScanner.scan(changed, TAGS, null)), asStr(incremental));
+        assertEquals(scanner.regions.size() - 1, incremental.reused);
+
+        //Opening a string changes the regions until the end.
+        changed = text.replaceFirst("a51 = 10", "a51 = '10");
+        incremental = TodoScanner.scan(changed, TAGS, scanner);
+        assertEquals(asStr(TodoScanner.scan(changed, TAGS, null)), asStr(incremental));
+
+        //Different tags: nothing is reused.
+        incremental = TodoScanner.scan(text, Arrays.asList("TODO"), scanner);
+        assertEquals(0, incremental.reused);
+    }
+
+    public void testIncrementalRandom() throws Exception {
+        Random random = new Random(1);
+        String[] inserts = new String[] { "'", "\"", "'''", "#", "\n", "TODO", "XXX ", "x" };
+        String text = createContents(30, 0);
+        TodoScanner scanner = TodoScanner.scan(text, TAGS, null);
+        for (int i = 0; i < 300; i++) {
+            int offset = random.nextInt(text.length() + 1);
+            if (random.nextBoolean() || text.length() == 0) {
+                text = text.substring(0, offset) + inserts[random.nextInt(inserts.length)] + text.substring(offset);
+            } else {
+                int end = Math.min(text.length(), offset + random.nextInt(5));
+                text = text.substring(0, offset) + text.substring(end);
+            }
+            TodoScanner incremental = TodoScanner.scan(text, TAGS, scanner);
+            assertEquals(asStr(TodoScanner.scan(text, TAGS, null)), asStr(incremental));
+            scanner = incremental;
+        }
+    }
+}
@@ -11,16 +11,22 @@
  */
 package org.python.pydev.editor;
 
+import java.util.Random;
+
 import junit.framework.TestCase;
 
 import org.eclipse.jface.preference.PreferenceStore;
 import org.eclipse.jface.resource.StringConverter;
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.TextAttribute;
 import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.ITokenScanner;
 import org.eclipse.swt.graphics.RGB;
 import org.python.pydev.editor.PyCodeScanner.NumberDetector;
 import org.python.pydev.editor.preferences.PydevEditorPrefs;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+import org.python.pydev.shared_core.utils.Timer;
 import org.python.pydev.ui.ColorAndStyleCache;
 
 /**
@@ -36,6 +42,23 @@ public class PyCodeScannerTest extends TestCase {
         try {
             test.setUp();
             test.testScanner5();
+
+            //Benchmark: scanning a big module with the rule-based scanner and with the current one.
+            FastStringBuffer buf = new FastStringBuffer();
+            for (int i = 0; i < 50000; i++) {
+                buf.append("@decorator(10)\nclass Foo(object):\n    def method(self, a, b=0x1F):\n");
+                buf.append("        return call(a, None) + b * 2.5e10 # comment\n");
+            }
+            Document doc = new Document(buf.toString());
+            for (int i = 0; i < 5; i++) {
+                Timer timer = new Timer();
+                scanAll(new RuleBasedPyCodeScanner(test.colorCache, PyCodeScanner.DEFAULT_KEYWORDS), doc);
+                timer.printDiff("Rule-based code scanner (" + doc.getLength() + " chars)");
+
+                timer = new Timer();
+                scanAll(test.createCodeScanner(), doc);
+                timer.printDiff("PyCodeScanner (" + doc.getLength() + " chars)");
+            }
             test.tearDown();
             System.out.println("Finished");
             junit.textui.TestRunner.run(PyCodeScannerTest.class);
@@ -167,6 +190,47 @@ public class PyCodeScannerTest extends TestCase {
         assertToken(scanner, 7, 0, colorCache.getCodeTextAttribute()); //EOF
     }
 
+    public void testSameAsRuleBased() throws Exception {
+        PyCodeScanner scanner = createCodeScanner();
+        RuleBasedPyCodeScanner ruleBased = new RuleBasedPyCodeScanner(colorCache, PyCodeScanner.DEFAULT_KEYWORDS);
+        Random random = new Random(1);
+        String[] parts = new String[] { "def", "class", "self", " ", "\n", "\t", "(", ")", "[", "=", "+", ",", ":",
+                ".", "@", "@dec", "0", "0x", "1", "e", "F", "a", "_b", "'", "a\u00e7\u00e3o", "1.5e10" };
+        for (int i = 0; i < 500; i++) {
+            FastStringBuffer buf = new FastStringBuffer();
+            int len = random.nextInt(30);
+            for (int j = 0; j < len; j++) {
+                buf.append(parts[random.nextInt(parts.length)]);
+            }
+            Document doc = new Document(buf.toString());
+            assertEquals(buf.toString(), scanTokens(ruleBased, doc), scanTokens(scanner, doc));
+        }
+    }
+
+    private static int scanAll(ITokenScanner scanner, IDocument doc) {
+        scanner.setRange(doc, 0, doc.getLength());
+        int found = 0;
+        IToken token = scanner.nextToken();
+        while (!token.isEOF()) {
+            found++;
+            token = scanner.nextToken();
+        }
+        return found;
+    }
+
+    private String scanTokens(ITokenScanner scanner, IDocument doc) {
+        scanner.setRange(doc, 0, doc.getLength());
+        FastStringBuffer buf = new FastStringBuffer();
+        IToken token = scanner.nextToken();
+        while (!token.isEOF()) {
+            TextAttribute data = (TextAttribute) token.getData();
+            buf.append(scanner.getTokenOffset()).append(':').append(scanner.getTokenLength()).append(':')
+                    .appendObject(data.getForeground()).append('\n');
+            token = scanner.nextToken();
+        }
+        return buf.toString();
+    }
+
     private void assertToken(PyCodeScanner scanner, int offset, int len, TextAttribute data) {
         IToken token = scanner.nextToken();
         assertEquals(offset, scanner.getTokenOffset());
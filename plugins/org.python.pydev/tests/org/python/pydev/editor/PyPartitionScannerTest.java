@@ -9,21 +9,80 @@
  */
 package org.python.pydev.editor;
 
+import java.util.Random;
+
 import junit.framework.TestCase;
 
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentPartitioner;
 import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.ITokenScanner;
 import org.python.pydev.core.IPythonPartitions;
 import org.python.pydev.core.docutils.PyPartitionScanner;
 import org.python.pydev.core.docutils.PyPartitioner;
+import org.python.pydev.shared_core.string.FastStringBuffer;
 import org.python.pydev.shared_core.testutils.TestUtils;
+import org.python.pydev.shared_core.utils.Timer;
 
 public class PyPartitionScannerTest extends TestCase {
 
     public static void main(String[] args) {
-        junit.textui.TestRunner.run(PyPartitionScannerTest.class);
+        try {
+            //Benchmark: partitioning a big module with the rule-based scanner and with the current one.
+            String contents = createContents(100000, new Random(0));
+            Document doc = new Document(contents);
+            for (int i = 0; i < 5; i++) {
+                Timer timer = new Timer();
+                scanAll(new RuleBasedPyPartitionScanner(), doc);
+                timer.printDiff("Rule-based partition scanner (" + contents.length() + " chars)");
+
+                timer = new Timer();
+                scanAll(new PyPartitionScanner(), doc);
+                timer.printDiff("PyPartitionScanner (" + contents.length() + " chars)");
+            }
+
+            //Benchmark: typing at the end of a docstring in the middle of the module.
+            PyPartitionScanner.addPartitionScanner(doc);
+            int offset = doc.get().indexOf("end of docstring", contents.length() / 2);
+            Timer timer = new Timer();
+            for (int i = 0; i < 1000; i++) {
+                doc.replace(offset, 0, "a");
+            }
+            timer.printDiff("1000 chars typed in a docstring");
+
+            junit.textui.TestRunner.run(PyPartitionScannerTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static int scanAll(ITokenScanner scanner, IDocument doc) {
+        scanner.setRange(doc, 0, doc.getLength());
+        int found = 0;
+        IToken token = scanner.nextToken();
+        while (!token.isEOF()) {
+            found++;
+            token = scanner.nextToken();
+        }
+        return found;
+    }
+
+    private static String createContents(int blocks, Random random) {
+        String[] parts = new String[] {
+                "class Foo(object):\n",
+                "    '''\n    Docstring\n    end of docstring\n    '''\n",
+                "    def method(self, a, b=10):\n",
+                "        call(a, 'str', \"str2\") # comment\n",
+                "        `a`\n",
+                "        s = '''multi\\''' line\n''' + \"\"\"x\"\"\"\n",
+                "        'unclosed\n",
+                "        return a + b * 2\n" };
+        FastStringBuffer buf = new FastStringBuffer();
+        for (int i = 0; i < blocks; i++) {
+            buf.append(parts[random.nextInt(parts.length)]);
+        }
+        return buf.toString();
     }
 
     protected void setUp() throws Exception {
@@ -68,12 +127,9 @@ public class PyPartitionScannerTest extends TestCase {
         PyPartitioner partitioner = PyPartitionScanner.createPyPartitioner();
         String scan = TestUtils.scan(partitioner.getScanner(), document);
         assertEquals(TestUtils.listToExpected("__python_singleline_string1:0:7",
-                "null:7:1",
-                "null:8:1",
-                "null:9:1",
+                "null:7:3", //the contents between partitions are returned as a single token
                 "__python_singleline_string1:10:8",
-                "null:18:1",
-                "null:19:1",
+                "null:18:2",
                 "__python_singleline_string1:20:3",
                 "null:23:1",
                 "__python_multiline_string1:24:9",
@@ -112,6 +168,60 @@ public class PyPartitionScannerTest extends TestCase {
 
     }
 
+    public void testSameAsRuleBased() throws Exception {
+        Random random = new Random(1);
+        String[] parts = new String[] { "'", "\"", "`", "#", "\\", "\n", "\r", "\r\n", "a", " ", "'''",
+                "\"\"\"" };
+        for (int i = 0; i < 2000; i++) {
+            FastStringBuffer buf = new FastStringBuffer();
+            int len = random.nextInt(40);
+            for (int j = 0; j < len; j++) {
+                buf.append(parts[random.nextInt(parts.length)]);
+            }
+            //The rule-based scanner doesn't unread properly a string with escapes which isn't closed at the end of
+            //the document, so, finish it with new lines.
+            buf.append("\n\n");
+            IDocument document = new Document(buf.toString());
+            assertEquals(buf.toString(), scanPartitions(new RuleBasedPyPartitionScanner(), document),
+                    scanPartitions(new PyPartitionScanner(), document));
+        }
+    }
+
+    public void testIncrementalRepartition() throws Exception {
+        Random random = new Random(2);
+        String[] inserts = new String[] { "'", "\"", "'''", "\"\"\"", "#", "\\", "\n", "`", "x" };
+        IDocument document = new Document(createContents(50, random));
+        PyPartitionScanner.addPartitionScanner(document);
+        for (int i = 0; i < 300; i++) {
+            int offset = random.nextInt(document.getLength() + 1);
+            if (random.nextBoolean()) {
+                document.replace(offset, 0, inserts[random.nextInt(inserts.length)]);
+            } else {
+                document.replace(offset, Math.min(document.getLength() - offset, random.nextInt(4)), "");
+            }
+            IDocument fresh = new Document(document.get());
+            PyPartitionScanner.addPartitionScanner(fresh);
+            assertEquals(TestUtils.getContentTypesAsStr(fresh), TestUtils.getContentTypesAsStr(document));
+        }
+    }
+
+    /**
+     * @return the partitions found by the scanner (without the contents between partitions).
+     */
+    private String scanPartitions(ITokenScanner scanner, IDocument document) {
+        scanner.setRange(document, 0, document.getLength());
+        FastStringBuffer buf = new FastStringBuffer();
+        IToken token = scanner.nextToken();
+        while (!token.isEOF()) {
+            if (token.getData() != null) {
+                buf.append(token.getData().toString()).append(':').append(scanner.getTokenOffset()).append(':')
+                        .append(scanner.getTokenLength()).append('\n');
+            }
+            token = scanner.nextToken();
+        }
+        return buf.toString();
+    }
+
     private void checkPartitions(IDocument document, String... expected) throws Exception {
         String found = TestUtils.getContentTypesAsStr(document);
         assertEquals(TestUtils.listToExpected(expected), found);
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2005-2013 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the Eclipse Public License (EPL).
+ * Please see the license.txt included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package org.python.pydev.editor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jface.text.rules.IRule;
+import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.IWhitespaceDetector;
+import org.eclipse.jface.text.rules.IWordDetector;
+import org.eclipse.jface.text.rules.RuleBasedScanner;
+import org.eclipse.jface.text.rules.Token;
+import org.eclipse.jface.text.rules.WhitespaceRule;
+import org.eclipse.jface.text.rules.WordRule;
+import org.python.pydev.ui.ColorAndStyleCache;
+
+/**
+ * The rule-based code scanner which was used before the PyCodeScanner was written as a state machine.
+ *
+ * Kept in the tests to check that both give the same tokens and to compare their throughput.
+ */
+public class RuleBasedPyCodeScanner extends RuleBasedScanner {
+
+    public RuleBasedPyCodeScanner(ColorAndStyleCache colorCache, String[] keywords) {
+        IToken keywordToken = new Token(colorCache.getKeywordTextAttribute());
+        IToken selfToken = new Token(colorCache.getSelfTextAttribute());
+        IToken defaultToken = new Token(colorCache.getCodeTextAttribute());
+        IToken decoratorToken = new Token(colorCache.getDecoratorTextAttribute());
+        IToken numberToken = new Token(colorCache.getNumberTextAttribute());
+        IToken classNameToken = new Token(colorCache.getClassNameTextAttribute());
+        IToken funcNameToken = new Token(colorCache.getFuncNameTextAttribute());
+        IToken parensToken = new Token(colorCache.getParensTextAttribute());
+        IToken operatorsToken = new Token(colorCache.getOperatorsTextAttribute());
+
+        setDefaultReturnToken(defaultToken);
+        List<IRule> rules = new ArrayList<IRule>();
+
+        rules.add(new WhitespaceRule(new IWhitespaceDetector() {
+
+            public boolean isWhitespace(char c) {
+                return Character.isWhitespace(c);
+            }
+        }, defaultToken));
+
+        PyWordRule wordRule = new PyWordRule(new IWordDetector() {
+
+            public boolean isWordStart(char c) {
+                return Character.isJavaIdentifierStart(c);
+            }
+
+            public boolean isWordPart(char c) {
+                return Character.isJavaIdentifierPart(c);
+            }
+        }, defaultToken, classNameToken, funcNameToken, parensToken, operatorsToken);
+        for (String keyword : keywords) {
+            wordRule.addWord(keyword, "self".equals(keyword) ? selfToken : keywordToken);
+        }
+        rules.add(wordRule);
+
+        rules.add(new WordRule(new IWordDetector() {
+
+            public boolean isWordStart(char c) {
+                return c == '@';
+            }
+
+            public boolean isWordPart(char c) {
+                return c != '\n' && c != '\r' && c != '(';
+            }
+        }, decoratorToken));
+        rules.add(new WordRule(new PyCodeScanner.NumberDetector(), numberToken));
+
+        setRules(rules.toArray(new IRule[0]));
+    }
+}
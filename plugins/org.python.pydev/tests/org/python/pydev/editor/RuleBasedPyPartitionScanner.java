@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2005-2013 by Appcelerator, Inc. All Rights Reserved.
+ * Licensed under the terms of the Eclipse Public License (EPL).
+ * Please see the license.txt included with this distribution for details.
+ * Any modifications to this file must keep this entire header intact.
+ */
+package org.python.pydev.editor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jface.text.rules.EndOfLineRule;
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.PatternRule;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+import org.eclipse.jface.text.rules.SingleLineRule;
+import org.eclipse.jface.text.rules.Token;
+import org.python.pydev.core.IPythonPartitions;
+
+/**
+ * The rule-based partition scanner which was used before the PyPartitionScanner was written as a state machine.
+ *
+ * Kept in the tests to check that both give the same partitions and to compare their throughput.
+ */
+public class RuleBasedPyPartitionScanner extends RuleBasedPartitionScanner {
+
+    public RuleBasedPyPartitionScanner() {
+        super();
+        List<IPredicateRule> rules = new ArrayList<IPredicateRule>();
+
+        rules.add(new MultiLineRule("'''", "'''", new Token(IPythonPartitions.PY_MULTILINE_STRING1), '\\', true));
+        rules.add(new MultiLineRule("\"\"\"", "\"\"\"", new Token(IPythonPartitions.PY_MULTILINE_STRING2), '\\',
+                true));
+
+        rules.add(new PatternRule("'", "'", new Token(IPythonPartitions.PY_SINGLELINE_STRING1), '\\', true, false,
+                true));
+        rules.add(new PatternRule("\"", "\"", new Token(IPythonPartitions.PY_SINGLELINE_STRING2), '\\', true, false,
+                true));
+
+        rules.add(new SingleLineRule("`", "`", new Token(IPythonPartitions.PY_BACKQUOTES)));
+
+        rules.add(new EndOfLineRule("#", new Token(IPythonPartitions.PY_COMMENT)));
+
+        setPredicateRules(rules.toArray(new IPredicateRule[0]));
+    }
+}
@@ -0,0 +1,186 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.editor.hover;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.python.pydev.editor.hover.PyHoverInfoService.HoverKey;
+import org.python.pydev.shared_core.callbacks.ICallback;
+import org.python.pydev.shared_core.structure.Tuple;
+
+public class PyHoverInfoServiceTest extends TestCase {
+
+    private PyHoverInfoService service;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        service = new PyHoverInfoService();
+    }
+
+    private ICallback<String, IProgressMonitor> createComputation(final String ret, final AtomicInteger calls) {
+        return new ICallback<String, IProgressMonitor>() {
+
+            @Override
+            public String call(IProgressMonitor monitor) {
+                calls.incrementAndGet();
+                return ret;
+            }
+        };
+    }
+
+    public void testCache() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        HoverKey key = new HoverKey("mod.py", 1, 10, "foo");
+        assertEquals("foo doc", service.getHoverInfo(key, createComputation("foo doc", calls)));
+        assertEquals("foo doc", service.getHoverInfo(key, createComputation("foo doc", calls)));
+        assertEquals(1, calls.get());
+
+        //Document changed: new stamp.
+        HoverKey changed = new HoverKey("mod.py", 2, 10, "foo");
+        assertEquals("foo doc 2", service.getHoverInfo(changed, createComputation("foo doc 2", calls)));
+        assertEquals(2, calls.get());
+        assertEquals(2, service.getEntriesCount());
+
+        service.evict(1.0);
+        assertEquals(0, service.getEntriesCount());
+    }
+
+    public void testStaleRequest() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final HoverKey slowKey = new HoverKey("mod.py", 1, 0, "slow");
+        final String[] slowResult = new String[] { "not set" };
+        final boolean[] slowCancelled = new boolean[1];
+
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                slowResult[0] = service.getHoverInfo(slowKey, new ICallback<String, IProgressMonitor>() {
+
+                    @Override
+                    public String call(IProgressMonitor monitor) {
+                        started.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                        slowCancelled[0] = monitor.isCanceled();
+                        return "slow doc";
+                    }
+                });
+            }
+        };
+        thread.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        //A new request (the mouse moved) doesn't wait for the slow one.
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("fast doc",
+                service.getHoverInfo(new HoverKey("mod.py", 1, 20, "fast"), createComputation("fast doc", calls)));
+
+        release.countDown();
+        thread.join(5000);
+        assertTrue(slowCancelled[0]);
+        assertNull(slowResult[0]);
+        assertEquals(1, service.getEntriesCount()); //The cancelled result is not cached.
+    }
+
+    public void testPrefetch() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        List<Tuple<HoverKey, ICallback<String, IProgressMonitor>>> requests = new ArrayList<Tuple<HoverKey, ICallback<String, IProgressMonitor>>>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(new Tuple<HoverKey, ICallback<String, IProgressMonitor>>(new HoverKey("mod.py", 1, i, "tok"
+                    + i), createComputation("doc" + i, calls)));
+        }
+        service.prefetch(requests);
+        for (int i = 0; i < 100 && service.getEntriesCount() < 5; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(5, service.getEntriesCount());
+        assertEquals(5, calls.get());
+
+        AtomicInteger requestCalls = new AtomicInteger();
+        assertEquals("doc3", service.getHoverInfo(new HoverKey("mod.py", 1, 3, "tok3"),
+                createComputation("other", requestCalls)));
+        assertEquals(0, requestCalls.get());
+    }
+
+    public void testEmptyResultsNotCached() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        HoverKey key = new HoverKey("mod.py", 1, 10, "foo");
+        assertNull(service.getHoverInfo(key, createComputation(null, calls)));
+        assertEquals("", service.getHoverInfo(key, createComputation("", calls)));
+        assertEquals(2, calls.get());
+        assertEquals(0, service.getEntriesCount());
+
+        assertEquals("foo doc", service.getHoverInfo(key, createComputation("foo doc", calls)));
+        assertEquals(3, calls.get());
+        assertEquals(1, service.getEntriesCount());
+    }
+
+    public void testCancelPrefetch() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        final boolean[] prefetchCancelled = new boolean[1];
+        AtomicInteger calls = new AtomicInteger();
+        final HoverKey slowKey = new HoverKey("mod.py", 1, 0, "slow");
+
+        List<Tuple<HoverKey, ICallback<String, IProgressMonitor>>> requests = new ArrayList<Tuple<HoverKey, ICallback<String, IProgressMonitor>>>();
+        requests.add(new Tuple<HoverKey, ICallback<String, IProgressMonitor>>(slowKey,
+                new ICallback<String, IProgressMonitor>() {
+
+                    @Override
+                    public String call(IProgressMonitor monitor) {
+                        started.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                        prefetchCancelled[0] = monitor.isCanceled();
+                        finished.countDown();
+                        return "partial";
+                    }
+                }));
+        for (int i = 1; i < 5; i++) {
+            requests.add(new Tuple<HoverKey, ICallback<String, IProgressMonitor>>(new HoverKey("mod.py", 1, i, "tok"
+                    + i), createComputation("doc" + i, calls)));
+        }
+        service.prefetch(requests);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        //The caret moved: the running computation is cancelled and the others are discarded.
+        service.cancelPrefetch();
+        release.countDown();
+
+        //A request for the token which was being prefetched doesn't get the partial result.
+        AtomicInteger requestCalls = new AtomicInteger();
+        assertEquals("slow doc", service.getHoverInfo(slowKey, createComputation("slow doc", requestCalls)));
+        assertEquals(1, requestCalls.get());
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertTrue(prefetchCancelled[0]);
+
+        Thread.sleep(100);
+        assertEquals(0, calls.get());
+        assertEquals(1, service.getEntriesCount());
+    }
+}
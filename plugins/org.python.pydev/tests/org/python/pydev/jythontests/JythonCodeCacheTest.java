@@ -0,0 +1,234 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.jythontests;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.python.core.PySystemState;
+import org.python.pydev.jython.IPythonInterpreter;
+import org.python.pydev.jython.JythonCodeCache;
+import org.python.pydev.jython.JythonPlugin;
+import org.python.pydev.jython.PythonInterpreterWrapper;
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.utils.Timer;
+
+public class JythonCodeCacheTest extends TestCase {
+
+    private File baseDir;
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: simulates opening editors (getting an interpreter and executing the pyedit scripts).
+            JythonPlugin.IN_TESTS = true;
+            JythonPlugin.setDebugReload(false);
+            JythonCodeCacheTest test = new JythonCodeCacheTest();
+            test.setUp();
+            final File scriptsDir = new File(test.baseDir, "scripts");
+            scriptsDir.mkdirs();
+            for (int i = 0; i < 10; i++) {
+                FileUtils.writeStrToFile(createScript(i), new File(scriptsDir, "pyedit_bench" + i + ".py"));
+            }
+
+            Timer timer = new Timer();
+            openEditor(scriptsDir);
+            timer.printDiff("First editor (compiles the scripts)");
+
+            timer = new Timer();
+            for (int i = 0; i < 20; i++) {
+                openEditor(scriptsDir);
+            }
+            timer.printDiff("20 editors (sequential)");
+
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            timer = new Timer();
+            for (int i = 0; i < 20; i++) {
+                futures.add(pool.submit(new Callable<Object>() {
+
+                    public Object call() throws Exception {
+                        openEditor(scriptsDir);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+            timer.printDiff("20 editors (4 threads)");
+            pool.shutdown();
+
+            test.tearDown();
+            junit.textui.TestRunner.run(JythonCodeCacheTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void openEditor(File scriptsDir) {
+        IPythonInterpreter interpreter = JythonPlugin.newPythonInterpreter();
+        HashMap<String, Object> locals = new HashMap<String, Object>();
+        locals.put("cmd", "onCreateActions");
+        List<Throwable> errors = JythonPlugin.execAll(locals, "pyedit", interpreter, new File[] { scriptsDir },
+                null);
+        if (errors.size() > 0) {
+            throw new RuntimeException(errors.get(0));
+        }
+        interpreter.cleanup();
+    }
+
+    private static String createScript(int i) {
+        StringBuilder buf = new StringBuilder();
+        buf.append("if cmd == 'onCreateActions':\n");
+        buf.append("    result = 0\n");
+        for (int j = 0; j < 50; j++) {
+            buf.append("    def func").append(j).append("(a, b=").append(i).append("):\n");
+            buf.append("        return [x * b for x in range(a)]\n");
+            buf.append("    result += len(func").append(j).append("(3))\n");
+        }
+        return buf.toString();
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        PySystemState.initialize();
+        baseDir = FileUtils.getTempFileAt(new File(System.getProperty("java.io.tmpdir")), "jython_code_cache");
+        baseDir.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectoryTree(baseDir);
+        super.tearDown();
+    }
+
+    private Object execAndGetResult(JythonCodeCache.CompiledCode compiled) {
+        PythonInterpreterWrapper interpreter = new PythonInterpreterWrapper();
+        try {
+            interpreter.set("code", compiled.code);
+            interpreter.exec("exec(code)");
+            return interpreter.get("result", Integer.class);
+        } finally {
+            interpreter.cleanup();
+        }
+    }
+
+    public void testCodeCache() throws Exception {
+        File cacheDir = new File(baseDir, "cache");
+        File script = new File(baseDir, "script.py");
+        FileUtils.writeStrToFile("result = 10 * 2", script);
+
+        JythonCodeCache cache = new JythonCodeCache(cacheDir);
+        JythonCodeCache.CompiledCode compiled = cache.get(script);
+        assertEquals(20, execAndGetResult(compiled));
+        assertSame(compiled, cache.get(script));
+        assertTrue(compiled.checkFirstUse());
+        assertFalse(compiled.checkFirstUse());
+
+        //A new cache gets it from the disk.
+        assertEquals(1, cacheDir.listFiles().length);
+        JythonCodeCache cache2 = new JythonCodeCache(cacheDir);
+        JythonCodeCache.CompiledCode fromDisk = cache2.get(script);
+        assertEquals(compiled.hash, fromDisk.hash);
+        assertEquals(20, execAndGetResult(fromDisk));
+
+        //Contents changed: new code.
+        FileUtils.writeStrToFile("result = 10 * 3 # changed", script);
+        JythonCodeCache.CompiledCode changed = cache.get(script);
+        assertFalse(compiled.hash.equals(changed.hash));
+        assertEquals(30, execAndGetResult(changed));
+        //The file with the previous contents is removed.
+        assertEquals(1, cacheDir.listFiles().length);
+        assertEquals(30, execAndGetResult(new JythonCodeCache(cacheDir).get(script)));
+    }
+
+    public void testDiskLimits() throws Exception {
+        File cacheDir = new File(baseDir, "cache");
+        JythonCodeCache cache = new JythonCodeCache(cacheDir, 3, Long.MAX_VALUE);
+        File[] scripts = new File[5];
+        for (int i = 0; i < scripts.length; i++) {
+            scripts[i] = new File(baseDir, "script" + i + ".py");
+            FileUtils.writeStrToFile("result = " + i, scripts[i]);
+            cache.get(scripts[i]);
+            //Make the order of use explicit (the timestamp is the last use).
+            for (File file : cacheDir.listFiles()) {
+                if (file.lastModified() > System.currentTimeMillis() - 1000) {
+                    file.setLastModified(1000L * (i + 1));
+                }
+            }
+        }
+        assertEquals(3, cacheDir.listFiles().length);
+
+        //The least recently used were removed (so, they're compiled again) and the others are still there.
+        JythonCodeCache cache2 = new JythonCodeCache(cacheDir, 3, Long.MAX_VALUE);
+        for (int i = 0; i < scripts.length; i++) {
+            assertEquals(i, execAndGetResult(cache2.get(scripts[i])));
+        }
+        assertEquals(3, cacheDir.listFiles().length);
+
+        //Size limit.
+        JythonCodeCache cache3 = new JythonCodeCache(cacheDir, 100, 1);
+        FileUtils.writeStrToFile("result = 10", scripts[0]);
+        assertEquals(10, execAndGetResult(cache3.get(scripts[0])));
+        assertEquals(1, cacheDir.listFiles().length);
+    }
+
+    public void testCorruptFileOnDisk() throws Exception {
+        File cacheDir = new File(baseDir, "cache");
+        File script = new File(baseDir, "script.py");
+        FileUtils.writeStrToFile("result = 1", script);
+
+        new JythonCodeCache(cacheDir).get(script);
+        File[] files = cacheDir.listFiles();
+        assertEquals(1, files.length);
+        FileUtils.writeStrToFile("corrupt", files[0]);
+
+        JythonCodeCache.CompiledCode compiled = new JythonCodeCache(cacheDir).get(script);
+        assertEquals(1, execAndGetResult(compiled));
+    }
+
+    public void testConcurrentGet() throws Exception {
+        final File script = new File(baseDir, "script.py");
+        FileUtils.writeStrToFile("result = 5", script);
+        final JythonCodeCache cache = new JythonCodeCache(null);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<JythonCodeCache.CompiledCode>> futures = new ArrayList<Future<JythonCodeCache.CompiledCode>>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(new Callable<JythonCodeCache.CompiledCode>() {
+
+                    public JythonCodeCache.CompiledCode call() throws Exception {
+                        return cache.get(script);
+                    }
+                }));
+            }
+            JythonCodeCache.CompiledCode first = futures.get(0).get();
+            assertEquals(5, execAndGetResult(first));
+            for (Future<JythonCodeCache.CompiledCode> future : futures) {
+                assertEquals(first.hash, future.get().hash);
+            }
+            assertSame(first, cache.get(script));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.ui.pythonpathconf;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.string.FastStringBuffer;
+import org.python.pydev.shared_core.utils.Timer;
+
+public class InterpreterInfoSnapshotTest extends TestCase {
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: restore many interpreters from the XML and from the snapshot.
+            List<InterpreterInfo> infos = new ArrayList<InterpreterInfo>();
+            for (int i = 0; i < 20; i++) {
+                infos.add(createInfo(i, 300));
+            }
+            FastStringBuffer buf = new FastStringBuffer();
+            for (InterpreterInfo info : infos) {
+                buf.append(info.toString()).append("&&&&&");
+            }
+            String persisted = buf.toString();
+            byte[] bytes = InterpreterInfoSnapshot.toBytes(InterpreterInfoSnapshot.getKey(persisted), infos);
+
+            for (int j = 0; j < 3; j++) {
+                Timer timer = new Timer();
+                for (int k = 0; k < 10; k++) {
+                    for (String s : persisted.split("&&&&&")) {
+                        InterpreterInfo.fromString(s, false);
+                    }
+                }
+                timer.printDiff("From XML (10x)");
+
+                timer = new Timer();
+                for (int k = 0; k < 10; k++) {
+                    InterpreterInfoSnapshot.fromBytes(InterpreterInfoSnapshot.getKey(persisted), bytes);
+                }
+                timer.printDiff("From snapshot (10x, " + bytes.length + " bytes)");
+            }
+
+            junit.textui.TestRunner.run(InterpreterInfoSnapshotTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static InterpreterInfo createInfo(int id, int libs) {
+        List<String> libsList = new ArrayList<String>();
+        for (int i = 0; i < libs; i++) {
+            libsList.add("/usr/lib/python" + id + "/site-packages/lib" + i);
+        }
+        List<String> forced = new ArrayList<String>();
+        for (int i = 0; i < libs / 2; i++) {
+            forced.add("forced" + i);
+        }
+        List<String> envVars = new ArrayList<String>();
+        envVars.add("PATH=/usr/bin:/bin");
+        envVars.add("MY_VAR=\u00e7\u00e3o<&>");
+        Properties stringSubstitution = new Properties();
+        stringSubstitution.setProperty("key" + id, "value <&> " + id);
+
+        InterpreterInfo info = new InterpreterInfo("2.7", "/usr/bin/python" + id, libsList, new ArrayList<String>(),
+                forced, envVars, stringSubstitution);
+        info.setName("Interpreter " + id);
+        info.addPredefinedCompletionsPath("/predefined/" + id);
+        return info;
+    }
+
+    public void testRoundTrip() throws Exception {
+        List<InterpreterInfo> infos = new ArrayList<InterpreterInfo>();
+        infos.add(createInfo(0, 10));
+        infos.add(createInfo(1, 0));
+        //no name, no env vars and no string substitution
+        infos.add(new InterpreterInfo("3.3", "/usr/bin/python3", new ArrayList<String>()));
+
+        byte[] bytes = InterpreterInfoSnapshot.toBytes(10, infos);
+        List<InterpreterInfo> restored = InterpreterInfoSnapshot.fromBytes(10, bytes);
+        assertEquals(infos, restored);
+        for (int i = 0; i < infos.size(); i++) {
+            assertEquals(infos.get(i).toString(), restored.get(i).toString());
+            assertEquals(infos.get(i).getName(), restored.get(i).getName());
+            assertEquals(infos.get(i).getVersion(), restored.get(i).getVersion());
+        }
+        assertNull(restored.get(2).getEnvVariables());
+        assertEquals("/usr/bin/python3", restored.get(2).getName());
+    }
+
+    public void testCopy() throws Exception {
+        InterpreterInfo info = createInfo(0, 10);
+        info.setModificationStamp(5);
+        InterpreterInfo copy = info.makeCopy();
+        assertNotSame(info, copy);
+        assertEquals(info, copy);
+        assertEquals(info.toString(), copy.toString());
+        assertEquals(5, copy.getModificationStamp());
+    }
+
+    public void testInvalidSnapshots() throws Exception {
+        List<InterpreterInfo> infos = new ArrayList<InterpreterInfo>();
+        infos.add(createInfo(0, 10));
+        byte[] bytes = InterpreterInfoSnapshot.toBytes(10, infos);
+
+        //different key (i.e.: preferences changed)
+        assertNull(InterpreterInfoSnapshot.fromBytes(11, bytes));
+
+        //corrupted payload
+        byte[] corrupted = bytes.clone();
+        corrupted[corrupted.length / 2] ^= 1;
+        assertNull(InterpreterInfoSnapshot.fromBytes(10, corrupted));
+
+        //truncated
+        byte[] truncated = new byte[bytes.length - 3];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        assertNull(InterpreterInfoSnapshot.fromBytes(10, truncated));
+
+        //other format version
+        byte[] otherVersion = bytes.clone();
+        otherVersion[7] ^= 1;
+        assertNull(InterpreterInfoSnapshot.fromBytes(10, otherVersion));
+
+        assertNull(InterpreterInfoSnapshot.fromBytes(10, new byte[0]));
+    }
+
+    public void testSaveLoad() throws Exception {
+        File file = File.createTempFile("interpreters", ".snapshot");
+        try {
+            List<InterpreterInfo> infos = new ArrayList<InterpreterInfo>();
+            infos.add(createInfo(0, 10));
+            String persisted = infos.get(0).toString() + "&&&&&";
+            InterpreterInfoSnapshot.save(file, persisted, infos);
+
+            assertEquals(infos, InterpreterInfoSnapshot.load(file, persisted));
+            assertNull(InterpreterInfoSnapshot.load(file, persisted + " "));
+            assertNull(InterpreterInfoSnapshot.load(new File(file.getAbsolutePath() + ".missing"), persisted));
+        } finally {
+            FileUtils.deleteFile(file);
+        }
+    }
+}
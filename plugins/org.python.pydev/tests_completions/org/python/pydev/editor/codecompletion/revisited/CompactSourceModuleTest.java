@@ -0,0 +1,99 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.editor.codecompletion.revisited;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.text.Document;
+import org.python.pydev.core.IPythonNature;
+import org.python.pydev.core.IToken;
+import org.python.pydev.editor.codecompletion.revisited.modules.AbstractModule;
+import org.python.pydev.editor.codecompletion.revisited.modules.CompactSourceModule;
+import org.python.pydev.editor.codecompletion.revisited.modules.SourceModule;
+import org.python.pydev.parser.PyParser;
+import org.python.pydev.parser.jython.SimpleNode;
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.parsing.BaseParser.ParseOutput;
+
+public class CompactSourceModuleTest extends TestCase {
+
+    private File baseDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        baseDir = FileUtils.getTempFileAt(new File(System.getProperty("java.io.tmpdir")), "compact_source_module");
+        baseDir.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectoryTree(baseDir);
+        super.tearDown();
+    }
+
+    private SourceModule createModule(File file, String contents) {
+        FileUtils.writeStrToFile(contents, file);
+        ParseOutput obj = PyParser.reparseDocument(new PyParser.ParserInfo(new Document(contents),
+                IPythonNature.GRAMMAR_PYTHON_VERSION_2_7));
+        return (SourceModule) AbstractModule.createModule((SimpleNode) obj.ast, file, "mod");
+    }
+
+    private Set<String> getReps(IToken[] tokens) {
+        Set<String> reps = new HashSet<String>();
+        for (IToken token : tokens) {
+            reps.add(token.getRepresentation());
+        }
+        return reps;
+    }
+
+    public void testCreateModule() throws Exception {
+        File file = new File(baseDir, "mod.py");
+        SourceModule module = createModule(file, "" +
+                "import os\n" +
+                "class A(object):\n" +
+                "    def method(self):\n" +
+                "        pass\n" +
+                "a = A()\n");
+
+        CompactSourceModule compact = CompactSourceModule.create(module);
+        assertNotNull(compact);
+
+        SourceModule created = compact.createModule();
+        assertNotNull(created);
+        //A new module (with a new ast) is created: the original one is not changed.
+        assertNotSame(module, created);
+        assertNotSame(module.getAst(), created.getAst());
+        assertEquals(module.getAst().toString(), created.getAst().toString());
+        assertEquals(module.getName(), created.getName());
+        assertEquals(module.getFile(), created.getFile());
+        assertTrue(created.isSynched());
+        assertEquals(getReps(module.getGlobalTokens()), getReps(created.getGlobalTokens()));
+    }
+
+    public void testFileChanged() throws Exception {
+        File file = new File(baseDir, "mod.py");
+        SourceModule module = createModule(file, "a = 10\n");
+        CompactSourceModule compact = CompactSourceModule.create(module);
+        assertNotNull(compact);
+
+        file.setLastModified(file.lastModified() + 2000);
+        assertNull(compact.createModule());
+
+        //Not in sync with the file: not compacted.
+        assertNull(CompactSourceModule.create(module));
+    }
+}
@@ -0,0 +1,256 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.editor.codecompletion.revisited;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.python.pydev.core.ModulesKey;
+import org.python.pydev.core.ModulesKeyForZip;
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.utils.Timer;
+
+public class WorkspaceIndexSnapshotTest extends TestCase {
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: 50k modules (500 packages with 100 modules each): full scan vs. restoring/validating the
+            //snapshot.
+            File dir = FileUtils.getTempFileAt(new File(System.getProperty("java.io.tmpdir")), "snapshot");
+            dir.mkdirs();
+            try {
+                for (int i = 0; i < 500; i++) {
+                    File pack = new File(dir, "pack" + i);
+                    pack.mkdirs();
+                    FileUtils.writeStrToFile("", new File(pack, "__init__.py"));
+                    for (int j = 0; j < 100; j++) {
+                        FileUtils.writeStrToFile("", new File(pack, "mod" + j + ".py"));
+                    }
+                }
+                List<String> pythonpath = Arrays.asList(dir.getAbsolutePath());
+
+                for (int i = 0; i < 3; i++) {
+                    Timer timer = new Timer();
+                    PythonPathHelper helper = new PythonPathHelper();
+                    helper.setPythonPath(pythonpath);
+                    NullProgressMonitor monitor = new NullProgressMonitor();
+                    PyPublicTreeMap<ModulesKey, ModulesKey> keys = ModulesManager.buildKeysFromModulesFound(
+                            monitor, helper.getModulesFoundStructure(monitor));
+                    timer.printDiff("Full scan (" + keys.size() + " modules)");
+
+                    timer = new Timer();
+                    WorkspaceIndexSnapshot snapshot = new WorkspaceIndexSnapshot();
+                    snapshot.putEntry(WorkspaceIndexSnapshot.createEntry("id", pythonpath, keys.keySet()));
+                    byte[] bytes = snapshot.toBytes();
+                    timer.printDiff("Create snapshot (" + bytes.length + " bytes)");
+
+                    timer = new Timer();
+                    WorkspaceIndexSnapshot.Entry entry = WorkspaceIndexSnapshot.fromBytes(bytes).getEntry("id");
+                    assertTrue(entry.isUpToDate(pythonpath));
+                    timer.printDiff("Restore and validate snapshot (" + entry.keys.size() + " modules)");
+                }
+            } finally {
+                FileUtils.deleteDirectoryTree(dir);
+            }
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private File baseDir;
+
+    /**
+     * The pythonpath folder (the snapshot/index files are created outside of it, in the base dir).
+     */
+    private File root;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        baseDir = new File(FileUtils.getFileAbsolutePath(new File("WorkspaceIndexSnapshotTest.temporary_dir")));
+        try {
+            FileUtils.deleteDirectoryTree(baseDir);
+        } catch (Exception e) {
+            //ignore
+        }
+        root = new File(baseDir, "root");
+        root.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            FileUtils.deleteDirectoryTree(baseDir);
+        } catch (Exception e) {
+            //ignore
+        }
+        super.tearDown();
+    }
+
+    private List<ModulesKey> createKeys() {
+        File pack = new File(root, "pack");
+        pack.mkdirs();
+        File init = new File(pack, "__init__.py");
+        File mod = new File(pack, "mod.py");
+        FileUtils.writeStrToFile("", init);
+        FileUtils.writeStrToFile("", mod);
+        File zip = new File(root, "lib.egg");
+        FileUtils.writeStrToFile("not really a zip", zip);
+
+        List<ModulesKey> keys = new ArrayList<ModulesKey>();
+        keys.add(new ModulesKey("__builtin__", null));
+        keys.add(new ModulesKey("pack", init));
+        keys.add(new ModulesKey("pack.mod", mod));
+        keys.add(new ModulesKeyForZip("zipped", zip, "zipped.py", true));
+        return keys;
+    }
+
+    public void testRoundTrip() throws Exception {
+        List<String> pythonpath = Arrays.asList(root.getAbsolutePath());
+        List<ModulesKey> keys = createKeys();
+        WorkspaceIndexSnapshot snapshot = new WorkspaceIndexSnapshot();
+        snapshot.putEntry(WorkspaceIndexSnapshot.createEntry("id", pythonpath, keys));
+        File indexFile = new File(baseDir, "index");
+        FileUtils.writeStrToFile("index contents", indexFile);
+        snapshot.setIndexFiles("id", Arrays.asList(indexFile));
+
+        File file = new File(baseDir, "snapshot");
+        snapshot.save(file);
+        assertFalse(snapshot.isDirty());
+
+        WorkspaceIndexSnapshot.Entry entry = WorkspaceIndexSnapshot.load(file).getEntry("id");
+        assertEquals(pythonpath, entry.pythonpath);
+        assertEquals(4, entry.keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            ModulesKey expected = keys.get(i);
+            ModulesKey found = entry.keys.get(i);
+            assertEquals(expected.name, found.name);
+            assertEquals(expected.file, found.file);
+            assertEquals(expected.getClass(), found.getClass());
+        }
+        ModulesKeyForZip zipKey = (ModulesKeyForZip) entry.keys.get(3);
+        assertEquals("zipped.py", zipKey.zipModulePath);
+        assertTrue(zipKey.isFile);
+
+        assertTrue(entry.isUpToDate(pythonpath));
+        assertTrue(entry.isIndexUpToDate());
+        assertFalse(entry.isUpToDate(Arrays.asList(root.getAbsolutePath(), "other")));
+    }
+
+    public void testCorrupted() throws Exception {
+        WorkspaceIndexSnapshot snapshot = new WorkspaceIndexSnapshot();
+        snapshot.putEntry(WorkspaceIndexSnapshot.createEntry("id", Arrays.asList(root.getAbsolutePath()),
+                createKeys()));
+        byte[] bytes = snapshot.toBytes();
+        assertNotNull(WorkspaceIndexSnapshot.fromBytes(bytes));
+
+        bytes[bytes.length / 2]++;
+        assertNull(WorkspaceIndexSnapshot.fromBytes(bytes));
+        assertNull(WorkspaceIndexSnapshot.fromBytes(Arrays.copyOf(bytes, 10)));
+        assertNull(WorkspaceIndexSnapshot.load(new File(baseDir, "does_not_exist")));
+    }
+
+    public void testStampsChanged() throws Exception {
+        List<String> pythonpath = Arrays.asList(root.getAbsolutePath());
+        WorkspaceIndexSnapshot.Entry entry = WorkspaceIndexSnapshot.createEntry("id", pythonpath, createKeys());
+        assertTrue(entry.isUpToDate(pythonpath));
+        assertFalse(entry.isIndexUpToDate()); //no index files registered
+
+        //A new module in the package changes the package folder.
+        File pack = new File(root, "pack");
+        File newMod = new File(pack, "new_mod.py");
+        FileUtils.writeStrToFile("", newMod);
+        pack.setLastModified(pack.lastModified() + 2000);
+        assertFalse(entry.isUpToDate(pythonpath));
+
+        //A folder which becomes a package (direct subfolder of a folder with modules).
+        File sub = new File(pack, "sub");
+        sub.mkdirs();
+        entry = WorkspaceIndexSnapshot.createEntry("id", pythonpath, createKeys());
+        assertTrue(entry.isUpToDate(pythonpath));
+        FileUtils.writeStrToFile("", new File(sub, "__init__.py"));
+        sub.setLastModified(sub.lastModified() + 2000);
+        assertFalse(entry.isUpToDate(pythonpath));
+    }
+
+    public void testCompiledFilesIgnored() throws Exception {
+        List<String> pythonpath = Arrays.asList(root.getAbsolutePath());
+        WorkspaceIndexSnapshot.Entry entry = WorkspaceIndexSnapshot.createEntry("id", pythonpath, createKeys());
+
+        //Compiling the modules changes the folders (but not the modules available).
+        File pack = new File(root, "pack");
+        FileUtils.writeStrToFile("", new File(pack, "mod.pyc"));
+        FileUtils.writeStrToFile("", new File(pack, "mod$py.class"));
+        File pycache = new File(pack, "__pycache__");
+        pycache.mkdirs();
+        FileUtils.writeStrToFile("", new File(pycache, "mod.cpython-33.pyc"));
+        pack.setLastModified(pack.lastModified() + 2000);
+        pycache.setLastModified(pycache.lastModified() + 2000);
+        assertTrue(entry.isUpToDate(pythonpath));
+
+        //__pycache__ folders are not stamped.
+        entry = WorkspaceIndexSnapshot.createEntry("id", pythonpath, createKeys());
+        for (WorkspaceIndexSnapshot.FileStamp stamp : entry.stamps) {
+            assertFalse(stamp.path, stamp.path.endsWith("__pycache__"));
+        }
+
+        //But a new module is still noticed.
+        FileUtils.writeStrToFile("", new File(pack, "mod2.py"));
+        pack.setLastModified(pack.lastModified() + 2000);
+        assertFalse(entry.isUpToDate(pythonpath));
+    }
+
+    public void testRemoveEntry() throws Exception {
+        WorkspaceIndexSnapshot snapshot = new WorkspaceIndexSnapshot();
+        List<String> pythonpath = Arrays.asList(root.getAbsolutePath());
+        String id1 = WorkspaceIndexSnapshot.getSystemId(0, "/usr/bin/python");
+        String id2 = WorkspaceIndexSnapshot.getSystemId(0, "/usr/bin/python3");
+        snapshot.putEntry(WorkspaceIndexSnapshot.createEntry(id1, pythonpath, createKeys()));
+        snapshot.putEntry(WorkspaceIndexSnapshot.createEntry(id2, pythonpath, createKeys()));
+        assertEquals(2, snapshot.getEntryIds().size());
+
+        snapshot.removeEntry(id1);
+        assertEquals(Arrays.asList(id2), snapshot.getEntryIds());
+        assertNull(WorkspaceIndexSnapshot.fromBytes(snapshot.toBytes()).getEntry(id1));
+        assertNotNull(WorkspaceIndexSnapshot.fromBytes(snapshot.toBytes()).getEntry(id2));
+    }
+
+    public void testIndexStampsKeptForSameKeys() throws Exception {
+        List<String> pythonpath = Arrays.asList(root.getAbsolutePath());
+        WorkspaceIndexSnapshot snapshot = new WorkspaceIndexSnapshot();
+        snapshot.putEntry(WorkspaceIndexSnapshot.createEntry("id", pythonpath, createKeys()));
+        File indexFile = new File(baseDir, "index");
+        FileUtils.writeStrToFile("index contents", indexFile);
+        snapshot.setIndexFiles("id", Arrays.asList(indexFile));
+        assertTrue(snapshot.getEntry("id").isIndexUpToDate());
+
+        //Same keys: the index is still in sync.
+        snapshot.putEntry(WorkspaceIndexSnapshot.createEntry("id", pythonpath, createKeys()));
+        assertTrue(snapshot.getEntry("id").isIndexUpToDate());
+
+        //Different keys: the index must be checked again.
+        List<ModulesKey> keys = createKeys();
+        keys.remove(2);
+        snapshot.putEntry(WorkspaceIndexSnapshot.createEntry("id", pythonpath, keys));
+        assertFalse(snapshot.getEntry("id").isIndexUpToDate());
+
+        //Index file changed after being marked as in sync.
+        snapshot.setIndexFiles("id", Arrays.asList(indexFile));
+        FileUtils.writeStrToFile("changed index contents", indexFile);
+        assertFalse(snapshot.getEntry("id").isIndexUpToDate());
+    }
+}
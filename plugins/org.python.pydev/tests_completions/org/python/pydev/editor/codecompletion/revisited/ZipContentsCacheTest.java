@@ -0,0 +1,174 @@
+/******************************************************************************
+* Copyright (C) 2026  agent
+*
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+*     agent <agent@local> - initial API and implementation
+******************************************************************************/
+package org.python.pydev.editor.codecompletion.revisited;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.python.pydev.editor.codecompletion.revisited.ModulesFoundStructure.ZipContents;
+import org.python.pydev.shared_core.io.FileUtils;
+import org.python.pydev.shared_core.utils.Timer;
+
+public class ZipContentsCacheTest extends TestCase {
+
+    public static void main(String[] args) {
+        try {
+            //Benchmark: a synthetic site-packages with many eggs.
+            File dir = FileUtils.getTempFileAt(new File(System.getProperty("java.io.tmpdir")), "eggs");
+            dir.mkdirs();
+            try {
+                List<String> pythonpath = new ArrayList<String>();
+                for (int i = 0; i < 300; i++) {
+                    File egg = new File(dir, "lib" + i + ".egg");
+                    List<String> entries = new ArrayList<String>();
+                    entries.add("pkg" + i + "/__init__.py");
+                    for (int j = 0; j < 200; j++) {
+                        entries.add("pkg" + i + "/mod" + j + ".py");
+                        entries.add("pkg" + i + "/data/file" + j + ".txt");
+                    }
+                    createZip(egg, entries);
+                    pythonpath.add(egg.getAbsolutePath());
+                }
+                PythonPathHelper helper = new PythonPathHelper();
+                helper.setPythonPath(pythonpath);
+
+                for (int i = 0; i < 3; i++) {
+                    ZipContentsCache.clear();
+                    Timer timer = new Timer();
+                    for (String s : pythonpath) {
+                        PythonPathHelper.getFromZip(new File(s), new NullProgressMonitor());
+                    }
+                    timer.printDiff("Sequential scan (no cache)");
+
+                    ZipContentsCache.clear();
+                    timer = new Timer();
+                    helper.getModulesFoundStructure(null);
+                    timer.printDiff("Parallel scan (no cache)");
+
+                    timer = new Timer();
+                    helper.getModulesFoundStructure(null);
+                    timer.printDiff("Cached");
+                }
+            } finally {
+                FileUtils.deleteDirectoryTree(dir);
+            }
+
+            junit.textui.TestRunner.run(ZipContentsCacheTest.class);
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private File baseDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ZipContentsCache.clear();
+        baseDir = FileUtils.getTempFileAt(new File(System.getProperty("java.io.tmpdir")), "zip_contents_cache");
+        baseDir.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ZipContentsCache.clear();
+        FileUtils.deleteDirectoryTree(baseDir);
+        super.tearDown();
+    }
+
+    private static void createZip(File file, List<String> entries) throws IOException {
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+        try {
+            for (String entry : entries) {
+                out.putNextEntry(new ZipEntry(entry));
+                out.write("a = 10\n".getBytes());
+                out.closeEntry();
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private static List<String> list(String... s) {
+        List<String> ret = new ArrayList<String>();
+        for (String string : s) {
+            ret.add(string);
+        }
+        return ret;
+    }
+
+    public void testCache() throws Exception {
+        File zip = new File(baseDir, "lib.egg");
+        createZip(zip, list("pkg/__init__.py", "pkg/mod.py", "nopkg/mod2.py"));
+
+        ZipContents zipContents = PythonPathHelper.getFromZip(zip, new NullProgressMonitor());
+        assertEquals(new HashSet<String>(list("pkg/__init__.py", "pkg/mod.py")), zipContents.foundFileZipPaths);
+        assertEquals(ZipContents.ZIP_CONTENTS_TYPE_PY_ZIP, zipContents.zipContentsType);
+
+        ZipContents cached = PythonPathHelper.getFromZip(zip, new NullProgressMonitor());
+        assertNotSame(zipContents, cached);
+        assertEquals(zipContents.foundFileZipPaths, cached.foundFileZipPaths);
+        assertEquals(zipContents.foundFolderZipPaths, cached.foundFolderZipPaths);
+        assertEquals(zip, cached.zipFile);
+        assertSame(cached.foundFileZipPaths,
+                PythonPathHelper.getFromZip(zip, new NullProgressMonitor()).foundFileZipPaths);
+        try {
+            cached.foundFileZipPaths.add("other.py");
+            fail("Cached contents must not be changed.");
+        } catch (UnsupportedOperationException e) {
+            //expected
+        }
+    }
+
+    public void testCacheInvalidatedOnChange() throws Exception {
+        File zip = new File(baseDir, "lib.jar");
+        createZip(zip, list("pkg/__init__.py"));
+        long lastModified = zip.lastModified();
+        assertEquals(1, PythonPathHelper.getFromZip(zip, new NullProgressMonitor()).foundFileZipPaths.size());
+
+        createZip(zip, list("pkg/__init__.py", "pkg/Foo.class"));
+        zip.setLastModified(lastModified + 2000);
+        ZipContents zipContents = PythonPathHelper.getFromZip(zip, new NullProgressMonitor());
+        assertEquals(2, zipContents.foundFileZipPaths.size());
+        assertEquals(ZipContents.ZIP_CONTENTS_TYPE_JAR, zipContents.zipContentsType);
+    }
+
+    public void testModulesFoundStructureKeepsOrder() throws Exception {
+        List<String> pythonpath = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            File zip = new File(baseDir, "lib" + i + ".zip");
+            createZip(zip, list("mod" + i + ".py"));
+            pythonpath.add(zip.getAbsolutePath());
+        }
+        PythonPathHelper helper = new PythonPathHelper();
+        helper.setPythonPath(pythonpath);
+
+        for (int j = 0; j < 2; j++) { //not cached / cached
+            ModulesFoundStructure modulesFound = helper.getModulesFoundStructure(null);
+            assertEquals(20, modulesFound.zipContents.size());
+            for (int i = 0; i < 20; i++) {
+                ZipContents zipContents = modulesFound.zipContents.get(i);
+                assertEquals(new File(pythonpath.get(i)), zipContents.zipFile);
+                assertEquals(new HashSet<String>(list("mod" + i + ".py")), zipContents.foundFileZipPaths);
+            }
+        }
+    }
+}